@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryReader;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryWriter;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.CertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeRegistry;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessIdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceMetadataImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares encoding and decoding a signed service meta-data document with 10 process groups and 30 endpoints using
+ * the binary codec with the default Java serialized form written by the <code>ObjectOutputStream</code>.
+ * <p>As the implementation classes are serialized through their compact serialization proxy, which uses the binary
+ * codec, the Java serialization benchmarks use a copy of the document built from sub classes of the implementation
+ * classes. These are not replaced by the proxy and therefore use the default serialized form.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryCodecBenchmark {
+
+	private static final String CERTIFICATE =
+		"MIICvDCCAaSgAwIBAgIJAL9qQVlPkZPxMA0GCSqGSIb3DQEBCwUAMAwxCjAIBgNVBAMTAWEwHhcNMjYxMDE2MjI0OTMwWhcNMjYx"
+		+ "MDI2MjI0OTMwWjAMMQowCAYDVQQDEwFhMIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA2ZqgpECOvYMD/GIbPHUq+myA"
+		+ "shN2+4h3pc72yT+vyGMDACqzYJ0nzk0QyEBSzB84Ek4U+pgQ8P/5FPIiXEKMV4ZHUcbL0hgBKVqguQa+09cgw+X3p/XIIz39HCE8"
+		+ "EAFNEnjn2EsPpqJ4Fcv5BkKWLYny6f594TRmN2kn0qxoorFx/vI3xhU8fa6Q2N8XpuYhJKixhEZN/HSYc/qP5xlNnfXy0wUaFHfN"
+		+ "XK5eq52lMIcdpw4pSQliAdO5u6LbK1V1fYP8F2dAm03Nyv3ZJBxoxMLgCUueEXguHj7x4RUADSDtYVKt9kytgMdnl397L/p3UypM"
+		+ "ZHHyL6Z3xCJ5cyBRVwIDAQABoyEwHzAdBgNVHQ4EFgQUeqbNDamda/GXu3onMoDl/CWFVvIwDQYJKoZIhvcNAQELBQADggEBABLY"
+		+ "f4MvJmR4QYmohtJQT0IdPX8oZlOqedbEyhBXxGmYiRtZvs4W6jptKNT3TwaGaKJDtIgW36m7Yg44I3cAXA4/ZaE5DsbKyjmUSY/8"
+		+ "g55Acl54L1ySr798+NRbFAVfTuOc7OaxZuo4mew1wdkjMOot+PUanJTQ8mCiOh3sAI/CV0wsGHLZmiAu6+AJtdhqmbJqp6w8weme"
+		+ "TRTmXwVuHfHrXL22PO9Y3/2jFUT1uRcJiXMeIkaF3aZF8xFErlK7udxMM2s+VdO2pZXTFBBQ0RNWdanWSk1yM0ouT4Lvb2zbpN72"
+		+ "CwpMf9gXj7dMEi+jV/vIhpoejM2v2EPDaqf4XhE=";
+
+	private final BinaryReader	reader = new BinaryReader();
+
+	private ServiceMetadata	smd;
+	private byte[]			encoded;
+	private ServiceMetadata	defaultFormSmd;
+	private byte[]			serialized;
+
+	@Setup
+	public void setup() throws Exception {
+		final X509Certificate cert = (X509Certificate) CertificateFactory.getInstance("X.509")
+						.generateCertificate(new ByteArrayInputStream(Base64.getDecoder().decode(CERTIFICATE)));
+		smd = build(cert, false);
+		encoded = BinaryWriter.encode(smd);
+		defaultFormSmd = build(cert, true);
+		serialized = serialize(defaultFormSmd);
+		if (!smd.equals(reader.decode(encoded)) || !smd.equals(deserialize(serialized)))
+			throw new IllegalStateException("Decoded document differs from original");
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return BinaryWriter.encode(smd);
+	}
+
+	@Benchmark
+	public Object decode() throws IOException {
+		return reader.decode(encoded);
+	}
+
+	@Benchmark
+	public byte[] javaSerialize() throws IOException {
+		return serialize(defaultFormSmd);
+	}
+
+	@Benchmark
+	public Object javaDeserialize() throws IOException, ClassNotFoundException {
+		return deserialize(serialized);
+	}
+
+	private static byte[] serialize(final Object o) throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+			oos.writeObject(o);
+		}
+		return bos.toByteArray();
+	}
+
+	private static Object deserialize(final byte[] data) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+			return ois.readObject();
+		}
+	}
+
+	/**
+	 * Builds the service meta-data document.
+	 *
+	 * @param cert			the certificate to include in the document
+	 * @param defaultForm	indicates whether the objects should use the default serialized form
+	 * @return	the service meta-data
+	 */
+	private static ServiceMetadata build(final X509Certificate cert, final boolean defaultForm) throws Exception {
+		final ZonedDateTime activation = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("Europe/Amsterdam"));
+		final Set<ProcessGroup> groups = new HashSet<>();
+		for (int g = 0; g < 10; g++) {
+			final Set<ProcessInfo> processes = new HashSet<>();
+			for (int p = 0; p < 3; p++) {
+				final Set<Identifier> roles = new HashSet<>();
+				roles.add(identifier("role" + p, IDSchemeRegistry.get("bdx-role"), defaultForm));
+				roles.add(identifier("Buyer" + p, null, defaultForm));
+				final ProcessIdentifier procId = processId("urn:fdc:peppol.eu:2017:poacc:billing:01:1." + p + "-" + g,
+														   IDSchemeRegistry.get(IDSchemeRegistry.PEPPOL_PROCID),
+														   defaultForm);
+				processes.add(defaultForm ? new DefaultFormProcessInfo(procId, roles)
+										  : new ProcessInfoImpl(procId, roles, null));
+			}
+			final Set<EndpointInfo> endpoints = new HashSet<>();
+			for (int e = 0; e < 3; e++) {
+				final Set<Certificate> certs = new HashSet<>();
+				certs.add(defaultForm ? new DefaultFormCertificate(cert, activation)
+									  : new CertificateImpl(cert, "signing", activation, null, null, null));
+				final URL url = new URL("https://ap" + g + ".example.com:8443/as4/" + e);
+				endpoints.add(defaultForm ? new DefaultFormEndpoint(url, "Endpoint " + e, activation, certs)
+										  : new EndpointInfoImpl("peppol-transport-as4-v2_0", url, activation, null,
+												  				 "Endpoint " + e, "contact@example.com", certs, null));
+			}
+			groups.add(defaultForm ? new DefaultFormProcessGroup(processes, endpoints)
+								   : new ProcessGroupImpl(processes, endpoints, null));
+		}
+		final Identifier participant = identifier("0088:123456789",
+											IDSchemeRegistry.get(IDSchemeRegistry.PARTICIPANT_ISO6523), defaultForm);
+		final Identifier docId = identifier("urn:oasis:names:specification:ubl:schema:xsd:Invoice-2::Invoice"
+											+ "##urn:cen.eu:en16931:2017::2.1",
+											IDSchemeRegistry.get(IDSchemeRegistry.PEPPOL_DOCID_QNS), defaultForm);
+		return defaultForm ? new DefaultFormServiceMetadata(participant, docId, groups, cert)
+						   : new SignedServiceMetadataImpl(participant, docId, groups, cert, null);
+	}
+
+	private static Identifier identifier(final String value, final IDScheme scheme, final boolean defaultForm) {
+		return defaultForm ? new DefaultFormIdentifier(value, scheme) : new IdentifierImpl(value, scheme);
+	}
+
+	private static ProcessIdentifier processId(final String value, final IDScheme scheme, final boolean defaultForm) {
+		return defaultForm ? new DefaultFormProcessIdentifier(value, scheme) : new ProcessIdentifierImpl(value, scheme);
+	}
+
+	/*
+	 * The sub classes of the implementation classes that use the default serialized form
+	 */
+	static final class DefaultFormScheme extends IDSchemeImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormScheme(final IDScheme src) {
+			super(src);
+		}
+	}
+
+	static final class DefaultFormIdentifier extends IdentifierImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormIdentifier(final String value, final IDScheme scheme) {
+			super(value, scheme);
+			this.scheme = scheme != null ? new DefaultFormScheme(scheme) : null;
+		}
+	}
+
+	static final class DefaultFormProcessIdentifier extends ProcessIdentifierImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormProcessIdentifier(final String value, final IDScheme scheme) {
+			super(value, scheme);
+			this.scheme = scheme != null ? new DefaultFormScheme(scheme) : null;
+		}
+	}
+
+	static final class DefaultFormProcessInfo extends ProcessInfoImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormProcessInfo(final ProcessIdentifier procId, final Set<Identifier> roles) {
+			super(procId, roles, null);
+		}
+	}
+
+	static final class DefaultFormCertificate extends CertificateImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormCertificate(final X509Certificate cert, final ZonedDateTime activation) {
+			super(cert, "signing", activation, null, null, null);
+		}
+	}
+
+	static final class DefaultFormEndpoint extends EndpointInfoImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormEndpoint(final URL url, final String description, final ZonedDateTime activation,
+							final Set<Certificate> certs) {
+			super("peppol-transport-as4-v2_0", url, activation, null, description, "contact@example.com", certs, null);
+		}
+	}
+
+	static final class DefaultFormProcessGroup extends ProcessGroupImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormProcessGroup(final Set<ProcessInfo> processes, final Set<EndpointInfo> endpoints) {
+			super(processes, endpoints, null);
+		}
+	}
+
+	static final class DefaultFormServiceMetadata extends SignedServiceMetadataImpl {
+		private static final long serialVersionUID = 1L;
+
+		DefaultFormServiceMetadata(final Identifier participant, final Identifier docId,
+								   final Set<ProcessGroup> groups, final X509Certificate cert) {
+			super(participant, docId, groups, cert, (List<Extension>) null);
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.benchmark;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeRegistry;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessIdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceMetadataImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.util.EndpointResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares resolving the endpoints for a process, role and transport profile using the {@link EndpointResolver} with
+ * the traversal of the service meta-data that was needed before. Also measures the time needed to compile the service
+ * meta-data into a resolver.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndpointResolverBenchmark {
+
+	private static final String[] PROFILES = { "peppol-transport-as4-v2_0", "bdxr-transport-ebms3-as4-v1p0",
+												"busdox-transport-as2-ver1p0" };
+
+	/**
+	 * The number of process groups in the service meta-data, each with 4 processes and 3 endpoints
+	 */
+	@Param({ "5", "50" })
+	public int	groups;
+
+	private ServiceMetadata			smd;
+	private EndpointResolver		resolver;
+	private ProcessIdentifierImpl	processId;
+	private IdentifierImpl			role;
+	private ImmutableProcessIdentifier	immutableProcessId;
+	private ImmutableIdentifier		immutableRole;
+
+	@Setup
+	public void setup() throws MalformedURLException {
+		final IDScheme scheme = IDSchemeRegistry.get(IDSchemeRegistry.PEPPOL_PROCID);
+		final Set<ProcessGroup> pgs = new LinkedHashSet<>();
+		for (int g = 0; g < groups; g++) {
+			final Set<ProcessInfo> processes = new HashSet<>();
+			for (int p = 0; p < 4; p++)
+				processes.add(new ProcessInfoImpl(new ProcessIdentifierImpl(processValue(g, p), scheme),
+								new HashSet<>(Arrays.asList(new IdentifierImpl("Buyer"), new IdentifierImpl("Seller"))),
+								null));
+			final Set<EndpointInfo> endpoints = new HashSet<>();
+			for (int e = 0; e < PROFILES.length; e++)
+				endpoints.add(new EndpointInfoImpl(PROFILES[e], new URL("https://ap" + g + ".example.com/" + e)));
+			pgs.add(new ProcessGroupImpl(processes, endpoints, null));
+		}
+		smd = new ServiceMetadataImpl(new IdentifierImpl("0088:5798000000001", IDSchemeRegistry.PARTICIPANT_ISO6523),
+									  new IdentifierImpl("urn:oasis:names:specification:ubl:schema:xsd:Invoice-2::Invoice",
+											  			 IDSchemeRegistry.PEPPOL_DOCID_QNS),
+									  pgs, null);
+		resolver = new EndpointResolver(smd);
+		// Look up a process of the last group
+		processId = new ProcessIdentifierImpl(processValue(groups - 1, 2), scheme);
+		role = new IdentifierImpl("Seller");
+		immutableProcessId = ImmutableProcessIdentifier.of(processId);
+		immutableRole = new ImmutableIdentifier(role);
+	}
+
+	private static String processValue(final int group, final int process) {
+		return "urn:fdc:peppol.eu:2017:poacc:billing:" + group + "-" + process + ":1.0";
+	}
+
+	@Benchmark
+	public List<EndpointInfo> traversal() {
+		return traverse(smd, processId, role, PROFILES[0]);
+	}
+
+	@Benchmark
+	public List<EndpointInfo> resolver() {
+		return resolver.resolve(processId, role, PROFILES[0]);
+	}
+
+	@Benchmark
+	public List<EndpointInfo> resolverImmutableIds() {
+		return resolver.resolve(immutableProcessId, immutableRole, PROFILES[0]);
+	}
+
+	@Benchmark
+	public EndpointResolver compile() {
+		return new EndpointResolver(smd);
+	}
+
+	/**
+	 * Finds the endpoints by walking the process groups, their processes and roles and the endpoints.
+	 */
+	private static List<EndpointInfo> traverse(final ServiceMetadata smd, final Identifier processId,
+											   final Identifier role, final String profile) {
+		final List<EndpointInfo> result = new ArrayList<>();
+		for (ProcessGroup g : smd.getProcessMetadata()) {
+			final Collection<? extends ProcessInfo> processes = g.getProcessInfo();
+			boolean applies = processes == null || processes.isEmpty();
+			if (!applies)
+				for (ProcessInfo pi : processes) {
+					final Collection<? extends Identifier> roles = pi.getRoles();
+					if (processId.equals(pi.getProcessId())
+						&& (role == null || roles == null || roles.isEmpty() || roles.contains(role))) {
+						applies = true;
+						break;
+					}
+				}
+			if (applies && g.getEndpoints() != null)
+				for (EndpointInfo ep : g.getEndpoints())
+					if (profile.equals(ep.getTransportProfile()))
+						result.add(ep);
+		}
+		return result;
+	}
+}
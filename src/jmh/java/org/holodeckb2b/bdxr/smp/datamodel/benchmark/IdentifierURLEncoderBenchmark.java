@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.benchmark;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeRegistry;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierURLEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link IdentifierURLEncoder} with the way the URL encoded form of an identifier was created before,
+ * i.e. using <code>URLEncoder.encode(id.toString(), "UTF-8")</code>.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentifierURLEncoderBenchmark {
+
+	/**
+	 * The kind of identifier to encode: a participant identifier or a long document identifier that contains many
+	 * characters that must be percent encoded
+	 */
+	@Param({ "participant", "document" })
+	public String	kind;
+
+	private Identifier		id;
+	private StringBuilder	sb;
+	private ByteBuffer		buffer;
+
+	@Setup
+	public void setup() {
+		id = "participant".equals(kind) ?
+				new IdentifierImpl("0088:5798000000001", IDSchemeRegistry.PARTICIPANT_ISO6523)
+			  : new IdentifierImpl("urn:oasis:names:specification:ubl:schema:xsd:Invoice-2::Invoice##urn:cen.eu:en16931:"
+			  						+ "2017#compliant#urn:fdc:peppol.eu:2017:poacc:billing:3.0::2.1",
+			  						IDSchemeRegistry.PEPPOL_DOCID_QNS);
+		sb = new StringBuilder(256);
+		buffer = ByteBuffer.allocate(512);
+	}
+
+	@Benchmark
+	public String urlEncoder() throws UnsupportedEncodingException {
+		return URLEncoder.encode(id.toString(), "UTF-8");
+	}
+
+	@Benchmark
+	public String encodeToString() {
+		return IdentifierURLEncoder.encode(id);
+	}
+
+	@Benchmark
+	public StringBuilder encodeIntoStringBuilder() {
+		sb.setLength(0);
+		return IdentifierURLEncoder.encode(id, sb);
+	}
+
+	@Benchmark
+	public ByteBuffer encodeIntoByteBuffer() {
+		buffer.clear();
+		return IdentifierURLEncoder.encode(id, buffer);
+	}
+}
@@ -16,6 +16,9 @@
  */
 package org.holodeckb2b.bdxr.smp.datamodel;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.time.ZonedDateTime;
 
@@ -71,11 +74,31 @@ public interface Certificate extends ExtensibleMetadata {
 	 */
 	String getDescription();
 
+	/**
+	 * Gets the SHA-256 fingerprint of the X509 certificate, i.e. the SHA-256 digest of its DER encoded form. As two
+	 * certificates are equal when their encoded forms are equal, the fingerprint can be used to compare and hash the
+	 * certificates without encoding them again.
+	 * <p>The default implementation calculates the fingerprint on each call. Implementations should cache the value.
+	 *
+	 * @return	the SHA-256 fingerprint of the certificate, or <code>null</code> if there is no X509 certificate
+	 * @throws IllegalStateException when the certificate cannot be encoded
+	 */
+	default byte[] getFingerprint() {
+		final X509Certificate cert = getX509Cert();
+		if (cert == null)
+			return null;
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(cert.getEncoded());
+		} catch (CertificateEncodingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Could not calculate certificate fingerprint", e);
+		}
+	}
+
 	/**
 	 * Determines if the given object represents the same Certificate meta-data.
 	 * <p>NOTE: The activation and expiration time stamps should be compared as instants on the time line to prevent
 	 * issues with the time zone indicator which could be different on two {@link ZonedDateTime} objects that represent
-	 * the same time stamp.
+	 * the same time stamp. The X509 certificates can be compared using their {@link #getFingerprint() fingerprints}.
 	 *
 	 * @param o		the object the compare
 	 * @return		<code>true</code> iff <code>o</code> is an instance of <code>Certificate</code> and represent the
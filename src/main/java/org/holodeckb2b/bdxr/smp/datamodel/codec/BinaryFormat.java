@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.codec;
+
+/**
+ * Defines the constants of the binary format shared by the {@link BinaryWriter} and {@link BinaryReader}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class BinaryFormat {
+
+	private BinaryFormat() {}
+
+	/**
+	 * Magic number at the start of the encoded data, "SMPB"
+	 */
+	static final int MAGIC = 0x534D5042;
+	/**
+	 * The current version of the format
+	 */
+	static final int VERSION = 2;
+
+	/*
+	 * The type tags
+	 */
+	static final int NULL = 0;
+	static final int ID_SCHEME = 1;
+	static final int IDENTIFIER = 2;
+	static final int CERTIFICATE = 3;
+	static final int ENDPOINT = 4;
+	static final int ENDPOINT_V1 = 5;
+	static final int PROCESS_INFO = 6;
+	static final int REDIRECTION_V1 = 7;
+	static final int REDIRECTION_V2 = 8;
+	static final int PROCESS_GROUP = 9;
+	static final int SERVICE_REFERENCE = 10;
+	static final int SERVICE_GROUP_V1 = 11;
+	static final int SERVICE_GROUP_V2 = 12;
+	static final int SIGNED_SERVICE_GROUP_V2 = 13;
+	static final int SERVICE_METADATA = 14;
+	static final int SIGNED_SERVICE_METADATA = 15;
+
+	/*
+	 * The flags used for identifiers, a zero flag byte indicates a null identifier
+	 */
+	static final int ID_PRESENT = 0x01;
+	static final int ID_PROCESS = 0x02;
+	static final int ID_NO_PROCESS = 0x04;
+	static final int ID_SCHEME_PRESENT = 0x08;
+	static final int ID_CASE_SENSITIVE = 0x10;
+
+	/*
+	 * Encoding of the extensions, EXT_SERIALIZED is followed by the number of extensions and the Java serialized form of
+	 * each extension, where an empty serialized form represents a null entry
+	 */
+	static final int EXT_NULL = 0;
+	static final int EXT_EMPTY = 1;
+	static final int EXT_SERIALIZED = 2;
+
+	/*
+	 * References to strings in the dictionary and to certificates, a value of REF_NEW is followed by the new string or
+	 * certificate, values from REF_OFFSET on refer to the entry at position <code>value - REF_OFFSET</code>
+	 */
+	static final int REF_NULL = 0;
+	static final int REF_NEW = 1;
+	static final int REF_OFFSET = 2;
+}
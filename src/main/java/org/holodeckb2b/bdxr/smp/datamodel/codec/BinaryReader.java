@@ -0,0 +1,666 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.codec;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryFormat.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensionFilter;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierPool;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessIdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.RedirectionV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.RedirectionV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SerializedExtension;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceMetadataImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceReferenceImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceMetadataImpl;
+
+/**
+ * Decodes objects of the SMP data model from the binary format written by the {@link BinaryWriter}. The objects are
+ * decoded into the implementation classes of the <code>impl</code> package. The meta-data of certificates is decoded
+ * into {@link EncodedCertificateImpl}s, so the X509 certificates are only parsed when they are used. Certificates that
+ * occur multiple times in the encoded data share the same encoded form and, once parsed, X509 certificate.
+ * <p>The sets of the decoded objects only add their elements to a hash set when they are first used, so decoding does
+ * not need to calculate the hash codes of the nested objects.
+ * <p>When the reader is created with an {@link IdentifierPool} the identifiers are decoded into the canonical
+ * instances from the pool, otherwise new {@link IdentifierImpl} and {@link ProcessIdentifierImpl} instances are
+ * created.
+ * <p>As deserializing untrusted data may execute arbitrary code, extensions are only deserialized when allowed by the
+ * {@link ExtensionFilter} of the reader. Other extensions are decoded as {@link SerializedExtension}s, which keep their
+ * serialized form so they can be encoded again without loss.
+ * <p>Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ * @see BinaryWriter
+ */
+public class BinaryReader {
+
+	private final IdentifierPool	pool;
+	private final ExtensionFilter	extensionFilter;
+
+	/**
+	 * Creates a new reader that decodes the identifiers into new identifier instances.
+	 */
+	public BinaryReader() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new reader that decodes the identifiers into the canonical instances from the given pool.
+	 *
+	 * @param pool	the pool to get the identifiers from, may be <code>null</code> to create new identifier instances
+	 */
+	public BinaryReader(final IdentifierPool pool) {
+		this(pool, null);
+	}
+
+	/**
+	 * Creates a new reader that decodes the identifiers into the canonical instances from the given pool and only
+	 * deserializes the extensions allowed by the given filter.
+	 *
+	 * @param pool		the pool to get the identifiers from, may be <code>null</code> to create new identifier
+	 * 					instances
+	 * @param filter	the filter that determines which extensions are deserialized, may be <code>null</code> to use
+	 * 					the {@link ExtensionFilter#getDefault() default filter}
+	 */
+	public BinaryReader(final IdentifierPool pool, final ExtensionFilter filter) {
+		this.pool = pool;
+		this.extensionFilter = filter;
+	}
+
+	/**
+	 * Decodes the object from the given data.
+	 *
+	 * @param data	the encoded object
+	 * @return	the decoded object, may be <code>null</code> if a <code>null</code> object was encoded
+	 * @throws IOException	when the data is not a valid encoded object
+	 */
+	public Object decode(final byte[] data) throws IOException {
+		return decode(data, 0, data.length);
+	}
+
+	/**
+	 * Decodes the object from the given range of the data.
+	 *
+	 * @param data		the buffer containing the encoded object
+	 * @param offset	the offset of the encoded object in the buffer
+	 * @param length	the length of the encoded object
+	 * @return	the decoded object, may be <code>null</code> if a <code>null</code> object was encoded
+	 * @throws IOException	when the data is not a valid encoded object
+	 */
+	public Object decode(final byte[] data, final int offset, final int length) throws IOException {
+		if (offset < 0 || length < 0 || offset + length > data.length)
+			throw new IllegalArgumentException("Invalid range");
+		final Input in = new Input(data, offset, offset + length);
+		in.readHeader();
+		final Object o = in.readObject();
+		if (in.pos != in.end)
+			throw new IOException("Unexpected data after encoded object");
+		return o;
+	}
+
+	/**
+	 * Decodes the object from the given data and checks that it is of the expected type.
+	 *
+	 * @param <T>	the expected type of the object
+	 * @param data	the encoded object
+	 * @param type	the expected type of the object
+	 * @return	the decoded object, may be <code>null</code> if a <code>null</code> object was encoded
+	 * @throws IOException	when the data is not a valid encoded object or it does not contain an object of the
+	 * 						expected type
+	 */
+	public <T> T decode(final byte[] data, final Class<T> type) throws IOException {
+		final Object o = decode(data);
+		if (o != null && !type.isInstance(o))
+			throw new IOException("Data does not contain a " + type.getSimpleName() + " but a "
+									+ o.getClass().getSimpleName());
+		return type.cast(o);
+	}
+
+	/**
+	 * Decodes the object from the given stream. All remaining data of the stream is read.
+	 *
+	 * @param is	the stream to read the encoded object from
+	 * @return	the decoded object, may be <code>null</code> if a <code>null</code> object was encoded
+	 * @throws IOException	when the stream cannot be read or does not contain a valid encoded object
+	 */
+	public Object decode(final InputStream is) throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final byte[] b = new byte[8192];
+		int n;
+		while ((n = is.read(b)) > 0)
+			bos.write(b, 0, n);
+		return decode(bos.toByteArray());
+	}
+
+	/**
+	 * Holds the state of a single decoding run.
+	 */
+	private final class Input {
+		final byte[]	buf;
+		int				pos;
+		final int		end;
+		/**
+		 * The dictionary of strings read so far
+		 */
+		final List<String>	symbols = new ArrayList<>(64);
+		/**
+		 * The URLs and time zones parsed from the strings in the dictionary, indexed like the dictionary, so they
+		 * are only parsed once
+		 */
+		Object[]	parsedSymbols = new Object[64];
+		/**
+		 * The last decoded time stamp, which is reused when the next one is the same as time stamps are often
+		 * repeated
+		 */
+		ZonedDateTime	lastDate;
+		/**
+		 * The certificates read so far, each represented by the instance created for its first occurrence
+		 */
+		final List<EncodedCertificateImpl>	certificates = new ArrayList<>();
+		/**
+		 * The identifier schemes, cached by case sensitivity and id
+		 */
+		final Map<String, IDScheme>	schemes = new HashMap<>();
+
+		Input(final byte[] buf, final int pos, final int end) {
+			this.buf = buf;
+			this.pos = pos;
+			this.end = end;
+		}
+
+		void readHeader() throws IOException {
+			need(5);
+			final int magic = (buf[pos] & 0xFF) << 24 | (buf[pos + 1] & 0xFF) << 16 | (buf[pos + 2] & 0xFF) << 8
+							  | (buf[pos + 3] & 0xFF);
+			if (magic != MAGIC)
+				throw new IOException("Not an encoded SMP data model object");
+			final int version = buf[pos + 4];
+			if (version != VERSION)
+				throw new IOException("Unsupported format version: " + version);
+			pos += 5;
+		}
+
+		Object readObject() throws IOException {
+			final int tag = readByte();
+			switch (tag) {
+			case NULL:
+				return null;
+			case SERVICE_METADATA:
+			case SIGNED_SERVICE_METADATA:
+				return readServiceMetadata(tag == SIGNED_SERVICE_METADATA);
+			case SERVICE_GROUP_V2:
+			case SIGNED_SERVICE_GROUP_V2:
+				return readServiceGroupV2(tag == SIGNED_SERVICE_GROUP_V2);
+			case SERVICE_GROUP_V1:
+				return readServiceGroupV1();
+			case SERVICE_REFERENCE:
+				return readServiceReference();
+			case PROCESS_GROUP:
+				return readProcessGroup();
+			case PROCESS_INFO:
+				return readProcessInfo();
+			case ENDPOINT:
+			case ENDPOINT_V1:
+				return readEndpoint(tag);
+			case REDIRECTION_V1:
+			case REDIRECTION_V2:
+				return readRedirection(tag);
+			case CERTIFICATE:
+				return readCertificateInfo();
+			case IDENTIFIER:
+				return readIdentifier();
+			case ID_SCHEME:
+				final String id = readSchemeId();
+				return new IDSchemeImpl(id, readByte() != 0);
+			default:
+				throw new IOException("Unknown type tag: " + tag);
+			}
+		}
+
+		ServiceMetadataImpl readServiceMetadata(final boolean signed) throws IOException {
+			final List<Extension> exts = readExtensions();
+			final Identifier participant = readIdentifier();
+			final Identifier service = readIdentifier();
+			final int n = readSize();
+			DecodedSet<ProcessGroup> groups = null;
+			if (n >= 0) {
+				groups = new DecodedSet<>(n);
+				for (int i = 0; i < n; i++)
+					groups.addDecoded(readProcessGroup());
+			}
+			return signed ? new SignedServiceMetadataImpl(participant, service, groups, readCertificate(), exts)
+						  : new ServiceMetadataImpl(participant, service, groups, exts);
+		}
+
+		ServiceGroupV2Impl readServiceGroupV2(final boolean signed) throws IOException {
+			final List<Extension> exts = readExtensions();
+			final Identifier participant = readIdentifier();
+			final int n = readSize();
+			DecodedSet<ServiceReference> refs = null;
+			if (n >= 0) {
+				refs = new DecodedSet<>(n);
+				for (int i = 0; i < n; i++)
+					refs.addDecoded(readServiceReference());
+			}
+			return signed ? new SignedServiceGroupImpl(participant, refs, readCertificate(), exts)
+						  : new ServiceGroupV2Impl(participant, refs, exts);
+		}
+
+		ServiceGroupV1Impl readServiceGroupV1() throws IOException {
+			final List<Extension> exts = readExtensions();
+			final ServiceGroupV1Impl sg = new ServiceGroupV1Impl(readIdentifier(), null, exts);
+			final int n = readSize();
+			if (n >= 0) {
+				sg.setServiceReferences(Collections.emptySet());
+				for (int i = 0; i < n; i++)
+					sg.addServiceReference(readURL());
+			}
+			return sg;
+		}
+
+		ServiceReferenceImpl readServiceReference() throws IOException {
+			final List<Extension> exts = readExtensions();
+			final Identifier service = readIdentifier();
+			return new ServiceReferenceImpl(service, readProcessInfos(), exts);
+		}
+
+		ProcessGroupImpl readProcessGroup() throws IOException {
+			final List<Extension> exts = readExtensions();
+			final Set<ProcessInfo> processes = readProcessInfos();
+			final int tag = readByte();
+			final Redirection redirection = tag == NULL ? null : readRedirection(tag);
+			final ProcessGroupImpl pg = new ProcessGroupImpl(processes, redirection, exts);
+			final int n = readSize();
+			if (n >= 0) {
+				final DecodedSet<EndpointInfo> endpoints = new DecodedSet<>(n);
+				for (int i = 0; i < n; i++)
+					endpoints.addDecoded(readEndpoint(readByte()));
+				pg.setEndpoints(endpoints);
+			}
+			return pg;
+		}
+
+		Set<ProcessInfo> readProcessInfos() throws IOException {
+			final int n = readSize();
+			if (n < 0)
+				return null;
+			final DecodedSet<ProcessInfo> processes = new DecodedSet<>(n);
+			for (int i = 0; i < n; i++)
+				processes.addDecoded(readProcessInfo());
+			return processes;
+		}
+
+		ProcessInfoImpl readProcessInfo() throws IOException {
+			final List<Extension> exts = readExtensions();
+			final Identifier pid = readIdentifier();
+			if (pid != null && !(pid instanceof ProcessIdentifier))
+				throw new IOException("Process info does not contain a process identifier");
+			final int n = readSize();
+			DecodedSet<Identifier> roles = null;
+			if (n >= 0) {
+				roles = new DecodedSet<>(n);
+				for (int i = 0; i < n; i++)
+					roles.addDecoded(readIdentifier());
+			}
+			return new ProcessInfoImpl((ProcessIdentifier) pid, roles, exts);
+		}
+
+		Redirection readRedirection(final int tag) throws IOException {
+			if (tag != REDIRECTION_V1 && tag != REDIRECTION_V2)
+				throw new IOException("Expected a redirection but found type tag: " + tag);
+			final List<Extension> exts = readExtensions();
+			final URL url = readURL();
+			if (tag == REDIRECTION_V2)
+				return new RedirectionV2Impl(url, readCertificate(), exts);
+
+			final int n = readVarInt() - 1;
+			boolean[] uid = null;
+			if (n >= 0) {
+				need((n + 7) >>> 3);
+				uid = new boolean[n];
+				for (int i = 0; i < n; i++)
+					uid[i] = (buf[pos + (i >>> 3)] & (1 << (i & 7))) != 0;
+				pos += (n + 7) >>> 3;
+			}
+			return new RedirectionV1Impl(url, uid, exts);
+		}
+
+		EndpointInfoImpl readEndpoint(final int tag) throws IOException {
+			if (tag != ENDPOINT && tag != ENDPOINT_V1)
+				throw new IOException("Expected an endpoint but found type tag: " + tag);
+			final List<Extension> exts = readExtensions();
+			final String profile = readSymbol();
+			final URL url = readURL();
+			final ZonedDateTime activation = readDate();
+			final ZonedDateTime expiration = readDate();
+			final String description = readString();
+			final String contact = readString();
+			final int n = readSize();
+			DecodedSet<Certificate> certs = null;
+			if (n >= 0) {
+				certs = new DecodedSet<>(n);
+				for (int i = 0; i < n; i++)
+					certs.addDecoded(readCertificateInfo());
+			}
+			if (tag == ENDPOINT)
+				return new EndpointInfoImpl(profile, url, activation, expiration, description, contact, certs, exts);
+
+			final int bls = readByte();
+			final String minAuthLevel = readString();
+			final URL techInfo = readURL();
+			final EndpointInfoV1Impl ep = new EndpointInfoV1Impl(profile, url, null,
+																 bls == 0 ? null : Boolean.valueOf(bls == 2),
+																 minAuthLevel, activation, expiration, description,
+																 contact, techInfo, exts);
+			ep.setCertificates(certs);
+			return ep;
+		}
+
+		EncodedCertificateImpl readCertificateInfo() throws IOException {
+			final List<Extension> exts = readExtensions();
+			final int ref = readVarInt();
+			if (ref == REF_NULL)
+				throw new IOException("Certificate meta-data without certificate");
+			final byte[] der = ref == REF_NEW ? readBytes() : null;
+			final String usage = readSymbol();
+			final ZonedDateTime activation = readDate();
+			final ZonedDateTime expiration = readDate();
+			final String description = readString();
+			if (der != null) {
+				final EncodedCertificateImpl c = new EncodedCertificateImpl(der, usage, activation, expiration,
+																			description, exts);
+				certificates.add(c);
+				return c;
+			} else {
+				final EncodedCertificateImpl c = new EncodedCertificateImpl(certificate(ref));
+				c.setUsage(usage);
+				c.setActivationDate(activation);
+				c.setExpirationDate(expiration);
+				c.setDescription(description);
+				c.setExtensions(exts);
+				return c;
+			}
+		}
+
+		X509Certificate readCertificate() throws IOException {
+			final int ref = readVarInt();
+			final EncodedCertificateImpl c;
+			if (ref == REF_NULL)
+				return null;
+			else if (ref == REF_NEW) {
+				c = new EncodedCertificateImpl(readBytes());
+				certificates.add(c);
+			} else
+				c = certificate(ref);
+			try {
+				return c.getX509Cert();
+			} catch (IllegalStateException invalid) {
+				throw new IOException("Invalid certificate", invalid.getCause());
+			}
+		}
+
+		EncodedCertificateImpl certificate(final int ref) throws IOException {
+			final int i = ref - REF_OFFSET;
+			if (i >= certificates.size())
+				throw new IOException("Invalid certificate reference: " + ref);
+			return certificates.get(i);
+		}
+
+		Identifier readIdentifier() throws IOException {
+			final int flags = readByte();
+			if (flags == 0)
+				return null;
+			if ((flags & ~(ID_PRESENT | ID_PROCESS | ID_NO_PROCESS | ID_SCHEME_PRESENT | ID_CASE_SENSITIVE)) != 0
+				|| (flags & ID_PRESENT) == 0 || (flags & (ID_PROCESS | ID_NO_PROCESS)) == ID_NO_PROCESS)
+				throw new IOException("Invalid identifier flags: " + flags);
+			final boolean process = (flags & ID_PROCESS) != 0;
+			IDScheme scheme = null;
+			if ((flags & ID_SCHEME_PRESENT) != 0) {
+				final boolean caseSensitive = (flags & ID_CASE_SENSITIVE) != 0;
+				final String schemeId = readSchemeId();
+				final String key = (caseSensitive ? "S" : "I") + schemeId;
+				scheme = schemes.get(key);
+				if (scheme == null) {
+					scheme = ImmutableIDScheme.of(schemeId, caseSensitive);
+					schemes.put(key, scheme);
+				}
+			}
+			if ((flags & ID_NO_PROCESS) != 0)
+				return pool != null ? ImmutableProcessIdentifier.NO_PROCESS : new ProcessIdentifierImpl();
+
+			final String value = readSymbol();
+			if (value == null || value.isEmpty())
+				throw new IOException("Identifier without value");
+			else if (pool != null)
+				return process ? pool.getProcessIdentifier(value, scheme) : pool.getIdentifier(value, scheme);
+			else
+				return process ? new ProcessIdentifierImpl(value, scheme) : new IdentifierImpl(value, scheme);
+		}
+
+		List<Extension> readExtensions() throws IOException {
+			final int enc = readByte();
+			switch (enc) {
+			case EXT_NULL:
+				return null;
+			case EXT_EMPTY:
+				return new ArrayList<>();
+			case EXT_SERIALIZED:
+				final int n = readVarInt();
+				// Each extension takes at least one byte
+				need(n);
+				final ExtensionFilter filter = extensionFilter != null ? extensionFilter : ExtensionFilter.getDefault();
+				final List<Extension> exts = new ArrayList<>(n);
+				for (int i = 0; i < n; i++) {
+					final int len = readVarInt();
+					need(len);
+					exts.add(len > 0 ? filter.deserialize(buf, pos, len) : null);
+					pos += len;
+				}
+				return exts;
+			default:
+				throw new IOException("Invalid extension encoding: " + enc);
+			}
+		}
+
+		ZonedDateTime readDate() throws IOException {
+			if (readByte() == 0)
+				return null;
+			final long zz = readVarLong();
+			final int nanos = readVarInt();
+			final int i = readSymbolIndex();
+			try {
+				Object zone = parsed(i);
+				if (!(zone instanceof ZoneId))
+					parsedSymbols[i] = zone = ZoneId.of(symbols.get(i));
+				final long seconds = (zz >>> 1) ^ -(zz & 1);
+				final ZonedDateTime last = lastDate;
+				if (last == null || last.getZone() != zone || last.getNano() != nanos
+					|| last.toEpochSecond() != seconds)
+					lastDate = ZonedDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), (ZoneId) zone);
+				return lastDate;
+			} catch (DateTimeException | IndexOutOfBoundsException invalid) {
+				throw new IOException("Invalid time stamp", invalid);
+			}
+		}
+
+		URL readURL() throws IOException {
+			final int i = readSymbolIndex();
+			if (i < 0)
+				return null;
+			Object url = parsed(i);
+			if (!(url instanceof URL))
+				try {
+					parsedSymbols[i] = url = new URL(symbols.get(i));
+				} catch (MalformedURLException invalid) {
+					throw new IOException("Invalid URL: " + symbols.get(i), invalid);
+				}
+			return (URL) url;
+		}
+
+		/**
+		 * @return the object parsed from the string at the given position in the dictionary, or <code>null</code> if
+		 * 		   it has not been parsed yet
+		 */
+		Object parsed(final int i) {
+			if (i >= parsedSymbols.length)
+				parsedSymbols = Arrays.copyOf(parsedSymbols, Math.max(i + 1, parsedSymbols.length * 2));
+			return parsedSymbols[i];
+		}
+
+		/**
+		 * @return the size of the collection, or -1 if the collection is <code>null</code>
+		 */
+		int readSize() throws IOException {
+			final int n = readVarInt() - 1;
+			if (n > end - pos)
+				throw new IOException("Invalid collection size: " + n);
+			return n;
+		}
+
+		String readSymbol() throws IOException {
+			final int i = readSymbolIndex();
+			return i >= 0 ? symbols.get(i) : null;
+		}
+
+		/**
+		 * @return the position of the string in the dictionary, or -1 if the string is <code>null</code>
+		 */
+		int readSymbolIndex() throws IOException {
+			final int ref = readVarInt();
+			if (ref == REF_NULL)
+				return -1;
+			else if (ref == REF_NEW) {
+				symbols.add(readUTF8());
+				return symbols.size() - 1;
+			} else if (ref - REF_OFFSET < symbols.size())
+				return ref - REF_OFFSET;
+			else
+				throw new IOException("Invalid string reference: " + ref);
+		}
+
+		String readSchemeId() throws IOException {
+			final String id = readSymbol();
+			if (id == null || id.isEmpty())
+				throw new IOException("Identifier scheme without id");
+			return id;
+		}
+
+		String readString() throws IOException {
+			return readVarInt() == 0 ? null : readUTF8();
+		}
+
+		String readUTF8() throws IOException {
+			final int len = readVarInt();
+			need(len);
+			final int start = pos;
+			pos += len;
+			for (int i = start; i < pos; i++)
+				if (buf[i] < 0)
+					return new String(buf, start, len, StandardCharsets.UTF_8);
+			final char[] chars = new char[len];
+			for (int i = 0; i < len; i++)
+				chars[i] = (char) buf[start + i];
+			return new String(chars);
+		}
+
+		byte[] readBytes() throws IOException {
+			final int len = readVarInt();
+			if (len == 0)
+				throw new IOException("Empty certificate");
+			need(len);
+			final byte[] b = Arrays.copyOfRange(buf, pos, pos + len);
+			pos += len;
+			return b;
+		}
+
+		int readByte() throws IOException {
+			need(1);
+			return buf[pos++] & 0xFF;
+		}
+
+		int readVarInt() throws IOException {
+			int v = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				final int b = readByte();
+				v |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					if (v < 0)
+						break;
+					return v;
+				}
+			}
+			throw new IOException("Invalid variable length integer");
+		}
+
+		long readVarLong() throws IOException {
+			long v = 0;
+			for (int shift = 0; shift < 70; shift += 7) {
+				final int b = readByte();
+				v |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					return v;
+			}
+			throw new IOException("Invalid variable length integer");
+		}
+
+		void need(final int n) throws IOException {
+			if (n < 0 || n > end - pos)
+				throw new EOFException("Unexpected end of encoded data");
+		}
+	}
+}
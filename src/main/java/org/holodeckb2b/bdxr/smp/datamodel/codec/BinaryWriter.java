@@ -0,0 +1,590 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.codec;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryFormat.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ExtensibleMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV1;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.SignedQueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SerializedExtension;
+
+/**
+ * Encodes objects of the SMP data model into the binary format described in the {@link
+ * org.holodeckb2b.bdxr.smp.datamodel.codec package documentation}. All interfaces of the data model can be encoded,
+ * for example a complete {@link ServiceMetadata} or a single {@link EndpointInfo}. The most specific type of the object
+ * is written, so a {@link SignedQueryResult} also includes the signing certificate and an {@link EndpointInfoV1} its V1
+ * specific meta-data.
+ * <p>The encoding does not keep the identity of objects that are included more than once, for example an endpoint
+ * used in multiple process groups is written, and decoded, as separate objects. The DER encoded form of an {@link
+ * EncodedCertificateImpl} is written without decoding the certificate.
+ * <p>This class is thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ * @see BinaryReader
+ */
+public final class BinaryWriter {
+
+	private BinaryWriter() {}
+
+	/**
+	 * Encodes the given object.
+	 *
+	 * @param data	the object to encode, must be an instance of one of the data model interfaces or <code>null</code>
+	 * @return	the encoded object
+	 * @throws IllegalArgumentException when the object is not part of the data model or when it contains a certificate
+	 * 									or extension that cannot be encoded
+	 */
+	public static byte[] encode(final Object data) {
+		final Output out = new Output();
+		out.writeHeader();
+		out.writeObject(data);
+		return Arrays.copyOf(out.buf, out.pos);
+	}
+
+	/**
+	 * Encodes the given object and writes it to the given stream.
+	 *
+	 * @param data	the object to encode, must be an instance of one of the data model interfaces or <code>null</code>
+	 * @param os	the stream to write the encoded object to
+	 * @throws IOException	when the encoded object cannot be written to the stream
+	 * @throws IllegalArgumentException when the object is not part of the data model or when it contains a certificate
+	 * 									or extension that cannot be encoded
+	 */
+	public static void encode(final Object data, final OutputStream os) throws IOException {
+		final Output out = new Output();
+		out.writeHeader();
+		out.writeObject(data);
+		os.write(out.buf, 0, out.pos);
+	}
+
+	/**
+	 * Holds the state of a single encoding run.
+	 */
+	private static final class Output {
+		byte[]	buf = new byte[1024];
+		int		pos;
+		/**
+		 * The strings already written and their position in the dictionary, kept in a hash table using linear
+		 * probing as looking up the strings takes a large part of the encoding time
+		 */
+		String[]	symbols = new String[256];
+		int[]		symbolRefs = new int[256];
+		int			symbolCount;
+		/**
+		 * The last written time stamp and the position of its encoded form, which is copied when the same instance
+		 * is written again
+		 */
+		ZonedDateTime	lastDate;
+		int				lastDateStart;
+		int				lastDateEnd;
+		/**
+		 * The certificates already written, indexed by both instance and encoded form
+		 */
+		final Map<Object, Integer>		certInstances = new IdentityHashMap<>();
+		final Map<ByteBuffer, Integer>	certEncodings = new HashMap<>();
+
+		void writeHeader() {
+			ensure(5);
+			buf[pos++] = (byte) (MAGIC >>> 24);
+			buf[pos++] = (byte) (MAGIC >>> 16);
+			buf[pos++] = (byte) (MAGIC >>> 8);
+			buf[pos++] = (byte) MAGIC;
+			buf[pos++] = (byte) VERSION;
+		}
+
+		void writeObject(final Object o) {
+			if (o == null)
+				writeByte(NULL);
+			else if (o instanceof ServiceMetadata) {
+				final boolean signed = o instanceof SignedQueryResult;
+				writeByte(signed ? SIGNED_SERVICE_METADATA : SERVICE_METADATA);
+				writeServiceMetadata((ServiceMetadata) o);
+				if (signed)
+					writeCertificate(((SignedQueryResult) o).getSigningCertificate());
+			} else if (o instanceof ServiceGroupV2) {
+				final boolean signed = o instanceof SignedQueryResult;
+				writeByte(signed ? SIGNED_SERVICE_GROUP_V2 : SERVICE_GROUP_V2);
+				writeServiceGroup((ServiceGroupV2) o);
+				if (signed)
+					writeCertificate(((SignedQueryResult) o).getSigningCertificate());
+			} else if (o instanceof ServiceGroupV1) {
+				writeByte(SERVICE_GROUP_V1);
+				writeServiceGroup((ServiceGroupV1) o);
+			} else if (o instanceof ServiceReference) {
+				writeByte(SERVICE_REFERENCE);
+				writeServiceReference((ServiceReference) o);
+			} else if (o instanceof ProcessGroup) {
+				writeByte(PROCESS_GROUP);
+				writeProcessGroup((ProcessGroup) o);
+			} else if (o instanceof ProcessInfo) {
+				writeByte(PROCESS_INFO);
+				writeProcessInfo((ProcessInfo) o);
+			} else if (o instanceof EndpointInfo)
+				writeEndpoint((EndpointInfo) o);
+			else if (o instanceof Redirection)
+				writeRedirection((Redirection) o);
+			else if (o instanceof Certificate) {
+				writeByte(CERTIFICATE);
+				writeCertificateInfo((Certificate) o);
+			} else if (o instanceof Identifier) {
+				writeByte(IDENTIFIER);
+				writeIdentifier((Identifier) o);
+			} else if (o instanceof IDScheme) {
+				writeByte(ID_SCHEME);
+				writeSymbol(((IDScheme) o).getSchemeId());
+				writeByte(((IDScheme) o).isCaseSensitive() ? 1 : 0);
+			} else
+				throw new IllegalArgumentException("Not an object of the SMP data model: " + o.getClass().getName());
+		}
+
+		void writeServiceMetadata(final ServiceMetadata smd) {
+			writeExtensions(smd);
+			writeIdentifier(smd.getParticipantId());
+			writeIdentifier(smd.getServiceId());
+			final Collection<? extends ProcessGroup> groups = smd.getProcessMetadata();
+			writeSize(groups);
+			if (groups != null)
+				for (ProcessGroup g : groups)
+					writeProcessGroup(g);
+		}
+
+		void writeServiceGroup(final ServiceGroupV2 sg) {
+			writeExtensions(sg);
+			writeIdentifier(sg.getParticipantId());
+			final Collection<? extends ServiceReference> refs = sg.getServiceReferences();
+			writeSize(refs);
+			if (refs != null)
+				for (ServiceReference r : refs)
+					writeServiceReference(r);
+		}
+
+		void writeServiceGroup(final ServiceGroupV1 sg) {
+			writeExtensions(sg);
+			writeIdentifier(sg.getParticipantId());
+			final Collection<? extends URL> refs = sg.getServiceReferences();
+			writeSize(refs);
+			if (refs != null)
+				for (URL r : refs)
+					writeURL(r);
+		}
+
+		void writeServiceReference(final ServiceReference ref) {
+			writeExtensions(ref);
+			writeIdentifier(ref.getServiceId());
+			writeProcessInfos(ref.getProcessInfo());
+		}
+
+		void writeProcessGroup(final ProcessGroup pg) {
+			writeExtensions(pg);
+			writeProcessInfos(pg.getProcessInfo());
+			final Redirection r = pg.getRedirection();
+			if (r == null)
+				writeByte(NULL);
+			else
+				writeRedirection(r);
+			final Collection<? extends EndpointInfo> endpoints = pg.getEndpoints();
+			writeSize(endpoints);
+			if (endpoints != null)
+				for (EndpointInfo ep : endpoints)
+					writeEndpoint(ep);
+		}
+
+		void writeProcessInfos(final Collection<? extends ProcessInfo> processes) {
+			writeSize(processes);
+			if (processes != null)
+				for (ProcessInfo pi : processes)
+					writeProcessInfo(pi);
+		}
+
+		void writeProcessInfo(final ProcessInfo pi) {
+			writeExtensions(pi);
+			writeIdentifier(pi.getProcessId());
+			final Collection<? extends Identifier> roles = pi.getRoles();
+			writeSize(roles);
+			if (roles != null)
+				for (Identifier r : roles)
+					writeIdentifier(r);
+		}
+
+		void writeRedirection(final Redirection r) {
+			if (r instanceof RedirectionV2) {
+				writeByte(REDIRECTION_V2);
+				writeExtensions(r);
+				writeURL(r.getNewSMPURL());
+				writeCertificate(((RedirectionV2) r).getSMPCertificate());
+			} else {
+				writeByte(REDIRECTION_V1);
+				writeExtensions(r);
+				writeURL(r.getNewSMPURL());
+				final boolean[] uid = r instanceof RedirectionV1 ? ((RedirectionV1) r).getSMPSubjectUniqueID() : null;
+				if (uid == null)
+					writeVarInt(0);
+				else {
+					writeVarInt(uid.length + 1);
+					ensure((uid.length + 7) >>> 3);
+					for (int i = 0; i < uid.length; i += 8) {
+						int b = 0;
+						for (int j = 0; j < 8 && i + j < uid.length; j++)
+							if (uid[i + j])
+								b |= 1 << j;
+						buf[pos++] = (byte) b;
+					}
+				}
+			}
+		}
+
+		void writeEndpoint(final EndpointInfo ep) {
+			final boolean v1 = ep instanceof EndpointInfoV1;
+			writeByte(v1 ? ENDPOINT_V1 : ENDPOINT);
+			writeExtensions(ep);
+			writeSymbol(ep.getTransportProfile());
+			writeURL(ep.getEndpointURL());
+			writeDate(ep.getServiceActivationDate());
+			writeDate(ep.getServiceExpirationDate());
+			writeString(ep.getDescription());
+			writeString(ep.getContactInfo());
+			final Collection<? extends Certificate> certs = ep.getCertificates();
+			writeSize(certs);
+			if (certs != null)
+				for (Certificate c : certs)
+					writeCertificateInfo(c);
+			if (v1) {
+				final EndpointInfoV1 epv1 = (EndpointInfoV1) ep;
+				final Boolean bls = epv1.getBusinessLevelSignatureRequired();
+				writeByte(bls == null ? 0 : bls ? 2 : 1);
+				writeString(epv1.getMinimumAuthenticationLevel());
+				writeURL(epv1.getTechnicalInformationURL());
+			}
+		}
+
+		void writeCertificateInfo(final Certificate c) {
+			writeExtensions(c);
+			if (c instanceof EncodedCertificateImpl) {
+				final Integer ref = certInstances.get(c);
+				if (ref != null)
+					writeVarInt(REF_OFFSET + ref);
+				else
+					writeEncodedCertificate(c, ((EncodedCertificateImpl) c).getEncoded());
+			} else
+				writeCertificate(c.getX509Cert());
+			writeSymbol(c.getUsage());
+			writeDate(c.getActivationDate());
+			writeDate(c.getExpirationDate());
+			writeString(c.getDescription());
+		}
+
+		void writeCertificate(final X509Certificate cert) {
+			if (cert == null) {
+				writeVarInt(REF_NULL);
+				return;
+			}
+			final Integer ref = certInstances.get(cert);
+			if (ref != null)
+				writeVarInt(REF_OFFSET + ref);
+			else
+				try {
+					writeEncodedCertificate(cert, cert.getEncoded());
+				} catch (CertificateEncodingException e) {
+					throw new IllegalArgumentException("Could not encode certificate", e);
+				}
+		}
+
+		void writeEncodedCertificate(final Object instance, final byte[] der) {
+			if (der == null) {
+				writeVarInt(REF_NULL);
+				return;
+			}
+			final ByteBuffer key = ByteBuffer.wrap(der);
+			final Integer ref = certEncodings.get(key);
+			if (ref != null) {
+				certInstances.put(instance, ref);
+				writeVarInt(REF_OFFSET + ref);
+			} else {
+				final int n = certEncodings.size();
+				certEncodings.put(key, n);
+				certInstances.put(instance, n);
+				writeVarInt(REF_NEW);
+				writeBytes(der);
+			}
+		}
+
+		void writeIdentifier(final Identifier id) {
+			if (id == null) {
+				writeByte(0);
+				return;
+			}
+			final IDScheme scheme = id.getScheme();
+			final boolean noProcess = id instanceof ProcessIdentifier && ((ProcessIdentifier) id).isNoProcess();
+			int flags = ID_PRESENT;
+			if (id instanceof ProcessIdentifier)
+				flags |= ID_PROCESS;
+			if (noProcess)
+				flags |= ID_NO_PROCESS;
+			if (scheme != null) {
+				flags |= ID_SCHEME_PRESENT;
+				if (scheme.isCaseSensitive())
+					flags |= ID_CASE_SENSITIVE;
+			}
+			writeByte(flags);
+			if (scheme != null)
+				writeSymbol(scheme.getSchemeId());
+			if (!noProcess)
+				writeSymbol(id.getValue());
+		}
+
+		void writeExtensions(final ExtensibleMetadata md) {
+			final List<Extension> exts = md.getExtensions();
+			if (exts == null)
+				writeByte(EXT_NULL);
+			else if (exts.isEmpty())
+				writeByte(EXT_EMPTY);
+			else {
+				writeByte(EXT_SERIALIZED);
+				writeVarInt(exts.size());
+				for (Extension e : exts)
+					if (e == null)
+						writeVarInt(0);
+					else
+						writeBytes(SerializedExtension.serialize(e));
+			}
+		}
+
+		void writeDate(final ZonedDateTime d) {
+			if (d == null) {
+				writeByte(0);
+				return;
+			}
+			if (d == lastDate) {
+				final int n = lastDateEnd - lastDateStart;
+				ensure(n);
+				System.arraycopy(buf, lastDateStart, buf, pos, n);
+				pos += n;
+				return;
+			}
+			final int start = pos;
+			final int symbolsBefore = symbolCount;
+			writeByte(1);
+			final long s = d.toEpochSecond();
+			writeVarLong((s << 1) ^ (s >> 63));
+			writeVarInt(d.getNano());
+			writeSymbol(d.getZone().getId());
+			// The encoded form can only be copied when it refers to the time zone already in the dictionary
+			if (symbolCount == symbolsBefore) {
+				lastDate = d;
+				lastDateStart = start;
+				lastDateEnd = pos;
+			}
+		}
+
+		void writeURL(final URL url) {
+			writeSymbol(url != null ? url.toExternalForm() : null);
+		}
+
+		void writeSize(final Collection<?> c) {
+			writeVarInt(c == null ? 0 : c.size() + 1);
+		}
+
+		/**
+		 * Writes a string that is likely to be repeated using the dictionary.
+		 */
+		void writeSymbol(final String s) {
+			if (s == null) {
+				writeVarInt(REF_NULL);
+				return;
+			}
+			final int mask = symbols.length - 1;
+			int i = hash(s) & mask;
+			for (String k; (k = symbols[i]) != null; i = (i + 1) & mask)
+				if (k == s || k.equals(s)) {
+					writeVarInt(REF_OFFSET + symbolRefs[i]);
+					return;
+				}
+			symbols[i] = s;
+			symbolRefs[i] = symbolCount++;
+			if (symbolCount > symbols.length >>> 1)
+				growSymbols();
+			writeVarInt(REF_NEW);
+			writeUTF8(s);
+		}
+
+		static int hash(final String s) {
+			final int h = s.hashCode();
+			return h ^ (h >>> 16);
+		}
+
+		void growSymbols() {
+			final String[] oldSymbols = symbols;
+			final int[] oldRefs = symbolRefs;
+			symbols = new String[oldSymbols.length << 1];
+			symbolRefs = new int[symbols.length];
+			final int mask = symbols.length - 1;
+			for (int j = 0; j < oldSymbols.length; j++)
+				if (oldSymbols[j] != null) {
+					int i = hash(oldSymbols[j]) & mask;
+					while (symbols[i] != null)
+						i = (i + 1) & mask;
+					symbols[i] = oldSymbols[j];
+					symbolRefs[i] = oldRefs[j];
+				}
+		}
+
+		/**
+		 * Writes a string without using the dictionary.
+		 */
+		void writeString(final String s) {
+			if (s == null)
+				writeVarInt(0);
+			else {
+				writeVarInt(1);
+				writeUTF8(s);
+			}
+		}
+
+		/**
+		 * Writes the UTF-8 encoded string preceded by its length in bytes.
+		 */
+		void writeUTF8(final String s) {
+			final int n = s.length();
+			int len = n;
+			for (int i = 0; i < n; i++) {
+				final char c = s.charAt(i);
+				if (c >= 0x80) {
+					len = utf8Length(s);
+					break;
+				}
+			}
+			writeVarInt(len);
+			ensure(len);
+			if (len == n)
+				for (int i = 0; i < n; i++)
+					buf[pos++] = (byte) s.charAt(i);
+			else
+				for (int i = 0; i < n; i++) {
+					final int c = s.charAt(i);
+					if (c < 0x80)
+						buf[pos++] = (byte) c;
+					else if (c < 0x800) {
+						buf[pos++] = (byte) (0xC0 | (c >> 6));
+						buf[pos++] = (byte) (0x80 | (c & 0x3F));
+					} else if (Character.isHighSurrogate((char) c) && i + 1 < n
+								&& Character.isLowSurrogate(s.charAt(i + 1))) {
+						final int cp = Character.toCodePoint((char) c, s.charAt(++i));
+						buf[pos++] = (byte) (0xF0 | (cp >> 18));
+						buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+						buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+						buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+					} else if (Character.isSurrogate((char) c))
+						// Unpaired surrogates are replaced as done by String.getBytes()
+						buf[pos++] = (byte) '?';
+					else {
+						buf[pos++] = (byte) (0xE0 | (c >> 12));
+						buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+						buf[pos++] = (byte) (0x80 | (c & 0x3F));
+					}
+				}
+		}
+
+		static int utf8Length(final String s) {
+			final int n = s.length();
+			int len = 0;
+			for (int i = 0; i < n; i++) {
+				final char c = s.charAt(i);
+				if (c < 0x80)
+					len++;
+				else if (c < 0x800)
+					len += 2;
+				else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+					len += 4;
+					i++;
+				} else if (Character.isSurrogate(c))
+					len++;
+				else
+					len += 3;
+			}
+			return len;
+		}
+
+		void writeBytes(final byte[] b) {
+			writeVarInt(b.length);
+			ensure(b.length);
+			System.arraycopy(b, 0, buf, pos, b.length);
+			pos += b.length;
+		}
+
+		void writeByte(final int b) {
+			ensure(1);
+			buf[pos++] = (byte) b;
+		}
+
+		void writeVarInt(int v) {
+			if ((v & ~0x7F) == 0 && pos < buf.length) {
+				buf[pos++] = (byte) v;
+				return;
+			}
+			ensure(5);
+			while ((v & ~0x7F) != 0) {
+				buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			buf[pos++] = (byte) v;
+		}
+
+		void writeVarLong(long v) {
+			ensure(10);
+			while ((v & ~0x7FL) != 0) {
+				buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			buf[pos++] = (byte) v;
+		}
+
+		void ensure(final int n) {
+			if (pos + n > buf.length)
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.codec;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+
+/**
+ * Is the set used by the {@link BinaryReader} for the collections of the decoded objects. The decoded elements are
+ * kept in an array and only added to a {@link HashSet} when the set is first used, so decoding does not need to
+ * calculate the hash codes of the elements, which for the nested objects of the data model would be calculated again
+ * for every level of nesting, and the hash codes are only calculated for the sets that are actually used. Because the
+ * decoded elements are added to the hash set one by one, duplicate elements in the encoded data are dropped, just like
+ * when they are added to any other set. The hash set is only published once it is complete, so using the set from
+ * multiple threads is safe, just like it is for a {@link HashSet}.
+ * <p>When serialized the set is replaced by a {@link HashSet} with the same elements.
+ *
+ * @param <E>	the type of the elements
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class DecodedSet<E> extends AbstractSet<E> implements Serializable {
+	private static final long serialVersionUID = 2411385263787393522L;
+
+	/**
+	 * The decoded elements
+	 */
+	private final transient Object[]	elements;
+	private transient int				size;
+	/**
+	 * The hash set holding the elements once the set has been used
+	 */
+	private transient volatile HashSet<E>	set;
+
+	/**
+	 * Creates a new set for the given number of decoded elements.
+	 *
+	 * @param n	the number of elements that will be decoded
+	 */
+	DecodedSet(final int n) {
+		elements = new Object[n];
+	}
+
+	/**
+	 * Adds a decoded element to the set.
+	 *
+	 * @param e	the decoded element
+	 */
+	void addDecoded(final E e) {
+		elements[size++] = e;
+	}
+
+	@SuppressWarnings("unchecked")
+	private HashSet<E> set() {
+		HashSet<E> s = set;
+		if (s == null) {
+			s = new HashSet<>(Math.max(4, (int) (size / .75f) + 1));
+			for (int i = 0; i < size; i++)
+				s.add((E) elements[i]);
+			set = s;
+		}
+		return s;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return set().iterator();
+	}
+
+	@Override
+	public int size() {
+		return set().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0 || set().isEmpty();
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return set().contains(o);
+	}
+
+	@Override
+	public boolean add(final E e) {
+		return set().add(e);
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		return set().remove(o);
+	}
+
+	@Override
+	public void clear() {
+		set = new HashSet<>();
+	}
+
+	private Object writeReplace() {
+		return new HashSet<>(set());
+	}
+}
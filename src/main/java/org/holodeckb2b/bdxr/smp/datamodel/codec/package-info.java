@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * This package contains a compact, versioned binary format for the SMP data model, to be used for caching and
+ * replicating meta-data between nodes. The {@link org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryWriter} encodes any
+ * object of the data model and the {@link org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryReader} decodes it into the
+ * corresponding implementation classes of the <code>impl</code> package.
+ * <p>The encoded data starts with the magic number "SMPB" and a one byte format version, followed by a one byte type
+ * tag and the object. Numbers are written as unsigned LEB128 variable length integers, time stamps as the zigzag
+ * encoded epoch second, the nano second and the zone id. Strings that are likely to repeat, like identifier schemes
+ * and values, transport profiles and URLs, are written once and later referenced by their position in a dictionary.
+ * Certificates are written in their DER encoded form and also only once. Extensions are written using Java
+ * serialization as their content is not defined by the data model. The reader only deserializes the extensions
+ * allowed by its {@link org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensionFilter} and keeps the other extensions as
+ * {@link org.holodeckb2b.bdxr.smp.datamodel.impl.SerializedExtension}s.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.codec;
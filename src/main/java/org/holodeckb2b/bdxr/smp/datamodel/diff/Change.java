@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.diff;
+
+import java.util.List;
+
+/**
+ * Is a node in the tree of changes of a {@link ChangeSet}. A change either adds an object to a collection, removes an
+ * object from a collection or modifies an object. The object to remove or modify is identified by its key, see {@link
+ * MetadataDiff}, or when it has no unique key by the object itself. A modification only contains the properties that
+ * were changed and the changes to the collections of child objects.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class Change {
+
+	static final byte ADD = 1;
+	static final byte REMOVE = 2;
+	static final byte MODIFY = 3;
+
+	/*
+	 * Indexes of the properties of service meta-data and service groups
+	 */
+	static final int DOC_EXTENSIONS = 0;
+	static final int DOC_SIGNING_CERT = 1;
+	static final int DOC_PROPERTIES = 2;
+	/*
+	 * Indexes of the properties of a process group
+	 */
+	static final int PG_PROCESSES = 0;
+	static final int PG_REDIRECTION = 1;
+	static final int PG_EXTENSIONS = 2;
+	static final int PG_PROPERTIES = 3;
+	/*
+	 * Indexes of the properties of an endpoint, the last three only apply to V1 endpoints
+	 */
+	static final int EP_URL = 0;
+	static final int EP_ACTIVATION = 1;
+	static final int EP_EXPIRATION = 2;
+	static final int EP_DESCRIPTION = 3;
+	static final int EP_CONTACT = 4;
+	static final int EP_EXTENSIONS = 5;
+	static final int EP_BLS_REQUIRED = 6;
+	static final int EP_MIN_AUTH_LEVEL = 7;
+	static final int EP_TECH_INFO_URL = 8;
+	static final int EP_PROPERTIES = 6;
+	static final int EP_V1_PROPERTIES = 9;
+	/*
+	 * Indexes of the properties of the meta-data of a certificate
+	 */
+	static final int CERT_USAGE = 0;
+	static final int CERT_ACTIVATION = 1;
+	static final int CERT_EXPIRATION = 2;
+	static final int CERT_DESCRIPTION = 3;
+	static final int CERT_EXTENSIONS = 4;
+	static final int CERT_PROPERTIES = 5;
+	/*
+	 * Indexes of the properties of a service reference
+	 */
+	static final int REF_PROCESSES = 0;
+	static final int REF_EXTENSIONS = 1;
+	static final int REF_PROPERTIES = 2;
+
+	/**
+	 * The kind of change
+	 */
+	final byte		op;
+	/**
+	 * The key of the object to remove or modify, <code>null</code> when the object is identified by {@link #value}
+	 */
+	final Object	key;
+	/**
+	 * The object to add, or the object to remove when it has no unique key
+	 */
+	final Object	value;
+	/**
+	 * Bit mask of the modified properties
+	 */
+	int				modified;
+	/**
+	 * The new values of the properties, only the entries of the modified properties are set
+	 */
+	Object[]		properties;
+	/**
+	 * The changes to the collection of child objects, <code>null</code> if there are none
+	 */
+	List<Change>	children;
+
+	Change(final byte op, final Object key, final Object value) {
+		this.op = op;
+		this.key = key;
+		this.value = value;
+	}
+
+	/**
+	 * Indicates whether the given property is modified.
+	 *
+	 * @param property	index of the property
+	 * @return	<code>true</code> if the property is modified, <code>false</code> otherwise
+	 */
+	boolean isModified(final int property) {
+		return (modified & (1 << property)) != 0;
+	}
+
+	/**
+	 * Gets the new value of the given property, or when the property is not modified, the given current value.
+	 *
+	 * @param property	index of the property
+	 * @param current	the current value of the property
+	 * @return	the value of the property after applying this change
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T get(final int property, final T current) {
+		return isModified(property) ? (T) properties[property] : current;
+	}
+
+	/**
+	 * Indicates whether this modification changes anything.
+	 *
+	 * @return	<code>true</code> if no property or child object is changed, <code>false</code> otherwise
+	 */
+	boolean isEmpty() {
+		return op == MODIFY && modified == 0 && (children == null || children.isEmpty());
+	}
+}
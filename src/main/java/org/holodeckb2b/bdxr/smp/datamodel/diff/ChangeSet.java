@@ -0,0 +1,358 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.diff;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.SignedQueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.CertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceMetadataImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceReferenceImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceMetadataImpl;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Contains the changes between two versions of the service meta-data or service group of a participant, as calculated
+ * by {@link MetadataDiff}. The change set can be serialized to send it to other nodes, which apply it to their copy of
+ * the old version to get the new version.
+ * <p>Applying the change set does not modify the old version. It creates new instances of the implementation classes
+ * for the objects that are changed and of their parents. The objects that are not changed are shared between the old
+ * and new version. The collections of the new instances are always new collections, so they can be modified even
+ * when the old version is frozen. The change set must be applied to the version it was calculated from. When an
+ * object to remove or modify cannot be found, an <code>IllegalArgumentException</code> is thrown. Other differences
+ * with the old version are however not detected and remain in the result.
+ * <p>The change set is serialized in a compact form, see {@link SerializedChangeSet}, so it can be replicated
+ * efficiently. Instances of this class are unmodifiable and thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public final class ChangeSet implements Serializable {
+	private static final long serialVersionUID = -6081749923377415086L;
+
+	static final int SERVICE_METADATA = 1;
+	static final int SERVICE_GROUP_V1 = 2;
+	static final int SERVICE_GROUP_V2 = 3;
+
+	final int			kind;
+	final Identifier	participantId;
+	final Identifier	serviceId;
+	final Change		root;
+
+	ChangeSet(final int kind, final Identifier participantId, final Identifier serviceId, final Change root) {
+		this.kind = kind;
+		this.participantId = participantId;
+		this.serviceId = serviceId;
+		this.root = root;
+	}
+
+	/**
+	 * Gets the participant identifier of the changed meta-data.
+	 *
+	 * @return	the participant identifier
+	 */
+	public Identifier getParticipantId() {
+		return participantId;
+	}
+
+	/**
+	 * Gets the service identifier of the changed service meta-data.
+	 *
+	 * @return	the service identifier, <code>null</code> if the change set applies to a service group
+	 */
+	public Identifier getServiceId() {
+		return serviceId;
+	}
+
+	/**
+	 * Indicates whether the two versions are equal and there are no changes.
+	 *
+	 * @return	<code>true</code> if there are no changes, <code>false</code> otherwise
+	 */
+	public boolean isEmpty() {
+		return root.isEmpty();
+	}
+
+	/**
+	 * Gets the identifiers of the processes of which the meta-data is changed, so caches of the meta-data per process
+	 * only need to be updated for these processes. These are the processes of all process groups that are added,
+	 * removed or modified.
+	 *
+	 * @return	the process identifiers, an empty set if the change set applies to a service group, or <code>null
+	 * 			</code> if the change set replaces the service meta-data as a whole and all processes are affected
+	 */
+	public Set<ProcessIdentifier> getAffectedProcesses() {
+		if (root.op == Change.ADD)
+			return null;
+		final Set<ProcessIdentifier> processes = new HashSet<>();
+		if (kind == SERVICE_METADATA && root.children != null) {
+			for (Change c : root.children)
+				if (c.key != null)
+					for (Object pid : (Set<?>) c.key)
+						processes.add((ProcessIdentifier) pid);
+				else
+					addProcesses((ProcessGroup) c.value, processes);
+			processes.remove(null);
+		}
+		return processes;
+	}
+
+	private static void addProcesses(final ProcessGroup pg, final Set<ProcessIdentifier> processes) {
+		if (pg != null && pg.getProcessInfo() != null)
+			for (ProcessInfo pi : pg.getProcessInfo())
+				processes.add(pi != null ? pi.getProcessId() : null);
+	}
+
+	/**
+	 * Applies the changes to the old version of the service meta-data.
+	 *
+	 * @param base	the old version of the service meta-data, i.e. the version the change set was calculated from
+	 * @return	the new version of the service meta-data, which is the given instance if there are no changes
+	 * @throws IllegalArgumentException when the change set does not apply to the given service meta-data
+	 */
+	public ServiceMetadata applyTo(final ServiceMetadata base) {
+		check(SERVICE_METADATA, base, base != null ? base.getServiceId() : null);
+		if (root.op == Change.ADD)
+			return (ServiceMetadata) root.value;
+		else if (root.isEmpty())
+			return base;
+
+		final Set<ProcessGroup> groups = toSet(apply(base.getProcessMetadata(), root.children, MetadataDiff::groupKey,
+													 ChangeSet::applyGroup));
+		final List<Extension> exts = toList(root.get(Change.DOC_EXTENSIONS, base.getExtensions()));
+		if (base instanceof SignedQueryResult)
+			return new SignedServiceMetadataImpl(participantId, serviceId, groups, root.get(Change.DOC_SIGNING_CERT,
+											((SignedQueryResult) base).getSigningCertificate()), exts);
+		else
+			return new ServiceMetadataImpl(participantId, serviceId, groups, exts);
+	}
+
+	/**
+	 * Applies the changes to the old version of the V1 service group.
+	 *
+	 * @param base	the old version of the service group, i.e. the version the change set was calculated from
+	 * @return	the new version of the service group, which is the given instance if there are no changes
+	 * @throws IllegalArgumentException when the change set does not apply to the given service group
+	 */
+	public ServiceGroupV1 applyTo(final ServiceGroupV1 base) {
+		check(SERVICE_GROUP_V1, base, null);
+		if (root.op == Change.ADD)
+			return (ServiceGroupV1) root.value;
+		else if (root.isEmpty())
+			return base;
+
+		final List<Extension> exts = toList(root.get(Change.DOC_EXTENSIONS, base.getExtensions()));
+		final ServiceGroupV1Impl sg = new ServiceGroupV1Impl(participantId, null, exts);
+		final Collection<URL> refs = apply(base.getServiceReferences(), root.children, MetadataDiff::urlKey, null);
+		if (refs != null)
+			for (URL u : refs)
+				sg.addServiceReference(u);
+		return sg;
+	}
+
+	/**
+	 * Applies the changes to the old version of the V2 service group.
+	 *
+	 * @param base	the old version of the service group, i.e. the version the change set was calculated from
+	 * @return	the new version of the service group, which is the given instance if there are no changes
+	 * @throws IllegalArgumentException when the change set does not apply to the given service group
+	 */
+	public ServiceGroupV2 applyTo(final ServiceGroupV2 base) {
+		check(SERVICE_GROUP_V2, base, null);
+		if (root.op == Change.ADD)
+			return (ServiceGroupV2) root.value;
+		else if (root.isEmpty())
+			return base;
+
+		final Set<ServiceReference> refs = toSet(apply(base.getServiceReferences(), root.children,
+													   MetadataDiff::referenceKey, ChangeSet::applyReference));
+		final List<Extension> exts = toList(root.get(Change.DOC_EXTENSIONS, base.getExtensions()));
+		if (base instanceof SignedQueryResult)
+			return new SignedServiceGroupImpl(participantId, refs, root.get(Change.DOC_SIGNING_CERT,
+											  ((SignedQueryResult) base).getSigningCertificate()), exts);
+		else
+			return new ServiceGroupV2Impl(participantId, refs, exts);
+	}
+
+	private void check(final int expected, final QueryResult base, final Identifier service) {
+		if (base == null)
+			throw new IllegalArgumentException("The meta-data to apply the changes to must be specified");
+		if (kind != expected || !Utils.nullSafeEqual(participantId, base.getParticipantId())
+			|| !Utils.nullSafeEqual(serviceId, service))
+			throw new IllegalArgumentException("The change set does not apply to the given meta-data");
+	}
+
+	private static ProcessGroup applyGroup(final ProcessGroup base, final Change c) {
+		final ProcessGroupImpl pg = new ProcessGroupImpl(toSet(c.get(Change.PG_PROCESSES, base.getProcessInfo())),
+														 c.get(Change.PG_REDIRECTION, base.getRedirection()),
+														 toList(c.get(Change.PG_EXTENSIONS, base.getExtensions())));
+		pg.setEndpoints(toSet(apply(base.getEndpoints(), c.children, MetadataDiff::endpointKey,
+									ChangeSet::applyEndpoint)));
+		return pg;
+	}
+
+	private static EndpointInfo applyEndpoint(final EndpointInfo base, final Change c) {
+		final Set<Certificate> certs = toSet(apply(base.getCertificates(), c.children, MetadataDiff::certificateKey,
+												   ChangeSet::applyCertificate));
+		final URL url = c.get(Change.EP_URL, base.getEndpointURL());
+		final ZonedDateTime activation = c.get(Change.EP_ACTIVATION, base.getServiceActivationDate());
+		final ZonedDateTime expiration = c.get(Change.EP_EXPIRATION, base.getServiceExpirationDate());
+		final String description = c.get(Change.EP_DESCRIPTION, base.getDescription());
+		final String contact = c.get(Change.EP_CONTACT, base.getContactInfo());
+		final List<Extension> exts = toList(c.get(Change.EP_EXTENSIONS, base.getExtensions()));
+		if (!(base instanceof EndpointInfoV1))
+			return new EndpointInfoImpl(base.getTransportProfile(), url, activation, expiration, description, contact,
+										certs, exts);
+
+		final EndpointInfoV1 v1 = (EndpointInfoV1) base;
+		final EndpointInfoV1Impl ep = new EndpointInfoV1Impl(base.getTransportProfile(), url, null,
+									c.get(Change.EP_BLS_REQUIRED, v1.getBusinessLevelSignatureRequired()),
+									c.get(Change.EP_MIN_AUTH_LEVEL, v1.getMinimumAuthenticationLevel()),
+									activation, expiration, description, contact,
+									c.get(Change.EP_TECH_INFO_URL, v1.getTechnicalInformationURL()), exts);
+		ep.setCertificates(certs);
+		return ep;
+	}
+
+	private static Certificate applyCertificate(final Certificate base, final Change c) {
+		final CertificateImpl cert = base instanceof EncodedCertificateImpl ? new EncodedCertificateImpl(base)
+																			 : new CertificateImpl(base);
+		cert.setUsage(c.get(Change.CERT_USAGE, base.getUsage()));
+		cert.setActivationDate(c.get(Change.CERT_ACTIVATION, base.getActivationDate()));
+		cert.setExpirationDate(c.get(Change.CERT_EXPIRATION, base.getExpirationDate()));
+		cert.setDescription(c.get(Change.CERT_DESCRIPTION, base.getDescription()));
+		cert.setExtensions(toList(c.get(Change.CERT_EXTENSIONS, base.getExtensions())));
+		return cert;
+	}
+
+	private static ServiceReference applyReference(final ServiceReference base, final Change c) {
+		return new ServiceReferenceImpl(base.getServiceId(), toSet(c.get(Change.REF_PROCESSES, base.getProcessInfo())),
+										toList(c.get(Change.REF_EXTENSIONS, base.getExtensions())));
+	}
+
+	/**
+	 * Applies the changes to a collection.
+	 *
+	 * @param base		the old version of the collection
+	 * @param changes	the changes to the collection, may be <code>null</code>
+	 * @param key		the function that gets the key of an object in the collection
+	 * @param modify	the function that applies a modification to an object
+	 * @return	the new version of the collection, which is the old version if there are no changes
+	 * @throws IllegalArgumentException when an object to remove or modify is not found in the collection
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Collection<T> apply(final Collection<? extends T> base, final List<Change> changes,
+										   final Function<T, Object> key, final BiFunction<T, Change, T> modify) {
+		if (changes == null)
+			return (Collection<T>) base;
+
+		final List<T> items = base != null ? new ArrayList<>(base) : new ArrayList<>();
+		final int n = items.size();
+		final boolean[] removed = new boolean[n];
+		Map<Object, Integer> index = null;
+		for (Change c : changes) {
+			if (c.op == Change.ADD) {
+				items.add((T) c.value);
+				continue;
+			}
+			int i = -1;
+			if (c.key != null) {
+				if (index == null) {
+					index = new HashMap<>();
+					for (int j = 0; j < n; j++)
+						index.putIfAbsent(key.apply(items.get(j)), j);
+				}
+				final Integer p = index.get(c.key);
+				i = p != null ? p : -1;
+			} else
+				for (int j = 0; j < n && i < 0; j++)
+					if (!removed[j] && Utils.nullSafeEqual(items.get(j), c.value))
+						i = j;
+			if (i < 0 || removed[i])
+				throw new IllegalArgumentException("The change set does not apply to the given meta-data");
+			if (c.op == Change.REMOVE)
+				removed[i] = true;
+			else
+				items.set(i, modify.apply(items.get(i), c));
+		}
+		final List<T> result = new ArrayList<>(items.size());
+		for (int j = 0; j < items.size(); j++)
+			if (j >= n || !removed[j])
+				result.add(items.get(j));
+		return result;
+	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializedChangeSet} of this instance
+	 */
+	private Object writeReplace() {
+		return new SerializedChangeSet(this);
+	}
+
+	private void readObject(final ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException("Change sets are only deserialized from their compact serialized form");
+	}
+
+	/**
+	 * Copies the collection into a new set, so the new version does not share the collection with the old version or
+	 * the change set.
+	 */
+	private static <T> Set<T> toSet(final Collection<? extends T> c) {
+		return c != null ? new HashSet<>(c) : null;
+	}
+
+	/**
+	 * Copies the list of extensions, so the new version does not share the list with the old version or the change set.
+	 */
+	private static List<Extension> toList(final List<Extension> exts) {
+		return exts != null ? new ArrayList<>(exts) : null;
+	}
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.diff;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.SignedQueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.URLUtils;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Calculates the differences between two versions of the service meta-data or service group of a participant as a
+ * {@link ChangeSet}. The change set only contains the objects and properties that were changed, so its size depends on
+ * the size of the change and not on the size of the meta-data.
+ * <p>The objects in the collections of both versions are matched on their key. The key of a process group is the set
+ * of its process identifiers, of an endpoint its transport profile, of a certificate its fingerprint and of a service
+ * reference its service identifier. Objects that are equal in both versions are not changed. The other objects of the
+ * old version that have a key that is unique in both versions are modified when the new version contains an object
+ * with the same key and removed otherwise. Objects without a unique key, like two process groups for the same
+ * processes, are removed and added as a whole. A change of an endpoint from the V1 to the V2 version of the data model,
+ * or the other way round, and a change between signed and unsigned meta-data are also handled by replacing the object.
+ * When none of the process groups or service references of the old version is kept, the change set replaces the
+ * meta-data as a whole.
+ * <p>The change set refers to the objects of the new version that are added or that provide the new value of a
+ * property. These objects should therefore not be modified after the change set is created.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public final class MetadataDiff {
+
+	private MetadataDiff() {}
+
+	/**
+	 * Calculates the changes between two versions of the service meta-data of a participant and service.
+	 *
+	 * @param base		the old version of the service meta-data
+	 * @param target	the new version of the service meta-data
+	 * @return	the changes to apply to the old version to get the new version
+	 * @throws IllegalArgumentException when either version is <code>null</code> or when the versions are not of the
+	 * 									same participant and service
+	 */
+	public static ChangeSet diff(final ServiceMetadata base, final ServiceMetadata target) {
+		checkParticipant(base, target);
+		if (!Utils.nullSafeEqual(base.getServiceId(), target.getServiceId()))
+			throw new IllegalArgumentException("Service meta-data must be of the same service");
+
+		Change root = diffDocument(base, target);
+		if (root.op == Change.MODIFY) {
+			root.children = diff(base.getProcessMetadata(), target.getProcessMetadata(), MetadataDiff::groupKey,
+								 MetadataDiff::diffGroup);
+			if (nothingKept(base.getProcessMetadata(), root.children))
+				root = new Change(Change.ADD, null, target);
+		}
+		return new ChangeSet(ChangeSet.SERVICE_METADATA, target.getParticipantId(), target.getServiceId(), root);
+	}
+
+	/**
+	 * Calculates the changes between two versions of the V1 service group of a participant.
+	 *
+	 * @param base		the old version of the service group
+	 * @param target	the new version of the service group
+	 * @return	the changes to apply to the old version to get the new version
+	 * @throws IllegalArgumentException when either version is <code>null</code> or when the versions are not of the
+	 * 									same participant
+	 */
+	public static ChangeSet diff(final ServiceGroupV1 base, final ServiceGroupV1 target) {
+		checkParticipant(base, target);
+
+		Change root = diffDocument(base, target);
+		if (root.op == Change.MODIFY) {
+			final Map<String, URL> added = new LinkedHashMap<>();
+			if (target.getServiceReferences() != null)
+				for (URL u : target.getServiceReferences())
+					added.put(urlKey(u), u);
+			final List<Change> changes = new ArrayList<>();
+			if (base.getServiceReferences() != null)
+				for (URL u : base.getServiceReferences()) {
+					final String key = urlKey(u);
+					if (added.remove(key) == null)
+						changes.add(new Change(Change.REMOVE, key, null));
+				}
+			for (URL u : added.values())
+				changes.add(new Change(Change.ADD, null, u));
+			root.children = changes.isEmpty() ? null : changes;
+			if (nothingKept(base.getServiceReferences(), root.children))
+				root = new Change(Change.ADD, null, target);
+		}
+		return new ChangeSet(ChangeSet.SERVICE_GROUP_V1, target.getParticipantId(), null, root);
+	}
+
+	/**
+	 * Calculates the changes between two versions of the V2 service group of a participant.
+	 *
+	 * @param base		the old version of the service group
+	 * @param target	the new version of the service group
+	 * @return	the changes to apply to the old version to get the new version
+	 * @throws IllegalArgumentException when either version is <code>null</code> or when the versions are not of the
+	 * 									same participant
+	 */
+	public static ChangeSet diff(final ServiceGroupV2 base, final ServiceGroupV2 target) {
+		checkParticipant(base, target);
+
+		Change root = diffDocument(base, target);
+		if (root.op == Change.MODIFY) {
+			root.children = diff(base.getServiceReferences(), target.getServiceReferences(),
+								 MetadataDiff::referenceKey, MetadataDiff::diffReference);
+			if (nothingKept(base.getServiceReferences(), root.children))
+				root = new Change(Change.ADD, null, target);
+		}
+		return new ChangeSet(ChangeSet.SERVICE_GROUP_V2, target.getParticipantId(), null, root);
+	}
+
+	private static void checkParticipant(final QueryResult base, final QueryResult target) {
+		if (base == null || target == null)
+			throw new IllegalArgumentException("Both versions must be specified");
+		if (!Utils.nullSafeEqual(base.getParticipantId(), target.getParticipantId()))
+			throw new IllegalArgumentException("Versions must be of the same participant");
+	}
+
+	/**
+	 * Calculates the changes to the extensions and signing certificate of a service meta-data or service group. When
+	 * only one of the versions is signed the new version replaces the old one.
+	 */
+	private static Change diffDocument(final QueryResult base, final QueryResult target) {
+		final boolean signed = target instanceof SignedQueryResult;
+		if (signed != base instanceof SignedQueryResult)
+			return new Change(Change.ADD, null, target);
+		return modification(null, documentProperties(base), documentProperties(target));
+	}
+
+	/**
+	 * Indicates whether none of the objects of the old version of a collection is kept. As all objects of the new
+	 * version are then added, it is more efficient to replace the meta-data as a whole.
+	 */
+	private static boolean nothingKept(final Collection<?> base, final List<Change> changes) {
+		if (changes == null)
+			return false;
+		int removed = 0;
+		for (Change c : changes)
+			if (c.op == Change.REMOVE)
+				removed++;
+		return removed == (base != null ? base.size() : 0);
+	}
+
+	private static Object[] documentProperties(final QueryResult doc) {
+		final Object[] p = new Object[Change.DOC_PROPERTIES];
+		if (doc instanceof ServiceMetadata)
+			p[Change.DOC_EXTENSIONS] = ((ServiceMetadata) doc).getExtensions();
+		else if (doc instanceof ServiceGroupV1)
+			p[Change.DOC_EXTENSIONS] = ((ServiceGroupV1) doc).getExtensions();
+		else if (doc instanceof ServiceGroupV2)
+			p[Change.DOC_EXTENSIONS] = ((ServiceGroupV2) doc).getExtensions();
+		if (doc instanceof SignedQueryResult)
+			p[Change.DOC_SIGNING_CERT] = ((SignedQueryResult) doc).getSigningCertificate();
+		return p;
+	}
+
+	private static Change diffGroup(final ProcessGroup base, final ProcessGroup target) {
+		final Change c = modification(groupKey(base),
+						   new Object[] { base.getProcessInfo(), base.getRedirection(), base.getExtensions() },
+						   new Object[] { target.getProcessInfo(), target.getRedirection(), target.getExtensions() });
+		c.children = diff(base.getEndpoints(), target.getEndpoints(), MetadataDiff::endpointKey,
+						  MetadataDiff::diffEndpoint);
+		return c;
+	}
+
+	private static Change diffEndpoint(final EndpointInfo base, final EndpointInfo target) {
+		if (base instanceof EndpointInfoV1 != target instanceof EndpointInfoV1)
+			return null;
+		final Change c = modification(endpointKey(base), endpointProperties(base), endpointProperties(target));
+		c.children = diff(base.getCertificates(), target.getCertificates(), MetadataDiff::certificateKey,
+						  MetadataDiff::diffCertificate);
+		return c;
+	}
+
+	private static Object[] endpointProperties(final EndpointInfo ep) {
+		final boolean v1 = ep instanceof EndpointInfoV1;
+		final Object[] p = new Object[v1 ? Change.EP_V1_PROPERTIES : Change.EP_PROPERTIES];
+		p[Change.EP_URL] = ep.getEndpointURL();
+		p[Change.EP_ACTIVATION] = ep.getServiceActivationDate();
+		p[Change.EP_EXPIRATION] = ep.getServiceExpirationDate();
+		p[Change.EP_DESCRIPTION] = ep.getDescription();
+		p[Change.EP_CONTACT] = ep.getContactInfo();
+		p[Change.EP_EXTENSIONS] = ep.getExtensions();
+		if (v1) {
+			final EndpointInfoV1 epV1 = (EndpointInfoV1) ep;
+			p[Change.EP_BLS_REQUIRED] = epV1.getBusinessLevelSignatureRequired();
+			p[Change.EP_MIN_AUTH_LEVEL] = epV1.getMinimumAuthenticationLevel();
+			p[Change.EP_TECH_INFO_URL] = epV1.getTechnicalInformationURL();
+		}
+		return p;
+	}
+
+	private static Change diffCertificate(final Certificate base, final Certificate target) {
+		return modification(certificateKey(base),
+							new Object[] { base.getUsage(), base.getActivationDate(), base.getExpirationDate(),
+										   base.getDescription(), base.getExtensions() },
+							new Object[] { target.getUsage(), target.getActivationDate(), target.getExpirationDate(),
+										   target.getDescription(), target.getExtensions() });
+	}
+
+	private static Change diffReference(final ServiceReference base, final ServiceReference target) {
+		return modification(referenceKey(base), new Object[] { base.getProcessInfo(), base.getExtensions() },
+							new Object[] { target.getProcessInfo(), target.getExtensions() });
+	}
+
+	/**
+	 * Creates the modification of an object from the values of its properties in both versions. The values of the
+	 * properties that are not changed are cleared from the array of new values, which becomes the property array of
+	 * the modification.
+	 */
+	private static Change modification(final Object key, final Object[] base, final Object[] target) {
+		final Change c = new Change(Change.MODIFY, key, null);
+		for (int i = 0; i < target.length; i++)
+			if (isSame(base[i], target[i]))
+				target[i] = null;
+			else
+				c.modified |= 1 << i;
+		if (c.modified != 0)
+			c.properties = target;
+		return c;
+	}
+
+	/**
+	 * Compares two property values in the same way as the <code>equals()</code> methods of the implementation classes
+	 * do, i.e. URLs are compared on their normalised form and collections as sets where <code>null</code> and empty
+	 * are equal.
+	 */
+	private static boolean isSame(final Object a, final Object b) {
+		if (a instanceof URL || b instanceof URL)
+			return a instanceof URL && b instanceof URL ? URLUtils.areEqual((URL) a, (URL) b) : a == b;
+		else if (a instanceof Collection || b instanceof Collection)
+			return Utils.areEqual((Collection<?>) a, (Collection<?>) b);
+		else
+			return Utils.nullSafeEqual(a, b);
+	}
+
+	/**
+	 * Calculates the changes between two versions of a collection.
+	 *
+	 * @param base		the old version of the collection
+	 * @param target	the new version of the collection
+	 * @param key		the function that gets the key of an object in the collection
+	 * @param modify	the function that calculates the modification of an object, which returns <code>null</code> if
+	 * 					the object must be replaced. An object is also replaced when the modification is empty, which
+	 * 					can only happen when the objects differ in a way not covered by their properties.
+	 * @return	the changes to the collection, <code>null</code> if the collection is not changed
+	 */
+	private static <T> List<Change> diff(final Collection<? extends T> base, final Collection<? extends T> target,
+										 final Function<T, Object> key, final BiFunction<T, T, Change> modify) {
+		final List<T> removed = new ArrayList<>(), added = new ArrayList<>();
+		unmatched(base, target, removed, added);
+		if (removed.isEmpty() && added.isEmpty())
+			return null;
+
+		final Map<Object, Integer> baseKeys = countKeys(base, key), targetKeys = countKeys(target, key);
+		final Map<Object, T> addedByKey = new HashMap<>();
+		for (T t : added) {
+			final Object k = key.apply(t);
+			if (k != null && targetKeys.get(k) == 1)
+				addedByKey.put(k, t);
+		}
+		final List<Change> changes = new ArrayList<>(removed.size() + added.size());
+		final Set<T> paired = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (T b : removed) {
+			final Object k = key.apply(b);
+			if (k != null && baseKeys.get(k) == 1 && targetKeys.getOrDefault(k, 0) <= 1) {
+				final T t = addedByKey.get(k);
+				final Change c = t != null ? modify.apply(b, t) : null;
+				if (c != null && !c.isEmpty()) {
+					paired.add(t);
+					changes.add(c);
+				} else
+					changes.add(new Change(Change.REMOVE, k, null));
+			} else
+				changes.add(new Change(Change.REMOVE, null, b));
+		}
+		for (T t : added)
+			if (!paired.contains(t))
+				changes.add(new Change(Change.ADD, null, t));
+		return changes.isEmpty() ? null : changes;
+	}
+
+	/**
+	 * Collects the objects of both versions of a collection that have no equal object in the other version, taking
+	 * the number of occurrences of equal objects into account. Each object is only hashed once.
+	 */
+	private static <T> void unmatched(final Collection<? extends T> base, final Collection<? extends T> target,
+									  final List<T> removed, final List<T> added) {
+		if (Utils.isNullOrEmpty(base)) {
+			if (target != null)
+				added.addAll(target);
+			return;
+		} else if (Utils.isNullOrEmpty(target)) {
+			removed.addAll(base);
+			return;
+		}
+		final Map<T, int[]> counts = new HashMap<>();
+		for (T o : base)
+			counts.computeIfAbsent(o, k -> new int[1])[0]++;
+		for (T o : target) {
+			final int[] n = counts.get(o);
+			if (n != null && n[0] > 0)
+				n[0]--;
+			else
+				added.add(o);
+		}
+		for (Map.Entry<T, int[]> e : counts.entrySet())
+			for (int i = e.getValue()[0]; i > 0; i--)
+				removed.add(e.getKey());
+	}
+
+	private static <T> Map<Object, Integer> countKeys(final Collection<? extends T> c, final Function<T, Object> key) {
+		final Map<Object, Integer> counts = new HashMap<>();
+		if (c != null)
+			for (T o : c)
+				counts.merge(key.apply(o), 1, Integer::sum);
+		return counts;
+	}
+
+	/**
+	 * Gets the key of a process group, which is the set of its process identifiers.
+	 */
+	static Object groupKey(final ProcessGroup pg) {
+		if (pg == null)
+			return null;
+		final Collection<? extends ProcessInfo> processes = pg.getProcessInfo();
+		final HashSet<Identifier> key = new HashSet<>();
+		if (processes != null)
+			for (ProcessInfo pi : processes)
+				key.add(pi != null ? pi.getProcessId() : null);
+		return key;
+	}
+
+	static Object endpointKey(final EndpointInfo ep) {
+		return ep != null ? ep.getTransportProfile() : null;
+	}
+
+	/**
+	 * Gets the key of a certificate, which is the base64 encoded form of its fingerprint.
+	 */
+	static Object certificateKey(final Certificate c) {
+		final byte[] fingerprint = c != null ? c.getFingerprint() : null;
+		return fingerprint != null ? Base64.getEncoder().encodeToString(fingerprint) : null;
+	}
+
+	static Object referenceKey(final ServiceReference ref) {
+		return ref != null ? ref.getServiceId() : null;
+	}
+
+	static String urlKey(final URL url) {
+		return URLUtils.normalise(url);
+	}
+}
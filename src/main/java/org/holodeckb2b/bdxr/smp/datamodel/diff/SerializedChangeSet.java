@@ -0,0 +1,384 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.diff;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.holodeckb2b.bdxr.smp.datamodel.ExtensibleMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryReader;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryWriter;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensionFilter;
+
+/**
+ * Is the serialized form of a {@link ChangeSet}. Instead of the default serialized form, which includes the class
+ * descriptors and field names of the change tree and the default serialized form of URLs, the change set is written as
+ * a compact tree of changes. Each change is written as its kind, the key of the object, the bit mask and new values of
+ * the modified properties and the changes to the child objects. Strings are written once and later referenced by their
+ * position in a dictionary, objects of the data model are encoded by the {@link BinaryWriter} and extensions are
+ * written using Java serialization. Note that the extensions contained in the encoded objects of the data model are
+ * only restored when allowed by the {@link ExtensionFilter#getDefault() default extension filter}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class SerializedChangeSet implements Externalizable {
+	private static final long serialVersionUID = 2297734460468565263L;
+
+	/**
+	 * The version of the serialized form
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * The reader used to restore the objects of the data model
+	 */
+	private static final BinaryReader READER = new BinaryReader();
+	/**
+	 * The number of bytes of a value that is read before its length from the stream is trusted. The buffer for the
+	 * value only grows as more bytes are read, so a forged length cannot make the change set allocate much more
+	 * memory than the stream actually contains.
+	 */
+	private static final int CHUNK_SIZE = 8192;
+
+	/*
+	 * Tags of the values
+	 */
+	private static final int NULL = 0;
+	private static final int STRING = 1;
+	private static final int URL_VALUE = 2;
+	private static final int DATE = 3;
+	private static final int BOOLEAN = 4;
+	private static final int X509 = 5;
+	private static final int MODEL = 6;
+	private static final int SET = 7;
+	private static final int LIST = 8;
+	private static final int OBJECT = 9;
+
+	/**
+	 * Maximum nesting of the change tree
+	 */
+	private static final int MAX_DEPTH = 8;
+
+	private ChangeSet	changes;
+
+	/**
+	 * The strings already written or read, respectively with their position in and as the dictionary
+	 */
+	private transient Map<String, Integer>	symbols;
+	private transient List<String>			dictionary;
+
+	/**
+	 * Default constructor used by the serialization framework.
+	 */
+	public SerializedChangeSet() {}
+
+	SerializedChangeSet(final ChangeSet changes) {
+		this.changes = changes;
+	}
+
+	@Override
+	public void writeExternal(final ObjectOutput out) throws IOException {
+		symbols = new HashMap<>();
+		out.writeByte(VERSION);
+		out.writeByte(changes.kind);
+		writeValue(out, changes.participantId);
+		writeValue(out, changes.serviceId);
+		writeChange(out, changes.root);
+		symbols = null;
+	}
+
+	private void writeChange(final ObjectOutput out, final Change c) throws IOException {
+		out.writeByte(c.op);
+		switch (c.op) {
+		case Change.ADD :
+			writeValue(out, c.value);
+			break;
+		case Change.REMOVE :
+			writeValue(out, c.key);
+			if (c.key == null)
+				writeValue(out, c.value);
+			break;
+		default :
+			writeValue(out, c.key);
+			writeVarInt(out, c.modified);
+			if (c.modified != 0) {
+				writeVarInt(out, c.properties.length);
+				for (int i = 0; i < c.properties.length; i++)
+					if (c.isModified(i))
+						writeValue(out, c.properties[i]);
+			}
+			final int n = c.children != null ? c.children.size() : 0;
+			writeVarInt(out, n);
+			for (int i = 0; i < n; i++)
+				writeChange(out, c.children.get(i));
+		}
+	}
+
+	private void writeValue(final ObjectOutput out, final Object v) throws IOException {
+		if (v == null)
+			out.writeByte(NULL);
+		else if (v instanceof String) {
+			out.writeByte(STRING);
+			writeString(out, (String) v);
+		} else if (v instanceof URL) {
+			out.writeByte(URL_VALUE);
+			writeString(out, ((URL) v).toExternalForm());
+		} else if (v instanceof ZonedDateTime) {
+			final ZonedDateTime d = (ZonedDateTime) v;
+			out.writeByte(DATE);
+			out.writeLong(d.toEpochSecond());
+			writeVarInt(out, d.getNano());
+			writeString(out, d.getZone().getId());
+		} else if (v instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) v);
+		} else if (v instanceof X509Certificate) {
+			final byte[] der;
+			try {
+				der = ((X509Certificate) v).getEncoded();
+			} catch (CertificateEncodingException e) {
+				throw new IOException("Could not encode certificate", e);
+			}
+			out.writeByte(X509);
+			writeVarInt(out, der.length);
+			out.write(der);
+		} else if (v instanceof ExtensibleMetadata || v instanceof Identifier || v instanceof QueryResult) {
+			byte[] encoded;
+			try {
+				encoded = BinaryWriter.encode(v);
+			} catch (RuntimeException cannotEncode) {
+				encoded = null;
+			}
+			if (encoded != null) {
+				out.writeByte(MODEL);
+				writeVarInt(out, encoded.length);
+				out.write(encoded);
+			} else {
+				out.writeByte(OBJECT);
+				out.writeObject(v);
+			}
+		} else if (v instanceof Collection) {
+			final Collection<?> c = (Collection<?>) v;
+			out.writeByte(v instanceof Set ? SET : LIST);
+			writeVarInt(out, c.size());
+			for (Object e : c)
+				writeValue(out, e);
+		} else {
+			out.writeByte(OBJECT);
+			out.writeObject(v);
+		}
+	}
+
+	private void writeString(final ObjectOutput out, final String s) throws IOException {
+		final Integer ref = symbols.get(s);
+		if (ref != null)
+			writeVarInt(out, ref + 1);
+		else {
+			symbols.put(s, symbols.size());
+			final byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(out, 0);
+			writeVarInt(out, utf8.length);
+			out.write(utf8);
+		}
+	}
+
+	private static void writeVarInt(final ObjectOutput out, int v) throws IOException {
+		while ((v & ~0x7F) != 0) {
+			out.writeByte((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		out.writeByte(v);
+	}
+
+	@Override
+	public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
+		dictionary = new ArrayList<>();
+		if (in.readUnsignedByte() != VERSION)
+			throw new InvalidObjectException("Unsupported version of serialized change set");
+		final int kind = in.readUnsignedByte();
+		if (kind < ChangeSet.SERVICE_METADATA || kind > ChangeSet.SERVICE_GROUP_V2)
+			throw new InvalidObjectException("Invalid kind of change set");
+		final Object participantId = readValue(in);
+		final Object serviceId = readValue(in);
+		if (!(participantId instanceof Identifier) || serviceId != null && !(serviceId instanceof Identifier))
+			throw new InvalidObjectException("Invalid identifiers of change set");
+		final Change root = readChange(in, 0);
+		if (root.op == Change.REMOVE)
+			throw new InvalidObjectException("Invalid root of change set");
+		changes = new ChangeSet(kind, (Identifier) participantId, (Identifier) serviceId, root);
+		dictionary = null;
+	}
+
+	private Change readChange(final ObjectInput in, final int depth) throws IOException, ClassNotFoundException {
+		if (depth > MAX_DEPTH)
+			throw new InvalidObjectException("Change tree is nested too deep");
+		final byte op = in.readByte();
+		switch (op) {
+		case Change.ADD :
+			return new Change(op, null, readValue(in));
+		case Change.REMOVE : {
+			final Object key = readValue(in);
+			return new Change(op, key, key == null ? readValue(in) : null);
+		}
+		case Change.MODIFY : {
+			final Change c = new Change(op, readValue(in), null);
+			c.modified = readVarInt(in);
+			if (c.modified != 0) {
+				final int n = readVarInt(in);
+				if (n < 0 || n > 31 || c.modified >>> n != 0)
+					throw new InvalidObjectException("Invalid modified properties");
+				c.properties = new Object[n];
+				for (int i = 0; i < n; i++)
+					if (c.isModified(i))
+						c.properties[i] = readValue(in);
+			}
+			final int n = readVarInt(in);
+			if (n < 0)
+				throw new InvalidObjectException("Invalid number of child changes");
+			if (n > 0) {
+				c.children = new ArrayList<>(Math.min(n, 1024));
+				for (int i = 0; i < n; i++)
+					c.children.add(readChange(in, depth + 1));
+			}
+			return c;
+		}
+		default :
+			throw new InvalidObjectException("Invalid kind of change: " + op);
+		}
+	}
+
+	private Object readValue(final ObjectInput in) throws IOException, ClassNotFoundException {
+		final int tag = in.readUnsignedByte();
+		switch (tag) {
+		case NULL :
+			return null;
+		case STRING :
+			return readString(in);
+		case URL_VALUE :
+			try {
+				return new URL(readString(in));
+			} catch (MalformedURLException invalid) {
+				throw new InvalidObjectException("Invalid URL");
+			}
+		case DATE :
+			try {
+				final long seconds = in.readLong();
+				final int nanos = readVarInt(in);
+				return ZonedDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneId.of(readString(in)));
+			} catch (DateTimeException invalid) {
+				throw new InvalidObjectException("Invalid time stamp");
+			}
+		case BOOLEAN :
+			return in.readBoolean();
+		case X509 :
+			try {
+				return new EncodedCertificateImpl(readBytes(in)).getX509Cert();
+			} catch (IllegalArgumentException | IllegalStateException invalid) {
+				throw new InvalidObjectException("Invalid certificate");
+			}
+		case MODEL : {
+			final byte[] encoded = readBytes(in);
+			try {
+				return READER.decode(encoded);
+			} catch (IOException invalid) {
+				final InvalidObjectException ex = new InvalidObjectException("Invalid encoded object");
+				ex.initCause(invalid);
+				throw ex;
+			}
+		}
+		case SET :
+		case LIST : {
+			final int n = readVarInt(in);
+			if (n < 0)
+				throw new InvalidObjectException("Invalid collection size");
+			final Collection<Object> c = tag == SET ? new HashSet<>() : new ArrayList<>(Math.min(n, 1024));
+			for (int i = 0; i < n; i++)
+				c.add(readValue(in));
+			return c;
+		}
+		case OBJECT :
+			return in.readObject();
+		default :
+			throw new InvalidObjectException("Invalid value tag: " + tag);
+		}
+	}
+
+	private String readString(final ObjectInput in) throws IOException {
+		final int ref = readVarInt(in);
+		if (ref > 0) {
+			if (ref > dictionary.size())
+				throw new InvalidObjectException("Invalid string reference");
+			return dictionary.get(ref - 1);
+		}
+		final String s = new String(readBytes(in), StandardCharsets.UTF_8);
+		dictionary.add(s);
+		return s;
+	}
+
+	private static byte[] readBytes(final ObjectInput in) throws IOException {
+		final int len = readVarInt(in);
+		if (len < 0)
+			throw new InvalidObjectException("Invalid length");
+		byte[] b = new byte[Math.min(len, CHUNK_SIZE)];
+		int read = 0;
+		while (read < len) {
+			if (read == b.length)
+				b = Arrays.copyOf(b, (int) Math.min(len, 2L * b.length));
+			in.readFully(b, read, b.length - read);
+			read = b.length;
+		}
+		return b;
+	}
+
+	private static int readVarInt(final ObjectInput in) throws IOException {
+		int v = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			final int b = in.readUnsignedByte();
+			v |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return v;
+		}
+		throw new InvalidObjectException("Invalid variable length integer");
+	}
+
+	private Object readResolve() throws ObjectStreamException {
+		return changes;
+	}
+}
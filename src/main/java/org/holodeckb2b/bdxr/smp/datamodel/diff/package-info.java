@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * This package contains the diff engine for the SMP data model. The {@link
+ * org.holodeckb2b.bdxr.smp.datamodel.diff.MetadataDiff} compares two versions of the service meta-data or service group
+ * of a participant and returns the changes as a {@link org.holodeckb2b.bdxr.smp.datamodel.diff.ChangeSet}. When the
+ * meta-data in an SMP is updated, only the change set needs to be replicated to the other nodes, which apply it to
+ * their copy of the old version. The change set also tells which processes are affected by the change, so caches only
+ * need to be updated for these processes.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.diff;
@@ -18,7 +18,6 @@ package org.holodeckb2b.bdxr.smp.datamodel.impl;
 
 import java.net.URL;
 import java.util.List;
-import java.util.Objects;
 import org.holodeckb2b.bdxr.smp.datamodel.Extension;
 import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
 
@@ -26,6 +25,9 @@ import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
  * @author Sander Fieten (sander at holodeck-b2b.org)
  */
 abstract class AbstractRedirectionImpl extends ExtensibleMetadataClass implements Redirection {
+
+	private static final long serialVersionUID = 585788898810834206L;
+
 	/**
 	 * The new URL to use for the SMP query
 	 */
@@ -84,19 +86,22 @@ abstract class AbstractRedirectionImpl extends ExtensibleMetadataClass implement
      * @param redirectedURL		The URL to use for a new query
      */
     public void setNewSMPURL(final URL redirectedURL) {
+    	checkNotFrozen();
     	this.newTargetURL = redirectedURL;
     }
 
     @Override
     public boolean equals(Object r) {
-		return this.newTargetURL.equals(((Redirection) r).getNewSMPURL()) && super.equals(r);
+    	if (r == null || !(r instanceof Redirection))
+    		return false;
+		return super.equals(r) && URLUtils.areEqual(this.newTargetURL, ((Redirection) r).getNewSMPURL());
     }
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result + Objects.hash(newTargetURL);
+		int result = super.contentHashCode();
+		result = prime * result + URLUtils.hashCode(newTargetURL);
 		return result;
 	}
 }
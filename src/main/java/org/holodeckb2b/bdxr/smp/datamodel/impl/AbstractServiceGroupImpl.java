@@ -32,6 +32,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public abstract class AbstractServiceGroupImpl<T> extends ExtensibleMetadataClass implements ServiceGroup<T> {
 
+	private static final long serialVersionUID = 861975399719553080L;
+
 	private Identifier  participantId;
     private Set<T>		serviceRefs;
 
@@ -83,6 +85,7 @@ public abstract class AbstractServiceGroupImpl<T> extends ExtensibleMetadataClas
      * @param participantId The participant id
      */
     public void setParticipantId(Identifier participantId) {
+        checkNotFrozen();
         this.participantId =  participantId;
     }
 
@@ -102,6 +105,7 @@ public abstract class AbstractServiceGroupImpl<T> extends ExtensibleMetadataClas
      * @param svcRefs set of service references
      */
     public void setServiceReferences(Set<T> svcRefs) {
+        checkNotFrozen();
         this.serviceRefs = svcRefs;
     }
 
@@ -111,11 +115,17 @@ public abstract class AbstractServiceGroupImpl<T> extends ExtensibleMetadataClas
      * @param svcRef  service reference
      */
     public void addServiceReference(final T svcRef) {
+		checkNotFrozen();
 		if (this.serviceRefs == null)
 			this.serviceRefs = new HashSet<>(1);
         this.serviceRefs.add(svcRef);
     }
 
+	@Override
+	protected void freezeContent() {
+		serviceRefs = freeze(serviceRefs);
+	}
+
     @Override
     public boolean equals(Object o) {
     	if (o == null || !(o instanceof ServiceGroup))
@@ -129,9 +139,9 @@ public abstract class AbstractServiceGroupImpl<T> extends ExtensibleMetadataClas
     }
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(participantId, !Utils.isNullOrEmpty(serviceRefs) ? serviceRefs : null);
 		return result;
 	}
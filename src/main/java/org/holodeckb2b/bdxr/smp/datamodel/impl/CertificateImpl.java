@@ -18,6 +18,7 @@ package org.holodeckb2b.bdxr.smp.datamodel.impl;
 
 import java.security.cert.X509Certificate;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
@@ -25,15 +26,24 @@ import org.holodeckb2b.bdxr.smp.datamodel.Extension;
 import org.holodeckb2b.commons.util.Utils;
 
 /**
+ * Implements the {@link Certificate} interface. Certificates are compared and hashed using the SHA-256 fingerprint of
+ * the X509 certificate, which is calculated once.
+ *
  * @author Sander Fieten (sander at holodeck-b2b.org)
  */
 public class CertificateImpl extends ExtensibleMetadataClass implements org.holodeckb2b.bdxr.smp.datamodel.Certificate {
 
+	private static final long serialVersionUID = 5820023304318472824L;
+
 	private X509Certificate	certificate;
 	private String			usage;
 	private String			description;
 	private ZonedDateTime	activation;
 	private ZonedDateTime	expiration;
+	/**
+	 * The SHA-256 fingerprint of the X509 certificate, calculated on first use
+	 */
+	private transient volatile byte[] fingerprint;
 
 	/**
 	 * Creates a new <code>Certificate</code> instance with the given X509 Certificate and non usage indication.
@@ -88,6 +98,23 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 		this.expiration = src.getExpirationDate();
 	}
 
+	/**
+	 * Creates a new <code>Certificate</code> instance copying the data from the given instance and using the shared
+	 * instance of the X509 certificate from the given pool.
+	 *
+	 * @param src	the instance to copy the data from
+	 * @param pool	the pool to get the shared X509 certificate from, may be <code>null</code> to use the certificate of
+	 * 				the source instance
+	 */
+	public CertificateImpl(final org.holodeckb2b.bdxr.smp.datamodel.Certificate src, final CertificatePool pool) {
+		this(src.getX509Cert(), src.getUsage(), src.getActivationDate(), src.getExpirationDate(), src.getDescription(),
+			 src.getExtensions());
+		if (pool != null && certificate != null) {
+			this.fingerprint = src.getFingerprint();
+			this.certificate = pool.intern(certificate, fingerprint);
+		}
+	}
+
 	/**
 	 * Gets the X509Certificate.
 	 *
@@ -104,7 +131,34 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 	 * @param cert	the certificate
 	 */
 	public void setX509Cert(final X509Certificate cert) {
+		checkNotFrozen();
 		this.certificate = cert;
+		this.fingerprint = null;
+	}
+
+	/**
+	 * Gets the SHA-256 fingerprint of the X509 certificate. The fingerprint is calculated once and cached until the
+	 * certificate is changed.
+	 *
+	 * @return	the SHA-256 fingerprint of the certificate, or <code>null</code> if there is no X509 certificate
+	 */
+	@Override
+	public byte[] getFingerprint() {
+		final byte[] fp = fingerprint();
+		return fp != null ? fp.clone() : null;
+	}
+
+	/**
+	 * Gets the cached fingerprint of the certificate, calculating it when needed. The returned array must not be
+	 * modified.
+	 *
+	 * @return	the fingerprint, or <code>null</code> if there is no X509 certificate
+	 */
+	byte[] fingerprint() {
+		byte[] fp = fingerprint;
+		if (fp == null && certificate != null)
+			fingerprint = fp = Certificate.super.getFingerprint();
+		return fp;
 	}
 
 	/**
@@ -123,6 +177,7 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 	 * @param usage		usage indicator
 	 */
 	public void setUsage(final String usage) {
+		checkNotFrozen();
 		this.usage = usage;
 	}
 
@@ -143,6 +198,7 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 	 * @param activation	the activation date of the certificate.
 	 */
 	public void setActivationDate(final ZonedDateTime activation) {
+		checkNotFrozen();
 		this.activation = activation;
 	}
 
@@ -164,6 +220,7 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 	 * @param expiration	the expiration date of the certificate.
 	 */
 	public void setExpirationDate(final ZonedDateTime expiration) {
+		checkNotFrozen();
 		this.expiration = expiration;
 	}
 
@@ -183,6 +240,7 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 	 * @param description	the description of the certificate
 	 */
 	public void setDescription(final String description) {
+		checkNotFrozen();
 		this.description = description;
 	}
 
@@ -193,7 +251,8 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 
 		Certificate c = (Certificate) o;
 		return super.equals(o)
-			&& Utils.nullSafeEqual(this.certificate, c.getX509Cert())
+			&& Arrays.equals(fingerprint(), c instanceof CertificateImpl ? ((CertificateImpl) c).fingerprint()
+																		   : c.getFingerprint())
 			&& Utils.nullSafeEqual(this.usage, c.getUsage())
 			&& Utils.nullSafeEqual(this.activation, c.getActivationDate())
 			&& Utils.nullSafeEqual(this.expiration, c.getExpirationDate())
@@ -201,13 +260,24 @@ public class CertificateImpl extends ExtensibleMetadataClass implements org.holo
 	}
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
+		final byte[] fp = fingerprint();
+		final int certHash = fp != null ? (fp[0] & 0xFF) << 24 | (fp[1] & 0xFF) << 16 | (fp[2] & 0xFF) << 8 | (fp[3] & 0xFF)
+										: 0;
 		result = prime * result + Objects.hash(activation != null ? activation.toInstant() : null,
-												certificate, description,
+												certHash, description,
 												expiration != null ? expiration.toInstant() : null, usage);
 		return result;
 	}
-}
 
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+
+/**
+ * Is a pool of shared {@link X509Certificate} instances. For each distinct certificate, identified by the SHA-256
+ * fingerprint of its DER encoded form, the pool returns one shared instance. Registries often use the same certificate
+ * for many endpoints and each parsed copy holds its own encoded form, public key and parsed extensions, so sharing the
+ * instances considerably reduces the memory needed for large sets of meta-data. The copy constructors of {@link
+ * CertificateImpl}, {@link EndpointInfoImpl}, {@link EndpointInfoV1Impl} and {@link RedirectionV2Impl} can use a pool
+ * to share the certificates of the copied meta-data.
+ * <p>Like the {@link IdentifierPool} the pool only holds weak references to the shared instances, so certificates that
+ * are not used anymore can be garbage collected, and the number of entries is limited by the maximum size given when
+ * the pool is created. When the pool is full, the given certificate is returned as is.
+ * <p>Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class CertificatePool {
+	/**
+	 * The default maximum number of certificates in the pool
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+	/**
+	 * The shared default pool
+	 */
+	private static final CertificatePool	DEFAULT_POOL = new CertificatePool(DEFAULT_MAX_SIZE);
+
+	/**
+	 * The shared instances, indexed by their fingerprint
+	 */
+	private final WeakPool<Key, X509Certificate>	pool;
+
+	/**
+	 * Creates a new pool with the given maximum size.
+	 *
+	 * @param maxSize	the maximum number of certificates to keep in the pool, must be positive
+	 */
+	public CertificatePool(final int maxSize) {
+		this.pool = new WeakPool<>(maxSize);
+	}
+
+	/**
+	 * Gets the shared default pool which has a maximum size of {@link #DEFAULT_MAX_SIZE}.
+	 *
+	 * @return the default certificate pool
+	 */
+	public static CertificatePool getDefault() {
+		return DEFAULT_POOL;
+	}
+
+	/**
+	 * Gets the shared instance of the given X509 certificate.
+	 *
+	 * @param cert	the X509 certificate, may be <code>null</code>
+	 * @return	the shared instance of the certificate, or <code>null</code> if no certificate was given
+	 * @throws IllegalStateException when the fingerprint of the certificate cannot be calculated
+	 */
+	public X509Certificate intern(final X509Certificate cert) {
+		return cert != null ? intern(cert, new CertificateImpl(cert).getFingerprint()) : null;
+	}
+
+	/**
+	 * Gets the shared instance of the X509 certificate contained in the given certificate meta-data. As the
+	 * fingerprint provided by the meta-data is used, the certificate does not need to be encoded again when the
+	 * meta-data object caches its fingerprint.
+	 *
+	 * @param cert	the certificate meta-data, may be <code>null</code>
+	 * @return	the shared instance of the X509 certificate, or <code>null</code> if no meta-data or X509 certificate
+	 * 			was given
+	 * @throws IllegalStateException when the fingerprint of the certificate cannot be calculated
+	 */
+	public X509Certificate intern(final Certificate cert) {
+		final X509Certificate x509 = cert != null ? cert.getX509Cert() : null;
+		return x509 != null ? intern(x509, cert.getFingerprint()) : null;
+	}
+
+	/**
+	 * Gets the number of certificates currently in the pool. Note that this may include certificates that have been
+	 * garbage collected but which are not yet removed from the pool.
+	 *
+	 * @return the number of pooled certificates
+	 */
+	public int size() {
+		return pool.size();
+	}
+
+	/**
+	 * @return the maximum number of certificates in the pool
+	 */
+	public int getMaxSize() {
+		return pool.getMaxSize();
+	}
+
+	/**
+	 * @return the number of requests for which a shared instance was already available in the pool
+	 */
+	public long getHitCount() {
+		return pool.getHitCount();
+	}
+
+	/**
+	 * @return the number of requests for which the given certificate became the shared instance or could not be added
+	 */
+	public long getMissCount() {
+		return pool.getMissCount();
+	}
+
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	public void resetStatistics() {
+		pool.resetStatistics();
+	}
+
+	/**
+	 * Removes all certificates from the pool. Certificates that were returned before remain valid, but are not shared
+	 * with certificates interned later.
+	 */
+	public void clear() {
+		pool.clear();
+	}
+
+	/**
+	 * Gets the shared instance of the certificate with the given fingerprint, adding the given certificate to the pool
+	 * when there is no shared instance yet.
+	 *
+	 * @param cert			the X509 certificate
+	 * @param fingerprint	the SHA-256 fingerprint of the certificate
+	 * @return	the shared instance
+	 */
+	X509Certificate intern(final X509Certificate cert, final byte[] fingerprint) {
+		final Key key = new Key(fingerprint);
+		final X509Certificate shared = pool.get(key);
+		return shared != null ? shared : pool.add(key, cert);
+	}
+
+	/**
+	 * The key for the pool entries. As the fingerprint is a cryptographic digest its first bytes are already well
+	 * distributed and used directly as hash code.
+	 */
+	private static final class Key {
+		final byte[]	fingerprint;
+		final int		hash;
+
+		Key(final byte[] fingerprint) {
+			this.fingerprint = fingerprint;
+			this.hash = (fingerprint[0] & 0xFF) << 24 | (fingerprint[1] & 0xFF) << 16 | (fingerprint[2] & 0xFF) << 8
+						| (fingerprint[3] & 0xFF);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this)
+				return true;
+			if (!(o instanceof Key))
+				return false;
+			final Key k = (Key) o;
+			return hash == k.hash && Arrays.equals(fingerprint, k.fingerprint);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
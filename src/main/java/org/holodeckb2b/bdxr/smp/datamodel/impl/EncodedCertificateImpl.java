@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.List;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+
+/**
+ * Is a {@link Certificate} implementation that holds the DER encoded form of the X509 certificate and only decodes it
+ * into a {@link X509Certificate} when {@link #getX509Cert()} is called for the first time. As the fingerprint is
+ * calculated directly from the encoded form, certificates can be compared and hashed without being decoded. This makes
+ * loading large sets of meta-data of which most certificates are never used a lot cheaper.
+ * <p>Decoding the certificate is thread safe. When the encoded form is not a valid X509 certificate, this is only
+ * detected when the certificate is decoded and {@link #getX509Cert()} will then throw an {@link
+ * IllegalStateException}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class EncodedCertificateImpl extends CertificateImpl {
+
+	private static final long serialVersionUID = -4630287311952806734L;
+
+	/**
+	 * The factories used to decode the certificates
+	 */
+	private static final ThreadLocal<CertificateFactory> FACTORY = ThreadLocal.withInitial(() -> {
+		try {
+			return CertificateFactory.getInstance("X.509");
+		} catch (CertificateException e) {
+			throw new IllegalStateException("X.509 certificate factory not available", e);
+		}
+	});
+
+	private volatile byte[]	encoded;
+	/**
+	 * The decoded X509 certificate, created on first use
+	 */
+	private transient volatile X509Certificate	decoded;
+	/**
+	 * The SHA-256 fingerprint of the encoded certificate, calculated on first use
+	 */
+	private transient volatile byte[] fingerprint;
+
+	/**
+	 * Creates a new <code>Certificate</code> instance with the given DER encoded X509 certificate and no usage
+	 * indication.
+	 *
+	 * @param der	the DER encoded X509 certificate
+	 */
+	public EncodedCertificateImpl(final byte[] der) {
+		this(der, null, null, null, null, null);
+	}
+
+	/**
+	 * Creates a new <code>Certificate</code> instance with the given base64 encoded X509 certificate and no usage
+	 * indication. The base64 text may contain white space, like line breaks, but no other characters outside the
+	 * base64 alphabet.
+	 *
+	 * @param base64	the base64 encoded DER form of the X509 certificate
+	 * @throws IllegalArgumentException when the given text is not valid base64
+	 */
+	public EncodedCertificateImpl(final String base64) {
+		this(base64, null);
+	}
+
+	/**
+	 * Creates a new <code>Certificate</code> instance with the given base64 encoded X509 certificate and usage
+	 * indication. The base64 text may contain white space, like line breaks, but no other characters outside the
+	 * base64 alphabet.
+	 *
+	 * @param base64	the base64 encoded DER form of the X509 certificate
+	 * @param usage		Indication how this certificate is used
+	 * @throws IllegalArgumentException when the given text is not valid base64
+	 */
+	public EncodedCertificateImpl(final String base64, final String usage) {
+		this(decodeBase64(base64), usage, null, null, null, null);
+	}
+
+	/**
+	 * Creates a new <code>Certificate</code> instance with the given meta-data and base64 encoded X509 certificate.
+	 * The base64 text may contain white space, like line breaks, but no other characters outside the base64 alphabet.
+	 *
+	 * @param base64		the base64 encoded DER form of the X509 certificate
+	 * @param usage			Indication how this certificate is used
+	 * @param activation	the activation time stamp of the certificate.
+	 * @param expiration	the time stamp until which the certificate can be used
+	 * @param description	description of the certificate
+	 * @param exts			additional meta-data to be added as extensions
+	 * @throws IllegalArgumentException when the given text is not valid base64
+	 */
+	public EncodedCertificateImpl(final String base64, final String usage, final ZonedDateTime activation,
+								  final ZonedDateTime expiration, final String description, List<Extension> exts) {
+		this(decodeBase64(base64), usage, activation, expiration, description, exts);
+	}
+
+	/**
+	 * Creates a new <code>Certificate</code> instance with the given meta-data.
+	 *
+	 * @param der			the DER encoded X509 certificate
+	 * @param usage			Indication how this certificate is used
+	 * @param activation	the activation time stamp of the certificate.
+	 * @param expiration	the time stamp until which the certificate can be used
+	 * @param description	description of the certificate
+	 * @param exts			additional meta-data to be added as extensions
+	 */
+	public EncodedCertificateImpl(final byte[] der, final String usage, final ZonedDateTime activation,
+								  final ZonedDateTime expiration, final String description, List<Extension> exts) {
+		super(null, usage, activation, expiration, description, exts);
+		if (der == null || der.length == 0)
+			throw new IllegalArgumentException("Encoded certificate must be specified");
+		this.encoded = der.clone();
+	}
+
+	/**
+	 * Creates a new <code>Certificate</code> instance copying the data from the given instance. When the given
+	 * instance is also an <code>EncodedCertificateImpl</code> its certificate is not decoded.
+	 *
+	 * @param src the instance to copy the data from
+	 * @throws IllegalArgumentException when the source does not contain a certificate or it cannot be encoded
+	 */
+	public EncodedCertificateImpl(final Certificate src) {
+		this(encodedForm(src), src.getUsage(), src.getActivationDate(), src.getExpirationDate(), src.getDescription(),
+			 src.getExtensions());
+		if (src instanceof EncodedCertificateImpl) {
+			this.decoded = ((EncodedCertificateImpl) src).decoded;
+			this.fingerprint = ((EncodedCertificateImpl) src).fingerprint();
+		} else
+			this.decoded = src.getX509Cert();
+	}
+
+	/**
+	 * Gets the X509Certificate, decoding it when this is the first request for the certificate.
+	 *
+	 * @return	the certificate
+	 * @throws IllegalStateException when the encoded form is not a valid X509 certificate
+	 */
+	@Override
+	public X509Certificate getX509Cert() {
+		X509Certificate cert = decoded;
+		if (cert == null) {
+			synchronized (this) {
+				cert = decoded;
+				if (cert == null && encoded != null) {
+					try {
+						cert = (X509Certificate) FACTORY.get().generateCertificate(
+																			new ByteArrayInputStream(encoded));
+					} catch (CertificateException | ClassCastException e) {
+						throw new IllegalStateException("Could not decode certificate", e);
+					}
+					decoded = cert;
+				}
+			}
+		}
+		return cert;
+	}
+
+	/**
+	 * Sets the X509Certificate.
+	 *
+	 * @param cert	the certificate
+	 * @throws IllegalArgumentException when the certificate cannot be encoded
+	 */
+	@Override
+	public synchronized void setX509Cert(final X509Certificate cert) {
+		checkNotFrozen();
+		try {
+			this.encoded = cert != null ? cert.getEncoded() : null;
+		} catch (CertificateEncodingException e) {
+			throw new IllegalArgumentException("Could not encode certificate", e);
+		}
+		this.decoded = cert;
+		this.fingerprint = null;
+	}
+
+	/**
+	 * Gets the DER encoded form of the X509 certificate.
+	 *
+	 * @return	the DER encoded certificate, or <code>null</code> if there is no certificate
+	 */
+	public byte[] getEncoded() {
+		final byte[] der = encoded;
+		return der != null ? der.clone() : null;
+	}
+
+	/**
+	 * Gets the cached fingerprint of the certificate, calculating it from the encoded form when needed.
+	 *
+	 * @return	the fingerprint, or <code>null</code> if there is no certificate
+	 */
+	@Override
+	byte[] fingerprint() {
+		byte[] fp = fingerprint;
+		final byte[] der = encoded;
+		if (fp == null && der != null) {
+			try {
+				fp = MessageDigest.getInstance("SHA-256").digest(der);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("Could not calculate certificate fingerprint", e);
+			}
+			fingerprint = fp;
+		}
+		return fp;
+	}
+
+	private static byte[] decodeBase64(final String base64) {
+		if (base64 == null)
+			throw new IllegalArgumentException("Encoded certificate must be specified");
+		final StringBuilder stripped = new StringBuilder(base64.length());
+		for (int i = 0; i < base64.length(); i++) {
+			final char c = base64.charAt(i);
+			if (c != ' ' && c != '\t' && c != '\r' && c != '\n')
+				stripped.append(c);
+		}
+		return Base64.getDecoder().decode(stripped.toString());
+	}
+
+	private static byte[] encodedForm(final Certificate src) {
+		if (src instanceof EncodedCertificateImpl)
+			return ((EncodedCertificateImpl) src).encoded;
+		final X509Certificate cert = src.getX509Cert();
+		if (cert == null)
+			throw new IllegalArgumentException("Source does not contain a certificate");
+		try {
+			return cert.getEncoded();
+		} catch (CertificateEncodingException e) {
+			throw new IllegalArgumentException("Could not encode certificate", e);
+		}
+	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
+}
@@ -18,6 +18,7 @@ package org.holodeckb2b.bdxr.smp.datamodel.impl;
 
 import java.net.URL;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -32,6 +33,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class EndpointInfoImpl extends ExtensibleMetadataClass implements EndpointInfo {
 
+	private static final long serialVersionUID = 7586000287904096865L;
+
     private String              transportProfile;
     private URL                 endpointURL;
     private ZonedDateTime       serviceActivationDate;
@@ -100,6 +103,27 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
 		this.certificates = (Set<Certificate>) src.getCertificates();
     }
 
+	/**
+	 * Creates a new instance copying the data from the given endpoint object. The certificate meta-data is copied as
+	 * well, using the shared instances of the X509 certificates from the given pool. Certificates that are held in
+	 * their encoded form, i.e. {@link EncodedCertificateImpl}s, are copied as is and not decoded.
+	 *
+	 * @param src	the instance to copy the data from
+	 * @param pool	the pool to get the shared X509 certificates from, may be <code>null</code> to use the certificates
+	 * 				of the source instance
+	 */
+    public EndpointInfoImpl(final EndpointInfo src, final CertificatePool pool) {
+		this(src.getTransportProfile(), src.getEndpointURL(), src.getServiceActivationDate(),
+			 src.getServiceExpirationDate(), src.getDescription(), src.getContactInfo(), null, src.getExtensions());
+		final Collection<? extends Certificate> certs = src.getCertificates();
+		if (certs != null) {
+			this.certificates = new HashSet<>(certs.size());
+			for (Certificate c : certs)
+				this.certificates.add(c instanceof EncodedCertificateImpl ? new EncodedCertificateImpl(c)
+																		   : new CertificateImpl(c, pool));
+		}
+    }
+
     /**
      * Gets the transport profile the endpoint supports
      *
@@ -116,6 +140,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param transportProfile  The transport profile
      */
     public void setTransportProfile(String transportProfile) {
+        checkNotFrozen();
         this.transportProfile = transportProfile;
     }
 
@@ -135,6 +160,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param endpointURL The URL to use for the Endpoint
      */
     public void setEndpointURL(URL endpointURL) {
+        checkNotFrozen();
         this.endpointURL = endpointURL;
     }
 
@@ -154,6 +180,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param serviceActivationDate The endpoint's activation date
      */
     public void setServiceActivationDate(ZonedDateTime serviceActivationDate) {
+        checkNotFrozen();
         this.serviceActivationDate = serviceActivationDate;
     }
 
@@ -173,6 +200,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param serviceExpirationDate The expiration date to set
      */
     public void setServiceExpirationDate(ZonedDateTime serviceExpirationDate) {
+        checkNotFrozen();
         this.serviceExpirationDate = serviceExpirationDate;
     }
 
@@ -192,6 +220,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param description 	Text to use as endpoint's description
      */
     public void setDescription(final String description) {
+    	checkNotFrozen();
     	this.description = description;
     }
 
@@ -211,6 +240,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param contact	The contact details for this endpoint
      */
     public void setContactInfo(final String contact) {
+    	checkNotFrozen();
     	this.contactInfo = contact;
     }
 
@@ -230,6 +260,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param certs		The meta-data on the certificates
      */
     public void setCertificates(Set<Certificate> certs) {
+        checkNotFrozen();
         this.certificates = certs;
     }
 
@@ -239,6 +270,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
      * @param cert    The certificate meta-data
      */
     public void addCertificate(final Certificate cert) {
+        checkNotFrozen();
         if (cert == null)
             throw new IllegalArgumentException("Certificate data must be specified");
 		if (this.certificates == null)
@@ -246,6 +278,11 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
         this.certificates.add(cert);
     }
 
+	@Override
+	protected void freezeContent() {
+		certificates = freeze(certificates);
+	}
+
     public boolean equals(Object o) {
     	if (o == null || !(o instanceof EndpointInfo))
     		return false;
@@ -255,6 +292,7 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
     			&& Utils.areEqual(certificates, e.getCertificates())
     			&& Utils.nullSafeEqual(contactInfo, e.getContactInfo())
     			&& Utils.nullSafeEqual(description, e.getDescription())
+    			&& URLUtils.areEqual(endpointURL, e.getEndpointURL())
     			&& Utils.nullSafeEqual(serviceActivationDate, e.getServiceActivationDate())
     			&& Utils.nullSafeEqual(serviceExpirationDate, e.getServiceExpirationDate())
     			&& Utils.nullSafeEqual(transportProfile, e.getTransportProfile());
@@ -262,14 +300,23 @@ public class EndpointInfoImpl extends ExtensibleMetadataClass implements Endpoin
     }
 
     @Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(Utils.isNullOrEmpty(certificates) ? null : certificates , contactInfo,
-											   description, endpointURL,
+											   description, URLUtils.normalise(endpointURL),
 											   serviceActivationDate != null ? serviceActivationDate.toInstant() : null,
 											   serviceExpirationDate != null ? serviceExpirationDate.toInstant() : null,
 											   transportProfile);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
@@ -30,6 +30,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class EndpointInfoV1Impl extends EndpointInfoImpl implements EndpointInfoV1 {
 
+	private static final long serialVersionUID = 8682565711004356171L;
+
     private Boolean             businessLevelSignatureRequired;
     private String              minimumAuthenticationLevel;
     private URL					techInfoURL;
@@ -100,6 +102,21 @@ public class EndpointInfoV1Impl extends EndpointInfoImpl implements EndpointInfo
 		this.techInfoURL = src.getTechnicalInformationURL();
     }
 
+	/**
+	 * Creates a new instance copying the data from the given instance, using the shared instances of the X509
+	 * certificates from the given pool.
+	 *
+	 * @param src	the instance to copy the data from
+	 * @param pool	the pool to get the shared X509 certificates from, may be <code>null</code> to use the certificates
+	 * 				of the source instance
+	 */
+    public EndpointInfoV1Impl(final EndpointInfoV1 src, final CertificatePool pool) {
+		super(src, pool);
+        this.businessLevelSignatureRequired = src.getBusinessLevelSignatureRequired();
+        this.minimumAuthenticationLevel = src.getMinimumAuthenticationLevel();
+		this.techInfoURL = src.getTechnicalInformationURL();
+    }
+
     /**
      * Indicates whether a business level signature is required.
      *
@@ -119,6 +136,7 @@ public class EndpointInfoV1Impl extends EndpointInfoImpl implements EndpointInfo
      *                                       </code> if not specified.
      */
     public void setBusinessLevelSignatureRequired(Boolean businessLevelSignatureRequired) {
+        checkNotFrozen();
         this.businessLevelSignatureRequired = businessLevelSignatureRequired;
     }
 
@@ -139,6 +157,7 @@ public class EndpointInfoV1Impl extends EndpointInfoImpl implements EndpointInfo
      * @param minimumAuthenticationLevel The identifier of the minimum authentication level required
      */
     public void setMinimumAuthenticationLevel(String minimumAuthenticationLevel) {
+        checkNotFrozen();
         this.minimumAuthenticationLevel = minimumAuthenticationLevel;
     }
 
@@ -158,6 +177,7 @@ public class EndpointInfoV1Impl extends EndpointInfoImpl implements EndpointInfo
 	 * @param techInfoUrl URL to technical documentation
 	 */
 	public void setTechnicalInformationURL(URL techInfoUrl) {
+		checkNotFrozen();
 		this.techInfoURL = techInfoUrl;
 	}
 
@@ -170,7 +190,7 @@ public class EndpointInfoV1Impl extends EndpointInfoImpl implements EndpointInfo
 		return super.equals(o)
 			&& Utils.nullSafeEqual(businessLevelSignatureRequired, e.getBusinessLevelSignatureRequired())
 			&& Utils.nullSafeEqual(minimumAuthenticationLevel, e.getMinimumAuthenticationLevel())
-			&& Utils.nullSafeEqual(techInfoURL, e.getTechnicalInformationURL());
+			&& URLUtils.areEqual(techInfoURL, e.getTechnicalInformationURL());
 	}
 
 //	@Override
@@ -182,4 +202,12 @@ public class EndpointInfoV1Impl extends EndpointInfoImpl implements EndpointInfo
 //		return result;
 //	}
 
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
@@ -17,14 +17,23 @@
 package org.holodeckb2b.bdxr.smp.datamodel.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
+
 import org.holodeckb2b.bdxr.smp.datamodel.ExtensibleMetadata;
 import org.holodeckb2b.bdxr.smp.datamodel.Extension;
 import org.holodeckb2b.commons.util.Utils;
 
 /**
  * Is a base class for implementing the SMP meta-data classes that support extensions.
+ * <p>An instance can be <i>frozen</i> using {@link #freeze()} when it will not be changed anymore, for example when
+ * it is cached. Freezing an instance also freezes the meta-data objects it contains and makes its collections
+ * unmodifiable, so the whole tree becomes immutable and each node calculates its hash code only once. As the hash code
+ * of a frozen parent is calculated from the already calculated hash codes of its children, re-hashing a deep tree is
+ * reduced to returning a field and comparing two frozen instances with different hash codes returns immediately. Note
+ * that the frozen state is not serialized, so a deserialized copy of a frozen instance is not frozen.
  *
  * @author Sander Fieten (sander at holodeck-b2b.org)
  */
@@ -32,6 +41,15 @@ public abstract class ExtensibleMetadataClass {
 
 	protected List<Extension>	extensions;
 
+	/**
+	 * Indicates whether this instance is frozen
+	 */
+	private transient volatile boolean	frozen;
+	/**
+	 * The hash code of the content, calculated when the instance is frozen
+	 */
+	private transient int	hash;
+
 	/**
 	 * Constructs a new instance without extensions.
 	 */
@@ -65,6 +83,7 @@ public abstract class ExtensibleMetadataClass {
 	 * @param ext	the extension to add
 	 */
 	public void addExtension(Extension ext) {
+		checkNotFrozen();
 		if (ext == null)
 			throw new IllegalArgumentException();
 
@@ -77,6 +96,7 @@ public abstract class ExtensibleMetadataClass {
 	 * @param exts	the extensions to add
 	 */
 	public void setExtensions(List<Extension> exts) {
+		checkNotFrozen();
 		extensions = exts;
 	}
 
@@ -88,6 +108,7 @@ public abstract class ExtensibleMetadataClass {
 	 * @param ext the extension to remove
 	 */
 	public boolean removeExtension(Extension ext) {
+		checkNotFrozen();
 		return extensions.remove(ext);
 	}
 
@@ -95,17 +116,110 @@ public abstract class ExtensibleMetadataClass {
 	 * Removes all extensions from this meta-data instance.
 	 */
 	public void removeAll() {
+		checkNotFrozen();
 		extensions.clear();
 	}
 
+	/**
+	 * Freezes this meta-data instance, i.e. makes it immutable. The meta-data objects contained in this instance are
+	 * frozen as well and after freezing all methods that change the meta-data throw an {@link IllegalStateException}.
+	 * Contained objects that do not extend this class, like identifiers, are assumed not to change. As the collections
+	 * given to the setters and constructors are not copied, they must not be changed by the caller after freezing
+	 * either. Note that contained objects shared with other instances, for example by using a copy constructor, are
+	 * frozen in those instances too. Calling this method on an already frozen instance has no effect.
+	 */
+	public synchronized void freeze() {
+		if (frozen)
+			return;
+
+		freezeContent();
+		if (extensions != null)
+			extensions = Collections.unmodifiableList(extensions);
+		hash = contentHashCode();
+		frozen = true;
+	}
+
+	/**
+	 * Indicates whether this meta-data instance is frozen.
+	 *
+	 * @return <code>true</code> if the instance is frozen, <code>false</code> if it can still be changed
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Freezes the content of the sub class. Sub classes that contain other meta-data objects or collections must
+	 * override this method to freeze the contained objects and replace the collections by unmodifiable ones, for
+	 * which they can use {@link #freeze(Set)}.
+	 */
+	protected void freezeContent() {
+	}
+
+	/**
+	 * Freezes the meta-data objects in the given set and returns an unmodifiable view of it.
+	 *
+	 * @param <T>	the type of the set's elements
+	 * @param s		the set to freeze, may be <code>null</code>
+	 * @return	unmodifiable view of the set, or <code>null</code> if no set was given
+	 */
+	protected static <T> Set<T> freeze(final Set<T> s) {
+		if (s == null)
+			return null;
+		for (T o : s)
+			if (o instanceof ExtensibleMetadataClass)
+				((ExtensibleMetadataClass) o).freeze();
+		return Collections.unmodifiableSet(s);
+	}
+
+	/**
+	 * Checks that this instance can still be changed.
+	 *
+	 * @throws IllegalStateException when the instance is frozen
+	 */
+	protected final void checkNotFrozen() {
+		if (frozen)
+			throw new IllegalStateException("The meta-data is frozen");
+	}
+
+	/**
+	 * Indicates whether this instance and the given object are both frozen and have a different hash code, in which
+	 * case they cannot be equal. Sub classes that do not call {@link #equals(Object)} should use this method to skip
+	 * the comparison of the content.
+	 *
+	 * @param o		the object to compare with
+	 * @return <code>true</code> if both this instance and the given object are frozen and their hash codes differ,
+	 * 		   <code>false</code> otherwise
+	 */
+	protected final boolean differsFrozen(final Object o) {
+		return frozen && o instanceof ExtensibleMetadataClass && ((ExtensibleMetadataClass) o).frozen
+				&& hash != ((ExtensibleMetadataClass) o).hash;
+	}
+
 	@Override
 	public boolean equals(Object o) {
-		return Utils.areEqual(this.extensions, ((ExtensibleMetadata) o).getExtensions());
+		return !differsFrozen(o) && Utils.areEqual(this.extensions, ((ExtensibleMetadata) o).getExtensions());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The hash code of a frozen instance is calculated only once, when it is frozen. Sub classes should therefore
+	 * override {@link #contentHashCode()} instead of this method.
+	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(Utils.isNullOrEmpty(extensions) ? null : extensions);
+		return frozen ? hash : contentHashCode();
+	}
+
+	/**
+	 * Calculates the hash code of the content of this instance. As the extensions are compared without regard to
+	 * their order, the hash code of the extensions is also independent of their order.
+	 *
+	 * @return the hash code of the content
+	 */
+	protected int contentHashCode() {
+		return 31 + (Utils.isNullOrEmpty(extensions) ? 0 : new HashSet<>(extensions).hashCode());
 	}
 
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Determines which {@link Extension}s are deserialized when reading encoded meta-data. The binary, JSON and snapshot
+ * formats contain the extensions in their Java serialized form and as deserializing untrusted data may execute
+ * arbitrary code, extensions are only deserialized when all classes in their serialized form are explicitly allowed.
+ * Extensions that contain other classes are kept in their serialized form as {@link SerializedExtension}.
+ * <p>The allowed classes are specified using patterns, which can be:<ul>
+ * <li>the fully qualified name of a class, e.g. <code>com.example.ext.Contact</code>,</li>
+ * <li>a package name followed by <code>.*</code> to allow all classes in the package, e.g. <code>com.example.ext.*
+ * </code>,</li>
+ * <li>a package name followed by <code>.**</code> to allow all classes in the package and its sub packages.</li></ul>
+ * Besides the classes matching the patterns, <code>String</code>, the primitive wrapper classes and arrays of the
+ * allowed classes and primitive types can be deserialized. Dynamic proxies are never deserialized. When running on
+ * Java 9 or later the size of arrays and the depth of the object graph are limited as well.
+ * <p>The readers use the {@link #getDefault() default filter} unless another filter is given when they are created.
+ * This also applies to the deserialization of the implementation classes, which are serialized in the binary format.
+ * Initially the default filter is {@link #NONE}, so no extensions are deserialized.
+ * <p>Instances of this class are immutable and thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ * @see SerializedExtension
+ */
+public final class ExtensionFilter {
+	/**
+	 * The filter that does not allow any extension to be deserialized
+	 */
+	public static final ExtensionFilter NONE = new ExtensionFilter(Collections.emptySet(), Collections.emptySet(),
+																   Collections.emptySet());
+
+	/**
+	 * The classes that are always allowed
+	 */
+	private static final Set<String> BUILT_IN = new HashSet<>(Arrays.asList(String.class.getName(),
+			Boolean.class.getName(), Character.class.getName(), Byte.class.getName(), Short.class.getName(),
+			Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName(),
+			Number.class.getName(), Enum.class.getName()));
+
+	/**
+	 * The maximum depth of the object graph of a deserialized extension
+	 */
+	private static final int MAX_DEPTH = 64;
+
+	/**
+	 * The methods to create and set a <code>java.io.ObjectInputFilter</code> when running on Java 9 or later, used to
+	 * limit the size of arrays, the number of bytes read and the depth of the deserialized object graph. Both are
+	 * <code>null</code> when not available.
+	 */
+	private static final Method CREATE_FILTER, SET_FILTER;
+	static {
+		Method create = null, set = null;
+		try {
+			final Class<?> filterClass = Class.forName("java.io.ObjectInputFilter");
+			create = Class.forName("java.io.ObjectInputFilter$Config").getMethod("createFilter", String.class);
+			set = ObjectInputStream.class.getMethod("setObjectInputFilter", filterClass);
+		} catch (ReflectiveOperationException java8) {
+			create = set = null;
+		}
+		CREATE_FILTER = create;
+		SET_FILTER = set;
+	}
+
+	/**
+	 * The filter used by readers that are not given a filter
+	 */
+	private static volatile ExtensionFilter defaultFilter = NONE;
+
+	/**
+	 * The names of the allowed classes
+	 */
+	private final Set<String>	classes;
+	/**
+	 * The names of the packages of which all classes are allowed
+	 */
+	private final Set<String>	packages;
+	/**
+	 * The prefixes of the packages of which all classes, including those in sub packages, are allowed
+	 */
+	private final Set<String>	packageTrees;
+
+	private ExtensionFilter(final Set<String> classes, final Set<String> packages, final Set<String> packageTrees) {
+		this.classes = classes;
+		this.packages = packages;
+		this.packageTrees = packageTrees;
+	}
+
+	/**
+	 * Creates a new filter that allows the classes matching the given patterns.
+	 *
+	 * @param patterns	the patterns of the allowed classes
+	 * @return	the new filter
+	 * @throws IllegalArgumentException when a pattern is empty
+	 */
+	public static ExtensionFilter allowing(final String... patterns) {
+		final Set<String> classes = new HashSet<>(), packages = new HashSet<>(), packageTrees = new HashSet<>();
+		for (String p : patterns) {
+			if (Utils.isNullOrEmpty(p) || p.startsWith("."))
+				throw new IllegalArgumentException("Invalid pattern: " + p);
+			if (p.endsWith(".**"))
+				packageTrees.add(p.substring(0, p.length() - 2));
+			else if (p.endsWith(".*"))
+				packages.add(p.substring(0, p.length() - 2));
+			else
+				classes.add(p);
+		}
+		return new ExtensionFilter(classes, packages, packageTrees);
+	}
+
+	/**
+	 * Gets the filter used by the readers that are not given a filter.
+	 *
+	 * @return	the default filter
+	 */
+	public static ExtensionFilter getDefault() {
+		return defaultFilter;
+	}
+
+	/**
+	 * Sets the filter used by the readers that are not given a filter.
+	 *
+	 * @param filter	the new default filter, <code>null</code> to reset it to {@link #NONE}
+	 */
+	public static void setDefault(final ExtensionFilter filter) {
+		defaultFilter = filter != null ? filter : NONE;
+	}
+
+	/**
+	 * Indicates whether the class with the given name may be deserialized.
+	 *
+	 * @param className	the name of the class, as given by {@link Class#getName()}
+	 * @return	<code>true</code> if the class is allowed, <code>false</code> otherwise
+	 */
+	public boolean isAllowed(final String className) {
+		String name = className;
+		if (name.startsWith("[")) {
+			int dims = 0;
+			while (dims < name.length() && name.charAt(dims) == '[')
+				dims++;
+			if (name.length() == dims + 1)
+				return true;
+			if (name.charAt(dims) != 'L' || !name.endsWith(";"))
+				return false;
+			name = name.substring(dims + 1, name.length() - 1);
+		}
+		if (BUILT_IN.contains(name) || classes.contains(name))
+			return true;
+		final int i = name.lastIndexOf('.');
+		if (i < 0)
+			return false;
+		final String pkg = name.substring(0, i);
+		if (packages.contains(pkg))
+			return true;
+		for (String t : packageTrees)
+			if (name.startsWith(t))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Deserializes the extension from the given range of the data. When this filter does not allow all classes used
+	 * by the extension, the extension is not deserialized but returned as {@link SerializedExtension}.
+	 *
+	 * @param data		the buffer containing the serialized extension
+	 * @param offset	the offset of the serialized extension in the buffer
+	 * @param length	the length of the serialized extension
+	 * @return	the deserialized extension, or a {@link SerializedExtension} when the extension may not be deserialized
+	 * @throws IOException	when the data is not a valid serialized extension
+	 */
+	public Extension deserialize(final byte[] data, final int offset, final int length) throws IOException {
+		if (this == NONE)
+			return new SerializedExtension(Arrays.copyOfRange(data, offset, offset + length));
+		try (FilteringInputStream ois = new FilteringInputStream(data, offset, length)) {
+			final Object e = ois.readObject();
+			if (!(e instanceof Extension))
+				throw new IOException("Serialized object is not an extension");
+			return (Extension) e;
+		} catch (NotAllowedException notAllowed) {
+			return new SerializedExtension(Arrays.copyOfRange(data, offset, offset + length));
+		} catch (ClassNotFoundException | RuntimeException e) {
+			throw new IOException("Could not deserialize extension", e);
+		}
+	}
+
+	/**
+	 * Indicates that the serialized data contains a class that is not allowed.
+	 */
+	private static final class NotAllowedException extends InvalidClassException {
+		private static final long serialVersionUID = 2416090185526406093L;
+
+		NotAllowedException(final String className) {
+			super(className, "Class is not allowed");
+		}
+	}
+
+	/**
+	 * Is the object stream that only resolves the classes allowed by the filter.
+	 */
+	private final class FilteringInputStream extends ObjectInputStream {
+
+		FilteringInputStream(final byte[] data, final int offset, final int length) throws IOException {
+			super(new ByteArrayInputStream(data, offset, length));
+			if (SET_FILTER != null)
+				try {
+					// An array cannot contain more elements than there are bytes in the serialized form
+					SET_FILTER.invoke(this, CREATE_FILTER.invoke(null, "maxbytes=" + length + ";maxarray=" + length
+																		+ ";maxdepth=" + MAX_DEPTH));
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException("Could not set the object input filter", e);
+				}
+		}
+
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (!isAllowed(desc.getName()))
+				throw new NotAllowedException(desc.getName());
+			return super.resolveClass(desc);
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+			throw new NotAllowedException(Arrays.toString(interfaces));
+		}
+	}
+}
@@ -28,6 +28,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class IDSchemeImpl implements IDScheme {
 
+	private static final long serialVersionUID = 2675745264216042119L;
+
     protected String  schemeId = null;
     protected boolean caseSensitive = false;
 
@@ -120,4 +122,13 @@ public class IDSchemeImpl implements IDScheme {
 		hash = 29 * hash + Objects.hashCode(this.schemeId);
 		return hash;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
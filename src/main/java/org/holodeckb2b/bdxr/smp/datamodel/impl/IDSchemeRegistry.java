@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is the registry of well-known identifier schemes. For each registered scheme it holds one shared, unmodifiable
+ * {@link IDScheme} instance with the correct case sensitivity policy. The unmodifiable identifier implementations of
+ * this package, {@link ImmutableIdentifier} and {@link ImmutableProcessIdentifier}, and the {@link IdentifierPool} use
+ * the registry to resolve a scheme id to the shared instance, so creating identifiers in a well-known scheme does not
+ * require a new scheme object and automatically applies the scheme's case sensitivity policy.
+ * <p>As {@link IdentifierImpl} holds its scheme as an {@link IDSchemeImpl}, the registry also holds one shared {@link
+ * IDSchemeImpl} instance for each registered scheme, which {@link #resolve(String)} and {@link #resolve(IDScheme)}
+ * return and all <code>IdentifierImpl</code>s in the scheme use. For compatibility with existing code that changes the
+ * scheme of an identifier through {@link IDSchemeImpl}, these instances are still modifiable. They must however not be
+ * changed, as a change applies to all identifiers in the scheme.
+ * <p>The registry is preloaded with the schemes defined in the PEPPOL <i>Policy for use of Identifiers</i> and the
+ * OASIS SMP specifications. These built-in schemes cannot be replaced. Additional schemes can be registered by the
+ * application. The registry is thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public final class IDSchemeRegistry {
+	/**
+	 * The PEPPOL and OASIS SMP V1 participant identifier scheme, case insensitive
+	 */
+	public static final String PARTICIPANT_ISO6523 = "iso6523-actorid-upis";
+	/**
+	 * The PEPPOL document identifier scheme, case sensitive
+	 */
+	public static final String PEPPOL_DOCID_QNS = "busdox-docid-qns";
+	/**
+	 * The PEPPOL document identifier scheme allowing wildcard matching, case sensitive
+	 */
+	public static final String PEPPOL_DOCID_WILDCARD = "peppol-doctype-wildcard";
+	/**
+	 * The PEPPOL process identifier scheme, case sensitive
+	 */
+	public static final String PEPPOL_PROCID = "cenbii-procid-ubl";
+	/**
+	 * The PEPPOL scheme of the "no-process" process identifier, case sensitive
+	 */
+	public static final String PEPPOL_PROCID_TRANSPORT = "busdox-procid-transport";
+	/**
+	 * The OASIS SMP V1 document identifier scheme, case sensitive
+	 */
+	public static final String OASIS_DOCID_QNS = "bdx-docid-qns";
+	/**
+	 * The OASIS SMP V1 scheme of the "no-process" process identifier, case sensitive
+	 */
+	public static final String OASIS_PROCID_TRANSPORT = "bdx-procid-transport";
+	/**
+	 * The ebCore party id type for unregistered participant identifiers, case insensitive
+	 */
+	public static final String EBCORE_UNREGISTERED = "urn:oasis:names:tc:ebcore:partyid-type:unregistered";
+
+	/**
+	 * The registered schemes, indexed by their id
+	 */
+	private static final ConcurrentHashMap<String, ImmutableIDScheme> SCHEMES = new ConcurrentHashMap<>();
+	/**
+	 * Open addressing hash table of the registered schemes, using the hash code of the scheme id, to look up schemes
+	 * by a character sequence without creating a String. Rebuilt when a scheme is registered.
+	 */
+	private static volatile ImmutableIDScheme[] lookupTable = new ImmutableIDScheme[1];
+	/**
+	 * The shared {@link IDSchemeImpl} instances of the registered schemes, indexed by their id
+	 */
+	private static final ConcurrentHashMap<String, IDSchemeImpl> SHARED_IMPLS = new ConcurrentHashMap<>();
+	/**
+	 * The ids of the built-in schemes, which cannot be replaced
+	 */
+	private static final Set<String> BUILT_IN = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			PARTICIPANT_ISO6523, PEPPOL_DOCID_QNS, PEPPOL_DOCID_WILDCARD, PEPPOL_PROCID, PEPPOL_PROCID_TRANSPORT,
+			OASIS_DOCID_QNS, OASIS_PROCID_TRANSPORT, EBCORE_UNREGISTERED)));
+	static {
+		add(new ImmutableIDScheme(PARTICIPANT_ISO6523, false));
+		add(new ImmutableIDScheme(PEPPOL_DOCID_QNS, true));
+		add(new ImmutableIDScheme(PEPPOL_DOCID_WILDCARD, true));
+		add(new ImmutableIDScheme(PEPPOL_PROCID, true));
+		add(new ImmutableIDScheme(PEPPOL_PROCID_TRANSPORT, true));
+		add(new ImmutableIDScheme(OASIS_DOCID_QNS, true));
+		add(new ImmutableIDScheme(OASIS_PROCID_TRANSPORT, true));
+		add(new ImmutableIDScheme(EBCORE_UNREGISTERED, false));
+	}
+
+	private IDSchemeRegistry() {}
+
+	/**
+	 * Gets the shared instance of the registered identifier scheme with the given id.
+	 *
+	 * @param schemeId	the scheme identifier
+	 * @return	the shared scheme instance, or <code>null</code> if there is no scheme registered with the given id
+	 */
+	public static ImmutableIDScheme get(final String schemeId) {
+		return schemeId != null ? SCHEMES.get(schemeId) : null;
+	}
+
+	/**
+	 * Gets the shared instance of the registered identifier scheme with the id given as a range of characters. This
+	 * method does not allocate any objects and can therefore be used when parsing identifiers.
+	 *
+	 * @param chars		the buffer containing the scheme identifier
+	 * @param offset	the offset of the scheme identifier in the buffer
+	 * @param length	the length of the scheme identifier
+	 * @return	the shared scheme instance, or <code>null</code> if there is no scheme registered with the given id
+	 */
+	public static ImmutableIDScheme get(final char[] chars, final int offset, final int length) {
+		int h = 0;
+		for (int i = offset; i < offset + length; i++)
+			h = 31 * h + chars[i];
+		final ImmutableIDScheme[] table = lookupTable;
+		final int mask = table.length - 1;
+		for (int i = spread(h) & mask; table[i] != null; i = (i + 1) & mask) {
+			final String id = table[i].getSchemeId();
+			if (id.hashCode() == h && id.length() == length) {
+				int j = 0;
+				while (j < length && id.charAt(j) == chars[offset + j])
+					j++;
+				if (j == length)
+					return table[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the identifier scheme that an {@link IdentifierImpl} in the scheme with the given id uses. If a scheme is
+	 * registered with the given id this is its shared {@link IDSchemeImpl} instance, otherwise a new instance that uses
+	 * case insensitive identifiers.
+	 *
+	 * @param schemeId	the scheme identifier, may be <code>null</code>
+	 * @return	the identifier scheme, or <code>null</code> if no scheme id was given
+	 */
+	public static IDSchemeImpl resolve(final String schemeId) {
+		if (Utils.isNullOrEmpty(schemeId))
+			return null;
+		final IDSchemeImpl registered = SHARED_IMPLS.get(schemeId);
+		return registered != null ? registered : new IDSchemeImpl(schemeId);
+	}
+
+	/**
+	 * Gets the identifier scheme that an {@link IdentifierImpl} in the given scheme uses. If a scheme is registered
+	 * with the same id this is its shared {@link IDSchemeImpl} instance, so the registered case sensitivity policy
+	 * applies regardless of the policy of the given scheme, otherwise a new copy of the given scheme.
+	 *
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @return	the identifier scheme, or <code>null</code> if no scheme was given
+	 */
+	public static IDSchemeImpl resolve(final IDScheme scheme) {
+		if (scheme == null)
+			return null;
+		final String schemeId = scheme.getSchemeId();
+		final IDSchemeImpl registered = schemeId != null ? SHARED_IMPLS.get(schemeId) : null;
+		return registered != null ? registered : new IDSchemeImpl(scheme);
+	}
+
+	/**
+	 * Registers the given identifier scheme. If a scheme with the same id is already registered by the application, it
+	 * is replaced. Note that identifiers that were created before the replacement keep using the previously registered
+	 * scheme. The built-in schemes cannot be replaced.
+	 *
+	 * @param scheme	the identifier scheme to register
+	 * @return	the shared instance of the registered scheme
+	 * @throws IllegalArgumentException when no scheme is given or when it would replace a built-in scheme with a
+	 * 									different case sensitivity policy
+	 */
+	public static synchronized ImmutableIDScheme register(final IDScheme scheme) {
+		if (scheme == null)
+			throw new IllegalArgumentException("Scheme must be specified");
+		if (BUILT_IN.contains(scheme.getSchemeId())) {
+			final ImmutableIDScheme builtIn = SCHEMES.get(scheme.getSchemeId());
+			if (builtIn.isCaseSensitive() != scheme.isCaseSensitive())
+				throw new IllegalArgumentException("Built-in scheme " + scheme.getSchemeId() + " cannot be replaced");
+			return builtIn;
+		}
+		final ImmutableIDScheme s = scheme instanceof ImmutableIDScheme ? (ImmutableIDScheme) scheme
+																		 : new ImmutableIDScheme(scheme);
+		add(s);
+		return s;
+	}
+
+	/**
+	 * Adds the given scheme to the registry and rebuilds the look up table.
+	 *
+	 * @param s	the identifier scheme to add
+	 */
+	private static synchronized void add(final ImmutableIDScheme s) {
+		SCHEMES.put(s.getSchemeId(), s);
+		SHARED_IMPLS.put(s.getSchemeId(), new IDSchemeImpl(s));
+
+		int size = 2;
+		while (size < SCHEMES.size() * 2)
+			size <<= 1;
+		final ImmutableIDScheme[] table = new ImmutableIDScheme[size];
+		for (ImmutableIDScheme r : SCHEMES.values()) {
+			int i = spread(r.getSchemeId().hashCode()) & (size - 1);
+			while (table[i] != null)
+				i = (i + 1) & (size - 1);
+			table[i] = r;
+		}
+		lookupTable = table;
+	}
+
+	/**
+	 * Indicates whether the scheme with the given id is one of the built-in schemes, which cannot be replaced.
+	 *
+	 * @param schemeId	the scheme identifier
+	 * @return	<code>true</code> if the scheme is built-in, <code>false</code> otherwise
+	 */
+	public static boolean isBuiltIn(final String schemeId) {
+		return schemeId != null && BUILT_IN.contains(schemeId);
+	}
+
+	/**
+	 * Indicates whether a scheme with the given id is registered.
+	 *
+	 * @param schemeId	the scheme identifier
+	 * @return	<code>true</code> if a scheme with the given id is registered, <code>false</code> otherwise
+	 */
+	public static boolean isRegistered(final String schemeId) {
+		return schemeId != null && SCHEMES.containsKey(schemeId);
+	}
+
+	private static int spread(final int h) {
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Gets all registered identifier schemes.
+	 *
+	 * @return	unmodifiable collection of the registered schemes
+	 */
+	public static Collection<ImmutableIDScheme> getRegisteredSchemes() {
+		return Collections.unmodifiableCollection(SCHEMES.values());
+	}
+}
@@ -16,20 +16,31 @@
  */
 package org.holodeckb2b.bdxr.smp.datamodel.impl;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import java.util.Locale;
 import java.util.Objects;
 import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
 import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierURLEncoder;
 import org.holodeckb2b.commons.util.Utils;
 
 /**
+ * Implements the {@link Identifier} interface. The scheme of the identifier is resolved using the {@link
+ * IDSchemeRegistry}, so identifiers in a registered scheme share its {@link IDSchemeImpl} instance and case sensitivity
+ * policy, while identifiers in other schemes get their own instance. As the scheme instance may be shared, it must not
+ * be changed; use {@link #setValue(String, IDScheme)} to change the scheme of the identifier.
+ *
  * @author Sander Fieten (sander at holodeck-b2b.org)
  */
 public class IdentifierImpl implements Identifier {
 
+	private static final long serialVersionUID = -3642672998715803641L;
+
     protected IDSchemeImpl  scheme = null;
     protected String		value = null;
+	/**
+	 * The lower case form of the value, cached because it is used for comparing and hashing the identifier
+	 */
+	private transient FoldedValue	folded;
 
     /**
      * Default constructor that can be used by sub classes if they want to allow <code>null</code> values.
@@ -47,7 +58,7 @@ public class IdentifierImpl implements Identifier {
 		if (!Utils.isNullOrEmpty(id)) {
 			final int s = id.indexOf("::");
 			if (s > 0) {
-				this.scheme = new IDSchemeImpl(id.substring(0, s));
+				this.scheme = IDSchemeRegistry.resolve(id.substring(0, s));
 				this.value = id.substring(s + 2);
 			} else {
 				this.scheme = null;
@@ -57,8 +68,9 @@ public class IdentifierImpl implements Identifier {
     }
 
     /**
-     * Creates a new identifier that is defined in the scheme with the given scheme id. It is assumed that the scheme
-	 * uses case insensitive identifiers.
+     * Creates a new identifier that is defined in the scheme with the given scheme id. If the scheme is registered in
+	 * the {@link IDSchemeRegistry} its case sensitivity policy is used, otherwise it is assumed that the scheme uses
+	 * case insensitive identifiers.
      *
      * @param id        The identifier value
      * @param schemeId  The identifier of the scheme in which the id is defined, may be <code>null</code> to indicate
@@ -67,11 +79,12 @@ public class IdentifierImpl implements Identifier {
     public IdentifierImpl(final String id, final String schemeId) {
         Utils.requireNotNullOrEmpty(id);
         this.value =  id;
-        this.scheme = !Utils.isNullOrEmpty(schemeId) ? new IDSchemeImpl(schemeId) : null;
+        this.scheme = IDSchemeRegistry.resolve(schemeId);
     }
 
 	/**
-     * Creates a new identifier that is defined in the given scheme.
+     * Creates a new identifier that is defined in the given scheme. If the scheme is registered in the {@link
+	 * IDSchemeRegistry} its case sensitivity policy is used instead of the one of the given scheme.
      *
      * @param id        The identifier value
      * @param scheme    The scheme in which the id is defined
@@ -79,11 +92,12 @@ public class IdentifierImpl implements Identifier {
     public IdentifierImpl(final String id, final IDScheme scheme) {
         Utils.requireNotNullOrEmpty(id);
         this.value =  id;
-        this.scheme = scheme != null ? new IDSchemeImpl(scheme) : null;
+        this.scheme = IDSchemeRegistry.resolve(scheme);
     }
 
 	/**
-	 * Creates a new <code>Identifier</code> instance copying the data from the given instance.
+	 * Creates a new <code>Identifier</code> instance copying the data from the given instance. If the scheme of the
+	 * given identifier is registered in the {@link IDSchemeRegistry} its case sensitivity policy is used.
 	 *
 	 * @param src the instance to copy the data from
 	 */
@@ -91,7 +105,7 @@ public class IdentifierImpl implements Identifier {
 		if (src == null)
 			throw new IllegalArgumentException();
         this.value =  src.getValue();
-        this.scheme = src.getScheme() != null ? new IDSchemeImpl(src.getScheme()) : null;
+        this.scheme = IDSchemeRegistry.resolve(src.getScheme());
     }
 
     /**
@@ -111,7 +125,12 @@ public class IdentifierImpl implements Identifier {
      */
 	@Override
     public String getValue() {
-        return scheme != null && scheme.isCaseSensitive() ? value : value.toLowerCase();
+        if (scheme != null && scheme.isCaseSensitive())
+        	return value;
+        FoldedValue f = folded;
+        if (f == null || f.source != value)
+        	folded = f = new FoldedValue(value);
+        return f.value;
     }
 
     /**
@@ -126,7 +145,8 @@ public class IdentifierImpl implements Identifier {
     }
 
     /**
-     * Sets new value for the identifier and the scheme it is defined in
+     * Sets new value for the identifier and the scheme it is defined in. If the scheme is registered in the {@link
+	 * IDSchemeRegistry} its case sensitivity policy is used instead of the one of the given scheme.
      *
      * @param id        The new identifier value
      * @param scheme    The identifier scheme the id is defined in
@@ -134,7 +154,7 @@ public class IdentifierImpl implements Identifier {
     public void setValue(final String id, final IDScheme scheme) {
         Utils.requireNotNullOrEmpty(id);
         this.value = id;
-        this.scheme = scheme != null ? new IDSchemeImpl(scheme) : null;
+        this.scheme = IDSchemeRegistry.resolve(scheme);
     }
 
     /**
@@ -143,16 +163,14 @@ public class IdentifierImpl implements Identifier {
      * whereas in the 1.0 and PEPPOL version there is no statement on how to handle an identifier without scheme and one
      * could reason that an identifier without scheme should be represented as <i>::{id}</i>. For uniformity we however
      * handle it the same as in version 2.0 and exclude the "::".
+     * <p>The encoded form is created by the {@link IdentifierURLEncoder}, which can also be used to write it directly
+     * into an existing buffer.
      *
      * @return  The identifier formatted for inclusion in a URL
      */
 	@Override
     public String getURLEncoded() {
-        try {
-            return URLEncoder.encode(toString(), "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new IllegalStateException("UTF-8 not supported.");
-        }
+        return IdentifierURLEncoder.encode(this);
     }
 
     /**
@@ -173,8 +191,8 @@ public class IdentifierImpl implements Identifier {
 
 		final Identifier i = (Identifier) o;
 		return Utils.nullSafeEqual(scheme, i.getScheme())
-                && (scheme != null && scheme.isCaseSensitive()) ? Utils.nullSafeEqual(value, i.getValue())
-															    : Utils.nullSafeEqualIgnoreCase(value, i.getValue());
+                && ((scheme != null && scheme.isCaseSensitive()) ? Utils.nullSafeEqual(value, i.getValue())
+															     : Utils.nullSafeEqualIgnoreCase(value, i.getValue()));
 	}
 
     @Override
@@ -185,4 +203,27 @@ public class IdentifierImpl implements Identifier {
         hash = 47 * hash + Objects.hashCode(getValue());
         return hash;
     }
+
+	/**
+	 * Holds the lower case form of a value. As the value field can be changed directly by sub classes, the source is
+	 * kept to check the cached form is still valid.
+	 */
+	private static final class FoldedValue {
+		final String source;
+		final String value;
+
+		FoldedValue(final String source) {
+			this.source = source;
+			this.value = source != null ? source.toLowerCase(Locale.ROOT) : null;
+		}
+	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
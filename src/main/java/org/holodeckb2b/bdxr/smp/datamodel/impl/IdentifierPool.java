@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is a pool of canonical {@link Identifier} and {@link ProcessIdentifier} instances. For each combination of
+ * identifier scheme and normalised identifier value the pool returns one shared, unmodifiable instance, so equal
+ * identifiers occupy the heap only once and comparing them is in most cases just a reference check.
+ * <p>The pool only holds weak references to the canonical instances, so identifiers that are not used anymore can be
+ * garbage collected. The number of entries in the pool is limited by the maximum size given when the pool is created.
+ * When the pool is full, new identifiers are still returned as unmodifiable instances but they are not added to the
+ * pool. The hit and miss counters and the current size can be used to tune the maximum size.
+ * <p>Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class IdentifierPool {
+	/**
+	 * The default maximum number of identifiers in the pool
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+	/**
+	 * The shared default pool
+	 */
+	private static final IdentifierPool	DEFAULT_POOL = new IdentifierPool(DEFAULT_MAX_SIZE);
+
+	/**
+	 * The canonical instances, indexed by the scheme and normalised value
+	 */
+	private final WeakPool<Key, ImmutableIdentifier>	pool;
+	/**
+	 * The shared instances of the schemes not registered in the {@link IDSchemeRegistry}
+	 */
+	private final ConcurrentHashMap<String, ImmutableIDScheme> schemes = new ConcurrentHashMap<>();
+	/**
+	 * The per thread key used to look up identifiers given as a range of characters
+	 */
+	private final ThreadLocal<LookupKey>	lookupKey = ThreadLocal.withInitial(LookupKey::new);
+
+	/**
+	 * Creates a new pool with the given maximum size.
+	 *
+	 * @param maxSize	the maximum number of identifiers to keep in the pool, must be positive
+	 */
+	public IdentifierPool(final int maxSize) {
+		this.pool = new WeakPool<>(maxSize);
+	}
+
+	/**
+	 * Gets the shared default pool which has a maximum size of {@link #DEFAULT_MAX_SIZE}.
+	 *
+	 * @return the default identifier pool
+	 */
+	public static IdentifierPool getDefault() {
+		return DEFAULT_POOL;
+	}
+
+	/**
+	 * Gets the canonical instance of the given identifier. If the given identifier is a {@link ProcessIdentifier} the
+	 * returned instance is also a <code>ProcessIdentifier</code>.
+	 *
+	 * @param id	the identifier
+	 * @return	the canonical instance of the identifier
+	 */
+	public Identifier intern(final Identifier id) {
+		if (id == null)
+			throw new IllegalArgumentException();
+		if (id instanceof ProcessIdentifier)
+			return intern((ProcessIdentifier) id);
+		else
+			return get(false, id.getScheme(), id.getValue());
+	}
+
+	/**
+	 * Gets the canonical instance of the given process identifier.
+	 *
+	 * @param pid	the process identifier
+	 * @return	the canonical instance of the process identifier
+	 */
+	public ProcessIdentifier intern(final ProcessIdentifier pid) {
+		if (pid == null)
+			throw new IllegalArgumentException();
+		if (pid.isNoProcess())
+			return ImmutableProcessIdentifier.NO_PROCESS;
+		else
+			return (ProcessIdentifier) get(true, pid.getScheme(), pid.getValue());
+	}
+
+	/**
+	 * Gets the canonical instance of the identifier with the given value that is defined in the given scheme.
+	 *
+	 * @param id		the identifier value
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @return	the canonical instance of the identifier
+	 */
+	public Identifier getIdentifier(final String id, final IDScheme scheme) {
+		return get(false, scheme, id);
+	}
+
+	/**
+	 * Gets the canonical instance of the identifier with the given value that is defined in the scheme with the given
+	 * scheme id. If the scheme is registered in the {@link IDSchemeRegistry} its case sensitivity policy is used,
+	 * otherwise it is assumed that the scheme uses case insensitive identifiers.
+	 *
+	 * @param id		the identifier value
+	 * @param schemeId	the identifier of the scheme, may be <code>null</code> to indicate there is no identifier scheme
+	 * @return	the canonical instance of the identifier
+	 */
+	public Identifier getIdentifier(final String id, final String schemeId) {
+		return get(false, getScheme(schemeId), id);
+	}
+
+	/**
+	 * Gets the canonical instance of the process identifier with the given value that is defined in the given scheme.
+	 *
+	 * @param id		the identifier value
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @return	the canonical instance of the process identifier
+	 */
+	public ProcessIdentifier getProcessIdentifier(final String id, final IDScheme scheme) {
+		return (ProcessIdentifier) get(true, scheme, id);
+	}
+
+	/**
+	 * Gets the canonical instance of the process identifier with the given value that is defined in the scheme with
+	 * the given scheme id. If the scheme is registered in the {@link IDSchemeRegistry} its case sensitivity policy is
+	 * used, otherwise it is assumed that the scheme uses case insensitive identifiers.
+	 *
+	 * @param id		the identifier value
+	 * @param schemeId	the identifier of the scheme, may be <code>null</code> to indicate there is no identifier scheme
+	 * @return	the canonical instance of the process identifier
+	 */
+	public ProcessIdentifier getProcessIdentifier(final String id, final String schemeId) {
+		return (ProcessIdentifier) get(true, getScheme(schemeId), id);
+	}
+
+	/**
+	 * Gets the canonical instance of the identifier with the value given as a range of characters that is defined in
+	 * the given scheme. When the identifier is already in the pool and its value is ASCII, this method does not
+	 * allocate any objects. Otherwise only the value string and identifier instance are created.
+	 *
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @param value		the buffer containing the identifier value
+	 * @param offset	the offset of the identifier value in the buffer
+	 * @param length	the length of the identifier value
+	 * @return	the canonical instance of the identifier
+	 */
+	public Identifier getIdentifier(final IDScheme scheme, final char[] value, final int offset, final int length) {
+		return get(false, scheme, value, offset, length);
+	}
+
+	/**
+	 * Gets the canonical instance of the process identifier with the value given as a range of characters that is
+	 * defined in the given scheme. When the identifier is already in the pool and its value is ASCII, this method does
+	 * not allocate any objects. Otherwise only the value string and identifier instance are created.
+	 *
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @param value		the buffer containing the identifier value
+	 * @param offset	the offset of the identifier value in the buffer
+	 * @param length	the length of the identifier value
+	 * @return	the canonical instance of the process identifier
+	 */
+	public ProcessIdentifier getProcessIdentifier(final IDScheme scheme, final char[] value, final int offset,
+												  final int length) {
+		return (ProcessIdentifier) get(true, scheme, value, offset, length);
+	}
+
+	/**
+	 * Gets the number of identifiers currently in the pool. Note that this may include identifiers that have been
+	 * garbage collected but which are not yet removed from the pool.
+	 *
+	 * @return the number of pooled identifiers
+	 */
+	public int size() {
+		return pool.size();
+	}
+
+	/**
+	 * @return the maximum number of identifiers in the pool
+	 */
+	public int getMaxSize() {
+		return pool.getMaxSize();
+	}
+
+	/**
+	 * @return the number of requests for which a canonical instance was already available in the pool
+	 */
+	public long getHitCount() {
+		return pool.getHitCount();
+	}
+
+	/**
+	 * @return the number of requests for which a new instance had to be created
+	 */
+	public long getMissCount() {
+		return pool.getMissCount();
+	}
+
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	public void resetStatistics() {
+		pool.resetStatistics();
+	}
+
+	/**
+	 * Removes all identifiers from the pool. Identifiers that were returned before remain valid, but are not
+	 * canonical anymore.
+	 */
+	public void clear() {
+		pool.clear();
+		schemes.clear();
+	}
+
+	/**
+	 * Gets the canonical identifier instance.
+	 *
+	 * @param process	indicates whether a process identifier is requested
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @param value		the identifier value
+	 * @return	the canonical instance
+	 */
+	private Identifier get(final boolean process, final IDScheme scheme, final String value) {
+		Utils.requireNotNullOrEmpty(value);
+
+		final ImmutableIDScheme s = scheme != null ? getScheme(scheme) : null;
+		final Key key = new Key(process, s, ImmutableIdentifier.normalise(value, s));
+		final ImmutableIdentifier canonical = pool.get(key);
+		if (canonical != null)
+			return canonical;
+		else
+			return pool.add(key, process ? new ImmutableProcessIdentifier(s, key.value)
+										 : new ImmutableIdentifier(s, key.value));
+	}
+
+	/**
+	 * Gets the canonical identifier instance for an identifier value given as a range of characters.
+	 *
+	 * @param process	indicates whether a process identifier is requested
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @param value		the buffer containing the identifier value
+	 * @param offset	the offset of the identifier value in the buffer
+	 * @param length	the length of the identifier value
+	 * @return	the canonical instance
+	 */
+	private Identifier get(final boolean process, final IDScheme scheme, final char[] value, final int offset,
+						   final int length) {
+		if (length <= 0)
+			throw new IllegalArgumentException("Identifier value must be specified");
+		final ImmutableIDScheme s = scheme != null ? getScheme(scheme) : null;
+		final boolean caseSensitive = s != null && s.isCaseSensitive();
+		if (!caseSensitive)
+			for (int i = offset; i < offset + length; i++)
+				if (value[i] >= 0x80)
+					// Non ASCII values are normalised using the String based case folding
+					return get(process, s, new String(value, offset, length));
+
+		final LookupKey probe = lookupKey.get();
+		probe.set(process, s, value, offset, length);
+		final ImmutableIdentifier canonical = pool.get(probe);
+		if (canonical != null)
+			return canonical;
+		else
+			return get(process, s, new String(probe.chars, 0, probe.length));
+	}
+
+	/**
+	 * Gets the shared instance of the identifier scheme with the given id. If the scheme is not registered in the
+	 * {@link IDSchemeRegistry} it uses the case insensitive policy.
+	 *
+	 * @param schemeId	the scheme identifier, may be <code>null</code>
+	 * @return	the shared scheme instance, or <code>null</code> if no scheme id was given
+	 */
+	private ImmutableIDScheme getScheme(final String schemeId) {
+		if (Utils.isNullOrEmpty(schemeId))
+			return null;
+		final ImmutableIDScheme registered = IDSchemeRegistry.get(schemeId);
+		if (registered != null)
+			return registered;
+		final ImmutableIDScheme shared = schemes.get(schemeId);
+		return shared != null && !shared.isCaseSensitive() ? shared : getScheme(new ImmutableIDScheme(schemeId));
+	}
+
+	/**
+	 * Gets the shared instance of the given identifier scheme.
+	 *
+	 * @param scheme	the identifier scheme
+	 * @return	the shared scheme instance with the same id and case sensitivity policy
+	 */
+	private ImmutableIDScheme getScheme(final IDScheme scheme) {
+		final ImmutableIDScheme registered = IDSchemeRegistry.get(scheme.getSchemeId());
+		if (registered != null && registered.isCaseSensitive() == scheme.isCaseSensitive())
+			return registered;
+		final ImmutableIDScheme shared = schemes.get(scheme.getSchemeId());
+		if (shared != null && shared.isCaseSensitive() == scheme.isCaseSensitive())
+			return shared;
+		final ImmutableIDScheme s = ImmutableIDScheme.of(scheme);
+		if (shared == null && registered == null)
+			schemes.putIfAbsent(s.getSchemeId(), s);
+		return s;
+	}
+
+	/**
+	 * The key for the pool entries
+	 */
+	private static final class Key {
+		final boolean 	process;
+		final String	schemeId;
+		final boolean	caseSensitive;
+		final String	value;
+		final int		hash;
+
+		Key(final boolean process, final IDScheme scheme, final String value) {
+			this.process = process;
+			this.schemeId = scheme != null ? scheme.getSchemeId() : null;
+			this.caseSensitive = scheme != null && scheme.isCaseSensitive();
+			this.value = value;
+			int h = value.hashCode();
+			if (schemeId != null)
+				h = 31 * h + schemeId.hashCode();
+			this.hash = 31 * h + (process ? 1 : 0) + (caseSensitive ? 2 : 0);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this)
+				return true;
+			if (!(o instanceof Key))
+				return false;
+			final Key k = (Key) o;
+			return hash == k.hash && process == k.process && caseSensitive == k.caseSensitive
+					&& value.equals(k.value) && Utils.nullSafeEqual(schemeId, k.schemeId);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * The key used to look up an identifier whose value is given as a range of characters. As the key is only used for
+	 * look ups it only needs to be comparable to the keys of the entries in the pool.
+	 */
+	private static final class LookupKey {
+		boolean process;
+		String	schemeId;
+		boolean caseSensitive;
+		char[]	chars = new char[128];
+		int		length;
+		int		hash;
+
+		void set(final boolean process, final IDScheme scheme, final char[] value, final int offset,
+				 final int length) {
+			this.process = process;
+			this.schemeId = scheme != null ? scheme.getSchemeId() : null;
+			this.caseSensitive = scheme != null && scheme.isCaseSensitive();
+			if (chars.length < length)
+				chars = new char[Math.max(length, chars.length * 2)];
+			this.length = length;
+			int h = 0;
+			for (int i = 0; i < length; i++) {
+				char c = value[offset + i];
+				if (!caseSensitive && c >= 'A' && c <= 'Z')
+					c += 'a' - 'A';
+				chars[i] = c;
+				h = 31 * h + c;
+			}
+			if (schemeId != null)
+				h = 31 * h + schemeId.hashCode();
+			this.hash = 31 * h + (process ? 1 : 0) + (caseSensitive ? 2 : 0);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			final Key k = (Key) o;
+			if (hash != k.hash || process != k.process || caseSensitive != k.caseSensitive
+				|| length != k.value.length() || !Utils.nullSafeEqual(schemeId, k.schemeId))
+				return false;
+			for (int i = 0; i < length; i++)
+				if (chars[i] != k.value.charAt(i))
+					return false;
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
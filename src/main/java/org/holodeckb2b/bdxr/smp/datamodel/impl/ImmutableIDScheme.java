@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.util.Objects;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is an unmodifiable implementation of {@link IDScheme}. As instances of this class can not be changed after creation
+ * they can safely be shared between identifiers, which is for example done by the {@link IDSchemeRegistry} and the
+ * {@link IdentifierPool}. Instances are equal to, and have the same hash code as, {@link IDSchemeImpl} instances with
+ * the same scheme id.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public final class ImmutableIDScheme implements IDScheme {
+
+	private static final long serialVersionUID = 1923643784297515256L;
+
+	private final String	schemeId;
+	private final boolean	caseSensitive;
+
+	/**
+	 * Creates a new identifier scheme with case insensitive policy
+	 *
+	 * @param id    The scheme identifier
+	 */
+	public ImmutableIDScheme(final String id) {
+		this(id, false);
+	}
+
+	/**
+	 * Creates a new identifier scheme with specified case sensitivity policy.
+	 *
+	 * @param id        	The scheme identifier
+	 * @param caseSensitive Indicates whether the identifiers of this scheme must be treated case sensitive
+	 */
+	public ImmutableIDScheme(final String id, final boolean caseSensitive) {
+		Utils.requireNotNullOrEmpty(id);
+		this.schemeId = id;
+		this.caseSensitive = caseSensitive;
+	}
+
+	/**
+	 * Creates a new instance copying the data from the given identifier scheme.
+	 *
+	 * @param src the instance to copy the data from
+	 */
+	public ImmutableIDScheme(final IDScheme src) {
+		if (src == null)
+			throw new IllegalArgumentException();
+		Utils.requireNotNullOrEmpty(src.getSchemeId());
+		this.schemeId = src.getSchemeId();
+		this.caseSensitive = src.isCaseSensitive();
+	}
+
+	/**
+	 * Gets an unmodifiable version of the given identifier scheme.
+	 *
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @return	the given scheme if it already is an unmodifiable instance, the shared instance from the {@link
+	 * 			IDSchemeRegistry} if it has the same case sensitivity policy, a new unmodifiable copy of it otherwise, or
+	 * 			<code>null</code> if no scheme was given
+	 */
+	public static ImmutableIDScheme of(final IDScheme scheme) {
+		if (scheme == null || scheme instanceof ImmutableIDScheme)
+			return (ImmutableIDScheme) scheme;
+		return of(scheme.getSchemeId(), scheme.isCaseSensitive());
+	}
+
+	/**
+	 * Gets an unmodifiable identifier scheme with the given id and case sensitivity policy.
+	 *
+	 * @param schemeId		the scheme identifier
+	 * @param caseSensitive	indicates whether the identifiers of the scheme must be treated case sensitive
+	 * @return	the shared instance from the {@link IDSchemeRegistry} if it has the same case sensitivity policy,
+	 * 			a new instance otherwise
+	 */
+	public static ImmutableIDScheme of(final String schemeId, final boolean caseSensitive) {
+		final ImmutableIDScheme registered = IDSchemeRegistry.get(schemeId);
+		if (registered != null && registered.caseSensitive == caseSensitive)
+			return registered;
+		else
+			return new ImmutableIDScheme(schemeId, caseSensitive);
+	}
+
+	/**
+	 * Gets the scheme identifier.
+	 *
+	 * @return the scheme id
+	 */
+	@Override
+	public String getSchemeId() {
+		return schemeId;
+	}
+
+	/**
+	 * Indicates whether identifiers from this identifier scheme should be treated case sensitively or not.
+	 *
+	 * @return	<code>true</code> when the identifiers should be treated case sensitively,<br/>
+	 * 			<code>false</code> when the identifiers should be treated case insensitively
+	 */
+	@Override
+	public boolean isCaseSensitive() {
+		return caseSensitive;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == null || !(o instanceof IDScheme))
+			return false;
+		else
+			return this.schemeId.equals(((IDScheme) o).getSchemeId());
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 7;
+		hash = 29 * hash + Objects.hashCode(this.schemeId);
+		return hash;
+	}
+
+	/**
+	 * Replaces a deserialized instance by the shared instance from the {@link IDSchemeRegistry} when that has the same
+	 * case sensitivity policy.
+	 *
+	 * @return	the shared instance if available, this instance otherwise
+	 * @throws ObjectStreamException when the deserialized instance has no scheme id
+	 */
+	private Object readResolve() throws ObjectStreamException {
+		if (Utils.isNullOrEmpty(schemeId))
+			throw new InvalidObjectException("Identifier scheme without id");
+		final ImmutableIDScheme registered = IDSchemeRegistry.get(schemeId);
+		return registered != null && registered.caseSensitive == caseSensitive ? registered : this;
+	}
+}
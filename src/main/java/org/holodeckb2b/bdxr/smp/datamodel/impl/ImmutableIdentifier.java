@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.util.Locale;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierFingerprint;
+import org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierURLEncoder;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is an unmodifiable implementation of {@link Identifier}. All derived forms of the identifier are calculated once when
+ * the instance is created, i.e. the normalised value (in lower case when the identifier scheme is case insensitive),
+ * the hash code, the string representation and the URL encoded form. This makes the instances well suited for use in
+ * code that often compares identifiers, uses them as keys or constructs SMP query URLs from them. As the instances
+ * cannot be changed they can also be shared, which is what the {@link IdentifierPool} uses to provide canonical
+ * identifier instances.
+ * <p>Case folding is done using the rules of {@link Locale#ROOT} so it does not depend on the default locale of the
+ * JVM. Instances are equal to, and have the same hash code as, other {@link Identifier} implementations of this package
+ * that represent the same identifier.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class ImmutableIdentifier implements Identifier {
+
+	private static final long serialVersionUID = 7830710212424285640L;
+
+	protected final ImmutableIDScheme	scheme;
+	protected final String				value;
+
+	/**
+	 * The pre-calculated string representation, URL encoded form and hash code of the identifier
+	 */
+	private final String	displayString;
+	private final String	urlEncoded;
+	private final int		hash;
+	/**
+	 * The fingerprint of the identifier, calculated on first use. 0 indicates it has not been calculated yet
+	 */
+	private volatile long	fingerprint;
+
+	/**
+	 * Creates a new identifier that is defined in the given scheme.
+	 *
+	 * @param id        The identifier value
+	 * @param scheme    The scheme in which the id is defined, may be <code>null</code> to indicate there is no
+	 *					identifier scheme
+	 */
+	public ImmutableIdentifier(final String id, final IDScheme scheme) {
+		this(ImmutableIDScheme.of(scheme), normalise(checkValue(id), scheme));
+	}
+
+	/**
+	 * Creates a new <code>Identifier</code> instance copying the data from the given instance.
+	 *
+	 * @param src the instance to copy the data from
+	 */
+	public ImmutableIdentifier(final Identifier src) {
+		this(ImmutableIDScheme.of(checkSource(src).getScheme()), normalise(src.getValue(), src.getScheme()));
+	}
+
+	/**
+	 * Creates a new instance using the given, already normalised, identifier value. Used by the pool that has
+	 * already normalised the value to look up the canonical instance.
+	 *
+	 * @param scheme			the identifier scheme, may be <code>null</code>
+	 * @param normalisedValue	the normalised identifier value, only <code>null</code> for the "no-process" identifier
+	 */
+	ImmutableIdentifier(final ImmutableIDScheme scheme, final String normalisedValue) {
+		this.scheme = scheme;
+		this.value = normalisedValue;
+		if (normalisedValue != null) {
+			this.displayString = scheme == null ? normalisedValue : scheme.getSchemeId() + "::" + normalisedValue;
+			this.urlEncoded = urlEncode(displayString);
+		} else {
+			this.displayString = null;
+			this.urlEncoded = null;
+		}
+		int h = 3;
+		if (scheme != null)
+			h = 47 * h + scheme.hashCode();
+		this.hash = 47 * h + (normalisedValue != null ? normalisedValue.hashCode() : 0);
+	}
+
+	/**
+	 * Normalises the given identifier value according to the case sensitivity policy of the given identifier scheme.
+	 * When there is no scheme the value is treated case insensitive, as is done by {@link IdentifierImpl}.
+	 *
+	 * @param value		the identifier value, may be <code>null</code>
+	 * @param scheme	the identifier scheme, may be <code>null</code>
+	 * @return	the normalised identifier value
+	 */
+	static String normalise(final String value, final IDScheme scheme) {
+		return value == null || (scheme != null && scheme.isCaseSensitive()) ? value : value.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * URL encodes the given string.
+	 *
+	 * @param s	the string to encode
+	 * @return	the URL encoded string
+	 */
+	static String urlEncode(final String s) {
+		return IdentifierURLEncoder.encode(s, new StringBuilder(IdentifierURLEncoder.encodedLength(s))).toString();
+	}
+
+	private static String checkValue(final String id) {
+		if (Utils.isNullOrEmpty(id))
+			throw new IllegalArgumentException("Identifier value must be specified");
+		return id;
+	}
+
+	private static Identifier checkSource(final Identifier src) {
+		if (src == null)
+			throw new IllegalArgumentException();
+		return src;
+	}
+
+	@Override
+	public IDScheme getScheme() {
+		return scheme;
+	}
+
+	@Override
+	public String getValue() {
+		return value;
+	}
+
+	@Override
+	public String getURLEncoded() {
+		return urlEncoded;
+	}
+
+	@Override
+	public String toString() {
+		return displayString;
+	}
+
+	/**
+	 * Gets the 64-bit fingerprint of the identifier as defined by {@link IdentifierFingerprint}. The fingerprint is
+	 * calculated on first use.
+	 *
+	 * @return the fingerprint of the identifier
+	 */
+	public long getFingerprint() {
+		long f = fingerprint;
+		if (f == 0)
+			fingerprint = f = IdentifierFingerprint.calculate(this);
+		return f;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o == null || !(o instanceof Identifier))
+			return false;
+		if (o instanceof ImmutableIdentifier) {
+			final ImmutableIdentifier i = (ImmutableIdentifier) o;
+			return hash == i.hash && Utils.nullSafeEqual(value, i.value) && Utils.nullSafeEqual(scheme, i.scheme);
+		}
+
+		final Identifier i = (Identifier) o;
+		if (!Utils.nullSafeEqual(scheme, i.getScheme()))
+			return false;
+		return scheme != null && scheme.isCaseSensitive() ? Utils.nullSafeEqual(value, i.getValue())
+														  : Utils.nullSafeEqualIgnoreCase(value, i.getValue());
+	}
+
+	/**
+	 * Gets the hash code of the identifier which is calculated in the same way as {@link IdentifierImpl} does.
+	 *
+	 * @return hash value for this instance
+	 */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
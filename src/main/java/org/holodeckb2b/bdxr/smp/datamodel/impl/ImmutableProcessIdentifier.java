@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.util.Objects;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+
+/**
+ * Is an unmodifiable implementation of {@link ProcessIdentifier}. The special "no-process" identifier is represented
+ * by the singleton {@link #NO_PROCESS}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class ImmutableProcessIdentifier extends ImmutableIdentifier implements ProcessIdentifier {
+
+	private static final long serialVersionUID = 8921426931368605204L;
+
+	/**
+	 * The "no-process" Process Identifier
+	 */
+	public static final ImmutableProcessIdentifier NO_PROCESS = new ImmutableProcessIdentifier();
+
+	/**
+	 * The string representation of the "no-process" identifier, same as used by {@link ProcessIdentifierImpl}
+	 */
+	private static final String NO_PROCESS_STRING = "{{No-Process}}";
+	/**
+	 * The URL encoded form of the "no-process" identifier
+	 */
+	private static final String NO_PROCESS_URL_ENCODED = urlEncode(NO_PROCESS_STRING);
+
+	private final boolean isNoProcess;
+	private final int	  processHash;
+
+	/**
+	 * Creates the "no-process" Process Identifier
+	 */
+	private ImmutableProcessIdentifier() {
+		super((ImmutableIDScheme) null, null);
+		this.isNoProcess = true;
+		this.processHash = Objects.hash(true);
+	}
+
+	/**
+	 * Creates a new, non "no-process", Process identifier that is defined in the given scheme.
+	 *
+	 * @param id		the identifier value
+	 * @param scheme 	scheme in which the identifier is defined, may be <code>null</code>
+	 */
+	public ImmutableProcessIdentifier(final String id, final IDScheme scheme) {
+		super(id, scheme);
+		this.isNoProcess = false;
+		this.processHash = calculateHash();
+	}
+
+	/**
+	 * Creates a new, non "no-process", Process identifier using the given, already normalised, identifier value.
+	 *
+	 * @param scheme			the identifier scheme, may be <code>null</code>
+	 * @param normalisedValue	the normalised identifier value
+	 */
+	ImmutableProcessIdentifier(final ImmutableIDScheme scheme, final String normalisedValue) {
+		super(scheme, normalisedValue);
+		this.isNoProcess = false;
+		this.processHash = calculateHash();
+	}
+
+	/**
+	 * Gets an unmodifiable version of the given process identifier.
+	 *
+	 * @param src	the process identifier to copy the data from
+	 * @return	{@link #NO_PROCESS} if the given identifier is the "no-process" identifier, a new instance with the same
+	 * 			data otherwise
+	 */
+	public static ImmutableProcessIdentifier of(final ProcessIdentifier src) {
+		if (src == null)
+			throw new IllegalArgumentException();
+		if (src.isNoProcess())
+			return NO_PROCESS;
+		else if (src instanceof ImmutableProcessIdentifier)
+			return (ImmutableProcessIdentifier) src;
+		else
+			return new ImmutableProcessIdentifier(ImmutableIDScheme.of(src.getScheme()),
+												  normalise(src.getValue(), src.getScheme()));
+	}
+
+	@Override
+	public boolean isNoProcess() {
+		return isNoProcess;
+	}
+
+	@Override
+	public String getURLEncoded() {
+		return isNoProcess ? NO_PROCESS_URL_ENCODED : super.getURLEncoded();
+	}
+
+	@Override
+	public String toString() {
+		return isNoProcess ? NO_PROCESS_STRING : super.toString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o == null || !(o instanceof ProcessIdentifier))
+			return false;
+		else if (this.isNoProcess || ((ProcessIdentifier) o).isNoProcess())
+			return this.isNoProcess && ((ProcessIdentifier) o).isNoProcess();
+		else
+			return super.equals((Identifier) o);
+	}
+
+	/**
+	 * Gets the hash code of the process identifier which is calculated in the same way as {@link
+	 * ProcessIdentifierImpl} does.
+	 *
+	 * @return hash value for this instance
+	 */
+	@Override
+	public int hashCode() {
+		return processHash;
+	}
+
+	/**
+	 * Calculates the hash code of a non "no-process" identifier.
+	 *
+	 * @return hash value for this instance
+	 */
+	private int calculateHash() {
+		final int prime = 31;
+		return Objects.hash(false) + prime * super.hashCode();
+	}
+}
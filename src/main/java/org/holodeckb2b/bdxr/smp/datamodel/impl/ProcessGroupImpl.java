@@ -16,15 +16,18 @@
  */
 package org.holodeckb2b.bdxr.smp.datamodel.impl;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
 import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
 import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
 import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
 import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.util.ProcessIndex;
 import org.holodeckb2b.commons.util.Utils;
 
 /**
@@ -32,6 +35,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class ProcessGroupImpl extends ExtensibleMetadataClass implements ProcessGroup {
 
+	private static final long serialVersionUID = 3331734042907859447L;
+
     private Set<ProcessInfo>		processes;
     private Redirection			 	redirect;
     private Set<EndpointInfo>   	endpoints;
@@ -104,6 +109,7 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
     /**
      * Checks if this given process is included in the set of processes that is represented by this meta-data and if
      * a role is specified if the participant plays that role in the process.
+     * <p>When many checks are done on the same process group, a {@link ProcessIndex} of the group can be used.
      *
      * @param processId     identifier of the process to check
      * @param role     		role the participant should play in the process, may be <code>null</code>
@@ -113,10 +119,19 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
      * 						<code>false</code> otherwise
      */
 	public boolean supportsProcess(final IdentifierImpl processId, final IdentifierImpl role) {
-        return Utils.isNullOrEmpty(processes)
-        	|| processes.parallelStream().anyMatch(pi -> processId.equals(pi.getProcessId())
-        												&& (role == null || pi.getRoles().isEmpty()
-        													|| pi.getRoles().stream().anyMatch(r -> role.equals(r))));
+        if (Utils.isNullOrEmpty(processes))
+        	return true;
+        for (ProcessInfo pi : processes) {
+        	if (!processId.equals(pi.getProcessId()))
+        		continue;
+        	final Collection<? extends Identifier> roles = pi.getRoles();
+        	if (role == null || Utils.isNullOrEmpty(roles))
+        		return true;
+        	for (Identifier r : roles)
+        		if (role.equals(r))
+        			return true;
+        }
+        return false;
     }
 
     /**
@@ -125,6 +140,7 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
      * @param processInfo The list of process information to set
      */
     public void setProcessInfo(Set<ProcessInfo> processInfo) {
+        checkNotFrozen();
         this.processes = processInfo;
     }
 
@@ -135,6 +151,7 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
      * @param processInfo The process info
      */
     public void addProcessInfo(final ProcessInfo processInfo) {
+        checkNotFrozen();
         if (processInfo == null)
             throw new IllegalArgumentException("A process info object must be provided");
 		if (this.processes == null)
@@ -160,6 +177,7 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
 	 * @throws IllegalStateException when a redirection is already defined
      */
     public void setEndpoints(Set<EndpointInfo> endpoints) {
+		checkNotFrozen();
 		if (this.redirect != null && !Utils.isNullOrEmpty(endpoints))
 			throw new IllegalStateException("Redirection is already set");
 
@@ -174,6 +192,7 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
 	 * @throws IllegalStateException when a redirection is already defined
      */
     public void addEndpoint(final EndpointInfo endpoint) {
+        checkNotFrozen();
         if (endpoint == null)
             throw new IllegalArgumentException("A EndpointInfo object must be provided");
 		if (this.redirect != null)
@@ -200,11 +219,20 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
 	 * @throws IllegalStateException when one or more endpoint have already been registered
      */
 	public void setRedirection(Redirection redirect) {
+		checkNotFrozen();
 		if (redirect != null && !this.endpoints.isEmpty())
 			throw new IllegalStateException("Endpoints have already been set");
 		this.redirect = redirect;
 	}
 
+	@Override
+	protected void freezeContent() {
+		processes = freeze(processes);
+		endpoints = freeze(endpoints);
+		if (redirect instanceof ExtensibleMetadataClass)
+			((ExtensibleMetadataClass) redirect).freeze();
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (o == null || !(o instanceof ProcessGroup))
@@ -218,12 +246,20 @@ public class ProcessGroupImpl extends ExtensibleMetadataClass implements Process
 	}
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(Utils.isNullOrEmpty(endpoints) ? null : endpoints,
 											   Utils.isNullOrEmpty(processes) ? null : processes, redirect);
 		return result;
 	}
 
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
@@ -26,6 +26,8 @@ import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
  */
 public class ProcessIdentifierImpl extends IdentifierImpl implements ProcessIdentifier {
 
+	private static final long serialVersionUID = 3153962432170527251L;
+
 	private boolean isNoProcess = false;
 
 	/**
@@ -56,8 +58,9 @@ public class ProcessIdentifierImpl extends IdentifierImpl implements ProcessIden
 	}
 
 	/**
-     * Creates a new, non "no-process" Process identifier that is defined in the scheme with the given scheme id. It is
-	 * assumed that the scheme uses case insensitive identifiers.
+     * Creates a new, non "no-process" Process identifier that is defined in the scheme with the given scheme id. If the
+	 * scheme is registered in the {@link IDSchemeRegistry} its case sensitivity policy is used, otherwise it is assumed
+	 * that the scheme uses case insensitive identifiers.
      *
      * @param id        The identifier value
      * @param schemeId  The identifier of the scheme in which the id is defined, may be <code>null</code> to indicate
@@ -147,4 +150,13 @@ public class ProcessIdentifierImpl extends IdentifierImpl implements ProcessIden
 		}
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
@@ -31,6 +31,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class ProcessInfoImpl extends ExtensibleMetadataClass implements ProcessInfo {
 
+	private static final long serialVersionUID = -6574273754532847923L;
+
     private ProcessIdentifier	processId;
     private Set<Identifier>		roles;
 
@@ -90,6 +92,7 @@ public class ProcessInfoImpl extends ExtensibleMetadataClass implements ProcessI
      * @param processId The process identifier to set
      */
     public void setProcessId(ProcessIdentifier processId) {
+        checkNotFrozen();
         this.processId = processId;
     }
 
@@ -109,6 +112,7 @@ public class ProcessInfoImpl extends ExtensibleMetadataClass implements ProcessI
 	 * @param roles	List of Role identifiers
 	 */
 	public void setRoles(Set<Identifier> roles) {
+		checkNotFrozen();
 		this.roles = roles;
 	}
 
@@ -118,6 +122,7 @@ public class ProcessInfoImpl extends ExtensibleMetadataClass implements ProcessI
 	 * @param role	Identifier of the role to be added
 	 */
 	public void addRole(Identifier role) {
+        checkNotFrozen();
         if (role == null)
             throw new IllegalArgumentException("A role identifier object must be provided");
         if (this.roles == null)
@@ -125,6 +130,11 @@ public class ProcessInfoImpl extends ExtensibleMetadataClass implements ProcessI
 		this.roles.add(role);
 	}
 
+	@Override
+	protected void freezeContent() {
+		roles = freeze(roles);
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (o == null || !(o instanceof ProcessInfo))
@@ -137,10 +147,19 @@ public class ProcessInfoImpl extends ExtensibleMetadataClass implements ProcessI
 	}
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(processId, Utils.isNullOrEmpty(roles) ? null : roles);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
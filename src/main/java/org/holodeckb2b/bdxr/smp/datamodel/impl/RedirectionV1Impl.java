@@ -26,6 +26,8 @@ import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV1;
  * @author Sander Fieten (sander at holodeck-b2b.org)
  */
 public class RedirectionV1Impl extends AbstractRedirectionImpl implements RedirectionV1 {
+
+	private static final long serialVersionUID = 9092884823165422025L;
 	/**
 	 * The <i>Subject Unique Identifier</i> of the certificate of the SMP server to which the request should be
 	 * redirected. The value of this field is defined as a bit string, therefore the type is a boolean array.
@@ -96,6 +98,7 @@ public class RedirectionV1Impl extends AbstractRedirectionImpl implements Redire
 	 * @param subjectUID	The <i>Subject Unique Identifier</i> of the certificate of the "redirected" SMP server
 	 */
 	public void setSMPSubjectUniqueID(boolean[] subjectUID) {
+		checkNotFrozen();
 		this.subjectUniqueID = subjectUID;
 	}
 
@@ -108,10 +111,19 @@ public class RedirectionV1Impl extends AbstractRedirectionImpl implements Redire
 	}
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Arrays.hashCode(subjectUniqueID);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
@@ -28,6 +28,8 @@ import org.holodeckb2b.commons.util.Utils;
  * @author Sander Fieten (sander at holodeck-b2b.org)
  */
 public class RedirectionV2Impl extends AbstractRedirectionImpl implements RedirectionV2 {
+
+	private static final long serialVersionUID = 2452450773009742230L;
 	/**
 	 * The certificate of the SMP server to which the request should be redirected
 	 */
@@ -81,6 +83,19 @@ public class RedirectionV2Impl extends AbstractRedirectionImpl implements Redire
     	this.cert = src.getSMPCertificate();
     }
 
+	/**
+	 * Creates a new instance copying the data from the given instance and using the shared instance of the SMP
+	 * certificate from the given pool.
+	 *
+	 * @param src	the instance to copy the data from
+	 * @param pool	the pool to get the shared X509 certificate from, may be <code>null</code> to use the certificate of
+	 * 				the source instance
+	 */
+    public RedirectionV2Impl(final RedirectionV2 src, final CertificatePool pool) {
+		super(src);
+    	this.cert = pool != null ? pool.intern(src.getSMPCertificate()) : src.getSMPCertificate();
+    }
+
     /**
      * Gets the X509 certificate that the SMP server this redirection is to should use.
      *
@@ -97,6 +112,7 @@ public class RedirectionV2Impl extends AbstractRedirectionImpl implements Redire
      * @param cert	The certificate of the "redirected" SMP server
      */
 	public void setSMPCertitificate(X509Certificate cert) {
+		checkNotFrozen();
 		this.cert = cert;
 	}
 
@@ -109,10 +125,19 @@ public class RedirectionV2Impl extends AbstractRedirectionImpl implements Redire
 	}
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(cert);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
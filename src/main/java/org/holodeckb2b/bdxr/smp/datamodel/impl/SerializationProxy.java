@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+import java.util.Arrays;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryReader;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryWriter;
+
+/**
+ * Is the serialized form of the implementation classes of the data model. Instead of the default serialized form,
+ * which includes the class descriptors of all objects in the graph, the internals of the collections and the X509
+ * certificates, the implementation classes write this proxy that contains the object encoded by the {@link
+ * BinaryWriter}. When deserialized the proxy is replaced by the object decoded by the {@link BinaryReader}.
+ * <p>As the binary format is based on the interfaces of the data model, the objects contained in the serialized
+ * object are restored as the implementation classes of this package. They are equal to the original objects, but
+ * certificates are restored as {@link EncodedCertificateImpl} and identifiers are not taken from an {@link
+ * IdentifierPool}. Sub classes of the implementation classes are not replaced by the proxy and keep using the default
+ * serialized form.
+ * <p>As the encoded object is decoded outside the control of the object stream and its filter, extensions are only
+ * restored when allowed by the {@link ExtensionFilter#getDefault() default extension filter}. Other extensions are
+ * restored as {@link SerializedExtension}s.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class SerializationProxy implements Externalizable {
+	private static final long serialVersionUID = -6179455081376628347L;
+
+	/**
+	 * The reader used to restore the objects
+	 */
+	private static final BinaryReader READER = new BinaryReader();
+	/**
+	 * The number of bytes of the encoded object that is read before the length from the stream is trusted. The buffer
+	 * for the encoded object starts at this size and only grows as more bytes are read, so a stream with a forged
+	 * length cannot make the proxy allocate much more memory than the stream actually contains.
+	 */
+	private static final int CHUNK_SIZE = 8192;
+
+	private byte[]	encoded;
+
+	/**
+	 * Default constructor used by the serialization framework.
+	 */
+	public SerializationProxy() {}
+
+	private SerializationProxy(final byte[] encoded) {
+		this.encoded = encoded;
+	}
+
+	/**
+	 * Gets the object to serialize in place of the given object. This is the proxy containing the encoded object,
+	 * unless the object cannot be encoded, for example because it contains an identifier without value or extensions
+	 * that are not serializable. The object itself is then returned so the default serialized form is used.
+	 *
+	 * @param o	the object to serialize
+	 * @return	the object to serialize in its place
+	 */
+	static Object replace(final Object o) {
+		try {
+			return new SerializationProxy(BinaryWriter.encode(o));
+		} catch (RuntimeException cannotEncode) {
+			return o;
+		}
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeInt(encoded.length);
+		out.write(encoded);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		final int len = in.readInt();
+		if (len < 0)
+			throw new InvalidObjectException("Invalid length of encoded object");
+		byte[] buf = new byte[Math.min(len, CHUNK_SIZE)];
+		int read = 0;
+		while (read < len) {
+			if (read == buf.length)
+				buf = Arrays.copyOf(buf, (int) Math.min(len, 2L * buf.length));
+			in.readFully(buf, read, buf.length - read);
+			read = buf.length;
+		}
+		encoded = buf;
+	}
+
+	private Object readResolve() throws ObjectStreamException {
+		try {
+			return READER.decode(encoded);
+		} catch (IOException invalid) {
+			final InvalidObjectException ex = new InvalidObjectException("Invalid encoded object");
+			ex.initCause(invalid);
+			throw ex;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+
+/**
+ * Is an opaque placeholder for an {@link Extension} that is read from encoded meta-data but was not deserialized. The
+ * binary, JSON and snapshot formats contain the extensions in their Java serialized form and deserializing untrusted
+ * data may execute arbitrary code. Therefore the readers only deserialize the extensions whose classes are allowed by
+ * the {@link ExtensionFilter} in use and keep all other extensions in their serialized form as instances of this class.
+ * When written again the serialized form is copied as is, so the extension is not lost.
+ * <p>Two instances are equal when their serialized forms are the same. Note that a placeholder is not equal to the
+ * extension it contains.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ * @see ExtensionFilter
+ */
+public final class SerializedExtension implements Extension {
+	private static final long serialVersionUID = -2238107934386213275L;
+
+	/**
+	 * The Java serialized form of the extension
+	 */
+	private final byte[]	serialized;
+
+	/**
+	 * Creates a new placeholder for the extension with the given serialized form.
+	 *
+	 * @param serialized	the Java serialized form of the extension
+	 * @throws IllegalArgumentException when no serialized form is given
+	 */
+	public SerializedExtension(final byte[] serialized) {
+		if (serialized == null || serialized.length == 0)
+			throw new IllegalArgumentException("Serialized form must be specified");
+		this.serialized = serialized.clone();
+	}
+
+	/**
+	 * Gets the Java serialized form of the given extension. When the extension is a placeholder its serialized form
+	 * is returned as is.
+	 *
+	 * @param ext	the extension to serialize
+	 * @return	the serialized form of the extension
+	 * @throws IllegalArgumentException when the extension cannot be serialized
+	 */
+	public static byte[] serialize(final Extension ext) {
+		if (ext instanceof SerializedExtension)
+			return ((SerializedExtension) ext).getSerializedForm();
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+			oos.writeObject(ext);
+		} catch (IOException notSerializable) {
+			throw new IllegalArgumentException("Could not serialize extension", notSerializable);
+		}
+		return bos.toByteArray();
+	}
+
+	/**
+	 * Gets the Java serialized form of the extension.
+	 *
+	 * @return	copy of the serialized form
+	 */
+	public byte[] getSerializedForm() {
+		return serialized.clone();
+	}
+
+	/**
+	 * Deserializes the extension using the given filter.
+	 *
+	 * @param filter	the filter that determines which classes may be deserialized
+	 * @return	the deserialized extension, or this placeholder when the filter does not allow the classes of the
+	 * 			extension
+	 * @throws IOException	when the serialized form is invalid or does not contain an extension
+	 */
+	public Extension deserialize(final ExtensionFilter filter) throws IOException {
+		final Extension e = filter.deserialize(serialized, 0, serialized.length);
+		return e instanceof SerializedExtension ? this : e;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		return o == this || o instanceof SerializedExtension
+							&& Arrays.equals(serialized, ((SerializedExtension) o).serialized);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(serialized);
+	}
+
+	@Override
+	public String toString() {
+		return "SerializedExtension[" + serialized.length + " bytes]";
+	}
+}
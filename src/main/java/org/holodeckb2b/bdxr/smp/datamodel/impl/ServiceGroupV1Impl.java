@@ -17,18 +17,26 @@
 package org.holodeckb2b.bdxr.smp.datamodel.impl;
 
 import java.net.URL;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import org.holodeckb2b.bdxr.smp.datamodel.Extension;
 import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
 import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV1;
+import org.holodeckb2b.commons.util.Utils;
 
 /**
+ * Implements the {@link ServiceGroupV1} interface. The references to the service meta-data are kept in a set that
+ * compares the URLs using their normalised string representation, so adding references and comparing or hashing
+ * service groups does not resolve the host names of the URLs.
+ *
  * @author Sander Fieten (sander at holodeck-b2b.org)
  */
 public class ServiceGroupV1Impl extends AbstractServiceGroupImpl<URL> implements ServiceGroupV1 {
 
+	private static final long serialVersionUID = -1311319182820487744L;
+
 	/**
      * Default constructor creates "empty" instance
      */
@@ -44,7 +52,7 @@ public class ServiceGroupV1Impl extends AbstractServiceGroupImpl<URL> implements
      * @param exts          Any extended meta-data information included in the SMP record
      */
     public ServiceGroupV1Impl(final Identifier participant, Set<URL> svcRefs, final List<Extension> exts) {
-		super(participant, svcRefs, exts);
+		super(participant, toURLSet(svcRefs), exts);
     }
 
 	/**
@@ -53,6 +61,71 @@ public class ServiceGroupV1Impl extends AbstractServiceGroupImpl<URL> implements
 	 * @param src the instance to copy the data from
 	 */
     public ServiceGroupV1Impl(final ServiceGroupV1 src) {
-    	super(src);
-    }    
+    	super(src.getParticipantId(), toURLSet(src.getServiceReferences()), src.getExtensions());
+    }
+
+	/**
+     * Sets the references to services which the participant supports. The URLs are copied into a new set.
+     *
+     * @param svcRefs set of service references
+     */
+	@Override
+    public void setServiceReferences(Set<URL> svcRefs) {
+		super.setServiceReferences(toURLSet(svcRefs));
+	}
+
+    /**
+     * Adds a service reference to the list of supported services
+     *
+     * @param svcRef  service reference
+     */
+	@Override
+    public void addServiceReference(final URL svcRef) {
+		if (getServiceReferences() == null)
+			super.setServiceReferences(new URLSet());
+		super.addServiceReference(svcRef);
+	}
+
+    @Override
+    public boolean equals(Object o) {
+    	if (o == null || !(o instanceof ServiceGroupV1) || differsFrozen(o))
+    		return false;
+
+    	final ServiceGroupV1 oth = (ServiceGroupV1) o;
+    	final Collection<? extends URL> refs = getServiceReferences(), othRefs = oth.getServiceReferences();
+    	return Utils.nullSafeEqual(getParticipantId(), oth.getParticipantId())
+    		&& (Utils.isNullOrEmpty(refs) ? Utils.isNullOrEmpty(othRefs)
+    									  : !Utils.isNullOrEmpty(othRefs) && refs.equals(toURLSet(othRefs)))
+    		&& Utils.areEqual(getExtensions(), oth.getExtensions());
+    }
+
+	/**
+	 * Copies the given URLs into a {@link URLSet}.
+	 *
+	 * @param urls	the URLs, may be <code>null</code>
+	 * @return	the set of URLs, or <code>null</code> if no URLs were given
+	 */
+	private static URLSet toURLSet(final Collection<? extends URL> urls) {
+		return urls == null || urls instanceof URLSet ? (URLSet) urls : new URLSet(urls);
+	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
+
+	/**
+	 * Converts the service references of an instance that was serialized using the default serialized form, which
+	 * contain a plain set of URLs, into a {@link URLSet}.
+	 *
+	 * @return	this instance
+	 */
+	private Object readResolve() {
+		super.setServiceReferences(toURLSet(getServiceReferences()));
+		return this;
+	}
 }
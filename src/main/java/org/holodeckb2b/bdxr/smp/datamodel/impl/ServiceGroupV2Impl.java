@@ -28,6 +28,8 @@ import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
  */
 public class ServiceGroupV2Impl extends AbstractServiceGroupImpl<ServiceReference> implements ServiceGroupV2 {
 
+	private static final long serialVersionUID = -75621667504599995L;
+
 	/**
      * Default constructor creates "empty" instance
      */
@@ -54,4 +56,13 @@ public class ServiceGroupV2Impl extends AbstractServiceGroupImpl<ServiceReferenc
     public ServiceGroupV2Impl(final ServiceGroupV2 src) {
     	super(src);
     }    
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
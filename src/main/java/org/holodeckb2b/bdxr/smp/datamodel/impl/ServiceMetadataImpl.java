@@ -31,6 +31,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class ServiceMetadataImpl extends ExtensibleMetadataClass implements ServiceMetadata {
 
+	private static final long serialVersionUID = 7309100887221956584L;
+
     private Identifier  		participantId;
     private Identifier  		serviceId;
     private Set<ProcessGroup>   processGroups;
@@ -85,6 +87,7 @@ public class ServiceMetadataImpl extends ExtensibleMetadataClass implements Serv
      * @param participantId The participant id
      */
     public void setParticipantId(Identifier participantId) {
+        checkNotFrozen();
         this.participantId =  participantId;
     }
 
@@ -103,6 +106,7 @@ public class ServiceMetadataImpl extends ExtensibleMetadataClass implements Serv
      * @param serviceId The service id
      */
     public void setServiceId(final Identifier serviceId) {
+        checkNotFrozen();
         this.serviceId = serviceId;
     }
 
@@ -122,6 +126,7 @@ public class ServiceMetadataImpl extends ExtensibleMetadataClass implements Serv
      * @param processGroups set of process groups in which the service is supported
      */
     public void setProcessInformation(Set<ProcessGroup> processGroups) {
+        checkNotFrozen();
         this.processGroups = processGroups;
     }
 
@@ -131,6 +136,7 @@ public class ServiceMetadataImpl extends ExtensibleMetadataClass implements Serv
      * @param processGroup   process group in which the service is supported
      */
     public void addProcessGroup(final ProcessGroup processGroup) {
+        checkNotFrozen();
         if (processGroup == null)
             throw new IllegalArgumentException("A process group meta-data object must be provided");
 		if (this.processGroups == null)
@@ -138,6 +144,11 @@ public class ServiceMetadataImpl extends ExtensibleMetadataClass implements Serv
         this.processGroups.add(processGroup);
     }
 
+	@Override
+	protected void freezeContent() {
+		processGroups = freeze(processGroups);
+	}
+
     @Override
     public boolean equals(Object o) {
     	if (o == null || !(o instanceof ServiceMetadata))
@@ -151,11 +162,20 @@ public class ServiceMetadataImpl extends ExtensibleMetadataClass implements Serv
     }
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(participantId, Utils.isNullOrEmpty(processGroups) ? null : processGroups,
 												serviceId);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
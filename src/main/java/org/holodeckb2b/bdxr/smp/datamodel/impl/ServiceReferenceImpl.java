@@ -32,6 +32,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class ServiceReferenceImpl extends ExtensibleMetadataClass implements ServiceReference {
 
+	private static final long serialVersionUID = 8089919304682534737L;
+
 	private Identifier	serviceId;
 	private Set<ProcessInfo>	processInfo;
 
@@ -82,6 +84,7 @@ public class ServiceReferenceImpl extends ExtensibleMetadataClass implements Ser
      * @param serviceId The service id
      */
     public void setServiceId(final Identifier serviceId) {
+        checkNotFrozen();
         this.serviceId = serviceId;
     }
 
@@ -101,6 +104,7 @@ public class ServiceReferenceImpl extends ExtensibleMetadataClass implements Ser
      * @param processes set of process meta-data
      */
     public void setProcesses(Set<ProcessInfo> processes) {
+        checkNotFrozen();
         this.processInfo = processes;
     }
 
@@ -110,11 +114,17 @@ public class ServiceReferenceImpl extends ExtensibleMetadataClass implements Ser
      * @param process   process meta-data
      */
     public void addProcessInfo(final ProcessInfo process) {
+		checkNotFrozen();
 		if (this.processInfo == null)
 			this.processInfo = new HashSet<>(1);
         this.processInfo.add(process);
     }
 
+	@Override
+	protected void freezeContent() {
+		processInfo = freeze(processInfo);
+	}
+
     @Override
     public boolean equals(Object o) {
 	    if (o == null || !(o instanceof ServiceReference))
@@ -127,10 +137,19 @@ public class ServiceReferenceImpl extends ExtensibleMetadataClass implements Ser
     }
 
     @Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(processInfo, serviceId);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
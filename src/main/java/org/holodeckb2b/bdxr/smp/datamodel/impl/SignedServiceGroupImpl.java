@@ -32,6 +32,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class SignedServiceGroupImpl extends ServiceGroupV2Impl implements SignedQueryResult {
 
+	private static final long serialVersionUID = 5467824820304423402L;
+
 	private X509Certificate		signingCert;
 
 	/**
@@ -93,6 +95,7 @@ public class SignedServiceGroupImpl extends ServiceGroupV2Impl implements Signed
 	 * @param cert	SMP signing cert
 	 */
 	public void setSigningCertificate(X509Certificate cert) {
+		checkNotFrozen();
 		this.signingCert = cert;
 	}
 
@@ -105,10 +108,19 @@ public class SignedServiceGroupImpl extends ServiceGroupV2Impl implements Signed
 	}
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(signingCert);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
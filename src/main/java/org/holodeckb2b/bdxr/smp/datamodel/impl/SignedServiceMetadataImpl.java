@@ -32,6 +32,8 @@ import org.holodeckb2b.commons.util.Utils;
  */
 public class SignedServiceMetadataImpl extends ServiceMetadataImpl implements SignedQueryResult {
 
+	private static final long serialVersionUID = -2617686174688426455L;
+
     private X509Certificate		signingCert;
 
     /**
@@ -95,6 +97,7 @@ public class SignedServiceMetadataImpl extends ServiceMetadataImpl implements Si
 	 * @param cert	SMP signing cert
 	 */
 	public void setSigningCertificate(X509Certificate cert) {
+		checkNotFrozen();
 		this.signingCert = cert;
 	}
 
@@ -107,10 +110,19 @@ public class SignedServiceMetadataImpl extends ServiceMetadataImpl implements Si
 	}
 
 	@Override
-	public int hashCode() {
+	protected int contentHashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		int result = super.contentHashCode();
 		result = prime * result + Objects.hash(signingCert);
 		return result;
 	}
+
+	/**
+	 * Replaces this instance by its compact serialized form.
+	 *
+	 * @return	the {@link SerializationProxy} of this instance
+	 */
+	private Object writeReplace() {
+		return SerializationProxy.replace(this);
+	}
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.io.Serializable;
+import java.net.URL;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * Is a {@link Set} of {@link URL}s that identifies the URLs by their normalised form as provided by {@link
+ * URLUtils#normalise(URL)} instead of using {@link URL#equals(Object)} and {@link URL#hashCode()}, so adding, looking
+ * up, comparing and hashing the URLs never resolves host names. The set keeps the insertion order of the URLs and does
+ * not accept <code>null</code> elements.
+ * <p>The set is equal to any other {@link Set} that contains the same URLs when compared by their normalised form, and
+ * its hash code is the sum of the hash codes of the normalised forms. NOTE: As {@link URL#hashCode()} resolves the
+ * host name, the hash code of the set can not be the sum of the hash codes of the URLs as required by {@link
+ * Set#hashCode()}. Other implementations of <code>Set</code> also compare the URLs using {@link URL#equals(Object)},
+ * which gives a different result for example for an empty path or host names that are aliases of each other.
+ * Therefore a set of URLs should be copied into a <code>URLSet</code> before comparing or hashing it together with
+ * <code>URLSet</code>s.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+class URLSet extends AbstractSet<URL> implements Serializable {
+	private static final long serialVersionUID = 3911428512004826913L;
+
+	/**
+	 * The URLs, indexed by their normalised form
+	 */
+	private final LinkedHashMap<String, URL>	urls;
+
+	/**
+	 * Creates a new empty set.
+	 */
+	URLSet() {
+		this.urls = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Creates a new set containing the given URLs.
+	 *
+	 * @param src	the URLs to add to the set
+	 */
+	URLSet(final Collection<? extends URL> src) {
+		this.urls = new LinkedHashMap<>(Math.max(16, (int) (src.size() / .75f) + 1));
+		addAll(src);
+	}
+
+	@Override
+	public boolean add(final URL url) {
+		if (url == null)
+			throw new IllegalArgumentException("URL must be specified");
+		return urls.putIfAbsent(URLUtils.normalise(url), url) == null;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return o instanceof URL && urls.containsKey(URLUtils.normalise((URL) o));
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		return o instanceof URL && urls.remove(URLUtils.normalise((URL) o)) != null;
+	}
+
+	@Override
+	public Iterator<URL> iterator() {
+		return urls.values().iterator();
+	}
+
+	@Override
+	public int size() {
+		return urls.size();
+	}
+
+	@Override
+	public void clear() {
+		urls.clear();
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof Set))
+			return false;
+		final Set<?> other = (Set<?>) o;
+		if (other.size() != size())
+			return false;
+		if (other instanceof URLSet)
+			return urls.keySet().containsAll(((URLSet) other).urls.keySet());
+		final HashSet<String> normalised = new HashSet<>(Math.max(16, (int) (size() / .75f) + 1));
+		for (Object e : other) {
+			if (!(e instanceof URL))
+				return false;
+			final String n = URLUtils.normalise((URL) e);
+			// Each URL must match a different URL of this set
+			if (!urls.containsKey(n) || !normalised.add(n))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for (String n : urls.keySet())
+			h += n.hashCode();
+		return h;
+	}
+}
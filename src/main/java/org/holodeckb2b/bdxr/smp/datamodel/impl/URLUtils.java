@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.net.URL;
+import java.util.Locale;
+
+/**
+ * Provides the comparison and hashing of {@link URL}s used by the meta-data classes. The {@link URL#equals(Object)}
+ * and {@link URL#hashCode()} methods resolve the host name to compare the IP addresses, which blocks on the network
+ * and makes the result depend on the DNS. Therefore the URLs are compared using a normalised string representation in
+ * which the scheme and host are in lower case, the default port of the scheme is removed and an empty path is
+ * replaced by "/". Host names are never resolved.
+ * <p>Other implementations of the meta-data interfaces should use these methods too, so their instances can be
+ * compared with the instances of the classes in this package.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public final class URLUtils {
+
+	private URLUtils() {}
+
+	/**
+	 * Gets the normalised string representation of the given URL.
+	 *
+	 * @param url	the URL, may be <code>null</code>
+	 * @return	the normalised form of the URL, or <code>null</code> if no URL was given
+	 */
+	public static String normalise(final URL url) {
+		if (url == null)
+			return null;
+		final String host = url.getHost();
+		final StringBuilder sb = new StringBuilder(url.toString().length());
+		sb.append(url.getProtocol().toLowerCase(Locale.ROOT)).append(':');
+		if (host != null && !host.isEmpty()) {
+			sb.append("//");
+			if (url.getUserInfo() != null)
+				sb.append(url.getUserInfo()).append('@');
+			sb.append(host.toLowerCase(Locale.ROOT));
+			final int port = url.getPort();
+			if (port != -1 && port != url.getDefaultPort())
+				sb.append(':').append(port);
+			final String path = url.getPath();
+			sb.append(path == null || path.isEmpty() ? "/" : path);
+		} else if (url.getAuthority() != null) {
+			sb.append("//").append(url.getAuthority()).append(url.getPath());
+		} else
+			sb.append(url.getPath());
+		if (url.getQuery() != null)
+			sb.append('?').append(url.getQuery());
+		if (url.getRef() != null)
+			sb.append('#').append(url.getRef());
+		return sb.toString();
+	}
+
+	/**
+	 * Checks whether the given URLs are equal when normalised.
+	 *
+	 * @param a	first URL, may be <code>null</code>
+	 * @param b	second URL, may be <code>null</code>
+	 * @return	<code>true</code> if both URLs are <code>null</code> or their normalised forms are equal,<br>
+	 * 			<code>false</code> otherwise
+	 */
+	public static boolean areEqual(final URL a, final URL b) {
+		if (a == b)
+			return true;
+		else if (a == null || b == null)
+			return false;
+		else
+			return normalise(a).equals(normalise(b));
+	}
+
+	/**
+	 * Calculates the hash code of the given URL based on its normalised form.
+	 *
+	 * @param url	the URL, may be <code>null</code>
+	 * @return	the hash code of the normalised URL, or 0 if no URL was given
+	 */
+	public static int hashCode(final URL url) {
+		return url != null ? normalise(url).hashCode() : 0;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Is the pool of shared instances used by the {@link IdentifierPool} and {@link CertificatePool}. The pool only holds
+ * weak references to the shared instances, so instances that are not used anymore can be garbage collected, and the
+ * number of entries is limited by the maximum size given when the pool is created. When the pool is full, new
+ * instances are not added to the pool. The pool counts the number of look ups that found a shared instance and the
+ * number of instances offered for sharing.
+ * <p>Instances of this class are thread safe.
+ *
+ * @param <K>	the type of the keys of the pool entries
+ * @param <V>	the type of the shared instances
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class WeakPool<K, V> {
+	/**
+	 * The shared instances, indexed by their key
+	 */
+	private final ConcurrentHashMap<K, PoolReference<K, V>>	pool = new ConcurrentHashMap<>();
+	/**
+	 * Queue on which the references to garbage collected instances are placed
+	 */
+	private final ReferenceQueue<V>	queue = new ReferenceQueue<>();
+	/**
+	 * The maximum number of instances in the pool
+	 */
+	private final int	maxSize;
+	/**
+	 * Statistics counters
+	 */
+	private final LongAdder	hits = new LongAdder();
+	private final LongAdder	misses = new LongAdder();
+
+	/**
+	 * Creates a new pool with the given maximum size.
+	 *
+	 * @param maxSize	the maximum number of instances to keep in the pool, must be positive
+	 */
+	WeakPool(final int maxSize) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("Maximum size must be positive");
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Gets the shared instance with the given key and counts a hit when it is available. The key only needs to be
+	 * equal to the key of the pool entry, so a look up key that is reused for multiple look ups can be given.
+	 *
+	 * @param key	the key of the shared instance
+	 * @return	the shared instance, or <code>null</code> if there is no shared instance with the given key
+	 */
+	V get(final Object key) {
+		expungeStaleEntries();
+		final PoolReference<K, V> ref = pool.get(key);
+		final V shared = ref != null ? ref.get() : null;
+		if (shared != null)
+			hits.increment();
+		return shared;
+	}
+
+	/**
+	 * Adds the given instance to the pool when there is no shared instance with the given key yet and counts a miss.
+	 * When the pool is full the instance is not added.
+	 *
+	 * @param key		the key of the instance
+	 * @param value		the instance to share
+	 * @return	the shared instance, which is the given instance unless another instance was added concurrently
+	 */
+	V add(final K key, final V value) {
+		misses.increment();
+		if (pool.size() >= maxSize)
+			return value;
+
+		final PoolReference<K, V> newRef = new PoolReference<>(value, key, queue);
+		while (true) {
+			final PoolReference<K, V> existing = pool.putIfAbsent(key, newRef);
+			if (existing == null)
+				return value;
+			final V shared = existing.get();
+			if (shared != null)
+				return shared;
+			if (pool.replace(key, existing, newRef))
+				return value;
+		}
+	}
+
+	/**
+	 * Gets the number of instances currently in the pool. Note that this may include instances that have been garbage
+	 * collected but which are not yet removed from the pool.
+	 *
+	 * @return the number of pooled instances
+	 */
+	int size() {
+		expungeStaleEntries();
+		return pool.size();
+	}
+
+	/**
+	 * @return the maximum number of instances in the pool
+	 */
+	int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the number of look ups for which a shared instance was available
+	 */
+	long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of instances offered for sharing
+	 */
+	long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	void resetStatistics() {
+		hits.reset();
+		misses.reset();
+	}
+
+	/**
+	 * Removes all instances from the pool.
+	 */
+	void clear() {
+		pool.clear();
+		expungeStaleEntries();
+	}
+
+	/**
+	 * Removes the entries of instances that have been garbage collected.
+	 */
+	@SuppressWarnings("unchecked")
+	private void expungeStaleEntries() {
+		PoolReference<K, V> r;
+		while ((r = (PoolReference<K, V>) queue.poll()) != null)
+			pool.remove(r.key, r);
+	}
+
+	/**
+	 * The weak reference to a shared instance which also holds the key of the pool entry so it can be removed when the
+	 * instance has been garbage collected.
+	 */
+	private static final class PoolReference<K, V> extends WeakReference<V> {
+		final K	key;
+
+		PoolReference(final V value, final K key, final ReferenceQueue<V> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+	}
+}
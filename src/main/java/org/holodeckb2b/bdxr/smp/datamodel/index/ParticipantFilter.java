@@ -0,0 +1,406 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierFingerprint;
+
+/**
+ * Is a probabilistic filter for checking whether a participant identifier is a member of a set, implemented as a
+ * <a href="https://www.cs.cmu.edu/~dga/papers/cuckoo-conext2014.pdf">cuckoo filter</a>. The filter can be used as a
+ * quick pre-check before resolving a participant, as a negative answer from {@link #mightContain(Identifier)} is always
+ * correct. A positive answer may be false with the probability specified when the filter is created. Unlike a Bloom
+ * filter, participants can also be removed from the filter.
+ * <p>The filter stores a short tag derived from the {@link IdentifierFingerprint} of the participant in one of two
+ * candidate buckets of four entries each. The number of bits of the tags is determined by the requested false positive
+ * rate. The tags are bit-packed in a <code>long</code> array, so the filter uses about <i>(log<sub>2</sub>(1/ε) + 3) /
+ * 0.95</i> bits per participant when filled to capacity.
+ * <p>NOTE: Only participants that have been added should be removed from the filter, as removing another participant
+ * may remove the tag of an added participant that shares the tag and bucket.
+ * <p>The filter can be written to a file and read back. Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class ParticipantFilter {
+	/**
+	 * The magic number at the start of a participant filter file, "PFLT"
+	 */
+	public static final int MAGIC = 0x50464C54;
+	/**
+	 * The version of the file format
+	 */
+	public static final int VERSION = 1;
+
+	private static final int BUCKET_SIZE = 4;
+	/**
+	 * The lowest false positive rate the filter can provide, which is reached with tags of 32 bits
+	 */
+	public static final double MIN_FALSE_POSITIVE_RATE = 2.0 * BUCKET_SIZE / (1L << 32);
+	/**
+	 * The size of the header of the file the filter is written to
+	 */
+	private static final int FILE_HEADER_SIZE = 36;
+	private static final int MAX_KICKS = 500;
+
+	private final int		tagBits;
+	private final int		tagMask;
+	private final int		bucketMask;
+	private final long[]	table;
+	private long			count;
+	/**
+	 * The tag, and its bucket, that could not be placed during the last failed insert. Keeping it ensures there are
+	 * no false negatives after a failed insert.
+	 */
+	private int				victimTag;
+	private int				victimBucket;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Creates a new filter that can hold the given number of participants with the given false positive rate.
+	 *
+	 * @param expectedParticipants	the maximum number of participants expected to be added to the filter
+	 * @param falsePositiveRate		the requested false positive rate, at least {@link #MIN_FALSE_POSITIVE_RATE} and
+	 * 								less than 1
+	 * @throws IllegalArgumentException when the expected number of participants is not positive or too large, or when
+	 * 									the filter cannot provide the requested false positive rate
+	 */
+	public ParticipantFilter(final long expectedParticipants, final double falsePositiveRate) {
+		if (expectedParticipants <= 0)
+			throw new IllegalArgumentException("Expected number of participants must be positive");
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+		if (falsePositiveRate < MIN_FALSE_POSITIVE_RATE)
+			throw new IllegalArgumentException("False positive rate must be at least " + MIN_FALSE_POSITIVE_RATE);
+		// The false positive rate of a cuckoo filter is about 2 * bucket size / 2^tag bits
+		final int bits = (int) Math.ceil(Math.log(2.0 * BUCKET_SIZE / falsePositiveRate) / Math.log(2));
+		final long buckets = Math.max(1, (long) Math.ceil(expectedParticipants / (BUCKET_SIZE * 0.95)));
+		final long bucketCount = Long.highestOneBit(buckets) == buckets ? buckets : Long.highestOneBit(buckets) << 1;
+		this.tagBits = Math.max(4, Math.min(32, bits));
+		if (bucketCount * BUCKET_SIZE > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many participants for a single filter");
+		this.tagMask = (int) ((1L << tagBits) - 1);
+		this.bucketMask = (int) bucketCount - 1;
+		this.table = new long[(int) ((bucketCount * BUCKET_SIZE * tagBits + 63) / 64)];
+	}
+
+	private ParticipantFilter(final int tagBits, final int bucketCount, final long[] table) {
+		this.tagBits = tagBits;
+		this.tagMask = (int) ((1L << tagBits) - 1);
+		this.bucketMask = bucketCount - 1;
+		this.table = table;
+	}
+
+	/**
+	 * Adds the given participant to the filter.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	<code>true</code> if the participant was added, <code>false</code> if the filter is full
+	 */
+	public boolean add(final Identifier participant) {
+		return add(IdentifierFingerprint.of(participant));
+	}
+
+	/**
+	 * Adds the participant with the given fingerprint to the filter.
+	 *
+	 * @param fingerprint	the fingerprint of the participant identifier
+	 * @return	<code>true</code> if the participant was added, <code>false</code> if the filter is full
+	 */
+	public boolean add(final long fingerprint) {
+		final int tag = tag(fingerprint);
+		final int i1 = index(fingerprint);
+		lock.writeLock().lock();
+		try {
+			if (victimTag != 0)
+				return false;
+			if (insert(i1, tag) || insert(altIndex(i1, tag), tag)) {
+				count++;
+				return true;
+			}
+			// Relocate existing tags to make room
+			int i = ThreadLocalRandom.current().nextBoolean() ? i1 : altIndex(i1, tag);
+			int t = tag;
+			for (int n = 0; n < MAX_KICKS; n++) {
+				final int slot = i * BUCKET_SIZE + ThreadLocalRandom.current().nextInt(BUCKET_SIZE);
+				final int old = getTag(slot);
+				setTag(slot, t);
+				t = old;
+				i = altIndex(i, t);
+				if (insert(i, t)) {
+					count++;
+					return true;
+				}
+			}
+			// Keep the last evicted tag so it is still found
+			victimTag = t;
+			victimBucket = i;
+			count++;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Indicates whether the given participant may be in the filter.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	<code>false</code> if the participant is certainly not in the filter, <code>true</code> if it may be
+	 */
+	public boolean mightContain(final Identifier participant) {
+		return mightContain(IdentifierFingerprint.of(participant));
+	}
+
+	/**
+	 * Indicates whether the participant with the given fingerprint may be in the filter.
+	 *
+	 * @param fingerprint	the fingerprint of the participant identifier
+	 * @return	<code>false</code> if the participant is certainly not in the filter, <code>true</code> if it may be
+	 */
+	public boolean mightContain(final long fingerprint) {
+		final int tag = tag(fingerprint);
+		final int i1 = index(fingerprint);
+		final int i2 = altIndex(i1, tag);
+		lock.readLock().lock();
+		try {
+			return contains(i1, tag) || contains(i2, tag)
+				|| (victimTag == tag && (victimBucket == i1 || victimBucket == i2));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the given participant from the filter.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	<code>true</code> if a tag of the participant was found and removed, <code>false</code> otherwise
+	 */
+	public boolean remove(final Identifier participant) {
+		return remove(IdentifierFingerprint.of(participant));
+	}
+
+	/**
+	 * Removes the participant with the given fingerprint from the filter.
+	 *
+	 * @param fingerprint	the fingerprint of the participant identifier
+	 * @return	<code>true</code> if a tag of the participant was found and removed, <code>false</code> otherwise
+	 */
+	public boolean remove(final long fingerprint) {
+		final int tag = tag(fingerprint);
+		final int i1 = index(fingerprint);
+		final int i2 = altIndex(i1, tag);
+		lock.writeLock().lock();
+		try {
+			if (victimTag == tag && (victimBucket == i1 || victimBucket == i2)) {
+				victimTag = 0;
+				count--;
+				return true;
+			}
+			if (delete(i1, tag) || delete(i2, tag)) {
+				count--;
+				// Try to place the victim now there is room again
+				if (victimTag != 0 && (insert(victimBucket, victimTag)
+										|| insert(altIndex(victimBucket, victimTag), victimTag)))
+					victimTag = 0;
+				return true;
+			}
+			return false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of participants in the filter
+	 */
+	public long size() {
+		lock.readLock().lock();
+		try {
+			return count;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of bits used for the tags
+	 */
+	public int getTagBits() {
+		return tagBits;
+	}
+
+	/**
+	 * @return the maximum number of participants the filter can hold
+	 */
+	public long getCapacity() {
+		return (long) (bucketMask + 1) * BUCKET_SIZE;
+	}
+
+	/**
+	 * Writes the filter to the given file. An existing file is overwritten.
+	 *
+	 * @param file	path to the file
+	 * @throws IOException	when the filter cannot be written to the file
+	 */
+	public void writeTo(final Path file) throws IOException {
+		lock.readLock().lock();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+																				  64 * 1024))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(tagBits);
+			out.writeInt(bucketMask + 1);
+			out.writeLong(count);
+			out.writeInt(victimTag);
+			out.writeInt(victimBucket);
+			out.writeInt(table.length);
+			for (long w : table)
+				out.writeLong(w);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Reads a filter from the given file.
+	 *
+	 * @param file	path to the file
+	 * @return	the filter
+	 * @throws IOException	when the file cannot be read or does not contain a valid participant filter
+	 */
+	public static ParticipantFilter readFrom(final Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file),
+																			  64 * 1024))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Not a participant filter file");
+			final int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported participant filter version: " + version);
+			final int tagBits = in.readInt();
+			final int bucketCount = in.readInt();
+			final long count = in.readLong();
+			final int victimTag = in.readInt();
+			final int victimBucket = in.readInt();
+			final int words = in.readInt();
+			if (tagBits < 4 || tagBits > 32 || bucketCount <= 0 || Integer.bitCount(bucketCount) != 1
+				|| (long) bucketCount * BUCKET_SIZE > Integer.MAX_VALUE
+				|| words != (int) (((long) bucketCount * BUCKET_SIZE * tagBits + 63) / 64)
+				|| Files.size(file) != FILE_HEADER_SIZE + 8L * words
+				|| victimBucket < 0 || victimBucket >= bucketCount
+				|| (tagBits < 32 && (victimTag & ~((1 << tagBits) - 1)) != 0)
+				|| count < 0 || count > (long) bucketCount * BUCKET_SIZE + (victimTag != 0 ? 1 : 0))
+				throw new IOException("Corrupt participant filter header");
+			final long[] table = new long[words];
+			for (int i = 0; i < words; i++)
+				table[i] = in.readLong();
+			final ParticipantFilter filter = new ParticipantFilter(tagBits, bucketCount, table);
+			// The count must match the number of stored tags
+			long tags = victimTag != 0 ? 1 : 0;
+			for (int slot = 0; slot < bucketCount * BUCKET_SIZE; slot++)
+				if (filter.getTag(slot) != 0)
+					tags++;
+			if (tags != count)
+				throw new IOException("Corrupt participant filter, count does not match content");
+			filter.count = count;
+			filter.victimTag = victimTag;
+			filter.victimBucket = victimBucket;
+			return filter;
+		}
+	}
+
+	/**
+	 * Gets the tag for the given fingerprint, taken from its high bits. As 0 indicates an empty entry, it is mapped to
+	 * 1.
+	 */
+	private int tag(final long fingerprint) {
+		final int t = (int) (fingerprint >>> 32) & tagMask;
+		return t != 0 ? t : 1;
+	}
+
+	private int index(final long fingerprint) {
+		return (int) fingerprint & bucketMask;
+	}
+
+	/**
+	 * Gets the alternative bucket for the tag in the given bucket. Applying this function twice results in the
+	 * original bucket.
+	 */
+	private int altIndex(final int index, final int tag) {
+		return (index ^ (tag * 0x5bd1e995)) & bucketMask;
+	}
+
+	private boolean insert(final int bucket, final int tag) {
+		final int first = bucket * BUCKET_SIZE;
+		for (int s = first; s < first + BUCKET_SIZE; s++)
+			if (getTag(s) == 0) {
+				setTag(s, tag);
+				return true;
+			}
+		return false;
+	}
+
+	private boolean contains(final int bucket, final int tag) {
+		final int first = bucket * BUCKET_SIZE;
+		for (int s = first; s < first + BUCKET_SIZE; s++)
+			if (getTag(s) == tag)
+				return true;
+		return false;
+	}
+
+	private boolean delete(final int bucket, final int tag) {
+		final int first = bucket * BUCKET_SIZE;
+		for (int s = first; s < first + BUCKET_SIZE; s++)
+			if (getTag(s) == tag) {
+				setTag(s, 0);
+				return true;
+			}
+		return false;
+	}
+
+	private int getTag(final int slot) {
+		final long bit = (long) slot * tagBits;
+		final int w = (int) (bit >>> 6);
+		final int off = (int) (bit & 63);
+		long v = table[w] >>> off;
+		if (off + tagBits > 64)
+			v |= table[w + 1] << (64 - off);
+		return (int) v & tagMask;
+	}
+
+	private void setTag(final int slot, final int tag) {
+		final long bit = (long) slot * tagBits;
+		final int w = (int) (bit >>> 6);
+		final int off = (int) (bit & 63);
+		final long m = tagMask & 0xFFFFFFFFL;
+		table[w] = (table[w] & ~(m << off)) | ((tag & m) << off);
+		if (off + tagBits > 64) {
+			final int shift = 64 - off;
+			table[w + 1] = (table[w + 1] & ~(m >>> shift)) | ((tag & m) >>> shift);
+		}
+	}
+}
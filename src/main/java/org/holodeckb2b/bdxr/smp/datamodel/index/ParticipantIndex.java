@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Stream;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierFingerprint;
+
+/**
+ * Is an immutable index of participant identifiers stored in a file which is memory mapped when opened. For each
+ * participant the index holds the <i>location</i> where it is registered, for example the URL of its SMP server.
+ * Because the file is mapped into memory, opening the index only requires reading the header and the (small) table of
+ * locations, independent of the number of participants. Look ups are done directly on the mapped file and do not
+ * allocate any objects when the fingerprint of the identifier is available, i.e. when an {@link
+ * org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier} is used or when the fingerprint is given.
+ * <p>The index is keyed by the {@link IdentifierFingerprint} of the participant identifiers and does not store the
+ * identifiers themselves. Therefore a look up of a participant that is not registered may, with a very small chance
+ * (about 1 in 10<sup>12</sup> for an index with 5 million participants), return the location of another participant
+ * with the same fingerprint.
+ * <p>The index file has the following format, with all numbers stored in big-endian order:
+ * <ol>
+ * <li>header of 32 bytes: the magic number {@link #MAGIC}, format version, number of slots (power of 2), number of
+ * participants, number of locations, index of an empty slot and the 8 byte offset of the location table</li>
+ * <li>hash table of slots of 12 bytes each, holding the 8 byte fingerprint and the 4 byte index of the location, or
+ * -1 for an empty slot. The table uses linear probing starting at the slot given by the low bits of the fingerprint.
+ * As the table always contains at least one empty slot, the one referenced in the header, a probe always ends.
+ * </li>
+ * <li>location table, containing for each location the 4 byte length and the UTF-8 encoded bytes of the location</li>
+ * </ol>
+ * Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class ParticipantIndex {
+	/**
+	 * The magic number at the start of a participant index file, "PIDX"
+	 */
+	public static final int MAGIC = 0x50494458;
+	/**
+	 * The version of the file format
+	 */
+	public static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 32;
+	private static final int SLOT_SIZE = 12;
+	private static final int EMPTY = -1;
+
+	private final ByteBuffer	slots;
+	private final int			mask;
+	private final int			size;
+	private final String[]		locations;
+
+	private ParticipantIndex(final ByteBuffer slots, final int slotCount, final int size, final String[] locations) {
+		this.slots = slots;
+		this.mask = slotCount - 1;
+		this.size = size;
+		this.locations = locations;
+	}
+
+	/**
+	 * Opens the participant index stored in the given file.
+	 *
+	 * @param file	path to the index file
+	 * @return	the participant index
+	 * @throws IOException	when the file cannot be read or does not contain a valid participant index
+	 */
+	public static ParticipantIndex open(final Path file) throws IOException {
+		try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long fileSize = fc.size();
+			if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE)
+				throw new IOException("Invalid participant index file size: " + fileSize);
+			final MappedByteBuffer data = fc.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+			if (data.getInt(0) != MAGIC)
+				throw new IOException("Not a participant index file");
+			if (data.getInt(4) != VERSION)
+				throw new IOException("Unsupported participant index version: " + data.getInt(4));
+			final int slotCount = data.getInt(8);
+			final int size = data.getInt(12);
+			final int locationCount = data.getInt(16);
+			final int emptySlot = data.getInt(20);
+			final long locationsOffset = data.getLong(24);
+			if (slotCount <= 0 || Integer.bitCount(slotCount) != 1 || size < 0 || size >= slotCount
+				|| locationCount < 0 || locationsOffset != HEADER_SIZE + (long) slotCount * SLOT_SIZE
+				|| locationsOffset > fileSize || emptySlot < 0 || emptySlot >= slotCount)
+				throw new IOException("Corrupt participant index header");
+			// Without an empty slot a look up of an unregistered participant would never end
+			if (data.getInt(HEADER_SIZE + emptySlot * SLOT_SIZE + 8) != EMPTY)
+				throw new IOException("Corrupt participant index slot table");
+
+			final String[] locations = new String[locationCount];
+			int pos = (int) locationsOffset;
+			try {
+				for (int i = 0; i < locationCount; i++) {
+					final int len = data.getInt(pos);
+					final byte[] bytes = new byte[len];
+					data.position(pos + 4);
+					data.get(bytes);
+					locations[i] = new String(bytes, StandardCharsets.UTF_8);
+					pos += 4 + len;
+				}
+			} catch (IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException corrupt) {
+				throw new IOException("Corrupt participant index location table");
+			}
+			data.position(HEADER_SIZE).limit((int) locationsOffset);
+			return new ParticipantIndex(data.slice(), slotCount, size, locations);
+		}
+	}
+
+	/**
+	 * @return the number of participants in the index
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of distinct locations in the index
+	 */
+	public int getLocationCount() {
+		return locations.length;
+	}
+
+	/**
+	 * Indicates whether the given participant is registered in the index.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	<code>true</code> if the participant is in the index, <code>false</code> otherwise
+	 */
+	public boolean contains(final Identifier participant) {
+		return getLocationIndex(IdentifierFingerprint.of(participant)) != EMPTY;
+	}
+
+	/**
+	 * Indicates whether a participant with the given fingerprint is registered in the index.
+	 *
+	 * @param fingerprint	the fingerprint of the participant identifier
+	 * @return	<code>true</code> if the participant is in the index, <code>false</code> otherwise
+	 */
+	public boolean contains(final long fingerprint) {
+		return getLocationIndex(fingerprint) != EMPTY;
+	}
+
+	/**
+	 * Gets the location where the given participant is registered.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	the location of the participant, or <code>null</code> if the participant is not in the index
+	 */
+	public String getLocation(final Identifier participant) {
+		return getLocation(IdentifierFingerprint.of(participant));
+	}
+
+	/**
+	 * Gets the location where the participant with the given fingerprint is registered.
+	 *
+	 * @param fingerprint	the fingerprint of the participant identifier
+	 * @return	the location of the participant, or <code>null</code> if the participant is not in the index
+	 */
+	public String getLocation(final long fingerprint) {
+		final int i = getLocationIndex(fingerprint);
+		return i != EMPTY ? locations[i] : null;
+	}
+
+	/**
+	 * Gets the index in the location table of the location where the participant with the given fingerprint is
+	 * registered.
+	 *
+	 * @param fingerprint	the fingerprint of the participant identifier
+	 * @return	the index of the location of the participant, or -1 if the participant is not in the index
+	 * @throws IllegalStateException when the index file is corrupt, i.e. it has been changed after it was opened
+	 */
+	public int getLocationIndex(final long fingerprint) {
+		for (int i = (int) fingerprint & mask, n = 0; n <= mask; i = (i + 1) & mask, n++) {
+			final int pos = i * SLOT_SIZE;
+			final int loc = slots.getInt(pos + 8);
+			if (loc == EMPTY)
+				return EMPTY;
+			if (slots.getLong(pos) == fingerprint) {
+				if (loc < 0 || loc >= locations.length)
+					throw new IllegalStateException("Corrupt participant index");
+				return loc;
+			}
+		}
+		throw new IllegalStateException("Corrupt participant index");
+	}
+
+	/**
+	 * Gets the location with the given index in the location table.
+	 *
+	 * @param index	the index of the location
+	 * @return	the location
+	 */
+	public String getLocationByIndex(final int index) {
+		return locations[index];
+	}
+
+	/**
+	 * Builds a participant index file. The builder is <b>not thread safe</b>.
+	 */
+	public static class Builder {
+		private long[]	fingerprints = new long[1024];
+		private int[]	locationIndexes = new int[1024];
+		private int		count;
+		private final HashMap<String, Integer>	locationIds = new HashMap<>();
+		private final List<String>				locations = new ArrayList<>();
+
+		/**
+		 * Adds the participant with the given identifier to the index. If the participant is added multiple times,
+		 * the last location is used.
+		 *
+		 * @param participant	the participant identifier
+		 * @param location		the location where the participant is registered
+		 * @return	this builder
+		 */
+		public Builder add(final Identifier participant, final String location) {
+			return add(IdentifierFingerprint.of(participant), location);
+		}
+
+		/**
+		 * Adds the participant of the given <i>ServiceGroup</i> to the index.
+		 *
+		 * @param serviceGroup	the service group of the participant
+		 * @param location		the location where the participant is registered
+		 * @return	this builder
+		 */
+		public Builder add(final QueryResult serviceGroup, final String location) {
+			if (serviceGroup == null)
+				throw new IllegalArgumentException("Service group must be specified");
+			return add(serviceGroup.getParticipantId(), location);
+		}
+
+		/**
+		 * Adds the participants of the given stream of <i>ServiceGroup</i>s to the index.
+		 *
+		 * @param serviceGroups	the service groups of the participants
+		 * @param location		the location where the participants are registered
+		 * @return	this builder
+		 */
+		public Builder addAll(final Stream<? extends QueryResult> serviceGroups, final String location) {
+			serviceGroups.forEachOrdered(sg -> add(sg, location));
+			return this;
+		}
+
+		/**
+		 * Adds the participant with the given fingerprint to the index.
+		 *
+		 * @param fingerprint	the fingerprint of the participant identifier
+		 * @param location		the location where the participant is registered
+		 * @return	this builder
+		 */
+		public Builder add(final long fingerprint, final String location) {
+			if (location == null)
+				throw new IllegalArgumentException("Location must be specified");
+			Integer loc = locationIds.get(location);
+			if (loc == null) {
+				loc = locations.size();
+				locations.add(location);
+				locationIds.put(location, loc);
+			}
+			if (count == fingerprints.length) {
+				fingerprints = Arrays.copyOf(fingerprints, count * 2);
+				locationIndexes = Arrays.copyOf(locationIndexes, count * 2);
+			}
+			fingerprints[count] = fingerprint;
+			locationIndexes[count++] = loc;
+			return this;
+		}
+
+		/**
+		 * Writes the index to the given file. An existing file is overwritten.
+		 *
+		 * @param file	path to the index file
+		 * @throws IOException	when the index cannot be written to the file
+		 */
+		public void write(final Path file) throws IOException {
+			int slotCount = 2;
+			while (slotCount < count * 2L)
+				slotCount <<= 1;
+			if (HEADER_SIZE + (long) slotCount * SLOT_SIZE > Integer.MAX_VALUE)
+				throw new IllegalStateException("Too many participants for a single index file");
+
+			final long[] tableFps = new long[slotCount];
+			final int[] tableLocs = new int[slotCount];
+			Arrays.fill(tableLocs, EMPTY);
+			final int mask = slotCount - 1;
+			int size = 0;
+			for (int j = 0; j < count; j++) {
+				final long fp = fingerprints[j];
+				int i = (int) fp & mask;
+				while (tableLocs[i] != EMPTY && tableFps[i] != fp)
+					i = (i + 1) & mask;
+				if (tableLocs[i] == EMPTY)
+					size++;
+				tableFps[i] = fp;
+				tableLocs[i] = locationIndexes[j];
+			}
+			int emptySlot = 0;
+			while (tableLocs[emptySlot] != EMPTY)
+				emptySlot++;
+
+			try (FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+																		   StandardOpenOption.TRUNCATE_EXISTING)) {
+				final ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+				buf.putInt(MAGIC).putInt(VERSION).putInt(slotCount).putInt(size).putInt(locations.size()).putInt(emptySlot)
+				   .putLong(HEADER_SIZE + (long) slotCount * SLOT_SIZE);
+				for (int i = 0; i < slotCount; i++) {
+					if (buf.remaining() < SLOT_SIZE)
+						flush(buf, fc);
+					buf.putLong(tableFps[i]).putInt(tableLocs[i]);
+				}
+				for (String l : locations) {
+					final byte[] bytes = l.getBytes(StandardCharsets.UTF_8);
+					if (buf.remaining() < 4)
+						flush(buf, fc);
+					buf.putInt(bytes.length);
+					for (int off = 0; off < bytes.length; ) {
+						if (!buf.hasRemaining())
+							flush(buf, fc);
+						final int n = Math.min(buf.remaining(), bytes.length - off);
+						buf.put(bytes, off, n);
+						off += n;
+					}
+				}
+				flush(buf, fc);
+			}
+		}
+
+		private static void flush(final ByteBuffer buf, final FileChannel fc) throws IOException {
+			buf.flip();
+			while (buf.hasRemaining())
+				fc.write(buf);
+			buf.clear();
+		}
+	}
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * This package contains compact index structures for large sets of participant identifiers, for example a local copy
+ * of all participants registered in a SML. The indexes are keyed by the fingerprints of the identifiers as calculated
+ * by {@link org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierFingerprint} and can be stored in files.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.index;
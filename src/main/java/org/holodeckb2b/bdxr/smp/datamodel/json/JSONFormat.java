@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.json;
+
+/**
+ * Defines the type names and member names of the JSON format shared by the {@link JSONWriter} and {@link JSONReader}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class JSONFormat {
+
+	private JSONFormat() {}
+
+	/**
+	 * The name of the member that contains the type of the object
+	 */
+	static final String TYPE = "type";
+
+	/*
+	 * The type names
+	 */
+	static final String TYPE_ID_SCHEME = "IDScheme";
+	static final String TYPE_IDENTIFIER = "Identifier";
+	static final String TYPE_PROCESS_IDENTIFIER = "ProcessIdentifier";
+	static final String TYPE_CERTIFICATE = "Certificate";
+	static final String TYPE_ENDPOINT = "Endpoint";
+	static final String TYPE_ENDPOINT_V1 = "EndpointV1";
+	static final String TYPE_PROCESS_INFO = "ProcessInfo";
+	static final String TYPE_REDIRECTION_V1 = "RedirectionV1";
+	static final String TYPE_REDIRECTION_V2 = "RedirectionV2";
+	static final String TYPE_PROCESS_GROUP = "ProcessGroup";
+	static final String TYPE_SERVICE_REFERENCE = "ServiceReference";
+	static final String TYPE_SERVICE_GROUP_V1 = "ServiceGroupV1";
+	static final String TYPE_SERVICE_GROUP_V2 = "ServiceGroupV2";
+	static final String TYPE_SIGNED_SERVICE_GROUP_V2 = "SignedServiceGroupV2";
+	static final String TYPE_SERVICE_METADATA = "ServiceMetadata";
+	static final String TYPE_SIGNED_SERVICE_METADATA = "SignedServiceMetadata";
+
+	/*
+	 * The member names
+	 */
+	static final String EXTENSIONS = "extensions";
+	static final String ID = "id";
+	static final String SCHEME = "scheme";
+	static final String CASE_SENSITIVE = "caseSensitive";
+	static final String VALUE = "value";
+	static final String NO_PROCESS = "noProcess";
+	static final String PARTICIPANT_ID = "participantId";
+	static final String SERVICE_ID = "serviceId";
+	static final String PROCESS_ID = "processId";
+	static final String ROLES = "roles";
+	static final String PROCESSES = "processes";
+	static final String PROCESS_GROUPS = "processGroups";
+	static final String SERVICE_REFERENCES = "serviceReferences";
+	static final String REDIRECTION = "redirection";
+	static final String NEW_SMP_URL = "newSMPURL";
+	static final String SUBJECT_UNIQUE_ID = "subjectUniqueID";
+	static final String ENDPOINTS = "endpoints";
+	static final String TRANSPORT_PROFILE = "transportProfile";
+	static final String ENDPOINT_URL = "endpointURL";
+	static final String ACTIVATION_DATE = "activationDate";
+	static final String EXPIRATION_DATE = "expirationDate";
+	static final String DESCRIPTION = "description";
+	static final String CONTACT_INFO = "contactInfo";
+	static final String CERTIFICATES = "certificates";
+	static final String CERTIFICATE = "certificate";
+	static final String USAGE = "usage";
+	static final String SIGNING_CERTIFICATE = "signingCertificate";
+	static final String BUSINESS_LEVEL_SIGNATURE_REQUIRED = "businessLevelSignatureRequired";
+	static final String MINIMUM_AUTHENTICATION_LEVEL = "minimumAuthenticationLevel";
+	static final String TECHNICAL_INFORMATION_URL = "technicalInformationURL";
+}
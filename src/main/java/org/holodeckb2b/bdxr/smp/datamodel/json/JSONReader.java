@@ -0,0 +1,1034 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.json;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.json.JSONFormat.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensionFilter;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierPool;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessIdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.RedirectionV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.RedirectionV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SerializedExtension;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceMetadataImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceReferenceImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceMetadataImpl;
+
+/**
+ * Reads objects of the SMP data model from the JSON documents written by the {@link JSONWriter}. The objects are read
+ * into the implementation classes of the <code>impl</code> package. The document is parsed while it is read, without
+ * building an intermediate tree. Members that are not part of the format are ignored, so documents can contain
+ * additional data.
+ * <p>The meta-data of certificates is read into {@link EncodedCertificateImpl}s, so the X509 certificates are only
+ * parsed when they are used. Certificates that occur multiple times in the document share the same encoded form and,
+ * once parsed, X509 certificate. When the reader is created with an {@link IdentifierPool} the identifiers are read
+ * into the canonical instances from the pool, otherwise new {@link IdentifierImpl} and {@link ProcessIdentifierImpl}
+ * instances are created.
+ * <p>As deserializing untrusted data may execute arbitrary code, extensions are only deserialized when allowed by the
+ * {@link ExtensionFilter} of the reader. Other extensions are read as {@link SerializedExtension}s, which keep their
+ * serialized form so they can be written again without loss.
+ * <p>Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ * @see JSONWriter
+ */
+public class JSONReader {
+	/**
+	 * The maximum nesting depth of the values that are skipped
+	 */
+	private static final int MAX_DEPTH = 64;
+
+	private final IdentifierPool	pool;
+	private final ExtensionFilter	extensionFilter;
+
+	/**
+	 * Creates a new reader that reads the identifiers into new identifier instances.
+	 */
+	public JSONReader() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new reader that reads the identifiers into the canonical instances from the given pool.
+	 *
+	 * @param pool	the pool to get the identifiers from, may be <code>null</code> to create new identifier instances
+	 */
+	public JSONReader(final IdentifierPool pool) {
+		this(pool, null);
+	}
+
+	/**
+	 * Creates a new reader that reads the identifiers into the canonical instances from the given pool and only
+	 * deserializes the extensions allowed by the given filter.
+	 *
+	 * @param pool		the pool to get the identifiers from, may be <code>null</code> to create new identifier
+	 * 					instances
+	 * @param filter	the filter that determines which extensions are deserialized, may be <code>null</code> to use
+	 * 					the {@link ExtensionFilter#getDefault() default filter}
+	 */
+	public JSONReader(final IdentifierPool pool, final ExtensionFilter filter) {
+		this.pool = pool;
+		this.extensionFilter = filter;
+	}
+
+	/**
+	 * Reads the object from the given JSON document.
+	 *
+	 * @param json	the JSON document
+	 * @return	the object read from the document, may be <code>null</code> if the document is "null"
+	 * @throws IOException	when the text is not a valid JSON document of an object of the data model
+	 */
+	public Object read(final String json) throws IOException {
+		return read(new Input(json.toCharArray(), null));
+	}
+
+	/**
+	 * Reads the object from the JSON document read from the given reader. All remaining characters are read but the
+	 * reader is not closed.
+	 *
+	 * @param r	the reader to read the JSON document from
+	 * @return	the object read from the document, may be <code>null</code> if the document is "null"
+	 * @throws IOException	when the document cannot be read or is not a valid JSON document of an object of the data
+	 * 						model
+	 */
+	public Object read(final Reader r) throws IOException {
+		return read(new Input(new char[8192], r));
+	}
+
+	/**
+	 * Reads the object from the UTF-8 encoded JSON document read from the given stream. All remaining data of the
+	 * stream is read but the stream is not closed.
+	 *
+	 * @param is	the stream to read the JSON document from
+	 * @return	the object read from the document, may be <code>null</code> if the document is "null"
+	 * @throws IOException	when the stream cannot be read or does not contain a valid JSON document of an object of the
+	 * 						data model
+	 */
+	public Object read(final InputStream is) throws IOException {
+		return read(new InputStreamReader(is, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads the object from the given JSON document and checks that it is of the expected type.
+	 *
+	 * @param <T>	the expected type of the object
+	 * @param json	the JSON document
+	 * @param type	the expected type of the object
+	 * @return	the object read from the document, may be <code>null</code> if the document is "null"
+	 * @throws IOException	when the text is not a valid JSON document of an object of the data model or the object
+	 * 						is not of the expected type
+	 */
+	public <T> T read(final String json, final Class<T> type) throws IOException {
+		return checkType(read(json), type);
+	}
+
+	/**
+	 * Reads the object from the UTF-8 encoded JSON document read from the given stream and checks that it is of the
+	 * expected type. All remaining data of the stream is read but the stream is not closed.
+	 *
+	 * @param <T>	the expected type of the object
+	 * @param is	the stream to read the JSON document from
+	 * @param type	the expected type of the object
+	 * @return	the object read from the document, may be <code>null</code> if the document is "null"
+	 * @throws IOException	when the stream cannot be read or does not contain a valid JSON document of an object of the
+	 * 						data model or the object is not of the expected type
+	 */
+	public <T> T read(final InputStream is, final Class<T> type) throws IOException {
+		return checkType(read(is), type);
+	}
+
+	private static <T> T checkType(final Object o, final Class<T> type) throws IOException {
+		if (o != null && !type.isInstance(o))
+			throw new IOException("Document does not contain a " + type.getSimpleName() + " but a "
+									+ o.getClass().getSimpleName());
+		return type.cast(o);
+	}
+
+	private Object read(final Input in) throws IOException {
+		final Object o = in.readObject();
+		if (in.peek() >= 0)
+			throw in.error("Unexpected data after the document");
+		return o;
+	}
+
+	/**
+	 * Holds the state of a single read run. Besides reading the objects of the data model it contains the methods
+	 * to parse the JSON syntax.
+	 */
+	private final class Input {
+		final Reader	src;
+		final char[]	buf;
+		int				pos;
+		int				limit;
+		/**
+		 * The number of characters read before the current content of the buffer, used to report the position of
+		 * errors
+		 */
+		long			offset;
+		/**
+		 * Indicates whether the next member or element is the first of the current object or array
+		 */
+		boolean			first;
+		final StringBuilder	sb = new StringBuilder();
+		/**
+		 * The certificates read so far, by their base64 encoded form, each represented by the instance created for
+		 * its first occurrence
+		 */
+		final Map<String, EncodedCertificateImpl>	certificates = new HashMap<>();
+		/**
+		 * The URLs read so far, so repeated URLs are only parsed once
+		 */
+		final Map<String, URL>	urls = new HashMap<>();
+		/**
+		 * The identifier schemes, cached by case sensitivity and id
+		 */
+		final Map<String, IDScheme>	schemes = new HashMap<>();
+
+		/**
+		 * @param buf	the buffer, filled with the complete document when no reader is given
+		 * @param src	the reader to fill the buffer from, or <code>null</code> if the buffer contains the document
+		 */
+		Input(final char[] buf, final Reader src) {
+			this.buf = buf;
+			this.src = src;
+			this.limit = src == null ? buf.length : 0;
+		}
+
+		Object readObject() throws IOException {
+			if (readNull())
+				return null;
+			beginObject();
+			final String type = readType(nextName());
+			switch (type) {
+			case TYPE_SERVICE_METADATA:
+			case TYPE_SIGNED_SERVICE_METADATA:
+				return readServiceMetadata(TYPE_SIGNED_SERVICE_METADATA.equals(type));
+			case TYPE_SERVICE_GROUP_V2:
+			case TYPE_SIGNED_SERVICE_GROUP_V2:
+				return readServiceGroupV2(TYPE_SIGNED_SERVICE_GROUP_V2.equals(type));
+			case TYPE_SERVICE_GROUP_V1:
+				return readServiceGroupV1();
+			case TYPE_SERVICE_REFERENCE:
+				return readServiceReference(nextName());
+			case TYPE_PROCESS_GROUP:
+				return readProcessGroup(nextName());
+			case TYPE_PROCESS_INFO:
+				return readProcessInfo(nextName());
+			case TYPE_ENDPOINT:
+			case TYPE_ENDPOINT_V1:
+				return readEndpoint(type);
+			case TYPE_REDIRECTION_V1:
+			case TYPE_REDIRECTION_V2:
+				return readRedirection(type);
+			case TYPE_CERTIFICATE:
+				return readCertificateInfo(nextName());
+			case TYPE_IDENTIFIER:
+			case TYPE_PROCESS_IDENTIFIER:
+				return readIdentifier(nextName(), TYPE_PROCESS_IDENTIFIER.equals(type));
+			case TYPE_ID_SCHEME:
+				return readIDScheme();
+			default:
+				throw error("Unknown type: " + type);
+			}
+		}
+
+		ServiceMetadataImpl readServiceMetadata(final boolean signed) throws IOException {
+			Identifier participant = null, service = null;
+			Set<ProcessGroup> groups = null;
+			X509Certificate signingCert = null;
+			List<Extension> exts = null;
+			for (String name = nextName(); name != null; name = nextName())
+				switch (name) {
+				case PARTICIPANT_ID:
+					participant = readIdentifier(false);
+					break;
+				case SERVICE_ID:
+					service = readIdentifier(false);
+					break;
+				case PROCESS_GROUPS:
+					if (beginArray()) {
+						groups = new HashSet<>();
+						while (nextElement())
+							groups.add(readNull() ? null : readProcessGroup(beginObjectAndName()));
+					}
+					break;
+				case SIGNING_CERTIFICATE:
+					signingCert = readCertificate();
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			return signed ? new SignedServiceMetadataImpl(participant, service, groups, signingCert, exts)
+						  : new ServiceMetadataImpl(participant, service, groups, exts);
+		}
+
+		ServiceGroupV2Impl readServiceGroupV2(final boolean signed) throws IOException {
+			Identifier participant = null;
+			Set<ServiceReference> refs = null;
+			X509Certificate signingCert = null;
+			List<Extension> exts = null;
+			for (String name = nextName(); name != null; name = nextName())
+				switch (name) {
+				case PARTICIPANT_ID:
+					participant = readIdentifier(false);
+					break;
+				case SERVICE_REFERENCES:
+					if (beginArray()) {
+						refs = new HashSet<>();
+						while (nextElement())
+							refs.add(readNull() ? null : readServiceReference(beginObjectAndName()));
+					}
+					break;
+				case SIGNING_CERTIFICATE:
+					signingCert = readCertificate();
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			return signed ? new SignedServiceGroupImpl(participant, refs, signingCert, exts)
+						  : new ServiceGroupV2Impl(participant, refs, exts);
+		}
+
+		ServiceGroupV1Impl readServiceGroupV1() throws IOException {
+			final ServiceGroupV1Impl sg = new ServiceGroupV1Impl();
+			for (String name = nextName(); name != null; name = nextName())
+				switch (name) {
+				case PARTICIPANT_ID:
+					sg.setParticipantId(readIdentifier(false));
+					break;
+				case SERVICE_REFERENCES:
+					if (beginArray()) {
+						sg.setServiceReferences(new HashSet<>());
+						while (nextElement())
+							sg.addServiceReference(readURL());
+					} else
+						sg.setServiceReferences(null);
+					break;
+				case EXTENSIONS:
+					sg.setExtensions(readExtensions());
+					break;
+				default:
+					skipValue(0);
+				}
+			return sg;
+		}
+
+		ServiceReferenceImpl readServiceReference(String name) throws IOException {
+			Identifier service = null;
+			Set<ProcessInfo> processes = null;
+			List<Extension> exts = null;
+			for (; name != null; name = nextName())
+				switch (name) {
+				case SERVICE_ID:
+					service = readIdentifier(false);
+					break;
+				case PROCESSES:
+					processes = readProcessInfos();
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			return new ServiceReferenceImpl(service, processes, exts);
+		}
+
+		ProcessGroupImpl readProcessGroup(String name) throws IOException {
+			Set<ProcessInfo> processes = null;
+			Redirection redirection = null;
+			Set<EndpointInfo> endpoints = null;
+			List<Extension> exts = null;
+			for (; name != null; name = nextName())
+				switch (name) {
+				case PROCESSES:
+					processes = readProcessInfos();
+					break;
+				case REDIRECTION:
+					if (!readNull()) {
+						beginObject();
+						redirection = readRedirection(readType(nextName()));
+					}
+					break;
+				case ENDPOINTS:
+					if (beginArray()) {
+						endpoints = new HashSet<>();
+						while (nextElement())
+							if (readNull())
+								endpoints.add(null);
+							else {
+								beginObject();
+								endpoints.add(readEndpoint(readType(nextName())));
+							}
+					}
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			final ProcessGroupImpl pg = new ProcessGroupImpl(processes, redirection, exts);
+			pg.setEndpoints(endpoints);
+			return pg;
+		}
+
+		Set<ProcessInfo> readProcessInfos() throws IOException {
+			if (!beginArray())
+				return null;
+			final Set<ProcessInfo> processes = new HashSet<>();
+			while (nextElement())
+				processes.add(readNull() ? null : readProcessInfo(beginObjectAndName()));
+			return processes;
+		}
+
+		ProcessInfoImpl readProcessInfo(String name) throws IOException {
+			ProcessIdentifier pid = null;
+			Set<Identifier> roles = null;
+			List<Extension> exts = null;
+			for (; name != null; name = nextName())
+				switch (name) {
+				case PROCESS_ID:
+					pid = (ProcessIdentifier) readIdentifier(true);
+					break;
+				case ROLES:
+					if (beginArray()) {
+						roles = new HashSet<>();
+						while (nextElement())
+							roles.add(readIdentifier(false));
+					}
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			return new ProcessInfoImpl(pid, roles, exts);
+		}
+
+		Redirection readRedirection(final String type) throws IOException {
+			if (!TYPE_REDIRECTION_V1.equals(type) && !TYPE_REDIRECTION_V2.equals(type))
+				throw error("Expected a redirection but found type: " + type);
+			URL url = null;
+			X509Certificate cert = null;
+			boolean[] uid = null;
+			List<Extension> exts = null;
+			for (String name = nextName(); name != null; name = nextName())
+				switch (name) {
+				case NEW_SMP_URL:
+					url = readURL();
+					break;
+				case CERTIFICATE:
+					cert = readCertificate();
+					break;
+				case SUBJECT_UNIQUE_ID:
+					uid = readBits();
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			return TYPE_REDIRECTION_V2.equals(type) ? new RedirectionV2Impl(url, cert, exts)
+											   : new RedirectionV1Impl(url, uid, exts);
+		}
+
+		EndpointInfoImpl readEndpoint(final String type) throws IOException {
+			if (!TYPE_ENDPOINT.equals(type) && !TYPE_ENDPOINT_V1.equals(type))
+				throw error("Expected an endpoint but found type: " + type);
+			String profile = null, description = null, contact = null, minAuthLevel = null;
+			URL url = null, techInfo = null;
+			ZonedDateTime activation = null, expiration = null;
+			Set<Certificate> certs = null;
+			Boolean bls = null;
+			List<Extension> exts = null;
+			for (String name = nextName(); name != null; name = nextName())
+				switch (name) {
+				case TRANSPORT_PROFILE:
+					profile = readOptionalString();
+					break;
+				case ENDPOINT_URL:
+					url = readURL();
+					break;
+				case ACTIVATION_DATE:
+					activation = readDate();
+					break;
+				case EXPIRATION_DATE:
+					expiration = readDate();
+					break;
+				case DESCRIPTION:
+					description = readOptionalString();
+					break;
+				case CONTACT_INFO:
+					contact = readOptionalString();
+					break;
+				case CERTIFICATES:
+					if (beginArray()) {
+						certs = new HashSet<>();
+						while (nextElement())
+							certs.add(readNull() ? null : readCertificateInfo(beginObjectAndName()));
+					}
+					break;
+				case BUSINESS_LEVEL_SIGNATURE_REQUIRED:
+					bls = readNull() ? null : readBoolean();
+					break;
+				case MINIMUM_AUTHENTICATION_LEVEL:
+					minAuthLevel = readOptionalString();
+					break;
+				case TECHNICAL_INFORMATION_URL:
+					techInfo = readURL();
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			if (TYPE_ENDPOINT.equals(type))
+				return new EndpointInfoImpl(profile, url, activation, expiration, description, contact, certs, exts);
+
+			final EndpointInfoV1Impl ep = new EndpointInfoV1Impl(profile, url, null, bls, minAuthLevel, activation,
+																 expiration, description, contact, techInfo, exts);
+			ep.setCertificates(certs);
+			return ep;
+		}
+
+		EncodedCertificateImpl readCertificateInfo(String name) throws IOException {
+			EncodedCertificateImpl cert = null;
+			String usage = null, description = null;
+			ZonedDateTime activation = null, expiration = null;
+			List<Extension> exts = null;
+			for (; name != null; name = nextName())
+				switch (name) {
+				case CERTIFICATE:
+					cert = readEncodedCertificate();
+					break;
+				case USAGE:
+					usage = readOptionalString();
+					break;
+				case ACTIVATION_DATE:
+					activation = readDate();
+					break;
+				case EXPIRATION_DATE:
+					expiration = readDate();
+					break;
+				case DESCRIPTION:
+					description = readOptionalString();
+					break;
+				case EXTENSIONS:
+					exts = readExtensions();
+					break;
+				default:
+					skipValue(0);
+				}
+			if (cert == null)
+				throw error("Certificate meta-data without certificate");
+			// Use a copy so the meta-data is not shared with other occurrences of the certificate
+			final EncodedCertificateImpl c = new EncodedCertificateImpl(cert);
+			c.setUsage(usage);
+			c.setActivationDate(activation);
+			c.setExpirationDate(expiration);
+			c.setDescription(description);
+			c.setExtensions(exts);
+			return c;
+		}
+
+		X509Certificate readCertificate() throws IOException {
+			final EncodedCertificateImpl c = readEncodedCertificate();
+			try {
+				return c != null ? c.getX509Cert() : null;
+			} catch (IllegalStateException invalid) {
+				throw new IOException("Invalid certificate", invalid.getCause());
+			}
+		}
+
+		EncodedCertificateImpl readEncodedCertificate() throws IOException {
+			if (readNull())
+				return null;
+			final String base64 = readString();
+			EncodedCertificateImpl c = certificates.get(base64);
+			if (c == null) {
+				try {
+					c = new EncodedCertificateImpl(base64);
+				} catch (IllegalArgumentException invalid) {
+					throw error("Invalid base64 encoded certificate");
+				}
+				certificates.put(base64, c);
+			}
+			return c;
+		}
+
+		/**
+		 * Reads the identifier that is the value of the current member or element.
+		 */
+		Identifier readIdentifier(final boolean process) throws IOException {
+			if (readNull())
+				return null;
+			beginObject();
+			return readIdentifier(nextName(), process);
+		}
+
+		Identifier readIdentifier(String name, final boolean process) throws IOException {
+			String schemeId = null, value = null;
+			boolean caseSensitive = false, noProcess = false;
+			for (; name != null; name = nextName())
+				switch (name) {
+				case SCHEME:
+					schemeId = readOptionalString();
+					break;
+				case CASE_SENSITIVE:
+					caseSensitive = readBoolean();
+					break;
+				case VALUE:
+					value = readOptionalString();
+					break;
+				case NO_PROCESS:
+					noProcess = readBoolean();
+					break;
+				default:
+					skipValue(0);
+				}
+			if (noProcess) {
+				if (!process)
+					throw error("Only a process identifier can be the no-process identifier");
+				return pool != null ? ImmutableProcessIdentifier.NO_PROCESS : new ProcessIdentifierImpl();
+			}
+			if (value == null || value.isEmpty())
+				throw error("Identifier without value");
+			IDScheme scheme = null;
+			if (schemeId != null) {
+				if (schemeId.isEmpty())
+					throw error("Identifier scheme without id");
+				final String key = (caseSensitive ? "S" : "I") + schemeId;
+				scheme = schemes.get(key);
+				if (scheme == null) {
+					scheme = ImmutableIDScheme.of(schemeId, caseSensitive);
+					schemes.put(key, scheme);
+				}
+			}
+			if (pool != null)
+				return process ? pool.getProcessIdentifier(value, scheme) : pool.getIdentifier(value, scheme);
+			else
+				return process ? new ProcessIdentifierImpl(value, scheme) : new IdentifierImpl(value, scheme);
+		}
+
+		IDSchemeImpl readIDScheme() throws IOException {
+			String id = null;
+			boolean caseSensitive = false;
+			for (String name = nextName(); name != null; name = nextName())
+				switch (name) {
+				case ID:
+					id = readOptionalString();
+					break;
+				case CASE_SENSITIVE:
+					caseSensitive = readBoolean();
+					break;
+				default:
+					skipValue(0);
+				}
+			if (id == null || id.isEmpty())
+				throw error("Identifier scheme without id");
+			return new IDSchemeImpl(id, caseSensitive);
+		}
+
+		List<Extension> readExtensions() throws IOException {
+			if (!beginArray())
+				return null;
+			final ExtensionFilter filter = extensionFilter != null ? extensionFilter : ExtensionFilter.getDefault();
+			final List<Extension> exts = new ArrayList<>();
+			while (nextElement()) {
+				if (readNull()) {
+					exts.add(null);
+					continue;
+				}
+				final byte[] serialized;
+				try {
+					serialized = Base64.getDecoder().decode(readString());
+				} catch (IllegalArgumentException invalid) {
+					throw error("Invalid base64 encoded extension");
+				}
+				if (serialized.length == 0)
+					throw error("Empty extension");
+				exts.add(filter.deserialize(serialized, 0, serialized.length));
+			}
+			return exts;
+		}
+
+		ZonedDateTime readDate() throws IOException {
+			final String s = readOptionalString();
+			try {
+				return s != null ? ZonedDateTime.parse(s, DateTimeFormatter.ISO_ZONED_DATE_TIME) : null;
+			} catch (DateTimeParseException invalid) {
+				throw error("Invalid time stamp: " + s);
+			}
+		}
+
+		URL readURL() throws IOException {
+			final String s = readOptionalString();
+			if (s == null)
+				return null;
+			URL url = urls.get(s);
+			if (url == null)
+				try {
+					urls.put(s, url = new URL(s));
+				} catch (MalformedURLException invalid) {
+					throw error("Invalid URL: " + s);
+				}
+			return url;
+		}
+
+		boolean[] readBits() throws IOException {
+			final String s = readOptionalString();
+			if (s == null)
+				return null;
+			final boolean[] bits = new boolean[s.length()];
+			for (int i = 0; i < bits.length; i++) {
+				final char c = s.charAt(i);
+				if (c != '0' && c != '1')
+					throw error("Invalid bit string: " + s);
+				bits[i] = c == '1';
+			}
+			return bits;
+		}
+
+		/**
+		 * Reads the type of an object, which must be the value of its first member.
+		 *
+		 * @param name	the name of the first member
+		 * @return	the type name
+		 */
+		String readType(final String name) throws IOException {
+			if (!TYPE.equals(name))
+				throw error("Missing type of object");
+			return readString();
+		}
+
+		/*
+		 * Parsing of the JSON syntax
+		 */
+
+		void beginObject() throws IOException {
+			expect('{');
+			first = true;
+		}
+
+		/**
+		 * Starts reading the object that is the value of the current member or element.
+		 *
+		 * @return	the name of the first member, or <code>null</code> if the object is empty
+		 */
+		String beginObjectAndName() throws IOException {
+			beginObject();
+			return nextName();
+		}
+
+		/**
+		 * Moves to the next member of the current object.
+		 *
+		 * @return	the name of the member, or <code>null</code> if the end of the object has been reached
+		 */
+		String nextName() throws IOException {
+			final int c = peek();
+			if (c == '}') {
+				pos++;
+				first = false;
+				return null;
+			}
+			if (!first) {
+				if (c != ',')
+					throw error("Expected ',' or '}'");
+				pos++;
+			}
+			first = false;
+			if (peek() != '"')
+				throw error("Expected member name");
+			final String name = readString();
+			expect(':');
+			return name;
+		}
+
+		/**
+		 * Starts reading the array that is the value of the current member, which may also be <code>null</code>.
+		 *
+		 * @return	<code>true</code> if an array was started, <code>false</code> if the value is <code>null</code>
+		 */
+		boolean beginArray() throws IOException {
+			if (readNull())
+				return false;
+			expect('[');
+			first = true;
+			return true;
+		}
+
+		/**
+		 * Moves to the next element of the current array.
+		 *
+		 * @return	<code>true</code> if there is another element, <code>false</code> if the end of the array has been
+		 * 			reached
+		 */
+		boolean nextElement() throws IOException {
+			final int c = peek();
+			if (c == ']') {
+				pos++;
+				first = false;
+				return false;
+			}
+			if (!first) {
+				if (c != ',')
+					throw error("Expected ',' or ']'");
+				pos++;
+			}
+			first = false;
+			return true;
+		}
+
+		void skipValue(final int depth) throws IOException {
+			if (depth > MAX_DEPTH)
+				throw error("Nesting of skipped values too deep");
+			final int c = peek();
+			switch (c) {
+			case '{':
+				beginObject();
+				while (nextName() != null)
+					skipValue(depth + 1);
+				break;
+			case '[':
+				beginArray();
+				while (nextElement())
+					skipValue(depth + 1);
+				break;
+			case '"':
+				readString();
+				break;
+			case 't':
+			case 'f':
+				readBoolean();
+				break;
+			case 'n':
+				readNull();
+				break;
+			default:
+				if (c != '-' && (c < '0' || c > '9'))
+					throw error("Unexpected character");
+				do
+					pos++;
+				while ((pos < limit || fill()) && isNumberChar(buf[pos]));
+			}
+		}
+
+		String readOptionalString() throws IOException {
+			return readNull() ? null : readString();
+		}
+
+		String readString() throws IOException {
+			expect('"');
+			final int start = pos;
+			while (pos < limit) {
+				final char c = buf[pos];
+				if (c == '"')
+					return new String(buf, start, pos++ - start);
+				else if (c == '\\' || c < 0x20)
+					break;
+				pos++;
+			}
+			// The string contains escaped characters or continues after the current buffer
+			sb.setLength(0);
+			sb.append(buf, start, pos - start);
+			for (;;) {
+				final char c = nextChar();
+				if (c == '"')
+					return sb.toString();
+				else if (c == '\\')
+					sb.append(readEscaped());
+				else if (c < 0x20)
+					throw error("Control character in string");
+				else
+					sb.append(c);
+			}
+		}
+
+		char readEscaped() throws IOException {
+			final char c = nextChar();
+			switch (c) {
+			case '"':
+			case '\\':
+			case '/':
+				return c;
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			case 'u':
+				int v = 0;
+				for (int i = 0; i < 4; i++) {
+					final int d = Character.digit(nextChar(), 16);
+					if (d < 0)
+						throw error("Invalid unicode escape");
+					v = (v << 4) | d;
+				}
+				return (char) v;
+			default:
+				throw error("Invalid escape character");
+			}
+		}
+
+		boolean readBoolean() throws IOException {
+			final int c = peek();
+			if (c == 't') {
+				literal("true");
+				return true;
+			} else if (c == 'f') {
+				literal("false");
+				return false;
+			} else
+				throw error("Expected a boolean");
+		}
+
+		/**
+		 * Reads the <code>null</code> literal if it is the next value.
+		 *
+		 * @return <code>true</code> if the value was <code>null</code>, <code>false</code> otherwise
+		 */
+		boolean readNull() throws IOException {
+			if (peek() != 'n')
+				return false;
+			literal("null");
+			return true;
+		}
+
+		void literal(final String l) throws IOException {
+			for (int i = 0; i < l.length(); i++)
+				if (nextChar() != l.charAt(i))
+					throw error("Invalid literal");
+			if ((pos < limit || fill()) && Character.isLetterOrDigit(buf[pos]))
+				throw error("Invalid literal");
+		}
+
+		void expect(final char e) throws IOException {
+			if (peek() != e)
+				throw error("Expected '" + e + "'");
+			pos++;
+		}
+
+		/**
+		 * Skips white space and returns the next character without consuming it.
+		 *
+		 * @return	the next character, or -1 when the end of the document has been reached
+		 */
+		int peek() throws IOException {
+			do {
+				while (pos < limit) {
+					final char c = buf[pos];
+					if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+						return c;
+					pos++;
+				}
+			} while (fill());
+			return -1;
+		}
+
+		/**
+		 * Consumes the next character, without skipping white space.
+		 */
+		char nextChar() throws IOException {
+			if (pos == limit && !fill())
+				throw new EOFException("Unexpected end of JSON document");
+			return buf[pos++];
+		}
+
+		/**
+		 * Refills the buffer from the reader. Must only be called when all characters in the buffer are consumed.
+		 *
+		 * @return	<code>true</code> if characters were read, <code>false</code> when the end of the document has been
+		 * 			reached
+		 */
+		boolean fill() throws IOException {
+			if (src == null)
+				return false;
+			final int n = src.read(buf, 0, buf.length);
+			if (n <= 0)
+				return false;
+			offset += limit;
+			pos = 0;
+			limit = n;
+			return true;
+		}
+
+		IOException error(final String msg) {
+			return new IOException(msg + " at position " + (offset + pos));
+		}
+	}
+
+	private static boolean isNumberChar(final char c) {
+		return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+	}
+}
@@ -0,0 +1,586 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.json;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.json.JSONFormat.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ExtensibleMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV1;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.SignedQueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SerializedExtension;
+
+/**
+ * Writes objects of the SMP data model as JSON documents in the format described in the {@link
+ * org.holodeckb2b.bdxr.smp.datamodel.json package documentation}. All interfaces of the data model can be written,
+ * for example a complete {@link ServiceMetadata} or a single {@link EndpointInfo}. The most specific type of the object
+ * is written, so a {@link SignedQueryResult} also includes the signing certificate and an {@link EndpointInfoV1} its V1
+ * specific meta-data.
+ * <p>The document is written without white space through an internal buffer, so the given <code>Writer</code> or
+ * <code>OutputStream</code> does not need to be buffered. The DER encoded form of an {@link EncodedCertificateImpl} is
+ * written without decoding the certificate.
+ * <p>This class is thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ * @see JSONReader
+ */
+public final class JSONWriter {
+
+	private JSONWriter() {}
+
+	/**
+	 * Writes the given object as a JSON document.
+	 *
+	 * @param data	the object to write, must be an instance of one of the data model interfaces or <code>null</code>
+	 * @return	the JSON document
+	 * @throws IllegalArgumentException when the object is not part of the data model or when it contains a certificate
+	 * 									or extension that cannot be encoded
+	 */
+	public static String toJSON(final Object data) {
+		final Output out = new Output(null);
+		try {
+			out.writeObject(data);
+		} catch (IOException cannotHappen) {
+			// The output is only written to the internal buffer
+			throw new IllegalStateException(cannotHappen);
+		}
+		return new String(out.buf, 0, out.pos);
+	}
+
+	/**
+	 * Writes the given object as a JSON document to the given writer. The writer is flushed but not closed.
+	 *
+	 * @param data	the object to write, must be an instance of one of the data model interfaces or <code>null</code>
+	 * @param w		the writer to write the document to
+	 * @throws IOException	when the document cannot be written
+	 * @throws IllegalArgumentException when the object is not part of the data model or when it contains a certificate
+	 * 									or extension that cannot be encoded
+	 */
+	public static void write(final Object data, final Writer w) throws IOException {
+		final Output out = new Output(w);
+		out.writeObject(data);
+		out.flush();
+		w.flush();
+	}
+
+	/**
+	 * Writes the given object as an UTF-8 encoded JSON document to the given stream. The stream is flushed but not
+	 * closed.
+	 *
+	 * @param data	the object to write, must be an instance of one of the data model interfaces or <code>null</code>
+	 * @param os	the stream to write the document to
+	 * @throws IOException	when the document cannot be written
+	 * @throws IllegalArgumentException when the object is not part of the data model or when it contains a certificate
+	 * 									or extension that cannot be encoded
+	 */
+	public static void write(final Object data, final OutputStream os) throws IOException {
+		write(data, new OutputStreamWriter(os, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Holds the state of a single write run.
+	 */
+	private static final class Output {
+		private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+		final Writer	sink;
+		char[]	buf = new char[8192];
+		int		pos;
+		/**
+		 * Indicates whether the next member or element is the first of the current object or array
+		 */
+		boolean	first;
+
+		Output(final Writer sink) {
+			this.sink = sink;
+		}
+
+		void writeObject(final Object o) throws IOException {
+			if (o == null)
+				writeNull();
+			else if (o instanceof ServiceMetadata) {
+				final boolean signed = o instanceof SignedQueryResult;
+				startObject(signed ? TYPE_SIGNED_SERVICE_METADATA : TYPE_SERVICE_METADATA);
+				writeServiceMetadata((ServiceMetadata) o);
+				if (signed)
+					writeCertificate(SIGNING_CERTIFICATE, ((SignedQueryResult) o).getSigningCertificate());
+				endObject();
+			} else if (o instanceof ServiceGroupV2) {
+				final boolean signed = o instanceof SignedQueryResult;
+				startObject(signed ? TYPE_SIGNED_SERVICE_GROUP_V2 : TYPE_SERVICE_GROUP_V2);
+				writeServiceGroup((ServiceGroupV2) o);
+				if (signed)
+					writeCertificate(SIGNING_CERTIFICATE, ((SignedQueryResult) o).getSigningCertificate());
+				endObject();
+			} else if (o instanceof ServiceGroupV1) {
+				startObject(TYPE_SERVICE_GROUP_V1);
+				writeServiceGroup((ServiceGroupV1) o);
+				endObject();
+			} else if (o instanceof ServiceReference) {
+				startObject(TYPE_SERVICE_REFERENCE);
+				writeServiceReference((ServiceReference) o);
+				endObject();
+			} else if (o instanceof ProcessGroup) {
+				startObject(TYPE_PROCESS_GROUP);
+				writeProcessGroup((ProcessGroup) o);
+				endObject();
+			} else if (o instanceof ProcessInfo) {
+				startObject(TYPE_PROCESS_INFO);
+				writeProcessInfo((ProcessInfo) o);
+				endObject();
+			} else if (o instanceof EndpointInfo)
+				writeEndpoint((EndpointInfo) o);
+			else if (o instanceof Redirection)
+				writeRedirection((Redirection) o);
+			else if (o instanceof Certificate) {
+				startObject(TYPE_CERTIFICATE);
+				writeCertificateInfo((Certificate) o);
+				endObject();
+			} else if (o instanceof Identifier) {
+				startObject(o instanceof ProcessIdentifier ? TYPE_PROCESS_IDENTIFIER : TYPE_IDENTIFIER);
+				writeIdentifierMembers((Identifier) o);
+				endObject();
+			} else if (o instanceof IDScheme) {
+				startObject(TYPE_ID_SCHEME);
+				writeString(ID, ((IDScheme) o).getSchemeId());
+				writeBoolean(CASE_SENSITIVE, ((IDScheme) o).isCaseSensitive());
+				endObject();
+			} else
+				throw new IllegalArgumentException("Not an object of the SMP data model: " + o.getClass().getName());
+		}
+
+		void writeServiceMetadata(final ServiceMetadata smd) throws IOException {
+			writeIdentifier(PARTICIPANT_ID, smd.getParticipantId());
+			writeIdentifier(SERVICE_ID, smd.getServiceId());
+			final Collection<? extends ProcessGroup> groups = smd.getProcessMetadata();
+			if (groups != null) {
+				name(PROCESS_GROUPS);
+				startArray();
+				for (ProcessGroup g : groups)
+					if (element(g)) {
+						startObject(null);
+						writeProcessGroup(g);
+						endObject();
+					}
+				endArray();
+			}
+			writeExtensions(smd);
+		}
+
+		void writeServiceGroup(final ServiceGroupV2 sg) throws IOException {
+			writeIdentifier(PARTICIPANT_ID, sg.getParticipantId());
+			final Collection<? extends ServiceReference> refs = sg.getServiceReferences();
+			if (refs != null) {
+				name(SERVICE_REFERENCES);
+				startArray();
+				for (ServiceReference r : refs)
+					if (element(r)) {
+						startObject(null);
+						writeServiceReference(r);
+						endObject();
+					}
+				endArray();
+			}
+			writeExtensions(sg);
+		}
+
+		void writeServiceGroup(final ServiceGroupV1 sg) throws IOException {
+			writeIdentifier(PARTICIPANT_ID, sg.getParticipantId());
+			final Collection<? extends URL> refs = sg.getServiceReferences();
+			if (refs != null) {
+				name(SERVICE_REFERENCES);
+				startArray();
+				for (URL r : refs)
+					if (element(r))
+						writeText(r.toExternalForm());
+				endArray();
+			}
+			writeExtensions(sg);
+		}
+
+		void writeServiceReference(final ServiceReference ref) throws IOException {
+			writeIdentifier(SERVICE_ID, ref.getServiceId());
+			writeProcessInfos(ref.getProcessInfo());
+			writeExtensions(ref);
+		}
+
+		void writeProcessGroup(final ProcessGroup pg) throws IOException {
+			writeProcessInfos(pg.getProcessInfo());
+			final Redirection r = pg.getRedirection();
+			if (r != null) {
+				name(REDIRECTION);
+				writeRedirection(r);
+			}
+			final Collection<? extends EndpointInfo> endpoints = pg.getEndpoints();
+			if (endpoints != null) {
+				name(ENDPOINTS);
+				startArray();
+				for (EndpointInfo ep : endpoints)
+					if (element(ep))
+						writeEndpoint(ep);
+				endArray();
+			}
+			writeExtensions(pg);
+		}
+
+		void writeProcessInfos(final Collection<? extends ProcessInfo> processes) throws IOException {
+			if (processes == null)
+				return;
+			name(PROCESSES);
+			startArray();
+			for (ProcessInfo pi : processes)
+				if (element(pi)) {
+					startObject(null);
+					writeProcessInfo(pi);
+					endObject();
+				}
+			endArray();
+		}
+
+		void writeProcessInfo(final ProcessInfo pi) throws IOException {
+			writeIdentifier(PROCESS_ID, pi.getProcessId());
+			final Collection<? extends Identifier> roles = pi.getRoles();
+			if (roles != null) {
+				name(ROLES);
+				startArray();
+				for (Identifier r : roles)
+					if (element(r)) {
+						startObject(null);
+						writeIdentifierMembers(r);
+						endObject();
+					}
+				endArray();
+			}
+			writeExtensions(pi);
+		}
+
+		void writeRedirection(final Redirection r) throws IOException {
+			if (r instanceof RedirectionV2) {
+				startObject(TYPE_REDIRECTION_V2);
+				writeURL(NEW_SMP_URL, r.getNewSMPURL());
+				writeCertificate(CERTIFICATE, ((RedirectionV2) r).getSMPCertificate());
+			} else {
+				startObject(TYPE_REDIRECTION_V1);
+				writeURL(NEW_SMP_URL, r.getNewSMPURL());
+				final boolean[] uid = r instanceof RedirectionV1 ? ((RedirectionV1) r).getSMPSubjectUniqueID() : null;
+				if (uid != null) {
+					name(SUBJECT_UNIQUE_ID);
+					ensure(uid.length + 2);
+					buf[pos++] = '"';
+					for (boolean b : uid)
+						buf[pos++] = b ? '1' : '0';
+					buf[pos++] = '"';
+				}
+			}
+			writeExtensions(r);
+			endObject();
+		}
+
+		void writeEndpoint(final EndpointInfo ep) throws IOException {
+			final boolean v1 = ep instanceof EndpointInfoV1;
+			startObject(v1 ? TYPE_ENDPOINT_V1 : TYPE_ENDPOINT);
+			writeString(TRANSPORT_PROFILE, ep.getTransportProfile());
+			writeURL(ENDPOINT_URL, ep.getEndpointURL());
+			writeDate(ACTIVATION_DATE, ep.getServiceActivationDate());
+			writeDate(EXPIRATION_DATE, ep.getServiceExpirationDate());
+			writeString(DESCRIPTION, ep.getDescription());
+			writeString(CONTACT_INFO, ep.getContactInfo());
+			final Collection<? extends Certificate> certs = ep.getCertificates();
+			if (certs != null) {
+				name(CERTIFICATES);
+				startArray();
+				for (Certificate c : certs)
+					if (element(c)) {
+						startObject(null);
+						writeCertificateInfo(c);
+						endObject();
+					}
+				endArray();
+			}
+			if (v1) {
+				final EndpointInfoV1 epv1 = (EndpointInfoV1) ep;
+				final Boolean bls = epv1.getBusinessLevelSignatureRequired();
+				if (bls != null)
+					writeBoolean(BUSINESS_LEVEL_SIGNATURE_REQUIRED, bls);
+				writeString(MINIMUM_AUTHENTICATION_LEVEL, epv1.getMinimumAuthenticationLevel());
+				writeURL(TECHNICAL_INFORMATION_URL, epv1.getTechnicalInformationURL());
+			}
+			writeExtensions(ep);
+			endObject();
+		}
+
+		void writeCertificateInfo(final Certificate c) throws IOException {
+			if (c instanceof EncodedCertificateImpl)
+				writeBase64(CERTIFICATE, ((EncodedCertificateImpl) c).getEncoded());
+			else
+				writeCertificate(CERTIFICATE, c.getX509Cert());
+			writeString(USAGE, c.getUsage());
+			writeDate(ACTIVATION_DATE, c.getActivationDate());
+			writeDate(EXPIRATION_DATE, c.getExpirationDate());
+			writeString(DESCRIPTION, c.getDescription());
+			writeExtensions(c);
+		}
+
+		void writeCertificate(final String name, final X509Certificate cert) throws IOException {
+			if (cert != null)
+				try {
+					writeBase64(name, cert.getEncoded());
+				} catch (CertificateEncodingException e) {
+					throw new IllegalArgumentException("Could not encode certificate", e);
+				}
+		}
+
+		void writeIdentifier(final String name, final Identifier id) throws IOException {
+			if (id != null) {
+				name(name);
+				startObject(null);
+				writeIdentifierMembers(id);
+				endObject();
+			}
+		}
+
+		void writeIdentifierMembers(final Identifier id) throws IOException {
+			if (id instanceof ProcessIdentifier && ((ProcessIdentifier) id).isNoProcess()) {
+				writeBoolean(NO_PROCESS, true);
+				return;
+			}
+			final IDScheme scheme = id.getScheme();
+			if (scheme != null) {
+				writeString(SCHEME, scheme.getSchemeId());
+				if (scheme.isCaseSensitive())
+					writeBoolean(CASE_SENSITIVE, true);
+			}
+			writeString(VALUE, id.getValue());
+		}
+
+		void writeExtensions(final ExtensibleMetadata md) throws IOException {
+			final List<Extension> exts = md.getExtensions();
+			if (exts == null)
+				return;
+			name(EXTENSIONS);
+			startArray();
+			for (Extension e : exts)
+				if (element(e))
+					writeBase64(SerializedExtension.serialize(e));
+			endArray();
+		}
+
+		void writeDate(final String name, final ZonedDateTime d) throws IOException {
+			if (d != null)
+				writeString(name, DateTimeFormatter.ISO_ZONED_DATE_TIME.format(d));
+		}
+
+		void writeURL(final String name, final URL url) throws IOException {
+			if (url != null)
+				writeString(name, url.toExternalForm());
+		}
+
+		void writeBase64(final String name, final byte[] b) throws IOException {
+			if (b != null) {
+				name(name);
+				writeBase64(b);
+			}
+		}
+
+		void writeBase64(final byte[] b) throws IOException {
+			final byte[] encoded = Base64.getEncoder().encode(b);
+			ensure(encoded.length + 2);
+			buf[pos++] = '"';
+			for (byte c : encoded)
+				buf[pos++] = (char) c;
+			buf[pos++] = '"';
+		}
+
+		void writeBoolean(final String name, final boolean b) throws IOException {
+			name(name);
+			writeRaw(b ? "true" : "false");
+		}
+
+		void writeString(final String name, final String s) throws IOException {
+			if (s != null) {
+				name(name);
+				writeText(s);
+			}
+		}
+
+		/**
+		 * Starts a new object and writes the type member if a type is given.
+		 */
+		void startObject(final String type) throws IOException {
+			ensure(1);
+			buf[pos++] = '{';
+			first = true;
+			if (type != null) {
+				name(TYPE);
+				writeText(type);
+			}
+		}
+
+		void endObject() throws IOException {
+			ensure(1);
+			buf[pos++] = '}';
+			first = false;
+		}
+
+		void startArray() throws IOException {
+			ensure(1);
+			buf[pos++] = '[';
+			first = true;
+		}
+
+		void endArray() throws IOException {
+			ensure(1);
+			buf[pos++] = ']';
+			first = false;
+		}
+
+		/**
+		 * Starts a new element of an array.
+		 *
+		 * @return <code>true</code> if the element still needs to be written, <code>false</code> if it was
+		 * 		   <code>null</code> and has been written
+		 */
+		boolean element(final Object e) throws IOException {
+			if (!first) {
+				ensure(1);
+				buf[pos++] = ',';
+			}
+			first = false;
+			if (e != null)
+				return true;
+			writeNull();
+			return false;
+		}
+
+		/**
+		 * Writes the name of the next member of the current object. The names are constants that do not need
+		 * escaping.
+		 */
+		void name(final String name) throws IOException {
+			final int n = name.length();
+			ensure(n + 4);
+			if (!first)
+				buf[pos++] = ',';
+			first = false;
+			buf[pos++] = '"';
+			name.getChars(0, n, buf, pos);
+			pos += n;
+			buf[pos++] = '"';
+			buf[pos++] = ':';
+		}
+
+		void writeNull() throws IOException {
+			writeRaw("null");
+		}
+
+		void writeRaw(final String s) throws IOException {
+			final int n = s.length();
+			ensure(n);
+			s.getChars(0, n, buf, pos);
+			pos += n;
+		}
+
+		/**
+		 * Writes the given text as a JSON string, escaping the quote, backslash and control characters.
+		 */
+		void writeText(final String s) throws IOException {
+			final int n = s.length();
+			ensure(n + 2);
+			buf[pos++] = '"';
+			for (int i = 0; i < n; i++) {
+				final char c = s.charAt(i);
+				if (pos + 6 > buf.length)
+					ensure(6);
+				if (c >= 0x20 && c != '"' && c != '\\')
+					buf[pos++] = c;
+				else {
+					buf[pos++] = '\\';
+					switch (c) {
+					case '"':
+					case '\\':
+						buf[pos++] = c; break;
+					case '\n':
+						buf[pos++] = 'n'; break;
+					case '\r':
+						buf[pos++] = 'r'; break;
+					case '\t':
+						buf[pos++] = 't'; break;
+					case '\b':
+						buf[pos++] = 'b'; break;
+					case '\f':
+						buf[pos++] = 'f'; break;
+					default:
+						buf[pos++] = 'u';
+						buf[pos++] = '0';
+						buf[pos++] = '0';
+						buf[pos++] = HEX[c >> 4];
+						buf[pos++] = HEX[c & 0xF];
+					}
+				}
+			}
+			ensure(1);
+			buf[pos++] = '"';
+		}
+
+		/**
+		 * Makes room for the given number of characters in the buffer, by flushing it to the writer or, when there
+		 * is no writer or the buffer is too small, by growing it.
+		 */
+		void ensure(final int n) throws IOException {
+			if (pos + n > buf.length) {
+				if (sink != null)
+					flush();
+				if (pos + n > buf.length)
+					buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+			}
+		}
+
+		void flush() throws IOException {
+			sink.write(buf, 0, pos);
+			pos = 0;
+		}
+	}
+}
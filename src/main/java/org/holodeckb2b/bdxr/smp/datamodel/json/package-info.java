@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * This package contains a JSON representation of the SMP data model, to be used for exchanging meta-data with admin
+ * applications and for caching. The {@link org.holodeckb2b.bdxr.smp.datamodel.json.JSONWriter} writes any object of
+ * the data model as a JSON document and the {@link org.holodeckb2b.bdxr.smp.datamodel.json.JSONReader} reads it into
+ * the corresponding implementation classes of the <code>impl</code> package. Both are hand written streaming
+ * implementations that do not use reflection.
+ * <p>Each object of the data model is represented by a JSON object with a member for every property that is not
+ * <code>null</code>. Collections are written as arrays, with an empty array for an empty collection. The object of the
+ * document itself and the endpoints and redirections, which exist in multiple versions, have a <code>"type"</code>
+ * member that must be the first member of the object. Time stamps are written in the ISO-8601 format including the
+ * zone id, certificates as their base64 encoded DER form and the subject unique id of a V1 redirection as a string of
+ * "0" and "1" characters. As their content is not defined by the data model, each extension is written as the base64
+ * encoded Java serialized form of the extension object. When reading, the extensions are only deserialized when
+ * allowed by the {@link org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensionFilter} of the reader. An example of a
+ * service meta-data document:
+ * <pre>
+ * {"type":"ServiceMetadata",
+ *  "participantId":{"scheme":"iso6523-actorid-upis","value":"0088:123456789"},
+ *  "serviceId":{"scheme":"busdox-docid-qns","caseSensitive":true,"value":"urn:..."},
+ *  "processGroups":[{
+ *    "processes":[{"processId":{"scheme":"cenbii-procid-ubl","value":"urn:..."}}],
+ *    "endpoints":[{"type":"Endpoint","transportProfile":"peppol-transport-as4-v2_0",
+ *                  "endpointURL":"https://ap.example.com/as4",
+ *                  "certificates":[{"certificate":"MIIF..."}]}]}]}
+ * </pre>
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.json;
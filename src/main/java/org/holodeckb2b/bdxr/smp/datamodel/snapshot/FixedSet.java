@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Is an unmodifiable set backed by an array of elements that are known to be distinct. It is used by the views of a
+ * {@link RegistrySnapshot} to return their collections without hashing the elements, which would require decoding
+ * them completely. As the set is an {@link AbstractSet} it is equal to, and has the same hash code as, any other set
+ * with the same elements.
+ *
+ * @param <E>	the type of the elements
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class FixedSet<E> extends AbstractSet<E> {
+
+	private final E[]	elements;
+
+	/**
+	 * Creates a new set with the given elements, which must be distinct.
+	 *
+	 * @param elements	the elements of the set, the array is not copied
+	 */
+	FixedSet(final E[] elements) {
+		this.elements = elements;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int i;
+
+			@Override
+			public boolean hasNext() {
+				return i < elements.length;
+			}
+
+			@Override
+			public E next() {
+				if (i == elements.length)
+					throw new NoSuchElementException();
+				return elements[i++];
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return elements.length;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.snapshot.RegistrySnapshot.*;
+
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is a read-only view on the meta-data of a certificate stored in a {@link RegistrySnapshot}. The X509 certificate
+ * and its fingerprint are provided by the {@link EncodedCertificateImpl} that the snapshot shares between all
+ * references to the same certificate, so the certificate is only parsed once.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class MappedCertificate extends MappedMetadata implements Certificate {
+	private static final long serialVersionUID = 8801637417364150918L;
+
+	private transient volatile EncodedCertificateImpl	certificate;
+	private transient volatile String					usage;
+	private transient volatile ZonedDateTime			activation;
+	private transient volatile ZonedDateTime			expiration;
+	private transient volatile String					description;
+
+	MappedCertificate(final RegistrySnapshot snapshot, final int rec) {
+		super(snapshot, rec, CERT_EXTENSIONS);
+	}
+
+	private EncodedCertificateImpl certificate() {
+		EncodedCertificateImpl c = certificate;
+		if (c == null)
+			certificate = c = snapshot.readCertificate(rec, CERT_DATA);
+		return c;
+	}
+
+	@Override
+	public X509Certificate getX509Cert() {
+		return certificate().getX509Cert();
+	}
+
+	@Override
+	public byte[] getFingerprint() {
+		return certificate().getFingerprint();
+	}
+
+	@Override
+	public String getUsage() {
+		String s = usage;
+		if (s == null)
+			usage = s = snapshot.readString(rec, CERT_USAGE);
+		return s;
+	}
+
+	@Override
+	public ZonedDateTime getActivationDate() {
+		ZonedDateTime d = activation;
+		if (d == null)
+			activation = d = snapshot.readDate(rec, CERT_ACTIVATION);
+		return d;
+	}
+
+	@Override
+	public ZonedDateTime getExpirationDate() {
+		ZonedDateTime d = expiration;
+		if (d == null)
+			expiration = d = snapshot.readDate(rec, CERT_EXPIRATION);
+		return d;
+	}
+
+	@Override
+	public String getDescription() {
+		String s = description;
+		if (s == null)
+			description = s = snapshot.readString(rec, CERT_DESCRIPTION);
+		return s;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o == null || !(o instanceof Certificate))
+			return false;
+
+		Certificate c = (Certificate) o;
+		return extensionsEqual(c)
+			&& Arrays.equals(getFingerprint(), c.getFingerprint())
+			&& Utils.nullSafeEqual(getUsage(), c.getUsage())
+			&& Utils.nullSafeEqual(getActivationDate(), c.getActivationDate())
+			&& Utils.nullSafeEqual(getExpirationDate(), c.getExpirationDate())
+			&& Utils.nullSafeEqual(getDescription(), c.getDescription());
+	}
+
+	@Override
+	public int hashCode() {
+		final byte[] fp = getFingerprint();
+		final int certHash = fp != null ? (fp[0] & 0xFF) << 24 | (fp[1] & 0xFF) << 16 | (fp[2] & 0xFF) << 8 | (fp[3] & 0xFF)
+										: 0;
+		final ZonedDateTime activation = getActivationDate(), expiration = getExpirationDate();
+		final int prime = 31;
+		int result = extensionsHashCode();
+		result = prime * result + Objects.hash(activation != null ? activation.toInstant() : null,
+												certHash, getDescription(),
+												expiration != null ? expiration.toInstant() : null, getUsage());
+		return result;
+	}
+}
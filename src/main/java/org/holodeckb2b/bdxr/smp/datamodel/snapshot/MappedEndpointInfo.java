@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.snapshot.RegistrySnapshot.*;
+
+import java.net.URL;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.Set;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.URLUtils;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is a read-only view on an endpoint stored in a {@link RegistrySnapshot}. Each field is decoded when it is first
+ * requested, so for example getting the transport profile and URL of the endpoint does not decode its certificates.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+class MappedEndpointInfo extends MappedMetadata implements EndpointInfo {
+	private static final long serialVersionUID = 1946722873092436475L;
+
+	private transient volatile String			transportProfile;
+	private transient volatile URL				endpointURL;
+	private transient volatile ZonedDateTime	activation;
+	private transient volatile ZonedDateTime	expiration;
+	private transient volatile String			description;
+	private transient volatile String			contactInfo;
+	private transient volatile Set<Certificate>	certificates;
+
+	MappedEndpointInfo(final RegistrySnapshot snapshot, final int rec) {
+		super(snapshot, rec, EP_EXTENSIONS);
+	}
+
+	@Override
+	public String getTransportProfile() {
+		String s = transportProfile;
+		if (s == null)
+			transportProfile = s = snapshot.readString(rec, EP_PROFILE);
+		return s;
+	}
+
+	@Override
+	public URL getEndpointURL() {
+		URL u = endpointURL;
+		if (u == null)
+			endpointURL = u = snapshot.readURL(rec, EP_URL);
+		return u;
+	}
+
+	@Override
+	public ZonedDateTime getServiceActivationDate() {
+		ZonedDateTime d = activation;
+		if (d == null)
+			activation = d = snapshot.readDate(rec, EP_ACTIVATION);
+		return d;
+	}
+
+	@Override
+	public ZonedDateTime getServiceExpirationDate() {
+		ZonedDateTime d = expiration;
+		if (d == null)
+			expiration = d = snapshot.readDate(rec, EP_EXPIRATION);
+		return d;
+	}
+
+	@Override
+	public String getDescription() {
+		String s = description;
+		if (s == null)
+			description = s = snapshot.readString(rec, EP_DESCRIPTION);
+		return s;
+	}
+
+	@Override
+	public String getContactInfo() {
+		String s = contactInfo;
+		if (s == null)
+			contactInfo = s = snapshot.readString(rec, EP_CONTACT);
+		return s;
+	}
+
+	@Override
+	public Set<Certificate> getCertificates() {
+		Set<Certificate> certs = certificates;
+		if (certs == null) {
+			final int[] refs = snapshot.readReferences(rec, EP_CERTIFICATES);
+			if (refs == null)
+				return null;
+			final Certificate[] elements = new Certificate[refs.length];
+			for (int i = 0; i < refs.length; i++)
+				if (refs[i] >= 0)
+					elements[i] = new MappedCertificate(snapshot, refs[i]);
+			certificates = certs = new FixedSet<>(elements);
+		}
+		return certs;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o == null || !(o instanceof EndpointInfo))
+			return false;
+
+		EndpointInfo e = (EndpointInfo) o;
+		return extensionsEqual(e)
+			&& Utils.areEqual(getCertificates(), e.getCertificates())
+			&& Utils.nullSafeEqual(getContactInfo(), e.getContactInfo())
+			&& Utils.nullSafeEqual(getDescription(), e.getDescription())
+			&& URLUtils.areEqual(getEndpointURL(), e.getEndpointURL())
+			&& Utils.nullSafeEqual(getServiceActivationDate(), e.getServiceActivationDate())
+			&& Utils.nullSafeEqual(getServiceExpirationDate(), e.getServiceExpirationDate())
+			&& Utils.nullSafeEqual(getTransportProfile(), e.getTransportProfile());
+	}
+
+	@Override
+	public int hashCode() {
+		final Set<Certificate> certs = getCertificates();
+		final ZonedDateTime activation = getServiceActivationDate(), expiration = getServiceExpirationDate();
+		final int prime = 31;
+		int result = extensionsHashCode();
+		result = prime * result + Objects.hash(Utils.isNullOrEmpty(certs) ? null : certs, getContactInfo(),
+											   getDescription(), URLUtils.normalise(getEndpointURL()),
+											   activation != null ? activation.toInstant() : null,
+											   expiration != null ? expiration.toInstant() : null,
+											   getTransportProfile());
+		return result;
+	}
+}
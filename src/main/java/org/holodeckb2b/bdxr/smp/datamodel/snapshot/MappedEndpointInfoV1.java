@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.snapshot.RegistrySnapshot.*;
+
+import java.net.URL;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.URLUtils;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is a read-only view on a V1 endpoint stored in a {@link RegistrySnapshot}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class MappedEndpointInfoV1 extends MappedEndpointInfo implements EndpointInfoV1 {
+	private static final long serialVersionUID = -6328014562738190644L;
+
+	MappedEndpointInfoV1(final RegistrySnapshot snapshot, final int rec) {
+		super(snapshot, rec);
+	}
+
+	@Override
+	public Boolean getBusinessLevelSignatureRequired() {
+		return snapshot.readBoolean(rec, EP_BLS_REQUIRED);
+	}
+
+	@Override
+	public String getMinimumAuthenticationLevel() {
+		return snapshot.readString(rec, EP_MIN_AUTH_LEVEL);
+	}
+
+	@Override
+	public URL getTechnicalInformationURL() {
+		return snapshot.readURL(rec, EP_TECH_INFO_URL);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == null || !(o instanceof EndpointInfoV1))
+			return false;
+
+		EndpointInfoV1 e = (EndpointInfoV1) o;
+		return super.equals(o)
+			&& Utils.nullSafeEqual(getBusinessLevelSignatureRequired(), e.getBusinessLevelSignatureRequired())
+			&& Utils.nullSafeEqual(getMinimumAuthenticationLevel(), e.getMinimumAuthenticationLevel())
+			&& URLUtils.areEqual(getTechnicalInformationURL(), e.getTechnicalInformationURL());
+	}
+}
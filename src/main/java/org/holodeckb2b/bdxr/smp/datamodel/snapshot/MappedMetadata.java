@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.holodeckb2b.bdxr.smp.datamodel.ExtensibleMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryReader;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryWriter;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is the base class of the read-only views on the records of a {@link RegistrySnapshot}. It holds the location of the
+ * record and decodes the extensions of the meta-data when they are first requested.
+ * <p>The views are serialized as a copy consisting of the implementation classes of the <code>impl</code> package, so
+ * the deserialized object does not depend on the snapshot file.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+abstract class MappedMetadata implements ExtensibleMetadata {
+	private static final long serialVersionUID = 7152337164398209530L;
+
+	/**
+	 * The snapshot that contains the record
+	 */
+	final transient RegistrySnapshot	snapshot;
+	/**
+	 * The offset of the record in the data area of the snapshot
+	 */
+	final transient int					rec;
+
+	private final transient int			extensionsField;
+	private transient volatile List<Extension>	extensions;
+
+	MappedMetadata(final RegistrySnapshot snapshot, final int rec, final int extensionsField) {
+		this.snapshot = snapshot;
+		this.rec = rec;
+		this.extensionsField = extensionsField;
+	}
+
+	@Override
+	public List<Extension> getExtensions() {
+		List<Extension> exts = extensions;
+		if (exts == null) {
+			exts = snapshot.readExtensions(rec, extensionsField);
+			if (exts != null)
+				extensions = exts = Collections.unmodifiableList(exts);
+		}
+		return exts;
+	}
+
+	/**
+	 * Compares the extensions in the same way as {@link
+	 * org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensibleMetadataClass#equals(Object)}.
+	 */
+	boolean extensionsEqual(final ExtensibleMetadata o) {
+		return Utils.areEqual(getExtensions(), o.getExtensions());
+	}
+
+	/**
+	 * Calculates the hash code of the extensions in the same way as {@link
+	 * org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensibleMetadataClass#contentHashCode()}.
+	 */
+	int extensionsHashCode() {
+		final List<Extension> exts = getExtensions();
+		return 31 + (Utils.isNullOrEmpty(exts) ? 0 : new HashSet<>(exts).hashCode());
+	}
+
+	/**
+	 * Replaces this view by a copy consisting of implementation classes.
+	 *
+	 * @return	the copy of this view
+	 * @throws ObjectStreamException when the view cannot be copied
+	 */
+	Object writeReplace() throws ObjectStreamException {
+		try {
+			return new BinaryReader(null, snapshot.extensionFilter()).decode(BinaryWriter.encode(this));
+		} catch (IOException | IllegalArgumentException e) {
+			final InvalidObjectException failure = new InvalidObjectException("Could not copy the meta-data");
+			failure.initCause(e);
+			throw failure;
+		}
+	}
+
+	/**
+	 * Prevents deserialization of a view, which is always replaced when serialized.
+	 *
+	 * @param in	the stream to read from
+	 * @throws InvalidObjectException always
+	 */
+	private void readObject(final ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException("A view on a registry snapshot cannot be deserialized");
+	}
+}
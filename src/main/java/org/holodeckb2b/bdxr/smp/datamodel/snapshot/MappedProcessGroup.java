@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.snapshot.RegistrySnapshot.*;
+
+import java.util.Objects;
+import java.util.Set;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is a read-only view on a process group stored in a {@link RegistrySnapshot}. The process info and redirection are
+ * decoded when first requested and the endpoints are returned as views that are only decoded when they are accessed.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class MappedProcessGroup extends MappedMetadata implements ProcessGroup {
+	private static final long serialVersionUID = 5723015093621338917L;
+
+	private transient volatile Set<ProcessInfo>		processes;
+	private transient volatile Redirection			redirection;
+	private transient volatile Set<EndpointInfo>	endpoints;
+
+	MappedProcessGroup(final RegistrySnapshot snapshot, final int rec) {
+		super(snapshot, rec, PG_EXTENSIONS);
+	}
+
+	@Override
+	public Set<ProcessInfo> getProcessInfo() {
+		Set<ProcessInfo> pis = processes;
+		if (pis == null) {
+			final Object[] decoded = snapshot.readObjects(rec, PG_PROCESSES);
+			if (decoded == null)
+				return null;
+			final ProcessInfo[] elements = new ProcessInfo[decoded.length];
+			for (int i = 0; i < decoded.length; i++)
+				elements[i] = (ProcessInfo) decoded[i];
+			processes = pis = new FixedSet<>(elements);
+		}
+		return pis;
+	}
+
+	@Override
+	public Redirection getRedirection() {
+		Redirection r = redirection;
+		if (r == null)
+			redirection = r = (Redirection) snapshot.readObject(rec, PG_REDIRECTION);
+		return r;
+	}
+
+	@Override
+	public Set<EndpointInfo> getEndpoints() {
+		Set<EndpointInfo> eps = endpoints;
+		if (eps == null) {
+			final int[] refs = snapshot.readReferences(rec, PG_ENDPOINTS);
+			if (refs == null)
+				return null;
+			final EndpointInfo[] elements = new EndpointInfo[refs.length];
+			for (int i = 0; i < refs.length; i++)
+				if (refs[i] >= 0)
+					elements[i] = snapshot.type(refs[i]) == ENDPOINT_V1 ? new MappedEndpointInfoV1(snapshot, refs[i])
+																		: new MappedEndpointInfo(snapshot, refs[i]);
+			endpoints = eps = new FixedSet<>(elements);
+		}
+		return eps;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o == null || !(o instanceof ProcessGroup))
+			return false;
+
+		ProcessGroup pg = (ProcessGroup) o;
+		return extensionsEqual(pg)
+			&& Utils.areEqual(getEndpoints(), pg.getEndpoints())
+			&& Utils.areEqual(getProcessInfo(), pg.getProcessInfo())
+			&& Utils.nullSafeEqual(getRedirection(), pg.getRedirection());
+	}
+
+	@Override
+	public int hashCode() {
+		final Set<EndpointInfo> eps = getEndpoints();
+		final Set<ProcessInfo> pis = getProcessInfo();
+		final int prime = 31;
+		int result = extensionsHashCode();
+		result = prime * result + Objects.hash(Utils.isNullOrEmpty(eps) ? null : eps,
+											   Utils.isNullOrEmpty(pis) ? null : pis, getRedirection());
+		return result;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.snapshot.RegistrySnapshot.*;
+
+import java.util.Objects;
+import java.util.Set;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is a read-only view on the service meta-data stored in a {@link RegistrySnapshot}. The identifiers are decoded when
+ * first requested and the process groups are returned as views that are only decoded when they are accessed.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+class MappedServiceMetadata extends MappedMetadata implements ServiceMetadata {
+	private static final long serialVersionUID = -2215870469387215047L;
+
+	private transient volatile Identifier			participantId;
+	private transient volatile Identifier			serviceId;
+	private transient volatile Set<ProcessGroup>	processGroups;
+
+	MappedServiceMetadata(final RegistrySnapshot snapshot, final int rec) {
+		super(snapshot, rec, SMD_EXTENSIONS);
+	}
+
+	@Override
+	public Identifier getParticipantId() {
+		Identifier id = participantId;
+		if (id == null)
+			participantId = id = (Identifier) snapshot.readObject(rec, SMD_PARTICIPANT);
+		return id;
+	}
+
+	@Override
+	public Identifier getServiceId() {
+		Identifier id = serviceId;
+		if (id == null)
+			serviceId = id = (Identifier) snapshot.readObject(rec, SMD_SERVICE);
+		return id;
+	}
+
+	@Override
+	public Set<ProcessGroup> getProcessMetadata() {
+		Set<ProcessGroup> groups = processGroups;
+		if (groups == null) {
+			final int[] refs = snapshot.readReferences(rec, SMD_PROCESS_GROUPS);
+			if (refs == null)
+				return null;
+			final ProcessGroup[] pgs = new ProcessGroup[refs.length];
+			for (int i = 0; i < refs.length; i++)
+				if (refs[i] >= 0)
+					pgs[i] = new MappedProcessGroup(snapshot, refs[i]);
+			processGroups = groups = new FixedSet<>(pgs);
+		}
+		return groups;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o == null || !(o instanceof ServiceMetadata))
+			return false;
+
+		ServiceMetadata s = (ServiceMetadata) o;
+		return extensionsEqual(s)
+			&& Utils.nullSafeEqual(getParticipantId(), s.getParticipantId())
+			&& Utils.areEqual(getProcessMetadata(), s.getProcessMetadata())
+			&& Utils.nullSafeEqual(getServiceId(), s.getServiceId());
+	}
+
+	@Override
+	public int hashCode() {
+		final Set<ProcessGroup> groups = getProcessMetadata();
+		final int prime = 31;
+		int result = extensionsHashCode();
+		result = prime * result + Objects.hash(getParticipantId(), Utils.isNullOrEmpty(groups) ? null : groups,
+												getServiceId());
+		return result;
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.snapshot.RegistrySnapshot.*;
+
+import java.security.cert.X509Certificate;
+import java.util.Objects;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.SignedQueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is a read-only view on signed service meta-data stored in a {@link RegistrySnapshot}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class MappedSignedServiceMetadata extends MappedServiceMetadata implements SignedQueryResult {
+	private static final long serialVersionUID = 3489204315871645632L;
+
+	MappedSignedServiceMetadata(final RegistrySnapshot snapshot, final int rec) {
+		super(snapshot, rec);
+	}
+
+	@Override
+	public X509Certificate getSigningCertificate() {
+		final EncodedCertificateImpl cert = snapshot.readCertificate(rec, SMD_SIGNING_CERT);
+		return cert != null ? cert.getX509Cert() : null;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == null || !(o instanceof SignedQueryResult) || !(o instanceof ServiceMetadata))
+			return false;
+
+		return super.equals(o)
+			&& Utils.nullSafeEqual(getSigningCertificate(), ((SignedQueryResult) o).getSigningCertificate());
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + Objects.hash(getSigningCertificate());
+		return result;
+	}
+}
@@ -0,0 +1,934 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.Extension;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.SignedQueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryReader;
+import org.holodeckb2b.bdxr.smp.datamodel.codec.BinaryWriter;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ExtensionFilter;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierPool;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SerializedExtension;
+import org.holodeckb2b.bdxr.smp.datamodel.util.IdentifierFingerprint;
+import org.holodeckb2b.commons.util.Utils;
+
+/**
+ * Is an immutable snapshot of the service groups and service meta-data of a registry, stored in a file which is memory
+ * mapped when opened. It allows a node that mirrors a registry to serve look ups directly after a restart, without
+ * fetching and parsing all meta-data again. Opening a snapshot only reads its header, independent of the number of
+ * entries.
+ * <p>Service meta-data is returned as a read-only view on the mapped file. The view and the process groups, endpoints
+ * and certificates it contains only decode their fields when they are accessed for the first time. Certificates are
+ * stored only once per snapshot and all views share the {@link EncodedCertificateImpl} of a certificate, so it is also
+ * parsed only once. The views can be compared with and are equal to the corresponding implementation classes. When
+ * serialized, a view is replaced by a copy consisting of implementation classes. Service groups are stored in the
+ * binary format of the {@link BinaryWriter} and completely decoded when retrieved.
+ * <p>The snapshot file has the following format, with all numbers stored in big-endian order:
+ * <ol>
+ * <li>header of 32 bytes: the magic number {@link #MAGIC}, format version, number of slots (power of 2), number of
+ * entries, size of the data area, 4 reserved bytes and the creation time in milliseconds since the epoch</li>
+ * <li>hash table of slots of 12 bytes each, holding the 8 byte key derived from the fingerprints of the participant
+ * and service identifiers and the 4 byte offset of the entry in the data area, or -1 for an empty slot. The table uses
+ * linear probing starting at the slot given by the low bits of the key.</li>
+ * <li>data area, containing the records of the entries. A record starts with a one byte type and a one byte number of
+ * fields, followed by the offsets of the start of each field and of the end of the last field relative to the start of
+ * the record. Identifiers, process info, redirections and service groups are stored in the binary format of the
+ * {@link BinaryWriter}, process groups, endpoints and the meta-data of certificates as separate records and the
+ * certificates as their length and DER encoded form. A list of extensions is stored as the length and Java serialized
+ * form of each extension, with length 0 for a <code>null</code> extension, or a single 0 byte if the list is empty.
+ * </li>
+ * </ol>
+ * <p>As deserializing untrusted data may execute arbitrary code, extensions are only deserialized when allowed by the
+ * {@link ExtensionFilter} given when opening the snapshot. Other extensions are returned as {@link
+ * SerializedExtension}s.
+ * Instances of this class are thread safe. The file must not be changed while the snapshot is in use.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class RegistrySnapshot {
+	/**
+	 * The magic number at the start of a registry snapshot file, "SMPS"
+	 */
+	public static final int MAGIC = 0x534D5053;
+	/**
+	 * The version of the file format
+	 */
+	public static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 32;
+	private static final int SLOT_SIZE = 12;
+	private static final int EMPTY = -1;
+
+	/*
+	 * The record types
+	 */
+	static final int SERVICE_GROUP = 1;
+	static final int SERVICE_METADATA = 2;
+	static final int SIGNED_SERVICE_METADATA = 3;
+	static final int PROCESS_GROUP = 4;
+	static final int ENDPOINT = 5;
+	static final int ENDPOINT_V1 = 6;
+	static final int CERTIFICATE = 7;
+
+	/*
+	 * The fields of the records
+	 */
+	static final int SG_PARTICIPANT = 0;
+	static final int SG_DATA = 1;
+	static final int SG_FIELDS = 2;
+
+	static final int SMD_PARTICIPANT = 0;
+	static final int SMD_SERVICE = 1;
+	static final int SMD_PROCESS_GROUPS = 2;
+	static final int SMD_EXTENSIONS = 3;
+	static final int SMD_SIGNING_CERT = 4;
+	static final int SMD_FIELDS = 5;
+
+	static final int PG_PROCESSES = 0;
+	static final int PG_REDIRECTION = 1;
+	static final int PG_ENDPOINTS = 2;
+	static final int PG_EXTENSIONS = 3;
+	static final int PG_FIELDS = 4;
+
+	static final int EP_PROFILE = 0;
+	static final int EP_URL = 1;
+	static final int EP_ACTIVATION = 2;
+	static final int EP_EXPIRATION = 3;
+	static final int EP_DESCRIPTION = 4;
+	static final int EP_CONTACT = 5;
+	static final int EP_CERTIFICATES = 6;
+	static final int EP_EXTENSIONS = 7;
+	static final int EP_BLS_REQUIRED = 8;
+	static final int EP_MIN_AUTH_LEVEL = 9;
+	static final int EP_TECH_INFO_URL = 10;
+	static final int EP_FIELDS = 8;
+	static final int EP_V1_FIELDS = 11;
+
+	static final int CERT_DATA = 0;
+	static final int CERT_USAGE = 1;
+	static final int CERT_ACTIVATION = 2;
+	static final int CERT_EXPIRATION = 3;
+	static final int CERT_DESCRIPTION = 4;
+	static final int CERT_EXTENSIONS = 5;
+	static final int CERT_FIELDS = 6;
+
+	/**
+	 * Value of an extensions field that contains an empty list. A field containing a list with extensions always has
+	 * more than one byte as it starts with the length of the first extension.
+	 */
+	private static final byte EMPTY_EXTENSIONS = 0;
+
+	private final ByteBuffer	slots;
+	private final ByteBuffer	data;
+	private final int			mask;
+	private final int			size;
+	private final Instant		created;
+	private final BinaryReader	reader;
+	private final ExtensionFilter	extensionFilter;
+	/**
+	 * The certificates read from the snapshot, by their offset in the data area
+	 */
+	private final Map<Integer, EncodedCertificateImpl>	certificates = new ConcurrentHashMap<>();
+
+	private RegistrySnapshot(final ByteBuffer slots, final ByteBuffer data, final int slotCount, final int size,
+							 final Instant created, final IdentifierPool pool, final ExtensionFilter filter) {
+		this.slots = slots;
+		this.data = data;
+		this.mask = slotCount - 1;
+		this.size = size;
+		this.created = created;
+		this.reader = new BinaryReader(pool, filter);
+		this.extensionFilter = filter;
+	}
+
+	/**
+	 * Opens the registry snapshot stored in the given file.
+	 *
+	 * @param file	path to the snapshot file
+	 * @return	the registry snapshot
+	 * @throws IOException	when the file cannot be read or does not contain a valid registry snapshot
+	 */
+	public static RegistrySnapshot open(final Path file) throws IOException {
+		return open(file, null);
+	}
+
+	/**
+	 * Opens the registry snapshot stored in the given file. The identifiers of the service groups and service
+	 * meta-data read from the snapshot are the canonical instances from the given pool.
+	 *
+	 * @param file	path to the snapshot file
+	 * @param pool	the pool to get the identifiers from, may be <code>null</code> to create new identifier instances
+	 * @return	the registry snapshot
+	 * @throws IOException	when the file cannot be read or does not contain a valid registry snapshot
+	 */
+	public static RegistrySnapshot open(final Path file, final IdentifierPool pool) throws IOException {
+		return open(file, pool, null);
+	}
+
+	/**
+	 * Opens the registry snapshot stored in the given file. The identifiers of the service groups and service
+	 * meta-data read from the snapshot are the canonical instances from the given pool and only the extensions allowed
+	 * by the given filter are deserialized.
+	 *
+	 * @param file		path to the snapshot file
+	 * @param pool		the pool to get the identifiers from, may be <code>null</code> to create new identifier
+	 * 					instances
+	 * @param filter	the filter that determines which extensions are deserialized, may be <code>null</code> to use
+	 * 					the {@link ExtensionFilter#getDefault() default filter}
+	 * @return	the registry snapshot
+	 * @throws IOException	when the file cannot be read or does not contain a valid registry snapshot
+	 */
+	public static RegistrySnapshot open(final Path file, final IdentifierPool pool, final ExtensionFilter filter)
+																									throws IOException {
+		try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long fileSize = fc.size();
+			if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE)
+				throw new IOException("Invalid registry snapshot file size: " + fileSize);
+			final MappedByteBuffer mapped = fc.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+			if (mapped.getInt(0) != MAGIC)
+				throw new IOException("Not a registry snapshot file");
+			if (mapped.getInt(4) != VERSION)
+				throw new IOException("Unsupported registry snapshot version: " + mapped.getInt(4));
+			final int slotCount = mapped.getInt(8);
+			final int size = mapped.getInt(12);
+			final int dataSize = mapped.getInt(16);
+			final long created = mapped.getLong(24);
+			final long dataOffset = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+			if (slotCount <= 0 || Integer.bitCount(slotCount) != 1 || size < 0 || size >= slotCount || dataSize < 0
+				|| dataOffset + dataSize != fileSize)
+				throw new IOException("Corrupt registry snapshot header");
+
+			mapped.position(HEADER_SIZE).limit((int) dataOffset);
+			final ByteBuffer slots = mapped.slice();
+			mapped.limit((int) fileSize).position((int) dataOffset);
+			return new RegistrySnapshot(slots, mapped.slice(), slotCount, size, Instant.ofEpochMilli(created), pool,
+										filter);
+		}
+	}
+
+	/**
+	 * @return the number of service groups and service meta-data in the snapshot
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the time the snapshot was created
+	 */
+	public Instant getCreationTime() {
+		return created;
+	}
+
+	/**
+	 * Gets the service group of the given participant.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	the service group of the participant, which is a {@link ServiceGroupV1} or {@link ServiceGroupV2}, or
+	 * 			<code>null</code> if the snapshot does not contain the service group of the participant
+	 */
+	public QueryResult getServiceGroup(final Identifier participant) {
+		final int rec = find(key(IdentifierFingerprint.of(participant)), SERVICE_GROUP, participant, null);
+		return rec != EMPTY ? (QueryResult) readObject(rec, SG_DATA) : null;
+	}
+
+	/**
+	 * Gets the service meta-data of the given participant and service. The returned object is a read-only view on the
+	 * snapshot that only decodes its fields when they are accessed. When the snapshot contains signed service
+	 * meta-data the view also implements {@link SignedQueryResult}.
+	 *
+	 * @param participant	the participant identifier
+	 * @param service		the service identifier
+	 * @return	the service meta-data, or <code>null</code> if the snapshot does not contain the service meta-data of
+	 * 			the participant and service
+	 */
+	public ServiceMetadata getServiceMetadata(final Identifier participant, final Identifier service) {
+		final int rec = find(key(IdentifierFingerprint.of(participant), IdentifierFingerprint.of(service)),
+							 SERVICE_METADATA, participant, service);
+		if (rec == EMPTY)
+			return null;
+		else if (type(rec) == SIGNED_SERVICE_METADATA)
+			return new MappedSignedServiceMetadata(this, rec);
+		else
+			return new MappedServiceMetadata(this, rec);
+	}
+
+	/**
+	 * Searches the hash table for the record of the given kind and identifiers.
+	 *
+	 * @return	the offset of the record, or -1 if there is no such record
+	 */
+	private int find(final long key, final int kind, final Identifier participant, final Identifier service) {
+		// Limit the number of probes so a corrupt table without empty slots cannot cause an endless loop
+		for (int i = (int) key & mask, n = 0; n <= mask; i = (i + 1) & mask, n++) {
+			final int pos = i * SLOT_SIZE;
+			final int rec = slots.getInt(pos + 8);
+			if (rec == EMPTY)
+				return EMPTY;
+			if (slots.getLong(pos) == key && (type(rec) == kind || kind == SERVICE_METADATA
+																  && type(rec) == SIGNED_SERVICE_METADATA)
+				&& Utils.nullSafeEqual(readObject(rec, SG_PARTICIPANT), participant)
+				&& (service == null || Utils.nullSafeEqual(readObject(rec, SMD_SERVICE), service)))
+				return rec;
+		}
+		throw new IllegalStateException("Corrupt registry snapshot");
+	}
+
+	/**
+	 * Calculates the key of a service group.
+	 */
+	static long key(final long participant) {
+		return participant;
+	}
+
+	/**
+	 * Calculates the key of service meta-data.
+	 */
+	static long key(final long participant, final long service) {
+		return participant * 0x9E3779B97F4A7C15L + service;
+	}
+
+	/*
+	 * Reading of the records, used by the views
+	 */
+
+	int type(final int rec) {
+		return data.get(rec);
+	}
+
+	private int fieldStart(final int rec, final int field) {
+		return field < (data.get(rec + 1) & 0xFF) ? rec + data.getInt(rec + 2 + 4 * field) : EMPTY;
+	}
+
+	private int fieldEnd(final int rec, final int field) {
+		return rec + data.getInt(rec + 6 + 4 * field);
+	}
+
+	/**
+	 * Indicates whether the given field of the record is empty, which represents a <code>null</code> value.
+	 */
+	boolean isNull(final int rec, final int field) {
+		final int start = fieldStart(rec, field);
+		return start == EMPTY || start == fieldEnd(rec, field);
+	}
+
+	/**
+	 * Reads the object of the data model stored in the given field.
+	 */
+	Object readObject(final int rec, final int field) {
+		final int start = fieldStart(rec, field);
+		return start == EMPTY ? null : readObjectAt(start, fieldEnd(rec, field) - start);
+	}
+
+	private Object readObjectAt(final int pos, final int len) {
+		if (len == 0)
+			return null;
+		try {
+			return reader.decode(bytes(pos, len));
+		} catch (IOException corrupt) {
+			throw new IllegalStateException("Corrupt registry snapshot", corrupt);
+		}
+	}
+
+	/**
+	 * Reads all objects of the list stored in the given field.
+	 *
+	 * @return	the objects, or <code>null</code> if the field is empty
+	 */
+	Object[] readObjects(final int rec, final int field) {
+		if (isNull(rec, field))
+			return null;
+		int pos = fieldStart(rec, field);
+		final Object[] objects = new Object[data.getInt(pos)];
+		pos += 4;
+		for (int i = 0; i < objects.length; i++) {
+			final int len = data.getInt(pos);
+			pos += 4;
+			if (len >= 0) {
+				objects[i] = readObjectAt(pos, len);
+				pos += len;
+			}
+		}
+		return objects;
+	}
+
+	/**
+	 * Reads the offsets of the records referenced in the given field.
+	 *
+	 * @return	the offsets of the records, with -1 for <code>null</code> references, or <code>null</code> if the field
+	 * 			is empty
+	 */
+	int[] readReferences(final int rec, final int field) {
+		if (isNull(rec, field))
+			return null;
+		final int start = fieldStart(rec, field);
+		final int[] refs = new int[data.getInt(start)];
+		for (int i = 0; i < refs.length; i++)
+			refs[i] = data.getInt(start + 4 + 4 * i);
+		return refs;
+	}
+
+	String readString(final int rec, final int field) {
+		if (isNull(rec, field))
+			return null;
+		final int start = fieldStart(rec, field) + 1;
+		return new String(bytes(start, fieldEnd(rec, field) - start), StandardCharsets.UTF_8);
+	}
+
+	URL readURL(final int rec, final int field) {
+		final String url = readString(rec, field);
+		try {
+			return url != null ? new URL(url) : null;
+		} catch (MalformedURLException corrupt) {
+			throw new IllegalStateException("Corrupt registry snapshot", corrupt);
+		}
+	}
+
+	ZonedDateTime readDate(final int rec, final int field) {
+		if (isNull(rec, field))
+			return null;
+		final int start = fieldStart(rec, field);
+		final String zone = new String(bytes(start + 12, fieldEnd(rec, field) - start - 12), StandardCharsets.UTF_8);
+		try {
+			return ZonedDateTime.ofInstant(Instant.ofEpochSecond(data.getLong(start), data.getInt(start + 8)),
+										   ZoneId.of(zone));
+		} catch (DateTimeException corrupt) {
+			throw new IllegalStateException("Corrupt registry snapshot", corrupt);
+		}
+	}
+
+	Boolean readBoolean(final int rec, final int field) {
+		return isNull(rec, field) ? null : Boolean.valueOf(data.get(fieldStart(rec, field)) != 0);
+	}
+
+	List<Extension> readExtensions(final int rec, final int field) {
+		if (isNull(rec, field))
+			return null;
+		final int start = fieldStart(rec, field);
+		final int len = fieldEnd(rec, field) - start;
+		final List<Extension> exts = new ArrayList<>();
+		if (len == 1 && data.get(start) == EMPTY_EXTENSIONS)
+			return exts;
+		final byte[] b = bytes(start, len);
+		final ExtensionFilter filter = extensionFilter != null ? extensionFilter : ExtensionFilter.getDefault();
+		for (int pos = 0; pos < len; ) {
+			if (len - pos < 4)
+				throw new IllegalStateException("Corrupt registry snapshot");
+			final int n = (b[pos] & 0xFF) << 24 | (b[pos + 1] & 0xFF) << 16 | (b[pos + 2] & 0xFF) << 8
+						  | (b[pos + 3] & 0xFF);
+			pos += 4;
+			if (n < 0 || n > len - pos)
+				throw new IllegalStateException("Corrupt registry snapshot");
+			try {
+				exts.add(n > 0 ? filter.deserialize(b, pos, n) : null);
+			} catch (IOException invalid) {
+				throw new IllegalStateException("Could not deserialize extensions", invalid);
+			}
+			pos += n;
+		}
+		return exts;
+	}
+
+	/**
+	 * @return the filter that determines which extensions are deserialized, or <code>null</code> if the default filter
+	 * 		   is used
+	 */
+	ExtensionFilter extensionFilter() {
+		return extensionFilter;
+	}
+
+	/**
+	 * Gets the certificate referenced in the given field. All references to the same certificate return the same
+	 * instance, which must not be modified.
+	 */
+	EncodedCertificateImpl readCertificate(final int rec, final int field) {
+		if (isNull(rec, field))
+			return null;
+		return certificates.computeIfAbsent(data.getInt(fieldStart(rec, field)),
+											pos -> new EncodedCertificateImpl(bytes(pos + 4, data.getInt(pos))));
+	}
+
+	private byte[] bytes(final int pos, final int len) {
+		final byte[] b = new byte[len];
+		final ByteBuffer d = data.duplicate();
+		d.position(pos);
+		d.get(b);
+		return b;
+	}
+
+	/**
+	 * Builds a registry snapshot file. The added service groups and service meta-data are encoded immediately, so the
+	 * builder does not keep references to them. The builder is <b>not thread safe</b>.
+	 */
+	public static class Builder {
+		private byte[]	buf = new byte[64 * 1024];
+		private int		pos;
+		private long[]	keys = new long[1024];
+		private int[]	records = new int[1024];
+		private int		count;
+		/**
+		 * The entries added so far, to replace an entry when it is added again
+		 */
+		private final Map<EntryKey, Integer>	entries = new HashMap<>();
+		/**
+		 * The certificates written so far, with their offset in the data area
+		 */
+		private final Map<ByteBuffer, Integer>	certificates = new HashMap<>();
+
+		/**
+		 * Adds the given service group or service meta-data to the snapshot. If the service group of a participant or
+		 * the service meta-data of a participant and service is added multiple times, the last one is used.
+		 *
+		 * @param result	the {@link ServiceGroupV1}, {@link ServiceGroupV2} or {@link ServiceMetadata} to add
+		 * @return	this builder
+		 * @throws IllegalArgumentException when the given object is not a service group or service meta-data, when
+		 * 									it does not have a participant or service identifier or when it contains a
+		 * 									certificate or extension that cannot be encoded
+		 */
+		public Builder add(final QueryResult result) {
+			if (result == null)
+				throw new IllegalArgumentException("Service group or service meta-data must be specified");
+			final Identifier participant = result.getParticipantId();
+			if (participant == null)
+				throw new IllegalArgumentException("Participant identifier must be specified");
+			final long pfp = IdentifierFingerprint.of(participant);
+			if (result instanceof ServiceMetadata) {
+				final Identifier service = ((ServiceMetadata) result).getServiceId();
+				if (service == null)
+					throw new IllegalArgumentException("Service identifier must be specified");
+				return add(new EntryKey(participant, service), key(pfp, IdentifierFingerprint.of(service)),
+						   writeServiceMetadata((ServiceMetadata) result));
+			} else if (result instanceof ServiceGroupV1 || result instanceof ServiceGroupV2) {
+				final int rec = beginRecord(SERVICE_GROUP, SG_FIELDS);
+				field(rec, SG_PARTICIPANT);
+				putBytes(BinaryWriter.encode(participant));
+				field(rec, SG_DATA);
+				putBytes(BinaryWriter.encode(result));
+				endRecord(rec, SG_FIELDS);
+				return add(new EntryKey(participant, null), key(pfp), rec);
+			} else
+				throw new IllegalArgumentException("Not a service group or service meta-data: "
+													+ result.getClass().getName());
+		}
+
+		/**
+		 * Adds the given stream of service groups and service meta-data to the snapshot.
+		 *
+		 * @param results	the service groups and service meta-data to add
+		 * @return	this builder
+		 * @see #add(QueryResult)
+		 */
+		public Builder addAll(final Stream<? extends QueryResult> results) {
+			results.forEachOrdered(this::add);
+			return this;
+		}
+
+		private Builder add(final EntryKey entry, final long key, final int rec) {
+			final Integer i = entries.get(entry);
+			if (i != null)
+				records[i] = rec;
+			else {
+				if (count == keys.length) {
+					keys = Arrays.copyOf(keys, count * 2);
+					records = Arrays.copyOf(records, count * 2);
+				}
+				entries.put(entry, count);
+				keys[count] = key;
+				records[count++] = rec;
+			}
+			return this;
+		}
+
+		private int writeServiceMetadata(final ServiceMetadata smd) {
+			final Collection<? extends ProcessGroup> groups = smd.getProcessMetadata();
+			int[] groupRecs = null;
+			if (groups != null) {
+				groupRecs = new int[groups.size()];
+				int i = 0;
+				for (ProcessGroup pg : groups)
+					groupRecs[i++] = pg != null ? writeProcessGroup(pg) : EMPTY;
+			}
+			final boolean signed = smd instanceof SignedQueryResult;
+			final int fields = signed ? SMD_FIELDS : SMD_SIGNING_CERT;
+			final int rec = beginRecord(signed ? SIGNED_SERVICE_METADATA : SERVICE_METADATA, fields);
+			field(rec, SMD_PARTICIPANT);
+			putBytes(BinaryWriter.encode(smd.getParticipantId()));
+			field(rec, SMD_SERVICE);
+			putBytes(BinaryWriter.encode(smd.getServiceId()));
+			field(rec, SMD_PROCESS_GROUPS);
+			putReferences(groupRecs);
+			field(rec, SMD_EXTENSIONS);
+			putExtensions(smd.getExtensions());
+			if (signed) {
+				field(rec, SMD_SIGNING_CERT);
+				final X509Certificate cert = ((SignedQueryResult) smd).getSigningCertificate();
+				if (cert != null)
+					putInt(writeCertificate(encoded(cert)));
+			}
+			endRecord(rec, fields);
+			return rec;
+		}
+
+		private int writeProcessGroup(final ProcessGroup pg) {
+			final Collection<? extends EndpointInfo> endpoints = pg.getEndpoints();
+			int[] endpointRecs = null;
+			if (endpoints != null) {
+				endpointRecs = new int[endpoints.size()];
+				int i = 0;
+				for (EndpointInfo ep : endpoints)
+					endpointRecs[i++] = ep != null ? writeEndpoint(ep) : EMPTY;
+			}
+			final int rec = beginRecord(PROCESS_GROUP, PG_FIELDS);
+			field(rec, PG_PROCESSES);
+			final Collection<? extends ProcessInfo> processes = pg.getProcessInfo();
+			if (processes != null) {
+				putInt(processes.size());
+				for (ProcessInfo pi : processes)
+					if (pi == null)
+						putInt(EMPTY);
+					else {
+						final byte[] encoded = BinaryWriter.encode(pi);
+						putInt(encoded.length);
+						putBytes(encoded);
+					}
+			}
+			field(rec, PG_REDIRECTION);
+			if (pg.getRedirection() != null)
+				putBytes(BinaryWriter.encode(pg.getRedirection()));
+			field(rec, PG_ENDPOINTS);
+			putReferences(endpointRecs);
+			field(rec, PG_EXTENSIONS);
+			putExtensions(pg.getExtensions());
+			endRecord(rec, PG_FIELDS);
+			return rec;
+		}
+
+		private int writeEndpoint(final EndpointInfo ep) {
+			final Collection<? extends Certificate> certs = ep.getCertificates();
+			int[] certRecs = null;
+			if (certs != null) {
+				certRecs = new int[certs.size()];
+				int i = 0;
+				for (Certificate c : certs)
+					certRecs[i++] = c != null ? writeCertificateInfo(c) : EMPTY;
+			}
+			final boolean v1 = ep instanceof EndpointInfoV1;
+			final int fields = v1 ? EP_V1_FIELDS : EP_FIELDS;
+			final int rec = beginRecord(v1 ? ENDPOINT_V1 : ENDPOINT, fields);
+			field(rec, EP_PROFILE);
+			putString(ep.getTransportProfile());
+			field(rec, EP_URL);
+			putURL(ep.getEndpointURL());
+			field(rec, EP_ACTIVATION);
+			putDate(ep.getServiceActivationDate());
+			field(rec, EP_EXPIRATION);
+			putDate(ep.getServiceExpirationDate());
+			field(rec, EP_DESCRIPTION);
+			putString(ep.getDescription());
+			field(rec, EP_CONTACT);
+			putString(ep.getContactInfo());
+			field(rec, EP_CERTIFICATES);
+			putReferences(certRecs);
+			field(rec, EP_EXTENSIONS);
+			putExtensions(ep.getExtensions());
+			if (v1) {
+				final EndpointInfoV1 epv1 = (EndpointInfoV1) ep;
+				field(rec, EP_BLS_REQUIRED);
+				final Boolean bls = epv1.getBusinessLevelSignatureRequired();
+				if (bls != null)
+					putByte(bls ? 1 : 0);
+				field(rec, EP_MIN_AUTH_LEVEL);
+				putString(epv1.getMinimumAuthenticationLevel());
+				field(rec, EP_TECH_INFO_URL);
+				putURL(epv1.getTechnicalInformationURL());
+			}
+			endRecord(rec, fields);
+			return rec;
+		}
+
+		private int writeCertificateInfo(final Certificate c) {
+			final byte[] der = c instanceof EncodedCertificateImpl ? ((EncodedCertificateImpl) c).getEncoded()
+																   : encoded(c.getX509Cert());
+			if (der == null)
+				throw new IllegalArgumentException("Certificate meta-data without certificate");
+			final int cert = writeCertificate(der);
+			final int rec = beginRecord(CERTIFICATE, CERT_FIELDS);
+			field(rec, CERT_DATA);
+			putInt(cert);
+			field(rec, CERT_USAGE);
+			putString(c.getUsage());
+			field(rec, CERT_ACTIVATION);
+			putDate(c.getActivationDate());
+			field(rec, CERT_EXPIRATION);
+			putDate(c.getExpirationDate());
+			field(rec, CERT_DESCRIPTION);
+			putString(c.getDescription());
+			field(rec, CERT_EXTENSIONS);
+			putExtensions(c.getExtensions());
+			endRecord(rec, CERT_FIELDS);
+			return rec;
+		}
+
+		/**
+		 * Writes the given DER encoded certificate if it was not written before.
+		 *
+		 * @return	the offset of the certificate in the data area
+		 */
+		private int writeCertificate(final byte[] der) {
+			final ByteBuffer key = ByteBuffer.wrap(der);
+			Integer cert = certificates.get(key);
+			if (cert == null) {
+				cert = pos;
+				putInt(der.length);
+				putBytes(der);
+				certificates.put(key, cert);
+			}
+			return cert;
+		}
+
+		private static byte[] encoded(final X509Certificate cert) {
+			if (cert == null)
+				return null;
+			try {
+				return cert.getEncoded();
+			} catch (CertificateEncodingException e) {
+				throw new IllegalArgumentException("Could not encode certificate", e);
+			}
+		}
+
+		/**
+		 * Starts a new record and reserves space for the field offsets.
+		 *
+		 * @return	the offset of the record
+		 */
+		private int beginRecord(final int type, final int fields) {
+			final int rec = pos;
+			ensure(2 + 4 * (fields + 1));
+			buf[pos++] = (byte) type;
+			buf[pos++] = (byte) fields;
+			pos += 4 * (fields + 1);
+			return rec;
+		}
+
+		/**
+		 * Marks the start of the given field at the current position.
+		 */
+		private void field(final int rec, final int field) {
+			putIntAt(rec + 2 + 4 * field, pos - rec);
+		}
+
+		private void endRecord(final int rec, final int fields) {
+			putIntAt(rec + 2 + 4 * fields, pos - rec);
+		}
+
+		private void putReferences(final int[] refs) {
+			if (refs != null) {
+				putInt(refs.length);
+				for (int r : refs)
+					putInt(r);
+			}
+		}
+
+		private void putString(final String s) {
+			if (s != null) {
+				// A marker byte distinguishes an empty string from null
+				putByte(1);
+				putBytes(s.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		private void putURL(final URL url) {
+			if (url != null)
+				putString(url.toExternalForm());
+		}
+
+		private void putDate(final ZonedDateTime d) {
+			if (d != null) {
+				final long s = d.toEpochSecond();
+				ensure(12);
+				putIntAt(pos, (int) (s >>> 32));
+				putIntAt(pos + 4, (int) s);
+				putIntAt(pos + 8, d.getNano());
+				pos += 12;
+				putBytes(d.getZone().getId().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		private void putExtensions(final List<Extension> exts) {
+			if (exts == null)
+				return;
+			else if (exts.isEmpty())
+				putByte(EMPTY_EXTENSIONS);
+			else
+				for (Extension e : exts)
+					if (e == null)
+						putInt(0);
+					else {
+						final byte[] serialized = SerializedExtension.serialize(e);
+						putInt(serialized.length);
+						putBytes(serialized);
+					}
+		}
+
+		private void putByte(final int b) {
+			ensure(1);
+			buf[pos++] = (byte) b;
+		}
+
+		private void putInt(final int v) {
+			ensure(4);
+			putIntAt(pos, v);
+			pos += 4;
+		}
+
+		private void putIntAt(final int at, final int v) {
+			buf[at] = (byte) (v >>> 24);
+			buf[at + 1] = (byte) (v >>> 16);
+			buf[at + 2] = (byte) (v >>> 8);
+			buf[at + 3] = (byte) v;
+		}
+
+		private void putBytes(final byte[] b) {
+			ensure(b.length);
+			System.arraycopy(b, 0, buf, pos, b.length);
+			pos += b.length;
+		}
+
+		private void ensure(final int n) {
+			if (pos + n > buf.length) {
+				if ((long) pos + n > Integer.MAX_VALUE - HEADER_SIZE)
+					throw new IllegalStateException("Too much meta-data for a single snapshot file");
+				buf = Arrays.copyOf(buf, (int) Math.min(Integer.MAX_VALUE - HEADER_SIZE,
+														Math.max(buf.length * 2L, (long) pos + n)));
+			}
+		}
+
+		/**
+		 * Writes the snapshot to the given file. An existing file is overwritten.
+		 *
+		 * @param file	path to the snapshot file
+		 * @throws IOException	when the snapshot cannot be written to the file
+		 */
+		public void write(final Path file) throws IOException {
+			int slotCount = 2;
+			while (slotCount < count * 2L)
+				slotCount <<= 1;
+			if (HEADER_SIZE + (long) slotCount * SLOT_SIZE + pos > Integer.MAX_VALUE)
+				throw new IllegalStateException("Too much meta-data for a single snapshot file");
+
+			final long[] tableKeys = new long[slotCount];
+			final int[] tableRecs = new int[slotCount];
+			Arrays.fill(tableRecs, EMPTY);
+			final int mask = slotCount - 1;
+			for (int j = 0; j < count; j++) {
+				// Entries with the same key are for different identifiers, so each gets its own slot
+				int i = (int) keys[j] & mask;
+				while (tableRecs[i] != EMPTY)
+					i = (i + 1) & mask;
+				tableKeys[i] = keys[j];
+				tableRecs[i] = records[j];
+			}
+
+			try (FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+																		   StandardOpenOption.TRUNCATE_EXISTING)) {
+				final ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+				out.putInt(MAGIC).putInt(VERSION).putInt(slotCount).putInt(count).putInt(pos).putInt(0)
+				   .putLong(System.currentTimeMillis());
+				for (int i = 0; i < slotCount; i++) {
+					if (out.remaining() < SLOT_SIZE)
+						flush(out, fc);
+					out.putLong(tableKeys[i]).putInt(tableRecs[i]);
+				}
+				flush(out, fc);
+				final ByteBuffer records = ByteBuffer.wrap(buf, 0, pos);
+				while (records.hasRemaining())
+					fc.write(records);
+			}
+		}
+
+		private static void flush(final ByteBuffer buf, final FileChannel fc) throws IOException {
+			buf.flip();
+			while (buf.hasRemaining())
+				fc.write(buf);
+			buf.clear();
+		}
+	}
+
+	/**
+	 * Identifies an entry of the snapshot by the participant identifier and, for service meta-data, the service
+	 * identifier.
+	 */
+	private static final class EntryKey {
+		final Identifier	participant;
+		final Identifier	service;
+
+		EntryKey(final Identifier participant, final Identifier service) {
+			this.participant = participant;
+			this.service = service;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof EntryKey))
+				return false;
+			final EntryKey k = (EntryKey) o;
+			return participant.equals(k.participant) && Utils.nullSafeEqual(service, k.service);
+		}
+
+		@Override
+		public int hashCode() {
+			final long key = service == null ? IdentifierFingerprint.of(participant)
+											 : key(IdentifierFingerprint.of(participant),
+												   IdentifierFingerprint.of(service));
+			return (int) (key ^ (key >>> 32));
+		}
+	}
+}
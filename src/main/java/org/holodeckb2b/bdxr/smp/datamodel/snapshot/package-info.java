@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * This package contains the {@link org.holodeckb2b.bdxr.smp.datamodel.snapshot.RegistrySnapshot}, a memory mapped
+ * file holding all service groups and service meta-data of a registry. A node that mirrors a registry can write a
+ * snapshot and open it after a restart to serve look ups immediately, as the meta-data is only decoded when it is
+ * accessed.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.snapshot;
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier;
+
+/**
+ * Computes the host names used in the DNS look up of the SMP of a participant. The following formats are supported:
+ * <ul>
+ * <li>{@link Format#PEPPOL_CNAME}: the PEPPOL SML format <i>B-{hex(MD5(lowercase(id)))}.{scheme}.{SML domain}</i>.</li>
+ * <li>{@link Format#PEPPOL_NAPTR}: the PEPPOL format for BDXL NAPTR look ups <i>{base32(SHA-256(lowercase(id)))}.{scheme}.
+ * {SML domain}</i>.</li>
+ * <li>{@link Format#OASIS_BDXL}: the OASIS BDXL format <i>{base32(SHA-256({scheme}::{id}))}.{SML domain}</i>, where
+ * the identifier value is normalised according to the case sensitivity policy of the scheme.</li>
+ * </ul>
+ * In all formats the Base32 encoding is done using the RFC 4648 alphabet and padding characters are removed.
+ * <p>The generator uses per thread {@link MessageDigest} instances and caches the calculated host names. The cache is
+ * bounded and is cleared when it reaches its maximum size. Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class BDXLHostnameGenerator {
+	/**
+	 * The supported host name formats
+	 */
+	public enum Format {
+		PEPPOL_CNAME, PEPPOL_NAPTR, OASIS_BDXL
+	}
+
+	/**
+	 * The default maximum number of host names in the cache
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 16384;
+
+	private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> getDigest("MD5"));
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> getDigest("SHA-256"));
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final char[] BASE32 = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+
+	private final String	domain;
+	private final Format	format;
+	private final int		maxCacheSize;
+	/**
+	 * The cache of calculated host names, keyed by unmodifiable copies of the participant identifiers
+	 */
+	private final ConcurrentHashMap<Identifier, String> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new generator for the given SML domain and host name format using the default cache size.
+	 *
+	 * @param smlDomain	the domain of the SML/BDXL service, e.g. "edelivery.tech.ec.europa.eu"
+	 * @param format	the host name format
+	 */
+	public BDXLHostnameGenerator(final String smlDomain, final Format format) {
+		this(smlDomain, format, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a new generator for the given SML domain and host name format.
+	 *
+	 * @param smlDomain		the domain of the SML/BDXL service, e.g. "edelivery.tech.ec.europa.eu"
+	 * @param format		the host name format
+	 * @param maxCacheSize	the maximum number of host names to cache, 0 to disable caching
+	 */
+	public BDXLHostnameGenerator(final String smlDomain, final Format format, final int maxCacheSize) {
+		if (smlDomain == null || smlDomain.isEmpty())
+			throw new IllegalArgumentException("SML domain must be specified");
+		if (format == null)
+			throw new IllegalArgumentException("Format must be specified");
+		if (maxCacheSize < 0)
+			throw new IllegalArgumentException("Cache size must not be negative");
+		final String d = smlDomain.startsWith(".") ? smlDomain.substring(1) : smlDomain;
+		this.domain = d.endsWith(".") ? d.substring(0, d.length() - 1) : d;
+		this.format = format;
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * @return the SML domain used in the host names
+	 */
+	public String getDomain() {
+		return domain;
+	}
+
+	/**
+	 * @return the format of the host names
+	 */
+	public Format getFormat() {
+		return format;
+	}
+
+	/**
+	 * Gets the host name for the given participant identifier.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	the host name to use in the DNS look up
+	 * @throws IllegalArgumentException when no identifier is given or it has no scheme while the format requires one
+	 */
+	public String getHostname(final Identifier participant) {
+		if (participant == null || participant.getValue() == null)
+			throw new IllegalArgumentException("Participant identifier must be specified");
+		if (maxCacheSize == 0)
+			return calculate(participant);
+
+		String hostname = cache.get(participant);
+		if (hostname == null) {
+			hostname = calculate(participant);
+			if (cache.size() >= maxCacheSize)
+				cache.clear();
+			cache.put(participant instanceof ImmutableIdentifier ? participant : new ImmutableIdentifier(participant),
+					  hostname);
+		}
+		return hostname;
+	}
+
+	/**
+	 * Gets the host names for all given participant identifiers. This method can be used to check many participants at
+	 * once or to fill the cache in advance.
+	 *
+	 * @param participants	the participant identifiers
+	 * @return	the host names, in the same order as the given identifiers
+	 * @throws IllegalArgumentException when one of the identifiers is invalid
+	 */
+	public List<String> getHostnames(final Collection<? extends Identifier> participants) {
+		if (participants == null)
+			throw new IllegalArgumentException("Participant identifiers must be specified");
+		final List<String> hostnames = new ArrayList<>(participants.size());
+		for (Identifier p : participants)
+			hostnames.add(getHostname(p));
+		return hostnames;
+	}
+
+	/**
+	 * Removes all cached host names.
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+
+	/**
+	 * Calculates the host name for the given participant identifier.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	the host name
+	 */
+	private String calculate(final Identifier participant) {
+		final IDScheme scheme = participant.getScheme();
+		final String schemeId = scheme != null ? scheme.getSchemeId() : null;
+		if (schemeId == null && format != Format.OASIS_BDXL)
+			throw new IllegalArgumentException("PEPPOL host names require an identifier scheme");
+
+		final StringBuilder sb = new StringBuilder(128);
+		switch (format) {
+		case PEPPOL_CNAME :
+			sb.append("B-");
+			appendHex(digest(MD5.get(), participant.getValue().toLowerCase(Locale.ROOT)), sb);
+			sb.append('.').append(schemeId);
+			break;
+		case PEPPOL_NAPTR :
+			appendBase32(digest(SHA256.get(), participant.getValue().toLowerCase(Locale.ROOT)), sb);
+			sb.append('.').append(schemeId);
+			break;
+		default :
+			// The value returned by the Identifier is already normalised according to the scheme's policy
+			appendBase32(digest(SHA256.get(), schemeId != null ? schemeId + "::" + participant.getValue()
+																: participant.getValue()), sb);
+		}
+		return sb.append('.').append(domain).toString();
+	}
+
+	private static byte[] digest(final MessageDigest md, final String s) {
+		md.reset();
+		return md.digest(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void appendHex(final byte[] bytes, final StringBuilder sb) {
+		for (byte b : bytes)
+			sb.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+	}
+
+	/**
+	 * Appends the Base32 encoding, without padding, of the given bytes.
+	 */
+	private static void appendBase32(final byte[] bytes, final StringBuilder sb) {
+		int buffer = 0, bits = 0;
+		for (byte b : bytes) {
+			buffer = (buffer << 8) | (b & 0xFF);
+			bits += 8;
+			while (bits >= 5) {
+				bits -= 5;
+				sb.append(BASE32[(buffer >> bits) & 0x1F]);
+			}
+		}
+		if (bits > 0)
+			sb.append(BASE32[(buffer << (5 - bits)) & 0x1F]);
+	}
+
+	private static MessageDigest getDigest(final String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(algorithm + " not supported.");
+		}
+	}
+}
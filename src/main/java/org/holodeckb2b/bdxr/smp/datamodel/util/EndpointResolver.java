@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableProcessIdentifier;
+
+/**
+ * Resolves the endpoints for a process, role and transport profile from a {@link ServiceMetadata}. The service
+ * meta-data is compiled once into a table keyed by the fingerprints of the process and role identifiers, so resolving
+ * the endpoints only requires a single hash look up and a scan of the few transport profiles supported for the
+ * process. The result lists are created when compiling, so resolving does not allocate any objects when {@link
+ * ImmutableIdentifier}s are used for the look up.
+ * <p>The process groups that apply to a process and role are selected in the same way as done by <code>
+ * ProcessGroupImpl.supportsProcess()</code>, i.e. a process group without processes applies to all processes, a
+ * process without roles applies to all roles and when no role is specified the role is not checked. When multiple
+ * process groups apply, their endpoints are combined in the order of the process groups.
+ * <p>The resolver is a snapshot of the service meta-data at the time of creation, later changes to the meta-data are
+ * not reflected in the resolver. Instances of this class are unmodifiable and thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class EndpointResolver {
+	/**
+	 * Fingerprints used in the key for respectively "all roles", i.e. no role specified in the look up, and "other
+	 * roles", i.e. a role that is not explicitly included in the process meta-data
+	 */
+	private static final long ALL_ROLES = 0x5a3c4e1d2b6f7089L;
+	private static final long OTHER_ROLES = 0x1f2e3d4c5b6a7988L;
+
+	private static final int SPECIFIC = 0;
+	private static final int ALL = 1;
+	private static final int OTHER = 2;
+
+	/**
+	 * The endpoints and redirection that apply to a combination of process and role
+	 */
+	private static final class Entry {
+		final ImmutableProcessIdentifier	processId;
+		final int							roleKind;
+		final ImmutableIdentifier			role;
+		final List<EndpointInfo>			endpoints;
+		final String[]						profiles;
+		final List<List<EndpointInfo>>		endpointsByProfile;
+		final Redirection					redirection;
+		Entry								next;
+
+		Entry(final ImmutableProcessIdentifier processId, final int roleKind, final ImmutableIdentifier role,
+			  final List<ProcessGroup> groups) {
+			this.processId = processId;
+			this.roleKind = roleKind;
+			this.role = role;
+			final List<EndpointInfo> all = new ArrayList<>();
+			final Set<EndpointInfo> added = Collections.newSetFromMap(new IdentityHashMap<>());
+			final Map<String, List<EndpointInfo>> byProfile = new LinkedHashMap<>();
+			Redirection r = null;
+			for (ProcessGroup g : groups) {
+				if (r == null)
+					r = g.getRedirection();
+				final Collection<? extends EndpointInfo> eps = g.getEndpoints();
+				if (eps != null)
+					for (EndpointInfo ep : eps)
+						if (added.add(ep)) {
+							all.add(ep);
+							byProfile.computeIfAbsent(ep.getTransportProfile(), p -> new ArrayList<>()).add(ep);
+						}
+			}
+			this.endpoints = Collections.unmodifiableList(all);
+			this.profiles = byProfile.keySet().toArray(new String[byProfile.size()]);
+			this.endpointsByProfile = new ArrayList<>(profiles.length);
+			for (String p : profiles)
+				endpointsByProfile.add(Collections.unmodifiableList(byProfile.get(p)));
+			this.redirection = r;
+		}
+
+		boolean matches(final Identifier p, final int kind, final Identifier r) {
+			return roleKind == kind && (processId == null || p.equals(processId))
+				&& (kind != SPECIFIC || r.equals(role));
+		}
+
+		List<EndpointInfo> getEndpoints(final String profile) {
+			if (profile == null)
+				return endpoints;
+			for (int i = 0; i < profiles.length; i++)
+				if (profile.equals(profiles[i]))
+					return endpointsByProfile.get(i);
+			return Collections.emptyList();
+		}
+	}
+
+	private final FingerprintMap<Entry>	table = new FingerprintMap<>();
+	private final Entry					otherProcesses;
+	/**
+	 * The position of the process groups in the service meta-data, used to keep the order of the groups when merging
+	 */
+	private final Map<ProcessGroup, Integer>	positions = new IdentityHashMap<>();
+
+	/**
+	 * Creates a new resolver for the given service meta-data.
+	 *
+	 * @param smd	the service meta-data
+	 */
+	public EndpointResolver(final ServiceMetadata smd) {
+		if (smd == null)
+			throw new IllegalArgumentException("Service meta-data must be specified");
+		final Collection<? extends ProcessGroup> groups = smd.getProcessMetadata();
+		if (groups != null)
+			for (ProcessGroup g : groups)
+				positions.putIfAbsent(g, positions.size());
+
+		// Collect, per process, the groups that apply for each specific role, for any role and for all roles
+		final List<ProcessGroup> allProcesses = new ArrayList<>();
+		final Map<ImmutableProcessIdentifier, List<ProcessGroup>> anyRole = new LinkedHashMap<>();
+		final Map<ImmutableProcessIdentifier, List<ProcessGroup>> allRoles = new LinkedHashMap<>();
+		final Map<ImmutableProcessIdentifier, Map<ImmutableIdentifier, List<ProcessGroup>>> specific =
+																							new LinkedHashMap<>();
+		if (groups != null)
+			for (ProcessGroup g : groups) {
+				final Collection<? extends ProcessInfo> processes = g.getProcessInfo();
+				if (processes == null || processes.isEmpty()) {
+					allProcesses.add(g);
+					continue;
+				}
+				for (ProcessInfo pi : processes) {
+					final ImmutableProcessIdentifier p = ImmutableProcessIdentifier.of(pi.getProcessId());
+					addGroup(allRoles.computeIfAbsent(p, k -> new ArrayList<>()), g);
+					final Collection<? extends Identifier> roles = pi.getRoles();
+					if (roles == null || roles.isEmpty())
+						addGroup(anyRole.computeIfAbsent(p, k -> new ArrayList<>()), g);
+					else
+						for (Identifier r : roles)
+							addGroup(specific.computeIfAbsent(p, k -> new LinkedHashMap<>())
+											 .computeIfAbsent(new ImmutableIdentifier(r), k -> new ArrayList<>()), g);
+				}
+			}
+
+		// Build the entries, adding the groups that apply to all processes and roles
+		for (Map.Entry<ImmutableProcessIdentifier, List<ProcessGroup>> e : allRoles.entrySet()) {
+			final ImmutableProcessIdentifier p = e.getKey();
+			final List<ProcessGroup> others = anyRole.getOrDefault(p, Collections.emptyList());
+			add(p.getFingerprint(), new Entry(p, ALL, null, merge(e.getValue(), allProcesses)));
+			add(p.getFingerprint(), new Entry(p, OTHER, null, merge(others, allProcesses)));
+			final Map<ImmutableIdentifier, List<ProcessGroup>> roles = specific.get(p);
+			if (roles != null)
+				for (Map.Entry<ImmutableIdentifier, List<ProcessGroup>> r : roles.entrySet())
+					add(p.getFingerprint(), new Entry(p, SPECIFIC, r.getKey(),
+													  merge(merge(r.getValue(), others), allProcesses)));
+		}
+		this.otherProcesses = new Entry(null, ALL, null, allProcesses);
+	}
+
+	/**
+	 * Gets the endpoints for the given process and role that support the given transport profile.
+	 *
+	 * @param processId			identifier of the process
+	 * @param role				the role of the participant in the process, may be <code>null</code> if the role is not
+	 * 							relevant
+	 * @param transportProfile	the transport profile, may be <code>null</code> to get the endpoints for all profiles
+	 * @return	unmodifiable list of the matching endpoints, empty when there are none
+	 */
+	public List<EndpointInfo> resolve(final Identifier processId, final Identifier role,
+									  final String transportProfile) {
+		return find(processId, role).getEndpoints(transportProfile);
+	}
+
+	/**
+	 * Gets the redirection for the given process and role.
+	 *
+	 * @param processId	identifier of the process
+	 * @param role		the role of the participant in the process, may be <code>null</code> if the role is not relevant
+	 * @return	the redirection that applies, or <code>null</code> if there is no redirection
+	 */
+	public Redirection getRedirection(final Identifier processId, final Identifier role) {
+		return find(processId, role).redirection;
+	}
+
+	private Entry find(final Identifier processId, final Identifier role) {
+		if (processId == null)
+			throw new IllegalArgumentException("Process identifier must be specified");
+		final long pfp = IdentifierFingerprint.of(processId);
+		Entry e;
+		if (role == null)
+			e = lookup(pfp, ALL_ROLES, processId, ALL, null);
+		else {
+			e = lookup(pfp, IdentifierFingerprint.of(role), processId, SPECIFIC, role);
+			if (e == null)
+				e = lookup(pfp, OTHER_ROLES, processId, OTHER, null);
+		}
+		return e != null ? e : otherProcesses;
+	}
+
+	private Entry lookup(final long pfp, final long rfp, final Identifier p, final int kind, final Identifier r) {
+		Entry e = table.get(key(pfp, rfp));
+		while (e != null && !e.matches(p, kind, r))
+			e = e.next;
+		return e;
+	}
+
+	private void add(final long pfp, final Entry e) {
+		final long rfp = e.roleKind == ALL ? ALL_ROLES : e.roleKind == OTHER ? OTHER_ROLES : e.role.getFingerprint();
+		final long key = key(pfp, rfp);
+		e.next = table.get(key);
+		table.put(key, e);
+	}
+
+	private static long key(final long processFingerprint, final long roleFingerprint) {
+		return processFingerprint * 0x9E3779B97F4A7C15L + roleFingerprint;
+	}
+
+	/**
+	 * Adds the given process group to the list. As the groups are added in the order of the service meta-data, the
+	 * group is already in the list when it is the last one.
+	 */
+	private static void addGroup(final List<ProcessGroup> groups, final ProcessGroup g) {
+		if (groups.isEmpty() || groups.get(groups.size() - 1) != g)
+			groups.add(g);
+	}
+
+	/**
+	 * Merges the given lists of process groups, which are both in the order of the service meta-data, into a new list
+	 * in that order.
+	 */
+	private List<ProcessGroup> merge(final List<ProcessGroup> a, final List<ProcessGroup> b) {
+		final List<ProcessGroup> m = new ArrayList<>(a.size() + b.size());
+		int i = 0, j = 0;
+		while (i < a.size() && j < b.size()) {
+			final int pa = positions.get(a.get(i)), pb = positions.get(b.get(j));
+			if (pa <= pb) {
+				m.add(a.get(i++));
+				if (pa == pb)
+					j++;
+			} else
+				m.add(b.get(j++));
+		}
+		while (i < a.size())
+			m.add(a.get(i++));
+		while (j < b.size())
+			m.add(b.get(j++));
+		return m;
+	}
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+
+/**
+ * Is a map from identifier fingerprints, as calculated by {@link IdentifierFingerprint}, to values. As the keys are
+ * stored as primitive <code>long</code>s in an open addressing hash table, the map does not retain the identifier
+ * objects and does not create an entry object per mapping. This makes it suitable for large caches and indexes keyed
+ * by identifier.
+ * <p>As keys are fingerprints, two different identifiers with the same fingerprint map to the same entry. When this is
+ * not acceptable the value should contain the identifier so it can be verified. The map does not accept
+ * <code>null</code> values. It is <b>not thread safe</b>.
+ *
+ * @param <V>	the type of the values
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class FingerprintMap<V> {
+	/**
+	 * Fingerprint 0 is used to mark empty slots, so a mapping for it is stored separately
+	 */
+	private static final long EMPTY = 0L;
+
+	private long[]		keys;
+	private Object[]	values;
+	private int			size;
+	private int			threshold;
+	private V			zeroValue;
+
+	/**
+	 * Creates a new, empty, map.
+	 */
+	public FingerprintMap() {
+		this(16);
+	}
+
+	/**
+	 * Creates a new, empty, map that can hold the given number of mappings without resizing.
+	 *
+	 * @param expectedSize	the expected number of mappings
+	 */
+	public FingerprintMap(final int expectedSize) {
+		if (expectedSize < 0)
+			throw new IllegalArgumentException("Expected size must not be negative");
+		int capacity = 4;
+		while (capacity * 3 / 4 < expectedSize)
+			capacity <<= 1;
+		allocate(capacity);
+	}
+
+	/**
+	 * Gets the value mapped to the fingerprint of the given identifier.
+	 *
+	 * @param id	the identifier
+	 * @return	the mapped value, or <code>null</code> if there is no mapping for the identifier
+	 */
+	public V get(final Identifier id) {
+		return get(IdentifierFingerprint.of(id));
+	}
+
+	/**
+	 * Gets the value mapped to the given fingerprint.
+	 *
+	 * @param fingerprint	the fingerprint
+	 * @return	the mapped value, or <code>null</code> if there is no mapping for the fingerprint
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(final long fingerprint) {
+		if (fingerprint == EMPTY)
+			return zeroValue;
+		final int i = find(fingerprint);
+		return i >= 0 ? (V) values[i] : null;
+	}
+
+	/**
+	 * Indicates whether there is a mapping for the given fingerprint.
+	 *
+	 * @param fingerprint	the fingerprint
+	 * @return	<code>true</code> if there is a mapping for the fingerprint, <code>false</code> otherwise
+	 */
+	public boolean containsKey(final long fingerprint) {
+		return fingerprint == EMPTY ? zeroValue != null : find(fingerprint) >= 0;
+	}
+
+	/**
+	 * Maps the fingerprint of the given identifier to the given value.
+	 *
+	 * @param id	the identifier
+	 * @param value	the value
+	 * @return	the value previously mapped to the fingerprint, or <code>null</code> if there was no mapping
+	 */
+	public V put(final Identifier id, final V value) {
+		return put(IdentifierFingerprint.of(id), value);
+	}
+
+	/**
+	 * Maps the given fingerprint to the given value.
+	 *
+	 * @param fingerprint	the fingerprint
+	 * @param value			the value
+	 * @return	the value previously mapped to the fingerprint, or <code>null</code> if there was no mapping
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(final long fingerprint, final V value) {
+		if (value == null)
+			throw new IllegalArgumentException("Value must not be null");
+		if (fingerprint == EMPTY) {
+			final V old = zeroValue;
+			zeroValue = value;
+			if (old == null)
+				size++;
+			return old;
+		}
+		final int mask = keys.length - 1;
+		int i = slot(fingerprint, mask);
+		while (keys[i] != EMPTY) {
+			if (keys[i] == fingerprint) {
+				final V old = (V) values[i];
+				values[i] = value;
+				return old;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = fingerprint;
+		values[i] = value;
+		if (++size > threshold)
+			rehash(keys.length << 1);
+		return null;
+	}
+
+	/**
+	 * Removes the mapping for the fingerprint of the given identifier.
+	 *
+	 * @param id	the identifier
+	 * @return	the value that was mapped to the fingerprint, or <code>null</code> if there was no mapping
+	 */
+	public V remove(final Identifier id) {
+		return remove(IdentifierFingerprint.of(id));
+	}
+
+	/**
+	 * Removes the mapping for the given fingerprint.
+	 *
+	 * @param fingerprint	the fingerprint
+	 * @return	the value that was mapped to the fingerprint, or <code>null</code> if there was no mapping
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(final long fingerprint) {
+		if (fingerprint == EMPTY) {
+			final V old = zeroValue;
+			zeroValue = null;
+			if (old != null)
+				size--;
+			return old;
+		}
+		int i = find(fingerprint);
+		if (i < 0)
+			return null;
+		final V old = (V) values[i];
+		size--;
+		// Shift following entries of the same cluster back so no tombstones are needed
+		final int mask = keys.length - 1;
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			final long k = keys[j];
+			if (k == EMPTY)
+				break;
+			final int home = slot(k, mask);
+			if ((j > i && (home <= i || home > j)) || (j < i && home <= i && home > j)) {
+				keys[i] = k;
+				values[i] = values[j];
+				i = j;
+			}
+		}
+		keys[i] = EMPTY;
+		values[i] = null;
+		return old;
+	}
+
+	/**
+	 * @return the number of mappings in the map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return <code>true</code> if the map contains no mappings, <code>false</code> otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all mappings.
+	 */
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		Arrays.fill(values, null);
+		zeroValue = null;
+		size = 0;
+	}
+
+	/**
+	 * Calls the given action for the fingerprint of each mapping in the map.
+	 *
+	 * @param action	the action to perform
+	 */
+	public void forEachKey(final LongConsumer action) {
+		if (zeroValue != null)
+			action.accept(EMPTY);
+		for (long k : keys)
+			if (k != EMPTY)
+				action.accept(k);
+	}
+
+	private int find(final long fingerprint) {
+		final int mask = keys.length - 1;
+		for (int i = slot(fingerprint, mask); keys[i] != EMPTY; i = (i + 1) & mask)
+			if (keys[i] == fingerprint)
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Gets the home slot of the given fingerprint. As fingerprints are already well distributed, the low bits are used
+	 * directly.
+	 */
+	private static int slot(final long fingerprint, final int mask) {
+		return (int) fingerprint & mask;
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		threshold = capacity * 3 / 4;
+	}
+
+	private void rehash(final int capacity) {
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		allocate(capacity);
+		final int mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			final long k = oldKeys[j];
+			if (k != EMPTY) {
+				int i = slot(k, mask);
+				while (keys[i] != EMPTY)
+					i = (i + 1) & mask;
+				keys[i] = k;
+				values[i] = oldValues[j];
+			}
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.util.Locale;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier;
+
+/**
+ * Calculates the 64-bit fingerprint of an identifier. The fingerprint is derived from the canonical form of the
+ * identifier, i.e. the scheme id and the identifier value which is folded to lower case (using {@link Locale#ROOT})
+ * when the scheme is case insensitive or when there is no scheme. Therefore identifiers that are equal have the same
+ * fingerprint. As the calculation is fully specified below the fingerprint does not depend on the JVM or the version of
+ * this library and can be stored, for example in index files.
+ * <p>The fingerprint is calculated by applying the 64-bit FNV-1a hash to the UTF-16 code units of the scheme id (if
+ * the identifier has a scheme), a 0 separator and the canonical value, where each code unit is hashed as two bytes
+ * with the low byte first, followed by the finalisation step of the 64-bit MurmurHash3 to improve the distribution of
+ * the bits. The "no-process" process identifier has the fixed fingerprint {@link #NO_PROCESS}, which is calculated in
+ * the same way over a 0xFFFF code unit and the string "{{No-Process}}".
+ * <p>NOTE: The fingerprint is a hash and different identifiers may therefore have the same fingerprint, although the
+ * chance is very small. Code using fingerprints as key should verify the identifier when a collision is not acceptable.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public final class IdentifierFingerprint {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * The fingerprint of the "no-process" process identifier
+	 */
+	public static final long NO_PROCESS = fmix(hash(hash(FNV_OFFSET, '\uffff'), "{{No-Process}}"));
+
+	private IdentifierFingerprint() {}
+
+	/**
+	 * Gets the fingerprint of the given identifier. For {@link ImmutableIdentifier}s the fingerprint is only
+	 * calculated once.
+	 *
+	 * @param id	the identifier
+	 * @return	the fingerprint of the identifier
+	 */
+	public static long of(final Identifier id) {
+		if (id instanceof ImmutableIdentifier)
+			return ((ImmutableIdentifier) id).getFingerprint();
+		else
+			return calculate(id);
+	}
+
+	/**
+	 * Calculates the fingerprint of the given identifier without using any cached value.
+	 *
+	 * @param id	the identifier
+	 * @return	the fingerprint of the identifier
+	 */
+	public static long calculate(final Identifier id) {
+		if (id == null)
+			throw new IllegalArgumentException("Identifier must be specified");
+		if (id instanceof ProcessIdentifier && ((ProcessIdentifier) id).isNoProcess())
+			return NO_PROCESS;
+		final IDScheme scheme = id.getScheme();
+		final String value = id.getValue();
+		if (value == null)
+			throw new IllegalArgumentException("Identifier has no value");
+		return of(scheme != null ? scheme.getSchemeId() : null,
+				  scheme != null && scheme.isCaseSensitive() ? value : value.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Calculates the fingerprint of the identifier with the given scheme id and canonical value.
+	 *
+	 * @param schemeId			the scheme id, <code>null</code> if the identifier has no scheme
+	 * @param canonicalValue	the identifier value, already folded to lower case if the scheme is case insensitive
+	 * @return	the fingerprint of the identifier
+	 */
+	public static long of(final String schemeId, final String canonicalValue) {
+		long h = FNV_OFFSET;
+		if (schemeId != null)
+			h = hash(h, schemeId);
+		return fmix(hash(hash(h, '\0'), canonicalValue));
+	}
+
+	private static long hash(long h, final String s) {
+		for (int i = 0; i < s.length(); i++)
+			h = hash(h, s.charAt(i));
+		return h;
+	}
+
+	private static long hash(long h, final char c) {
+		h ^= (c & 0xFF);
+		h *= FNV_PRIME;
+		h ^= (c >>> 8);
+		h *= FNV_PRIME;
+		return h;
+	}
+
+	private static long fmix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
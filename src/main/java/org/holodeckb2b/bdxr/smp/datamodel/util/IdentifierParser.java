@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.nio.ByteBuffer;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeRegistry;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierPool;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableProcessIdentifier;
+
+/**
+ * Parses identifiers from a {@link CharSequence}, a character array or a {@link ByteBuffer} containing UTF-8 encoded
+ * text, for example the raw path of a HTTP request. The text is expected to be in the format <i>[{identifier
+ * scheme}::]{id}</i> and is split in the same way as done by {@link IdentifierImpl#IdentifierImpl(String)}. When the
+ * parser is configured to handle URL encoded text, percent encoded octets are decoded as UTF-8 and "+" is decoded as a
+ * space, i.e. the inverse of {@link Identifier#getURLEncoded()}.
+ * <p>The text is decoded into a buffer that is reused for each parse, so parsing only allocates the identifier value
+ * and the resulting {@link ImmutableIdentifier}. Schemes registered in the {@link IDSchemeRegistry} are resolved
+ * without allocation. When the parser is combined with an {@link IdentifierPool} and the identifier is already
+ * pooled, parsing does not allocate any objects.
+ * <p>NOTE: As the parser uses an internal buffer instances of this class are <b>not thread safe</b>. Each thread should
+ * use its own parser.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class IdentifierParser {
+
+	/**
+	 * The pool used to get canonical identifier instances, may be <code>null</code>
+	 */
+	private final IdentifierPool	pool;
+	/**
+	 * Indicates whether the text to parse is URL encoded
+	 */
+	private final boolean			urlEncoded;
+	/**
+	 * The buffer holding the decoded text
+	 */
+	private char[]	buffer = new char[256];
+	private int		length;
+	/**
+	 * State of the UTF-8 decoder: the code point being decoded, the number of continuation bytes still needed and the
+	 * minimum value of the code point to detect overlong encodings
+	 */
+	private int		codePoint;
+	private int		pending;
+	private int		minimum;
+
+	/**
+	 * Creates a new parser for URL encoded text that does not use a pool.
+	 */
+	public IdentifierParser() {
+		this(null, true);
+	}
+
+	/**
+	 * Creates a new parser for URL encoded text that uses the given pool to get canonical identifier instances.
+	 *
+	 * @param pool	the identifier pool to use, may be <code>null</code> if no pool should be used
+	 */
+	public IdentifierParser(final IdentifierPool pool) {
+		this(pool, true);
+	}
+
+	/**
+	 * Creates a new parser that uses the given pool to get canonical identifier instances.
+	 *
+	 * @param pool			the identifier pool to use, may be <code>null</code> if no pool should be used
+	 * @param urlEncoded	indicates whether the text to parse is URL encoded
+	 */
+	public IdentifierParser(final IdentifierPool pool, final boolean urlEncoded) {
+		this.pool = pool;
+		this.urlEncoded = urlEncoded;
+	}
+
+	/**
+	 * Parses the given text into an identifier.
+	 *
+	 * @param text	the text to parse
+	 * @return	the identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public Identifier parseIdentifier(final CharSequence text) {
+		return parseIdentifier(text, 0, text.length());
+	}
+
+	/**
+	 * Parses the given range of the text into an identifier.
+	 *
+	 * @param text	the text to parse
+	 * @param start	the index of the first character to parse
+	 * @param end	the index after the last character to parse
+	 * @return	the identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public Identifier parseIdentifier(final CharSequence text, final int start, final int end) {
+		decode(text, start, end);
+		return create(false);
+	}
+
+	/**
+	 * Parses the given range of characters into an identifier.
+	 *
+	 * @param chars		the characters to parse
+	 * @param offset	the offset of the first character to parse
+	 * @param len		the number of characters to parse
+	 * @return	the identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public Identifier parseIdentifier(final char[] chars, final int offset, final int len) {
+		decode(chars, offset, len);
+		return create(false);
+	}
+
+	/**
+	 * Parses the UTF-8 encoded text between the position and limit of the given buffer into an identifier. The
+	 * position of the buffer is not changed.
+	 *
+	 * @param bytes	the buffer containing the text to parse
+	 * @return	the identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public Identifier parseIdentifier(final ByteBuffer bytes) {
+		decode(bytes);
+		return create(false);
+	}
+
+	/**
+	 * Parses the given text into a process identifier.
+	 *
+	 * @param text	the text to parse
+	 * @return	the process identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public ProcessIdentifier parseProcessIdentifier(final CharSequence text) {
+		return parseProcessIdentifier(text, 0, text.length());
+	}
+
+	/**
+	 * Parses the given range of the text into a process identifier.
+	 *
+	 * @param text	the text to parse
+	 * @param start	the index of the first character to parse
+	 * @param end	the index after the last character to parse
+	 * @return	the process identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public ProcessIdentifier parseProcessIdentifier(final CharSequence text, final int start, final int end) {
+		decode(text, start, end);
+		return (ProcessIdentifier) create(true);
+	}
+
+	/**
+	 * Parses the given range of characters into a process identifier.
+	 *
+	 * @param chars		the characters to parse
+	 * @param offset	the offset of the first character to parse
+	 * @param len		the number of characters to parse
+	 * @return	the process identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public ProcessIdentifier parseProcessIdentifier(final char[] chars, final int offset, final int len) {
+		decode(chars, offset, len);
+		return (ProcessIdentifier) create(true);
+	}
+
+	/**
+	 * Parses the UTF-8 encoded text between the position and limit of the given buffer into a process identifier. The
+	 * position of the buffer is not changed.
+	 *
+	 * @param bytes	the buffer containing the text to parse
+	 * @return	the process identifier
+	 * @throws IllegalArgumentException when the text cannot be parsed into an identifier
+	 */
+	public ProcessIdentifier parseProcessIdentifier(final ByteBuffer bytes) {
+		decode(bytes);
+		return (ProcessIdentifier) create(true);
+	}
+
+	/**
+	 * Creates the identifier from the decoded text in the buffer.
+	 *
+	 * @param process	indicates whether a process identifier should be created
+	 * @return	the identifier
+	 */
+	private Identifier create(final boolean process) {
+		int sep = -1;
+		for (int i = 1; i < length - 1 && sep < 0; i++)
+			if (buffer[i] == ':' && buffer[i + 1] == ':')
+				sep = i;
+
+		final ImmutableIDScheme scheme;
+		final int valueStart;
+		if (sep > 0) {
+			final ImmutableIDScheme registered = IDSchemeRegistry.get(buffer, 0, sep);
+			scheme = registered != null ? registered : new ImmutableIDScheme(new String(buffer, 0, sep));
+			valueStart = sep + 2;
+		} else {
+			scheme = null;
+			valueStart = 0;
+		}
+		final int valueLength = length - valueStart;
+		if (valueLength <= 0)
+			throw new IllegalArgumentException("Missing identifier value");
+
+		if (pool != null)
+			return process ? pool.getProcessIdentifier(scheme, buffer, valueStart, valueLength)
+						   : pool.getIdentifier(scheme, buffer, valueStart, valueLength);
+
+		final String value = new String(buffer, valueStart, valueLength);
+		return process ? new ImmutableProcessIdentifier(value, scheme) : new ImmutableIdentifier(value, scheme);
+	}
+
+	/**
+	 * Decodes the given range of the text into the buffer.
+	 */
+	private void decode(final CharSequence text, final int start, final int end) {
+		if (text == null)
+			throw new IllegalArgumentException("No text to parse");
+		reset(end - start);
+		for (int i = start; i < end; i++) {
+			final char c = text.charAt(i);
+			if (urlEncoded && c == '%') {
+				if (i + 2 >= end)
+					throw new IllegalArgumentException("Incomplete percent encoding");
+				decodeByte((hexValue(text.charAt(i + 1)) << 4) | hexValue(text.charAt(i + 2)));
+				i += 2;
+			} else
+				decodeChar(c);
+		}
+		finish();
+	}
+
+	/**
+	 * Decodes the given range of characters into the buffer.
+	 */
+	private void decode(final char[] chars, final int offset, final int len) {
+		if (chars == null)
+			throw new IllegalArgumentException("No text to parse");
+		reset(len);
+		final int end = offset + len;
+		for (int i = offset; i < end; i++) {
+			final char c = chars[i];
+			if (urlEncoded && c == '%') {
+				if (i + 2 >= end)
+					throw new IllegalArgumentException("Incomplete percent encoding");
+				decodeByte((hexValue(chars[i + 1]) << 4) | hexValue(chars[i + 2]));
+				i += 2;
+			} else
+				decodeChar(c);
+		}
+		finish();
+	}
+
+	/**
+	 * Decodes the UTF-8 encoded text between the position and limit of the byte buffer into the buffer.
+	 */
+	private void decode(final ByteBuffer bytes) {
+		if (bytes == null)
+			throw new IllegalArgumentException("No text to parse");
+		final int end = bytes.limit();
+		reset(end - bytes.position());
+		for (int i = bytes.position(); i < end; i++) {
+			final int b = bytes.get(i) & 0xFF;
+			if (urlEncoded && b == '%') {
+				if (i + 2 >= end)
+					throw new IllegalArgumentException("Incomplete percent encoding");
+				decodeByte((hexValue((char) (bytes.get(i + 1) & 0xFF)) << 4) | hexValue((char) (bytes.get(i + 2) & 0xFF)));
+				i += 2;
+			} else if (urlEncoded && b == '+')
+				append(' ');
+			else
+				decodeByte(b);
+		}
+		finish();
+	}
+
+	private void reset(final int maxLength) {
+		if (buffer.length < maxLength)
+			buffer = new char[Math.max(maxLength, buffer.length * 2)];
+		length = 0;
+		pending = 0;
+	}
+
+	private void finish() {
+		if (pending != 0)
+			throw new IllegalArgumentException("Incomplete UTF-8 sequence");
+	}
+
+	/**
+	 * Adds a character from a character based source to the buffer.
+	 */
+	private void decodeChar(final char c) {
+		if (pending != 0)
+			throw new IllegalArgumentException("Incomplete UTF-8 sequence");
+		append(urlEncoded && c == '+' ? ' ' : c);
+	}
+
+	/**
+	 * Processes one byte of UTF-8 encoded text.
+	 */
+	private void decodeByte(final int b) {
+		if (pending == 0) {
+			if (b < 0x80)
+				append((char) b);
+			else if ((b & 0xE0) == 0xC0) {
+				codePoint = b & 0x1F; pending = 1; minimum = 0x80;
+			} else if ((b & 0xF0) == 0xE0) {
+				codePoint = b & 0x0F; pending = 2; minimum = 0x800;
+			} else if ((b & 0xF8) == 0xF0) {
+				codePoint = b & 0x07; pending = 3; minimum = 0x10000;
+			} else
+				throw new IllegalArgumentException("Invalid UTF-8 byte");
+		} else {
+			if ((b & 0xC0) != 0x80)
+				throw new IllegalArgumentException("Invalid UTF-8 continuation byte");
+			codePoint = (codePoint << 6) | (b & 0x3F);
+			if (--pending == 0) {
+				if (codePoint < minimum || codePoint > Character.MAX_CODE_POINT
+					|| (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE))
+					throw new IllegalArgumentException("Invalid UTF-8 sequence");
+				if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT)
+					append((char) codePoint);
+				else {
+					append(Character.highSurrogate(codePoint));
+					append(Character.lowSurrogate(codePoint));
+				}
+			}
+		}
+	}
+
+	private void append(final char c) {
+		buffer[length++] = c;
+	}
+
+	private static int hexValue(final char c) {
+		if (c >= '0' && c <= '9')
+			return c - '0';
+		else if (c >= 'A' && c <= 'F')
+			return c - 'A' + 10;
+		else if (c >= 'a' && c <= 'f')
+			return c - 'a' + 10;
+		else
+			throw new IllegalArgumentException("Invalid percent encoding");
+	}
+}
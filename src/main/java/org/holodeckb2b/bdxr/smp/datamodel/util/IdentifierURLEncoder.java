@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.nio.ByteBuffer;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+
+/**
+ * Encodes identifiers into the URL encoded form used in SMP query URLs, i.e. the <code>application/x-www-form-urlencoded
+ * </code> encoding of <i>[{identifier scheme}::]{id}</i> as returned by {@link Identifier#getURLEncoded()}. The result
+ * is the same as when using {@link java.net.URLEncoder#encode(String, String)} with UTF-8, but the encoder writes
+ * directly into a caller supplied {@link StringBuilder} or {@link ByteBuffer} without creating the string
+ * representation of the identifier or any other intermediate objects.
+ * <p>For the "no-process" process identifier the string <i>{{No-Process}}</i> is encoded.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public final class IdentifierURLEncoder {
+
+	/**
+	 * The string representation of the "no-process" process identifier
+	 */
+	private static final String NO_PROCESS = "{{No-Process}}";
+	/**
+	 * The URL encoded separator between scheme and identifier value
+	 */
+	private static final String SEPARATOR = "%3A%3A";
+	/**
+	 * Indicates for each ASCII character whether it can be used as is in the URL
+	 */
+	private static final boolean[] SAFE = new boolean[128];
+	static {
+		for (char c = 'a'; c <= 'z'; c++)
+			SAFE[c] = true;
+		for (char c = 'A'; c <= 'Z'; c++)
+			SAFE[c] = true;
+		for (char c = '0'; c <= '9'; c++)
+			SAFE[c] = true;
+		SAFE['.'] = SAFE['-'] = SAFE['*'] = SAFE['_'] = true;
+	}
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private IdentifierURLEncoder() {}
+
+	/**
+	 * Gets the URL encoded form of the given identifier.
+	 *
+	 * @param id	the identifier to encode
+	 * @return	the URL encoded identifier
+	 */
+	public static String encode(final Identifier id) {
+		return encode(id, new StringBuilder(encodedLength(id))).toString();
+	}
+
+	/**
+	 * Appends the URL encoded form of the given identifier to the given string builder.
+	 *
+	 * @param id	the identifier to encode
+	 * @param sb	the string builder to append the encoded identifier to
+	 * @return	the given string builder
+	 */
+	public static StringBuilder encode(final Identifier id, final StringBuilder sb) {
+		if (id == null)
+			throw new IllegalArgumentException("Identifier must be specified");
+		if (isNoProcess(id))
+			return encode(NO_PROCESS, sb);
+		final IDScheme scheme = id.getScheme();
+		if (scheme != null)
+			encode(scheme.getSchemeId(), sb).append(SEPARATOR);
+		return encode(id.getValue(), sb);
+	}
+
+	/**
+	 * Writes the URL encoded form of the given identifier into the given byte buffer, starting at its current position.
+	 * As the encoded form only contains ASCII characters, each character is written as one byte. The position of the
+	 * buffer is advanced by the number of bytes written.
+	 *
+	 * @param id	the identifier to encode
+	 * @param buf	the byte buffer to write the encoded identifier to
+	 * @return	the given byte buffer
+	 * @throws java.nio.BufferOverflowException when the buffer does not have enough space remaining. Use {@link
+	 * 											#encodedLength(Identifier)} to check the required space in advance.
+	 */
+	public static ByteBuffer encode(final Identifier id, final ByteBuffer buf) {
+		if (id == null)
+			throw new IllegalArgumentException("Identifier must be specified");
+		if (isNoProcess(id))
+			return encode(NO_PROCESS, buf);
+		final IDScheme scheme = id.getScheme();
+		if (scheme != null) {
+			encode(scheme.getSchemeId(), buf);
+			for (int i = 0; i < SEPARATOR.length(); i++)
+				buf.put((byte) SEPARATOR.charAt(i));
+		}
+		return encode(id.getValue(), buf);
+	}
+
+	/**
+	 * Calculates the length of the URL encoded form of the given identifier.
+	 *
+	 * @param id	the identifier
+	 * @return	the number of characters (and bytes) of the URL encoded identifier
+	 */
+	public static int encodedLength(final Identifier id) {
+		if (id == null)
+			throw new IllegalArgumentException("Identifier must be specified");
+		if (isNoProcess(id))
+			return encodedLength(NO_PROCESS);
+		final IDScheme scheme = id.getScheme();
+		return (scheme != null ? encodedLength(scheme.getSchemeId()) + SEPARATOR.length() : 0)
+				+ encodedLength(id.getValue());
+	}
+
+	/**
+	 * Appends the URL encoded form of the given text to the given string builder.
+	 *
+	 * @param s		the text to encode, <code>null</code> is encoded as "null"
+	 * @param sb	the string builder to append the encoded text to
+	 * @return	the given string builder
+	 */
+	public static StringBuilder encode(final CharSequence s, final StringBuilder sb) {
+		final CharSequence text = s != null ? s : "null";
+		final int len = text.length();
+		for (int i = 0; i < len; i++) {
+			final char c = text.charAt(i);
+			if (c < 0x80) {
+				if (SAFE[c])
+					sb.append(c);
+				else if (c == ' ')
+					sb.append('+');
+				else
+					appendEscaped(c, sb);
+			} else if (c < 0x800) {
+				appendEscaped(0xC0 | (c >> 6), sb);
+				appendEscaped(0x80 | (c & 0x3F), sb);
+			} else if (!Character.isSurrogate(c)) {
+				appendEscaped(0xE0 | (c >> 12), sb);
+				appendEscaped(0x80 | ((c >> 6) & 0x3F), sb);
+				appendEscaped(0x80 | (c & 0x3F), sb);
+			} else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(text.charAt(i + 1))) {
+				final int cp = Character.toCodePoint(c, text.charAt(++i));
+				appendEscaped(0xF0 | (cp >> 18), sb);
+				appendEscaped(0x80 | ((cp >> 12) & 0x3F), sb);
+				appendEscaped(0x80 | ((cp >> 6) & 0x3F), sb);
+				appendEscaped(0x80 | (cp & 0x3F), sb);
+			} else
+				// Unpaired surrogates are replaced by '?', as done by the UTF-8 encoder
+				appendEscaped('?', sb);
+		}
+		return sb;
+	}
+
+	/**
+	 * Writes the URL encoded form of the given text into the given byte buffer, starting at its current position.
+	 *
+	 * @param s		the text to encode, <code>null</code> is encoded as "null"
+	 * @param buf	the byte buffer to write the encoded text to
+	 * @return	the given byte buffer
+	 * @throws java.nio.BufferOverflowException when the buffer does not have enough space remaining
+	 */
+	public static ByteBuffer encode(final CharSequence s, final ByteBuffer buf) {
+		final CharSequence text = s != null ? s : "null";
+		final int len = text.length();
+		for (int i = 0; i < len; i++) {
+			final char c = text.charAt(i);
+			if (c < 0x80) {
+				if (SAFE[c])
+					buf.put((byte) c);
+				else if (c == ' ')
+					buf.put((byte) '+');
+				else
+					putEscaped(c, buf);
+			} else if (c < 0x800) {
+				putEscaped(0xC0 | (c >> 6), buf);
+				putEscaped(0x80 | (c & 0x3F), buf);
+			} else if (!Character.isSurrogate(c)) {
+				putEscaped(0xE0 | (c >> 12), buf);
+				putEscaped(0x80 | ((c >> 6) & 0x3F), buf);
+				putEscaped(0x80 | (c & 0x3F), buf);
+			} else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(text.charAt(i + 1))) {
+				final int cp = Character.toCodePoint(c, text.charAt(++i));
+				putEscaped(0xF0 | (cp >> 18), buf);
+				putEscaped(0x80 | ((cp >> 12) & 0x3F), buf);
+				putEscaped(0x80 | ((cp >> 6) & 0x3F), buf);
+				putEscaped(0x80 | (cp & 0x3F), buf);
+			} else
+				putEscaped('?', buf);
+		}
+		return buf;
+	}
+
+	/**
+	 * Calculates the length of the URL encoded form of the given text.
+	 *
+	 * @param s		the text, <code>null</code> is encoded as "null"
+	 * @return	the number of characters (and bytes) of the URL encoded text
+	 */
+	public static int encodedLength(final CharSequence s) {
+		final CharSequence text = s != null ? s : "null";
+		final int len = text.length();
+		int n = 0;
+		for (int i = 0; i < len; i++) {
+			final char c = text.charAt(i);
+			if (c < 0x80)
+				n += SAFE[c] || c == ' ' ? 1 : 3;
+			else if (c < 0x800)
+				n += 6;
+			else if (!Character.isSurrogate(c))
+				n += 9;
+			else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(text.charAt(i + 1))) {
+				n += 12;
+				i++;
+			} else
+				n += 3;
+		}
+		return n;
+	}
+
+	private static boolean isNoProcess(final Identifier id) {
+		return id instanceof ProcessIdentifier && ((ProcessIdentifier) id).isNoProcess();
+	}
+
+	private static void appendEscaped(final int b, final StringBuilder sb) {
+		sb.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+	}
+
+	private static void putEscaped(final int b, final ByteBuffer buf) {
+		buf.put((byte) '%').put((byte) HEX[(b >> 4) & 0xF]).put((byte) HEX[b & 0xF]);
+	}
+}
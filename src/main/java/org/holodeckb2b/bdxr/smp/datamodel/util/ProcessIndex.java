@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableProcessIdentifier;
+
+/**
+ * Is a pre-compiled index of the processes and roles of a {@link ProcessGroup} to quickly check whether the group
+ * supports a process, with the same semantics as <code>ProcessGroupImpl.supportsProcess()</code>: a group without
+ * processes supports all processes and a process without roles supports all roles. The "no-process" process identifier
+ * is handled like any other process identifier.
+ * <p>The index is keyed by the {@link IdentifierFingerprint}s of the canonical process and role identifiers and
+ * matches are verified by comparing the identifiers. When the identifiers used for the look up are {@link
+ * ImmutableIdentifier}s, checking a process does not allocate any objects.
+ * <p>The index is a snapshot of the process group at the time of creation, later changes to the process group are not
+ * reflected in the index. Instances of this class are unmodifiable and thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class ProcessIndex {
+
+	/**
+	 * The processes in the index with their roles. Different processes with the same fingerprint are chained.
+	 */
+	private static final class Entry {
+		final ImmutableProcessIdentifier	processId;
+		boolean								anyRole;
+		long[]								roleFingerprints = new long[0];
+		ImmutableIdentifier[]				roles = new ImmutableIdentifier[0];
+		Entry								next;
+
+		Entry(final ImmutableProcessIdentifier processId) {
+			this.processId = processId;
+		}
+
+		void addRoles(final Collection<? extends Identifier> add) {
+			if (add == null || add.isEmpty()) {
+				anyRole = true;
+				return;
+			}
+			for (Identifier r : add) {
+				final ImmutableIdentifier role = r instanceof ImmutableIdentifier ? (ImmutableIdentifier) r
+																				   : new ImmutableIdentifier(r);
+				if (indexOf(role.getFingerprint(), role) < 0) {
+					roleFingerprints = Arrays.copyOf(roleFingerprints, roleFingerprints.length + 1);
+					roleFingerprints[roleFingerprints.length - 1] = role.getFingerprint();
+					roles = Arrays.copyOf(roles, roles.length + 1);
+					roles[roles.length - 1] = role;
+				}
+			}
+		}
+
+		int indexOf(final long fingerprint, final Identifier role) {
+			for (int i = 0; i < roleFingerprints.length; i++)
+				if (roleFingerprints[i] == fingerprint && role.equals(roles[i]))
+					return i;
+			return -1;
+		}
+	}
+
+	private final FingerprintMap<Entry>	processes;
+	private final boolean				anyProcess;
+
+	/**
+	 * Creates the index for the given process group.
+	 *
+	 * @param group	the process group
+	 */
+	public ProcessIndex(final ProcessGroup group) {
+		this(checkGroup(group).getProcessInfo());
+	}
+
+	/**
+	 * Creates the index for the given collection of process meta-data.
+	 *
+	 * @param processInfo	the process meta-data, may be <code>null</code> or empty to indicate all processes are
+	 * 						supported
+	 */
+	public ProcessIndex(final Collection<? extends ProcessInfo> processInfo) {
+		this.anyProcess = processInfo == null || processInfo.isEmpty();
+		this.processes = new FingerprintMap<>(anyProcess ? 0 : processInfo.size());
+		if (!anyProcess)
+			for (ProcessInfo pi : processInfo) {
+				final ProcessIdentifier pid = pi.getProcessId();
+				if (pid == null)
+					throw new IllegalArgumentException("Process info without process identifier");
+				final ImmutableProcessIdentifier processId = ImmutableProcessIdentifier.of(pid);
+				final long fp = processId.getFingerprint();
+				Entry e = processes.get(fp);
+				while (e != null && !e.processId.equals(processId))
+					e = e.next;
+				if (e == null) {
+					e = new Entry(processId);
+					e.next = processes.get(fp);
+					processes.put(fp, e);
+				}
+				e.addRoles(pi.getRoles());
+			}
+	}
+
+	private static ProcessGroup checkGroup(final ProcessGroup group) {
+		if (group == null)
+			throw new IllegalArgumentException("Process group must be specified");
+		return group;
+	}
+
+	/**
+	 * Checks whether the given process is supported and, if a role is specified, the participant plays that role in
+	 * the process.
+	 *
+	 * @param processId	identifier of the process to check
+	 * @param role		role the participant should play in the process, may be <code>null</code>
+	 * @return	<code>true</code> if the index contains no processes or includes the given process with either no roles
+	 * 			or the specified role,<br><code>false</code> otherwise
+	 */
+	public boolean supports(final Identifier processId, final Identifier role) {
+		if (anyProcess)
+			return true;
+		if (processId == null)
+			throw new IllegalArgumentException("Process identifier must be specified");
+		Entry e = processes.get(IdentifierFingerprint.of(processId));
+		while (e != null && !processId.equals(e.processId))
+			e = e.next;
+		if (e == null)
+			return false;
+		return role == null || e.anyRole || e.indexOf(IdentifierFingerprint.of(role), role) >= 0;
+	}
+
+	/**
+	 * @return <code>true</code> if the index contains no processes and therefore supports all processes
+	 */
+	public boolean supportsAllProcesses() {
+		return anyProcess;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableIdentifier;
+
+/**
+ * Builds the URLs for querying the <i>ServiceGroup</i> and <i>ServiceMetadata</i> of a participant from an SMP server,
+ * i.e. <i>{base URL}/{participant}</i> and <i>{base URL}/{participant}/services/{service}</i> for the PEPPOL and OASIS
+ * SMP V1 specifications and the same paths prefixed with <i>/bdxr-smp-2</i> for the OASIS SMP V2 specification.
+ * <p>As the number of document types (services) is limited and they are used for many queries, the URL encoded path
+ * segments of the identifiers are cached. The cache is bounded and is cleared when it reaches its maximum size. The
+ * URL is assembled in a per thread buffer, so the only allocated object is the resulting string. Instances of this
+ * class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class SMPQueryPathBuilder {
+	/**
+	 * The versions of the SMP specification, which determine the format of the query path
+	 */
+	public enum Version {
+		/**
+		 * The PEPPOL and OASIS SMP V1 specifications
+		 */
+		V1(""),
+		/**
+		 * The OASIS SMP V2 specification
+		 */
+		V2("/bdxr-smp-2");
+
+		private final String prefix;
+
+		Version(final String prefix) {
+			this.prefix = prefix;
+		}
+
+		/**
+		 * @return the prefix of the query paths of this version
+		 */
+		public String getPathPrefix() {
+			return prefix;
+		}
+	}
+
+	/**
+	 * The default maximum number of encoded path segments in the cache
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 4096;
+
+	private static final String SERVICES = "/services/";
+
+	/**
+	 * Per thread buffer used to assemble the URLs
+	 */
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+	/**
+	 * The base URL including the version specific path prefix, without trailing slash
+	 */
+	private final String	base;
+	private final Version	version;
+	private final int		maxCacheSize;
+	/**
+	 * The cache of encoded path segments. Keys are unmodifiable copies of the identifiers so cached entries cannot be
+	 * invalidated by changes to the identifier objects used for building the URL.
+	 */
+	private final ConcurrentHashMap<Identifier, String> segments = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new builder for the given base URL and version of the SMP specification using the default cache size.
+	 *
+	 * @param baseURL	the base URL of the SMP server
+	 * @param version	the version of the SMP specification
+	 */
+	public SMPQueryPathBuilder(final String baseURL, final Version version) {
+		this(baseURL, version, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a new builder for the given base URL and version of the SMP specification.
+	 *
+	 * @param baseURL		the base URL of the SMP server, may be empty to only build the path
+	 * @param version		the version of the SMP specification
+	 * @param maxCacheSize	the maximum number of encoded path segments to cache, 0 to disable caching
+	 */
+	public SMPQueryPathBuilder(final String baseURL, final Version version, final int maxCacheSize) {
+		if (baseURL == null)
+			throw new IllegalArgumentException("Base URL must be specified");
+		if (version == null)
+			throw new IllegalArgumentException("Version must be specified");
+		if (maxCacheSize < 0)
+			throw new IllegalArgumentException("Cache size must not be negative");
+		final String b = baseURL.endsWith("/") ? baseURL.substring(0, baseURL.length() - 1) : baseURL;
+		this.base = b + version.getPathPrefix();
+		this.version = version;
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * @return the version of the SMP specification the URLs are build for
+	 */
+	public Version getVersion() {
+		return version;
+	}
+
+	/**
+	 * Builds the URL for querying the <i>ServiceGroup</i> of the given participant.
+	 *
+	 * @param participant	the participant identifier
+	 * @return	the query URL
+	 */
+	public String buildServiceGroupURL(final Identifier participant) {
+		final String p = getSegment(participant);
+		final StringBuilder sb = buffer();
+		return sb.append(base).append('/').append(p).toString();
+	}
+
+	/**
+	 * Builds the URL for querying the <i>ServiceMetadata</i> of the given participant and service.
+	 *
+	 * @param participant	the participant identifier
+	 * @param service		the service (document type) identifier
+	 * @return	the query URL
+	 */
+	public String buildServiceMetadataURL(final Identifier participant, final Identifier service) {
+		final String p = getSegment(participant);
+		final String s = getSegment(service);
+		final StringBuilder sb = buffer();
+		return sb.append(base).append('/').append(p).append(SERVICES).append(s).toString();
+	}
+
+	/**
+	 * Gets the encoded path segment for the given identifier.
+	 *
+	 * @param id	the identifier
+	 * @return	the URL encoded identifier
+	 */
+	public String getSegment(final Identifier id) {
+		if (id == null)
+			throw new IllegalArgumentException("Identifier must be specified");
+		// Unmodifiable identifiers already hold their encoded form
+		if (id instanceof ImmutableIdentifier || maxCacheSize == 0)
+			return id.getURLEncoded();
+
+		String segment = segments.get(id);
+		if (segment == null) {
+			segment = IdentifierURLEncoder.encode(id);
+			if (segments.size() >= maxCacheSize)
+				segments.clear();
+			segments.put(new ImmutableIdentifier(id), segment);
+		}
+		return segment;
+	}
+
+	/**
+	 * Removes all cached path segments.
+	 */
+	public void clearCache() {
+		segments.clear();
+	}
+
+	private static StringBuilder buffer() {
+		final StringBuilder sb = BUFFER.get();
+		sb.setLength(0);
+		return sb;
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Function;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+
+/**
+ * Is an index of the validity periods of endpoints or certificates to quickly select the items that are active at a
+ * certain moment. An item is active at instant <i>t</i> when its activation date is before or equal to <i>t</i> and
+ * its expiration date is after <i>t</i>. A missing activation or expiration date means the validity period is
+ * unbounded on that side.
+ * <p>The validity periods are converted to epoch milliseconds when the index is created and stored in arrays sorted by
+ * activation date, together with the maximum expiration date of all items activated before. Selecting the active items
+ * therefore only needs a binary search and a scan of the items activated before <i>t</i> that stops as soon as no
+ * earlier item can still be active, which keeps the selection fast when there are many expired items, for example
+ * rolled-over certificates. The selection methods do not allocate any objects.
+ * <p>The index is a snapshot of the items at the time of creation. Instances of this class are unmodifiable and thread
+ * safe.
+ *
+ * @param <T>	the type of the items in the index
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class ValidityIndex<T> {
+
+	private final Object[]	items;
+	private final long[]	starts;
+	private final long[]	ends;
+	/**
+	 * For each position the maximum expiration of the items up to and including that position
+	 */
+	private final long[]	maxEnds;
+
+	/**
+	 * Creates a new index of the given items.
+	 *
+	 * @param items			the items to index, may be <code>null</code>
+	 * @param activation	function to get the activation date of an item
+	 * @param expiration	function to get the expiration date of an item
+	 */
+	public ValidityIndex(final Collection<? extends T> items, final Function<? super T, ZonedDateTime> activation,
+						 final Function<? super T, ZonedDateTime> expiration) {
+		final int n = items != null ? items.size() : 0;
+		final Object[] unsorted = n > 0 ? items.toArray() : new Object[0];
+		final long[] s = new long[n], e = new long[n];
+		final Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			final T item = (T) unsorted[i];
+			final ZonedDateTime a = activation.apply(item), x = expiration.apply(item);
+			s[i] = a != null ? a.toInstant().toEpochMilli() : Long.MIN_VALUE;
+			e[i] = x != null ? x.toInstant().toEpochMilli() : Long.MAX_VALUE;
+			order[i] = i;
+		}
+		// Stable sort keeps the original order of items with the same activation date
+		Arrays.sort(order, Comparator.comparingLong(i -> s[i]));
+
+		this.items = new Object[n];
+		this.starts = new long[n];
+		this.ends = new long[n];
+		this.maxEnds = new long[n];
+		long max = Long.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			this.items[i] = unsorted[order[i]];
+			this.starts[i] = s[order[i]];
+			this.ends[i] = e[order[i]];
+			max = Math.max(max, ends[i]);
+			this.maxEnds[i] = max;
+		}
+	}
+
+	/**
+	 * Creates an index of the validity periods of the given endpoints.
+	 *
+	 * @param endpoints	the endpoints, may be <code>null</code>
+	 * @return	the validity index of the endpoints
+	 */
+	public static <E extends EndpointInfo> ValidityIndex<E> forEndpoints(final Collection<? extends E> endpoints) {
+		return new ValidityIndex<>(endpoints, EndpointInfo::getServiceActivationDate,
+								   EndpointInfo::getServiceExpirationDate);
+	}
+
+	/**
+	 * Creates an index of the validity periods of the given certificates.
+	 *
+	 * @param certificates	the certificates, may be <code>null</code>
+	 * @return	the validity index of the certificates
+	 */
+	public static <C extends Certificate> ValidityIndex<C> forCertificates(final Collection<? extends C> certificates) {
+		return new ValidityIndex<>(certificates, Certificate::getActivationDate, Certificate::getExpirationDate);
+	}
+
+	/**
+	 * @return the number of items in the index
+	 */
+	public int size() {
+		return items.length;
+	}
+
+	/**
+	 * Counts the items that are active at the given instant.
+	 *
+	 * @param t	the instant, in milliseconds since the epoch
+	 * @return	the number of active items
+	 */
+	public int countActive(final long t) {
+		int count = 0;
+		for (int i = lastStartedBefore(t); i >= 0 && maxEnds[i] > t; i--)
+			if (ends[i] > t)
+				count++;
+		return count;
+	}
+
+	/**
+	 * Indicates whether any item is active at the given instant.
+	 *
+	 * @param t	the instant, in milliseconds since the epoch
+	 * @return	<code>true</code> if at least one item is active, <code>false</code> otherwise
+	 */
+	public boolean isAnyActive(final long t) {
+		final int i = lastStartedBefore(t);
+		return i >= 0 && maxEnds[i] > t;
+	}
+
+	/**
+	 * Gets the active item at the given instant that was activated last. For certificates this is the most recent
+	 * certificate in a roll-over.
+	 *
+	 * @param t	the instant, in milliseconds since the epoch
+	 * @return	the active item with the latest activation date, or <code>null</code> if no item is active
+	 */
+	@SuppressWarnings("unchecked")
+	public T getLatestActive(final long t) {
+		for (int i = lastStartedBefore(t); i >= 0 && maxEnds[i] > t; i--)
+			if (ends[i] > t)
+				return (T) items[i];
+		return null;
+	}
+
+	/**
+	 * Adds the items that are active at the given instant to the given collection, ordered from the latest to the
+	 * earliest activation date.
+	 *
+	 * @param t		the instant, in milliseconds since the epoch
+	 * @param out	the collection to add the active items to
+	 * @return	the number of active items added
+	 */
+	@SuppressWarnings("unchecked")
+	public int selectActive(final long t, final Collection<? super T> out) {
+		int count = 0;
+		for (int i = lastStartedBefore(t); i >= 0 && maxEnds[i] > t; i--)
+			if (ends[i] > t) {
+				out.add((T) items[i]);
+				count++;
+			}
+		return count;
+	}
+
+	/**
+	 * Gets the position of the last item that was activated at or before the given instant.
+	 *
+	 * @param t	the instant
+	 * @return	the position of the item, or -1 when all items are activated after <code>t</code>
+	 */
+	private int lastStartedBefore(final long t) {
+		int lo = 0, hi = starts.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (starts[mid] <= t)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo - 1;
+	}
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * This package contains utility classes for processing the SMP meta-data represented by the interfaces of the {@link
+ * org.holodeckb2b.bdxr.smp.datamodel} package, like parsing and encoding identifiers. The classes are written for use
+ * on the hot paths of SMP clients and servers and therefore try to avoid object allocations where possible.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.xml;
+
+/**
+ * Enumerates the XML formats of the SMP documents.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public enum SMPFormat {
+	/**
+	 * The format used in the PEPPOL network, based on the BusDox specifications
+	 */
+	PEPPOL,
+	/**
+	 * The format defined in version 1.0 of the OASIS SMP specification
+	 */
+	OASIS_V1,
+	/**
+	 * The format defined in version 2.0 of the OASIS SMP specification
+	 */
+	OASIS_V2
+}
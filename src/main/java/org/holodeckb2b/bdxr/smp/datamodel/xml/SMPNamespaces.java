@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.xml;
+
+/**
+ * Defines the XML namespaces used by the PEPPOL, OASIS SMP V1 and OASIS SMP V2 formats and the identifiers these
+ * formats use for the "no-process" process identifier.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+final class SMPNamespaces {
+
+	/**
+	 * The namespace of the PEPPOL SMP documents
+	 */
+	static final String PEPPOL = "http://busdox.org/serviceMetadata/publishing/1.0/";
+	/**
+	 * The namespace of the identifiers in PEPPOL SMP documents
+	 */
+	static final String PEPPOL_IDS = "http://busdox.org/transport/identifiers/1.0/";
+	/**
+	 * The WS-Addressing namespace, used for the endpoint reference in PEPPOL SMP documents
+	 */
+	static final String WSA = "http://www.w3.org/2005/08/addressing";
+	/**
+	 * The namespace of XML signatures
+	 */
+	static final String XMLDSIG = "http://www.w3.org/2000/09/xmldsig#";
+	/**
+	 * The namespace of the OASIS SMP V1 documents
+	 */
+	static final String OASIS_V1 = "http://docs.oasis-open.org/bdxr/ns/SMP/2016/05";
+	/**
+	 * The namespaces of the OASIS SMP V2 documents and components
+	 */
+	static final String V2_SERVICE_METADATA = "http://docs.oasis-open.org/bdxr/ns/SMP/2/ServiceMetadata";
+	static final String V2_SERVICE_GROUP = "http://docs.oasis-open.org/bdxr/ns/SMP/2/ServiceGroup";
+	static final String V2_BASIC = "http://docs.oasis-open.org/bdxr/ns/SMP/2/BasicComponents";
+	static final String V2_AGGREGATE = "http://docs.oasis-open.org/bdxr/ns/SMP/2/AggregateComponents";
+	static final String V2_EXTENSION = "http://docs.oasis-open.org/bdxr/ns/SMP/2/ExtensionComponents";
+	/**
+	 * The value of the "no-process" process identifier in PEPPOL SMP documents
+	 */
+	static final String PEPPOL_NO_PROCESS = "busdox:noprocess";
+	/**
+	 * The value of the "no-process" process identifier in OASIS SMP documents
+	 */
+	static final String OASIS_NO_PROCESS = "bdx:noprocess";
+
+	private SMPNamespaces() {}
+}
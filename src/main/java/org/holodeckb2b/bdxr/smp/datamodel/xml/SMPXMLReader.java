@@ -0,0 +1,738 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.xml;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.OASIS_NO_PROCESS;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.OASIS_V1;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.PEPPOL;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.PEPPOL_NO_PROCESS;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.V2_SERVICE_GROUP;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.V2_SERVICE_METADATA;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.XMLDSIG;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EndpointInfoV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierPool;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ImmutableProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessIdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessInfoImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.RedirectionV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.RedirectionV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceMetadataImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceReferenceImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceMetadataImpl;
+
+/**
+ * Reads the XML documents of the PEPPOL, OASIS SMP V1 and OASIS SMP V2 formats into the implementation classes of the
+ * data model. The document is read using a StAX parser, so only the objects of the data model are kept in memory and
+ * not a DOM tree of the document. The supported documents are:<ul>
+ * <li>the PEPPOL and OASIS SMP V1 <code>ServiceGroup</code>, read into a {@link ServiceGroupV1Impl}</li>
+ * <li>the PEPPOL and OASIS SMP V1 <code>ServiceMetadata</code>, read into a {@link ServiceMetadataImpl}, and
+ * <code>SignedServiceMetadata</code>, read into a {@link SignedServiceMetadataImpl} that includes the certificate
+ * from the <code>KeyInfo/X509Data</code> of the signature. Each <code>Process</code> becomes a process group with
+ * {@link EndpointInfoV1Impl}s. A <code>Redirect</code> becomes a single process group containing the {@link
+ * RedirectionV1Impl}, of which the <i>Subject Unique Identifier</i> contains the bits of the UTF-8 encoded
+ * <code>CertificateUID</code>.</li>
+ * <li>the OASIS SMP V2 <code>ServiceGroup</code>, read into a {@link ServiceGroupV2Impl}</li>
+ * <li>the OASIS SMP V2 <code>ServiceMetadata</code>, read into a {@link ServiceMetadataImpl}</li></ul>
+ * <p>The certificates are read into {@link EncodedCertificateImpl}s and are only parsed when used, except for the
+ * certificate of a V2 redirection. Extensions are skipped, as their content is not defined by the data model. Except
+ * for the signing certificate the reader skips the XML signature of the document and does <b>not</b> validate it. The
+ * result of the reader must therefore only be trusted when the signature has been validated by other means. Elements
+ * that are not known to the reader are ignored.
+ * <p>DTDs and external entities are not supported, so documents containing them are rejected. When the reader is
+ * created with an {@link IdentifierPool} the identifiers are taken from the pool, otherwise new {@link
+ * IdentifierImpl} and {@link ProcessIdentifierImpl} instances are created.
+ * <p>Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+public class SMPXMLReader {
+
+	/**
+	 * The factories used to create the StAX parsers. The problems the parser reports instead of throwing an exception
+	 * are turned into an exception, so they are not printed to the console and the document is rejected.
+	 */
+	private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(() -> {
+		final XMLInputFactory f = XMLInputFactory.newFactory();
+		f.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+		f.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		f.setXMLReporter((message, type, info, location) -> {
+			throw new XMLStreamException(message, location);
+		});
+		return f;
+	});
+
+	private final IdentifierPool	pool;
+
+	/**
+	 * Creates a new reader that reads the identifiers into new identifier instances.
+	 */
+	public SMPXMLReader() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new reader that reads the identifiers into the canonical instances from the given pool.
+	 *
+	 * @param pool	the pool to get the identifiers from, may be <code>null</code> to create new identifier instances
+	 */
+	public SMPXMLReader(final IdentifierPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Reads the SMP document from the given stream. The stream is not closed.
+	 *
+	 * @param is	the stream to read the document from
+	 * @return	the service group or service meta-data contained in the document
+	 * @throws IOException	when the stream cannot be read or does not contain a valid SMP document
+	 */
+	public QueryResult read(final InputStream is) throws IOException {
+		XMLStreamReader xr = null;
+		try {
+			xr = FACTORY.get().createXMLStreamReader(is);
+			final QueryResult r = new Parser(xr).readDocument();
+			while (xr.hasNext())
+				xr.next();
+			return r;
+		} catch (XMLStreamException invalidXML) {
+			throw new IOException("Invalid XML document", invalidXML);
+		} finally {
+			if (xr != null)
+				try {
+					xr.close();
+				} catch (XMLStreamException ignored) {}
+		}
+	}
+
+	/**
+	 * Reads the SMP document from the given stream and checks that it contains the expected type of query result. The
+	 * stream is not closed.
+	 *
+	 * @param <T>	the expected type of query result
+	 * @param is	the stream to read the document from
+	 * @param type	the expected type of query result
+	 * @return	the query result contained in the document
+	 * @throws IOException	when the stream cannot be read, does not contain a valid SMP document or the document does
+	 * 						not contain the expected type of query result
+	 */
+	public <T extends QueryResult> T read(final InputStream is, final Class<T> type) throws IOException {
+		final QueryResult r = read(is);
+		if (!type.isInstance(r))
+			throw new IOException("Document does not contain a " + type.getSimpleName() + " but a "
+									+ r.getClass().getSimpleName());
+		return type.cast(r);
+	}
+
+	/**
+	 * Holds the state of reading a single document.
+	 */
+	private final class Parser {
+		final XMLStreamReader	xr;
+
+		Parser(final XMLStreamReader xr) {
+			this.xr = xr;
+		}
+
+		QueryResult readDocument() throws XMLStreamException, IOException {
+			xr.nextTag();
+			final String ns = xr.getNamespaceURI(), name = xr.getLocalName();
+			if (PEPPOL.equals(ns) || OASIS_V1.equals(ns)) {
+				switch (name) {
+				case "ServiceGroup" :
+					return readServiceGroupV1();
+				case "SignedServiceMetadata" :
+					return readSignedServiceMetadataV1();
+				case "ServiceMetadata" :
+					return readServiceMetadataV1();
+				}
+			} else if (V2_SERVICE_METADATA.equals(ns) && "ServiceMetadata".equals(name))
+				return readServiceMetadataV2();
+			else if (V2_SERVICE_GROUP.equals(ns) && "ServiceGroup".equals(name))
+				return readServiceGroupV2();
+
+			throw new IOException("Unsupported document: {" + ns + "}" + name);
+		}
+
+		ServiceGroupV1Impl readServiceGroupV1() throws XMLStreamException, IOException {
+			final ServiceGroupV1Impl sg = new ServiceGroupV1Impl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ParticipantIdentifier" :
+					sg.setParticipantId(readIdentifier(false));
+					break;
+				case "ServiceMetadataReferenceCollection" :
+					while (nextChild()) {
+						if ("ServiceMetadataReference".equals(xr.getLocalName()))
+							sg.addServiceReference(toURL(requiredAttribute("href")));
+						skip();
+					}
+					break;
+				default:
+					skip();
+				}
+			}
+			if (sg.getParticipantId() == null)
+				throw new IOException("Service group without participant identifier");
+			return sg;
+		}
+
+		SignedServiceMetadataImpl readSignedServiceMetadataV1() throws XMLStreamException, IOException {
+			ServiceMetadataImpl smd = null;
+			String cert = null;
+			while (nextChild()) {
+				if ("ServiceMetadata".equals(xr.getLocalName()))
+					smd = readServiceMetadataV1();
+				else if (cert == null && "Signature".equals(xr.getLocalName())
+						&& XMLDSIG.equals(xr.getNamespaceURI()))
+					cert = readSigningCertificate();
+				else
+					skip();
+			}
+			if (smd == null)
+				throw new IOException("Signed service meta-data without service meta-data");
+			try {
+				return new SignedServiceMetadataImpl(smd,
+										cert != null ? toCertificate(cert, null, null, null, null).getX509Cert() : null);
+			} catch (IllegalStateException invalidCert) {
+				throw new IOException("Invalid signing certificate", invalidCert);
+			}
+		}
+
+		/**
+		 * Reads the first <code>KeyInfo/X509Data/X509Certificate</code> of the current <code>ds:Signature</code>
+		 * element. The signature itself is skipped and not validated.
+		 *
+		 * @return the base64 encoded signing certificate, <code>null</code> if the signature does not include one
+		 */
+		String readSigningCertificate() throws XMLStreamException {
+			String cert = null;
+			while (nextChild()) {
+				if (cert != null || !"KeyInfo".equals(xr.getLocalName())) {
+					skip();
+					continue;
+				}
+				while (nextChild()) {
+					if (cert != null || !"X509Data".equals(xr.getLocalName())) {
+						skip();
+						continue;
+					}
+					while (nextChild()) {
+						if (cert == null && "X509Certificate".equals(xr.getLocalName()))
+							cert = readText();
+						else
+							skip();
+					}
+				}
+			}
+			return cert;
+		}
+
+		ServiceMetadataImpl readServiceMetadataV1() throws XMLStreamException, IOException {
+			ServiceMetadataImpl smd = null;
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ServiceInformation" :
+					smd = readServiceInformation();
+					break;
+				case "Redirect" :
+					smd = new ServiceMetadataImpl();
+					smd.addProcessGroup(new ProcessGroupImpl(null, readRedirectV1(), null));
+					break;
+				default:
+					skip();
+				}
+			}
+			if (smd == null)
+				throw new IOException("Service meta-data without service information or redirect");
+			return smd;
+		}
+
+		ServiceMetadataImpl readServiceInformation() throws XMLStreamException, IOException {
+			final ServiceMetadataImpl smd = new ServiceMetadataImpl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ParticipantIdentifier" :
+					smd.setParticipantId(readIdentifier(false));
+					break;
+				case "DocumentIdentifier" :
+					smd.setServiceId(readIdentifier(false));
+					break;
+				case "ProcessList" :
+					while (nextChild()) {
+						if ("Process".equals(xr.getLocalName()))
+							smd.addProcessGroup(readProcessV1());
+						else
+							skip();
+					}
+					break;
+				default:
+					skip();
+				}
+			}
+			if (smd.getParticipantId() == null || smd.getServiceId() == null)
+				throw new IOException("Service information without participant or document identifier");
+			return smd;
+		}
+
+		ProcessGroupImpl readProcessV1() throws XMLStreamException, IOException {
+			final ProcessGroupImpl pg = new ProcessGroupImpl();
+			ProcessIdentifier procId = null;
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ProcessIdentifier" :
+					procId = (ProcessIdentifier) readIdentifier(true);
+					break;
+				case "ServiceEndpointList" :
+					while (nextChild()) {
+						if ("Endpoint".equals(xr.getLocalName()))
+							pg.addEndpoint(readEndpointV1());
+						else
+							skip();
+					}
+					break;
+				default:
+					skip();
+				}
+			}
+			if (procId == null)
+				throw new IOException("Process without process identifier");
+			pg.addProcessInfo(new ProcessInfoImpl(procId, null));
+			return pg;
+		}
+
+		EndpointInfoV1Impl readEndpointV1() throws XMLStreamException, IOException {
+			final EndpointInfoV1Impl ep = new EndpointInfoV1Impl();
+			ep.setTransportProfile(requiredAttribute("transportProfile"));
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "EndpointReference" :
+					while (nextChild()) {
+						if ("Address".equals(xr.getLocalName()))
+							ep.setEndpointURL(toURL(readText()));
+						else
+							skip();
+					}
+					break;
+				case "EndpointURI" :
+					ep.setEndpointURL(toURL(readText()));
+					break;
+				case "RequireBusinessLevelSignature" :
+					ep.setBusinessLevelSignatureRequired(readBoolean());
+					break;
+				case "MinimumAuthenticationLevel" :
+					ep.setMinimumAuthenticationLevel(readText());
+					break;
+				case "ServiceActivationDate" :
+					ep.setServiceActivationDate(readDate());
+					break;
+				case "ServiceExpirationDate" :
+					ep.setServiceExpirationDate(readDate());
+					break;
+				case "Certificate" :
+					final String cert = readText();
+					if (cert != null)
+						ep.addCertificate(toCertificate(cert, null, null, null, null));
+					break;
+				case "ServiceDescription" :
+					ep.setDescription(readText());
+					break;
+				case "TechnicalContactUrl" :
+					ep.setContactInfo(readText());
+					break;
+				case "TechnicalInformationUrl" :
+					ep.setTechnicalInformationURL(toURL(readText()));
+					break;
+				default:
+					skip();
+				}
+			}
+			if (ep.getEndpointURL() == null)
+				throw new IOException("Endpoint without address");
+			return ep;
+		}
+
+		RedirectionV1Impl readRedirectV1() throws XMLStreamException, IOException {
+			final URL target = toURL(requiredAttribute("href"));
+			boolean[] subjectUID = null;
+			while (nextChild()) {
+				if ("CertificateUID".equals(xr.getLocalName())) {
+					final String uid = readText();
+					subjectUID = uid != null ? toBits(uid.getBytes(StandardCharsets.UTF_8)) : null;
+				} else
+					skip();
+			}
+			return new RedirectionV1Impl(target, subjectUID);
+		}
+
+		ServiceGroupV2Impl readServiceGroupV2() throws XMLStreamException, IOException {
+			final ServiceGroupV2Impl sg = new ServiceGroupV2Impl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ParticipantID" :
+					sg.setParticipantId(readIdentifier(false));
+					break;
+				case "ServiceReference" :
+					sg.addServiceReference(readServiceReference());
+					break;
+				default:
+					skip();
+				}
+			}
+			if (sg.getParticipantId() == null)
+				throw new IOException("Service group without participant identifier");
+			return sg;
+		}
+
+		ServiceReferenceImpl readServiceReference() throws XMLStreamException, IOException {
+			final ServiceReferenceImpl ref = new ServiceReferenceImpl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ID" :
+					ref.setServiceId(readIdentifier(false));
+					break;
+				case "Process" :
+					ref.addProcessInfo(readProcessV2());
+					break;
+				default:
+					skip();
+				}
+			}
+			if (ref.getServiceId() == null)
+				throw new IOException("Service reference without service identifier");
+			return ref;
+		}
+
+		ServiceMetadataImpl readServiceMetadataV2() throws XMLStreamException, IOException {
+			final ServiceMetadataImpl smd = new ServiceMetadataImpl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ID" :
+					smd.setServiceId(readIdentifier(false));
+					break;
+				case "ParticipantID" :
+					smd.setParticipantId(readIdentifier(false));
+					break;
+				case "ProcessMetadata" :
+					smd.addProcessGroup(readProcessMetadata());
+					break;
+				default:
+					skip();
+				}
+			}
+			if (smd.getParticipantId() == null || smd.getServiceId() == null)
+				throw new IOException("Service meta-data without participant or service identifier");
+			return smd;
+		}
+
+		ProcessGroupImpl readProcessMetadata() throws XMLStreamException, IOException {
+			final ProcessGroupImpl pg = new ProcessGroupImpl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "Process" :
+					pg.addProcessInfo(readProcessV2());
+					break;
+				case "Endpoint" :
+					if (pg.getRedirection() != null)
+						throw new IOException("Process meta-data contains both endpoints and a redirect");
+					pg.addEndpoint(readEndpointV2());
+					break;
+				case "Redirect" :
+					if (!pg.getEndpoints().isEmpty())
+						throw new IOException("Process meta-data contains both endpoints and a redirect");
+					pg.setRedirection(readRedirectV2());
+					break;
+				default:
+					skip();
+				}
+			}
+			return pg;
+		}
+
+		ProcessInfoImpl readProcessV2() throws XMLStreamException, IOException {
+			final ProcessInfoImpl pi = new ProcessInfoImpl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "ID" :
+					pi.setProcessId((ProcessIdentifier) readIdentifier(true));
+					break;
+				case "RoleID" :
+					pi.addRole(readIdentifier(false));
+					break;
+				default:
+					skip();
+				}
+			}
+			if (pi.getProcessId() == null)
+				throw new IOException("Process without process identifier");
+			return pi;
+		}
+
+		EndpointInfoImpl readEndpointV2() throws XMLStreamException, IOException {
+			final EndpointInfoImpl ep = new EndpointInfoImpl();
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "TransportProfileID" :
+					ep.setTransportProfile(readText());
+					break;
+				case "Description" :
+					ep.setDescription(readText());
+					break;
+				case "Contact" :
+					ep.setContactInfo(readText());
+					break;
+				case "AddressURI" :
+					ep.setEndpointURL(toURL(readText()));
+					break;
+				case "ActivationDate" :
+					ep.setServiceActivationDate(readDate());
+					break;
+				case "ExpirationDate" :
+					ep.setServiceExpirationDate(readDate());
+					break;
+				case "Certificate" :
+					ep.addCertificate(readCertificateV2());
+					break;
+				default:
+					skip();
+				}
+			}
+			if (ep.getTransportProfile() == null)
+				throw new IOException("Endpoint without transport profile");
+			return ep;
+		}
+
+		RedirectionV2Impl readRedirectV2() throws XMLStreamException, IOException {
+			URL target = null;
+			EncodedCertificateImpl cert = null;
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "PublisherURI" :
+					target = toURL(readText());
+					break;
+				case "Certificate" :
+					final EncodedCertificateImpl c = readCertificateV2();
+					if (cert == null)
+						cert = c;
+					break;
+				default:
+					skip();
+				}
+			}
+			if (target == null)
+				throw new IOException("Redirect without publisher URI");
+			try {
+				return new RedirectionV2Impl(target, cert != null ? cert.getX509Cert() : null);
+			} catch (IllegalStateException invalidCert) {
+				throw new IOException("Invalid certificate", invalidCert);
+			}
+		}
+
+		EncodedCertificateImpl readCertificateV2() throws XMLStreamException, IOException {
+			String usage = null, description = null, content = null;
+			ZonedDateTime activation = null, expiration = null;
+			while (nextChild()) {
+				switch (xr.getLocalName()) {
+				case "TypeCode" :
+					usage = readText();
+					break;
+				case "Description" :
+					description = readText();
+					break;
+				case "ActivationDate" :
+					activation = readDate();
+					break;
+				case "ExpirationDate" :
+					expiration = readDate();
+					break;
+				case "ContentBinaryObject" :
+					content = readText();
+					break;
+				default:
+					skip();
+				}
+			}
+			return toCertificate(content, usage, activation, expiration, description);
+		}
+
+		/**
+		 * Reads the identifier contained in the current element. The scheme is taken from either the
+		 * <code>schemeID</code> (V2) or <code>scheme</code> (V1) attribute.
+		 */
+		Identifier readIdentifier(final boolean process) throws XMLStreamException, IOException {
+			String schemeId = xr.getAttributeValue(null, "schemeID");
+			if (schemeId == null)
+				schemeId = xr.getAttributeValue(null, "scheme");
+			final String value = readText();
+			if (value == null)
+				throw new IOException("Identifier without value");
+			if (process && (PEPPOL_NO_PROCESS.equalsIgnoreCase(value) || OASIS_NO_PROCESS.equalsIgnoreCase(value)))
+				return pool != null ? ImmutableProcessIdentifier.NO_PROCESS : new ProcessIdentifierImpl();
+			else if (pool != null)
+				return process ? pool.getProcessIdentifier(value, schemeId) : pool.getIdentifier(value, schemeId);
+			else
+				return process ? new ProcessIdentifierImpl(value, schemeId) : new IdentifierImpl(value, schemeId);
+		}
+
+		/**
+		 * Moves to the next child element of the current element.
+		 *
+		 * @return <code>true</code> when positioned at the start of the next child element, <code>false</code> when
+		 * 			the end of the current element was reached
+		 */
+		boolean nextChild() throws XMLStreamException {
+			for (;;) {
+				switch (xr.next()) {
+				case XMLStreamConstants.START_ELEMENT :
+					return true;
+				case XMLStreamConstants.END_ELEMENT :
+					return false;
+				case XMLStreamConstants.END_DOCUMENT :
+					throw new XMLStreamException("Unexpected end of document");
+				}
+			}
+		}
+
+		/**
+		 * Skips the current element, including all of its content.
+		 */
+		void skip() throws XMLStreamException {
+			int depth = 1;
+			while (depth > 0) {
+				final int event = xr.next();
+				if (event == XMLStreamConstants.START_ELEMENT)
+					depth++;
+				else if (event == XMLStreamConstants.END_ELEMENT)
+					depth--;
+			}
+		}
+
+		/**
+		 * Reads the text of the current element, which must not contain child elements.
+		 *
+		 * @return	the trimmed text, or <code>null</code> if the element is empty
+		 */
+		String readText() throws XMLStreamException {
+			final String text = xr.getElementText().trim();
+			return text.isEmpty() ? null : text;
+		}
+
+		String requiredAttribute(final String name) throws IOException {
+			final String value = xr.getAttributeValue(null, name);
+			if (value == null || value.trim().isEmpty())
+				throw new IOException("Missing " + name + " attribute on " + xr.getLocalName());
+			return value.trim();
+		}
+
+		Boolean readBoolean() throws XMLStreamException, IOException {
+			final String text = readText();
+			if (text == null)
+				return null;
+			switch (text) {
+			case "true" :
+			case "1" :
+				return Boolean.TRUE;
+			case "false" :
+			case "0" :
+				return Boolean.FALSE;
+			default:
+				throw new IOException("Invalid boolean value: " + text);
+			}
+		}
+
+		/**
+		 * Reads a date or date time value. When the value does not include a time zone UTC is assumed and a date is
+		 * converted to the start of the day.
+		 */
+		ZonedDateTime readDate() throws XMLStreamException, IOException {
+			final String text = readText();
+			if (text == null)
+				return null;
+			try {
+				if (text.indexOf('T') > 0) {
+					final TemporalAccessor t = DateTimeFormatter.ISO_DATE_TIME.parseBest(text, ZonedDateTime::from,
+																						 LocalDateTime::from);
+					return t instanceof ZonedDateTime ? (ZonedDateTime) t
+													  : ((LocalDateTime) t).atZone(ZoneOffset.UTC);
+				} else {
+					final TemporalAccessor t = DateTimeFormatter.ISO_DATE.parse(text);
+					return LocalDate.from(t).atStartOfDay(t.isSupported(ChronoField.OFFSET_SECONDS) ?
+												ZoneOffset.ofTotalSeconds(t.get(ChronoField.OFFSET_SECONDS))
+												: ZoneOffset.UTC);
+				}
+			} catch (DateTimeParseException invalid) {
+				throw new IOException("Invalid date: " + text, invalid);
+			}
+		}
+
+		EncodedCertificateImpl toCertificate(final String base64, final String usage, final ZonedDateTime activation,
+											 final ZonedDateTime expiration, final String description)
+																							throws IOException {
+			if (base64 == null)
+				throw new IOException("Certificate without content");
+			try {
+				return new EncodedCertificateImpl(base64, usage, activation, expiration, description, null);
+			} catch (IllegalArgumentException invalid) {
+				throw new IOException("Invalid certificate content", invalid);
+			}
+		}
+	}
+
+	private static URL toURL(final String url) throws IOException {
+		if (url == null)
+			return null;
+		try {
+			return new URL(url);
+		} catch (MalformedURLException invalid) {
+			throw new IOException("Invalid URL: " + url, invalid);
+		}
+	}
+
+	private static boolean[] toBits(final byte[] bytes) {
+		final boolean[] bits = new boolean[bytes.length * 8];
+		for (int i = 0; i < bits.length; i++)
+			bits[i] = (bytes[i >> 3] & (0x80 >>> (i & 7))) != 0;
+		return bits;
+	}
+}
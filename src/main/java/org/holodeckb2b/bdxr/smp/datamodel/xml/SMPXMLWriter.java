@@ -0,0 +1,732 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.xml;
+
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.OASIS_NO_PROCESS;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.OASIS_V1;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.PEPPOL;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.PEPPOL_IDS;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.PEPPOL_NO_PROCESS;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.V2_AGGREGATE;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.V2_BASIC;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.V2_SERVICE_GROUP;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.V2_SERVICE_METADATA;
+import static org.holodeckb2b.bdxr.smp.datamodel.xml.SMPNamespaces.WSA;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.holodeckb2b.bdxr.smp.datamodel.Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.IDScheme;
+import org.holodeckb2b.bdxr.smp.datamodel.Identifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessIdentifier;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV1;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceGroupV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.EncodedCertificateImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeRegistry;
+
+/**
+ * Writes service groups and service meta-data as XML documents in the PEPPOL, OASIS SMP V1 or OASIS SMP V2 format
+ * directly to an {@link OutputStream}. The document is written as UTF-8 without building a DOM tree or using a
+ * generic XML serializer, the constant parts of the document like the element names and namespace declarations are
+ * encoded once when the class is loaded. The base64 encoded form of the certificates is cached per certificate, using
+ * its fingerprint, so certificates included in many documents are encoded only once.
+ * <p>The writer creates the unsigned documents, i.e. for service meta-data in the PEPPOL and OASIS SMP V1 format the
+ * <code>ServiceMetadata</code> element. Signing the document is left to the caller. Extensions are not written as
+ * their content is not defined by the data model. As the V1 formats only support one certificate per endpoint and a
+ * redirection of the complete service meta-data, only the first certificate of an endpoint is written and service
+ * meta-data with a redirection must consist of just that redirection. The time stamps are written as
+ * <code>xs:dateTime</code> in the V1 formats and as <code>xs:date</code> in the V2 format.
+ * <p>Instances of this class are thread safe.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ * @see SMPXMLReader
+ */
+public class SMPXMLWriter {
+
+	/**
+	 * The default maximum number of certificates of which the base64 encoded form is cached
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
+	private static final byte[] XML_DECLARATION = ascii("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+	private static final byte[] ATTR_END = ascii("\">");
+	private static final byte[] EMPTY_END = ascii("\"/>");
+	private static final byte[] AMP = ascii("&amp;"), LT = ascii("&lt;"), GT = ascii("&gt;"), QUOT = ascii("&quot;");
+	private static final byte[] TRUE = ascii("true"), FALSE = ascii("false");
+
+	/**
+	 * The element names and other constant fragments of the PEPPOL and OASIS SMP V1 formats
+	 */
+	private static final V1Fragments PEPPOL_FRAGMENTS = new V1Fragments(true);
+	private static final V1Fragments OASIS_V1_FRAGMENTS = new V1Fragments(false);
+
+	/**
+	 * The element names of the OASIS SMP V2 format, using "cbc" for the basic and "cac" for the aggregate components
+	 */
+	private static final byte[] V2_SMD_START = ascii("<ServiceMetadata xmlns=\"" + V2_SERVICE_METADATA
+													+ "\" xmlns:cbc=\"" + V2_BASIC + "\" xmlns:cac=\"" + V2_AGGREGATE
+													+ "\"><cbc:SMPVersionID>2.0</cbc:SMPVersionID>");
+	private static final byte[] V2_SMD_END = ascii("</ServiceMetadata>");
+	private static final byte[] V2_SG_START = ascii("<ServiceGroup xmlns=\"" + V2_SERVICE_GROUP
+													+ "\" xmlns:cbc=\"" + V2_BASIC + "\" xmlns:cac=\"" + V2_AGGREGATE
+													+ "\"><cbc:SMPVersionID>2.0</cbc:SMPVersionID>");
+	private static final byte[] V2_SG_END = ascii("</ServiceGroup>");
+	private static final byte[] V2_SCHEME_ATTR = ascii(" schemeID=\"");
+	private static final byte[] V2_NO_PROCESS = ascii(" schemeID=\"" + IDSchemeRegistry.OASIS_PROCID_TRANSPORT + "\">"
+														+ OASIS_NO_PROCESS);
+	private static final Tag V2_ID = new Tag("cbc", "ID");
+	private static final Tag V2_PARTICIPANT_ID = new Tag("cbc", "ParticipantID");
+	private static final Tag V2_ROLE_ID = new Tag("cbc", "RoleID");
+	private static final Tag V2_SERVICE_REFERENCE = new Tag("cac", "ServiceReference");
+	private static final Tag V2_PROCESS_METADATA = new Tag("cac", "ProcessMetadata");
+	private static final Tag V2_PROCESS = new Tag("cac", "Process");
+	private static final Tag V2_ENDPOINT = new Tag("cac", "Endpoint");
+	private static final Tag V2_TRANSPORT_PROFILE = new Tag("cbc", "TransportProfileID");
+	private static final Tag V2_DESCRIPTION = new Tag("cbc", "Description");
+	private static final Tag V2_CONTACT = new Tag("cbc", "Contact");
+	private static final Tag V2_ADDRESS_URI = new Tag("cbc", "AddressURI");
+	private static final Tag V2_ACTIVATION_DATE = new Tag("cbc", "ActivationDate");
+	private static final Tag V2_EXPIRATION_DATE = new Tag("cbc", "ExpirationDate");
+	private static final Tag V2_CERTIFICATE = new Tag("cac", "Certificate");
+	private static final Tag V2_TYPE_CODE = new Tag("cbc", "TypeCode");
+	private static final byte[] V2_CONTENT_START = ascii("<cbc:ContentBinaryObject mimeCode=\"application/base64\">");
+	private static final byte[] V2_CONTENT_END = ascii("</cbc:ContentBinaryObject>");
+	private static final Tag V2_REDIRECT = new Tag("cac", "Redirect");
+	private static final Tag V2_PUBLISHER_URI = new Tag("cbc", "PublisherURI");
+
+	private final SMPFormat	format;
+	/**
+	 * The cache of base64 encoded certificates, indexed by their fingerprint
+	 */
+	private final Map<ByteBuffer, byte[]>	base64Cache;
+
+	/**
+	 * Creates a new writer for the given format that uses the default cache size for the encoded certificates.
+	 *
+	 * @param format	the format of the documents to write
+	 */
+	public SMPXMLWriter(final SMPFormat format) {
+		this(format, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a new writer for the given format that caches the base64 encoded form of at most the given number of
+	 * certificates.
+	 *
+	 * @param format	the format of the documents to write
+	 * @param cacheSize	the maximum number of cached certificates, 0 to disable caching
+	 */
+	public SMPXMLWriter(final SMPFormat format, final int cacheSize) {
+		if (format == null)
+			throw new IllegalArgumentException("Format must be specified");
+		if (cacheSize < 0)
+			throw new IllegalArgumentException("Cache size must not be negative");
+		this.format = format;
+		this.base64Cache = new LinkedHashMap<ByteBuffer, byte[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ByteBuffer, byte[]> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Gets the format of the documents written by this writer.
+	 *
+	 * @return	the format
+	 */
+	public SMPFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * Writes the given service group or service meta-data as XML document to the given stream. The stream is not
+	 * closed.
+	 *
+	 * @param result	the service group or service meta-data to write
+	 * @param os		the stream to write the document to
+	 * @throws IOException	when the document cannot be written to the stream
+	 * @throws IllegalArgumentException when the query result cannot be represented in the format of this writer, or it
+	 * 									contains a certificate that cannot be encoded or a text with characters that
+	 * 									are not allowed in XML
+	 */
+	public void write(final QueryResult result, final OutputStream os) throws IOException {
+		if (result == null)
+			throw new IllegalArgumentException("Query result must be specified");
+		final Output out = new Output(os);
+		out.raw(XML_DECLARATION);
+		if (format == SMPFormat.OASIS_V2) {
+			if (result instanceof ServiceMetadata)
+				out.writeServiceMetadataV2((ServiceMetadata) result);
+			else if (result instanceof ServiceGroupV2)
+				out.writeServiceGroupV2((ServiceGroupV2) result);
+			else
+				throw new IllegalArgumentException("Cannot write a " + result.getClass().getSimpleName()
+													+ " in the OASIS SMP V2 format");
+		} else {
+			final V1Fragments f = format == SMPFormat.PEPPOL ? PEPPOL_FRAGMENTS : OASIS_V1_FRAGMENTS;
+			if (result instanceof ServiceMetadata)
+				out.writeServiceMetadataV1(f, (ServiceMetadata) result);
+			else if (result instanceof ServiceGroupV1)
+				out.writeServiceGroupV1(f, (ServiceGroupV1) result);
+			else
+				throw new IllegalArgumentException("Cannot write a " + result.getClass().getSimpleName()
+													+ " in the " + format + " format");
+		}
+		out.flush();
+	}
+
+	/**
+	 * Gets the base64 encoded form of the given certificate, from the cache when available.
+	 */
+	private byte[] base64(final Certificate cert) {
+		final byte[] fingerprint = cert.getFingerprint();
+		if (fingerprint == null)
+			return null;
+		final ByteBuffer key = ByteBuffer.wrap(fingerprint);
+		byte[] encoded = cached(key);
+		if (encoded == null)
+			encoded = cache(key, Base64.getEncoder().encode(cert instanceof EncodedCertificateImpl ?
+																	((EncodedCertificateImpl) cert).getEncoded()
+																  : der(cert.getX509Cert())));
+		return encoded;
+	}
+
+	/**
+	 * Gets the base64 encoded form of the given X509 certificate, from the cache when available. The certificate is
+	 * cached using the same fingerprint as {@link Certificate#getFingerprint()}, so it shares the cache entry with the
+	 * certificate meta-data of the same certificate.
+	 */
+	private byte[] base64(final X509Certificate cert) {
+		final byte[] der = der(cert);
+		final ByteBuffer key;
+		try {
+			key = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(der));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Could not calculate certificate fingerprint", e);
+		}
+		final byte[] encoded = cached(key);
+		return encoded != null ? encoded : cache(key, Base64.getEncoder().encode(der));
+	}
+
+	private byte[] cached(final ByteBuffer key) {
+		synchronized (base64Cache) {
+			return base64Cache.get(key);
+		}
+	}
+
+	private byte[] cache(final ByteBuffer key, final byte[] encoded) {
+		synchronized (base64Cache) {
+			base64Cache.put(key, encoded);
+		}
+		return encoded;
+	}
+
+	private static byte[] der(final X509Certificate cert) {
+		try {
+			return cert.getEncoded();
+		} catch (CertificateEncodingException e) {
+			throw new IllegalArgumentException("Could not encode certificate", e);
+		}
+	}
+
+	/**
+	 * Writes a single document into an internal buffer that is flushed to the stream when full.
+	 */
+	private final class Output {
+		final OutputStream	os;
+		final byte[]		buf = new byte[8192];
+		int					pos;
+
+		Output(final OutputStream os) {
+			this.os = os;
+		}
+
+		void writeServiceGroupV1(final V1Fragments f, final ServiceGroupV1 sg) throws IOException {
+			raw(f.serviceGroupStart);
+			writeIdentifier(f.participantIdentifier, f.schemeAttr, sg.getParticipantId(), false);
+			raw(f.referenceCollection.start);
+			final Collection<? extends URL> refs = sg.getServiceReferences();
+			if (refs != null)
+				for (URL ref : refs) {
+					raw(f.reference.startOpen);
+					raw(f.hrefAttr);
+					text(ref.toExternalForm());
+					raw(EMPTY_END);
+				}
+			raw(f.referenceCollection.end);
+			raw(f.serviceGroupEnd);
+		}
+
+		void writeServiceMetadataV1(final V1Fragments f, final ServiceMetadata smd) throws IOException {
+			raw(f.serviceMetadataStart);
+			final Redirection redirect = getV1Redirection(smd);
+			if (redirect != null) {
+				raw(f.redirect.startOpen);
+				raw(f.hrefAttr);
+				text(redirect.getNewSMPURL().toExternalForm());
+				raw(ATTR_END);
+				raw(f.certificateUID.start);
+				if (redirect instanceof RedirectionV1 && ((RedirectionV1) redirect).getSMPSubjectUniqueID() != null)
+					text(toText(((RedirectionV1) redirect).getSMPSubjectUniqueID()));
+				raw(f.certificateUID.end);
+				raw(f.redirect.end);
+			} else {
+				raw(f.serviceInformation.start);
+				writeIdentifier(f.participantIdentifier, f.schemeAttr, smd.getParticipantId(), false);
+				writeIdentifier(f.documentIdentifier, f.schemeAttr, smd.getServiceId(), false);
+				raw(f.processList.start);
+				final Collection<? extends ProcessGroup> groups = smd.getProcessMetadata();
+				if (groups != null)
+					for (ProcessGroup pg : groups) {
+						final Collection<? extends ProcessInfo> procs = pg.getProcessInfo();
+						if (procs != null)
+							for (ProcessInfo pi : procs) {
+								raw(f.process.start);
+								writeProcessIdentifier(f, pi.getProcessId());
+								raw(f.endpointList.start);
+								final Collection<? extends EndpointInfo> endpoints = pg.getEndpoints();
+								if (endpoints != null)
+									for (EndpointInfo ep : endpoints)
+										writeEndpointV1(f, ep);
+								raw(f.endpointList.end);
+								raw(f.process.end);
+							}
+					}
+				raw(f.processList.end);
+				raw(f.serviceInformation.end);
+			}
+			raw(f.serviceMetadataEnd);
+		}
+
+		/**
+		 * Gets the redirection of service meta-data that is written in a V1 format, which must be the only process
+		 * group of the service meta-data.
+		 */
+		Redirection getV1Redirection(final ServiceMetadata smd) {
+			final Collection<? extends ProcessGroup> groups = smd.getProcessMetadata();
+			if (groups == null)
+				return null;
+			Redirection redirect = null;
+			for (ProcessGroup pg : groups)
+				if (pg.getRedirection() != null) {
+					if (groups.size() > 1)
+						throw new IllegalArgumentException("A redirection must be the only process group in the "
+															+ format + " format");
+					redirect = pg.getRedirection();
+				}
+			return redirect;
+		}
+
+		void writeProcessIdentifier(final V1Fragments f, final ProcessIdentifier pid) throws IOException {
+			if (pid != null && pid.isNoProcess()) {
+				raw(f.processIdentifier.startOpen);
+				raw(f.noProcess);
+				raw(f.processIdentifier.end);
+			} else
+				writeIdentifier(f.processIdentifier, f.schemeAttr, pid, false);
+		}
+
+		void writeEndpointV1(final V1Fragments f, final EndpointInfo ep) throws IOException {
+			raw(f.endpoint.startOpen);
+			raw(f.transportProfileAttr);
+			text(ep.getTransportProfile());
+			raw(ATTR_END);
+			raw(f.addressStart);
+			if (ep.getEndpointURL() != null)
+				text(ep.getEndpointURL().toExternalForm());
+			raw(f.addressEnd);
+			final EndpointInfoV1 epv1 = ep instanceof EndpointInfoV1 ? (EndpointInfoV1) ep : null;
+			raw(f.requireBLS.start);
+			raw(epv1 != null && Boolean.TRUE.equals(epv1.getBusinessLevelSignatureRequired()) ? TRUE : FALSE);
+			raw(f.requireBLS.end);
+			if (epv1 != null)
+				writeOptional(f.minAuthLevel, epv1.getMinimumAuthenticationLevel());
+			writeDate(f.activationDate, ep.getServiceActivationDate(), DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+			writeDate(f.expirationDate, ep.getServiceExpirationDate(), DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+			raw(f.certificate.start);
+			final Collection<? extends Certificate> certs = ep.getCertificates();
+			if (certs != null) {
+				final Iterator<? extends Certificate> it = certs.iterator();
+				if (it.hasNext()) {
+					final byte[] b64 = base64(it.next());
+					if (b64 != null)
+						raw(b64);
+				}
+			}
+			raw(f.certificate.end);
+			writeRequired(f.serviceDescription, ep.getDescription());
+			writeRequired(f.technicalContact, ep.getContactInfo());
+			if (epv1 != null && epv1.getTechnicalInformationURL() != null)
+				writeOptional(f.technicalInformation, epv1.getTechnicalInformationURL().toExternalForm());
+			raw(f.endpoint.end);
+		}
+
+		void writeServiceGroupV2(final ServiceGroupV2 sg) throws IOException {
+			raw(V2_SG_START);
+			writeIdentifier(V2_PARTICIPANT_ID, V2_SCHEME_ATTR, sg.getParticipantId(), false);
+			final Collection<? extends ServiceReference> refs = sg.getServiceReferences();
+			if (refs != null)
+				for (ServiceReference ref : refs) {
+					raw(V2_SERVICE_REFERENCE.start);
+					writeIdentifier(V2_ID, V2_SCHEME_ATTR, ref.getServiceId(), false);
+					writeProcessesV2(ref.getProcessInfo());
+					raw(V2_SERVICE_REFERENCE.end);
+				}
+			raw(V2_SG_END);
+		}
+
+		void writeServiceMetadataV2(final ServiceMetadata smd) throws IOException {
+			raw(V2_SMD_START);
+			writeIdentifier(V2_ID, V2_SCHEME_ATTR, smd.getServiceId(), false);
+			writeIdentifier(V2_PARTICIPANT_ID, V2_SCHEME_ATTR, smd.getParticipantId(), false);
+			final Collection<? extends ProcessGroup> groups = smd.getProcessMetadata();
+			if (groups != null)
+				for (ProcessGroup pg : groups) {
+					raw(V2_PROCESS_METADATA.start);
+					writeProcessesV2(pg.getProcessInfo());
+					final Redirection redirect = pg.getRedirection();
+					if (redirect != null) {
+						raw(V2_REDIRECT.start);
+						writeRequired(V2_PUBLISHER_URI, redirect.getNewSMPURL().toExternalForm());
+						if (redirect instanceof RedirectionV2 && ((RedirectionV2) redirect).getSMPCertificate() != null) {
+							raw(V2_CERTIFICATE.start);
+							raw(V2_TYPE_CODE.empty);
+							raw(V2_CONTENT_START);
+							raw(base64(((RedirectionV2) redirect).getSMPCertificate()));
+							raw(V2_CONTENT_END);
+							raw(V2_CERTIFICATE.end);
+						}
+						raw(V2_REDIRECT.end);
+					} else if (pg.getEndpoints() != null)
+						for (EndpointInfo ep : pg.getEndpoints())
+							writeEndpointV2(ep);
+					raw(V2_PROCESS_METADATA.end);
+				}
+			raw(V2_SMD_END);
+		}
+
+		void writeProcessesV2(final Collection<? extends ProcessInfo> procs) throws IOException {
+			if (procs == null)
+				return;
+			for (ProcessInfo pi : procs) {
+				raw(V2_PROCESS.start);
+				final ProcessIdentifier pid = pi.getProcessId();
+				if (pid != null && pid.isNoProcess()) {
+					raw(V2_ID.startOpen);
+					raw(V2_NO_PROCESS);
+					raw(V2_ID.end);
+				} else
+					writeIdentifier(V2_ID, V2_SCHEME_ATTR, pid, false);
+				final Collection<? extends Identifier> roles = pi.getRoles();
+				if (roles != null)
+					for (Identifier role : roles)
+						writeIdentifier(V2_ROLE_ID, V2_SCHEME_ATTR, role, true);
+				raw(V2_PROCESS.end);
+			}
+		}
+
+		void writeEndpointV2(final EndpointInfo ep) throws IOException {
+			raw(V2_ENDPOINT.start);
+			writeRequired(V2_TRANSPORT_PROFILE, ep.getTransportProfile());
+			writeOptional(V2_DESCRIPTION, ep.getDescription());
+			writeOptional(V2_CONTACT, ep.getContactInfo());
+			writeRequired(V2_ADDRESS_URI, ep.getEndpointURL() != null ? ep.getEndpointURL().toExternalForm() : null);
+			writeDate(V2_ACTIVATION_DATE, ep.getServiceActivationDate(), DateTimeFormatter.ISO_OFFSET_DATE);
+			writeDate(V2_EXPIRATION_DATE, ep.getServiceExpirationDate(), DateTimeFormatter.ISO_OFFSET_DATE);
+			final Collection<? extends Certificate> certs = ep.getCertificates();
+			if (certs != null)
+				for (Certificate c : certs) {
+					final byte[] b64 = base64(c);
+					if (b64 == null)
+						continue;
+					raw(V2_CERTIFICATE.start);
+					writeRequired(V2_TYPE_CODE, c.getUsage());
+					writeOptional(V2_DESCRIPTION, c.getDescription());
+					writeDate(V2_ACTIVATION_DATE, c.getActivationDate(), DateTimeFormatter.ISO_OFFSET_DATE);
+					writeDate(V2_EXPIRATION_DATE, c.getExpirationDate(), DateTimeFormatter.ISO_OFFSET_DATE);
+					raw(V2_CONTENT_START);
+					raw(b64);
+					raw(V2_CONTENT_END);
+					raw(V2_CERTIFICATE.end);
+				}
+			raw(V2_ENDPOINT.end);
+		}
+
+		/**
+		 * Writes the identifier as element with the given tag, including the scheme attribute when the identifier
+		 * has a scheme. When the identifier is <code>null</code> the element is not written if it is optional.
+		 *
+		 * @throws IllegalArgumentException when a required identifier is <code>null</code>
+		 */
+		void writeIdentifier(final Tag tag, final byte[] schemeAttr, final Identifier id, final boolean optional)
+																								throws IOException {
+			if (id == null) {
+				if (!optional)
+					throw new IllegalArgumentException("Required identifier " + tag.qname + " is not specified");
+				return;
+			}
+			final IDScheme scheme = id.getScheme();
+			if (scheme != null) {
+				raw(tag.startOpen);
+				raw(schemeAttr);
+				text(scheme.getSchemeId());
+				raw(ATTR_END);
+			} else
+				raw(tag.start);
+			text(id.getValue());
+			raw(tag.end);
+		}
+
+		void writeRequired(final Tag tag, final String value) throws IOException {
+			if (value == null)
+				raw(tag.empty);
+			else {
+				raw(tag.start);
+				text(value);
+				raw(tag.end);
+			}
+		}
+
+		void writeOptional(final Tag tag, final String value) throws IOException {
+			if (value != null) {
+				raw(tag.start);
+				text(value);
+				raw(tag.end);
+			}
+		}
+
+		void writeDate(final Tag tag, final ZonedDateTime d, final DateTimeFormatter formatter) throws IOException {
+			if (d != null) {
+				raw(tag.start);
+				text(formatter.format(d));
+				raw(tag.end);
+			}
+		}
+
+		void raw(final byte[] b) throws IOException {
+			if (b.length > buf.length - pos) {
+				flush();
+				if (b.length > buf.length) {
+					os.write(b);
+					return;
+				}
+			}
+			System.arraycopy(b, 0, buf, pos, b.length);
+			pos += b.length;
+		}
+
+		/**
+		 * Writes the given text as UTF-8, escaping the characters that have a special meaning in XML. Nothing is
+		 * written when the text is <code>null</code>.
+		 */
+		void text(final String s) throws IOException {
+			if (s == null)
+				return;
+			for (int i = 0, n = s.length(); i < n; i++) {
+				if (buf.length - pos < 4)
+					flush();
+				final char c = s.charAt(i);
+				if (c < 0x80) {
+					switch (c) {
+					case '&' :
+						raw(AMP);
+						break;
+					case '<' :
+						raw(LT);
+						break;
+					case '>' :
+						raw(GT);
+						break;
+					case '"' :
+						raw(QUOT);
+						break;
+					default:
+						if (c < 0x20 && c != '\t' && c != '\n' && c != '\r')
+							throw new IllegalArgumentException("Character not allowed in XML: 0x"
+																+ Integer.toHexString(c));
+						buf[pos++] = (byte) c;
+					}
+				} else if (c < 0x800) {
+					buf[pos++] = (byte) (0xC0 | (c >> 6));
+					buf[pos++] = (byte) (0x80 | (c & 0x3F));
+				} else if (Character.isSurrogate(c)) {
+					if (!Character.isHighSurrogate(c) || i + 1 == n || !Character.isLowSurrogate(s.charAt(i + 1)))
+						throw new IllegalArgumentException("Unpaired surrogate character");
+					final int cp = Character.toCodePoint(c, s.charAt(++i));
+					buf[pos++] = (byte) (0xF0 | (cp >> 18));
+					buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+					buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+					buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+				} else {
+					if (c >= 0xFFFE)
+						throw new IllegalArgumentException("Character not allowed in XML: 0x"
+															+ Integer.toHexString(c));
+					buf[pos++] = (byte) (0xE0 | (c >> 12));
+					buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					buf[pos++] = (byte) (0x80 | (c & 0x3F));
+				}
+			}
+		}
+
+		void flush() throws IOException {
+			if (pos > 0) {
+				os.write(buf, 0, pos);
+				pos = 0;
+			}
+		}
+	}
+
+	/**
+	 * Holds the pre-encoded start, end and empty element tags of an element.
+	 */
+	private static final class Tag {
+		/**
+		 * The complete start tag, the start tag without the closing bracket for adding attributes, the end tag and
+		 * the empty element tag
+		 */
+		final byte[] start, startOpen, end, empty;
+		/**
+		 * The qualified name of the element
+		 */
+		final String qname;
+
+		Tag(final String prefix, final String name) {
+			qname = prefix != null ? prefix + ':' + name : name;
+			start = ascii('<' + qname + '>');
+			startOpen = ascii('<' + qname);
+			end = ascii("</" + qname + '>');
+			empty = ascii('<' + qname + "/>");
+		}
+	}
+
+	/**
+	 * Holds the pre-encoded fragments of the PEPPOL or OASIS SMP V1 format. The PEPPOL format uses the "smp", "ids"
+	 * and "wsa" prefixes, the OASIS format uses the default namespace.
+	 */
+	private static final class V1Fragments {
+		final byte[] serviceGroupStart, serviceGroupEnd, serviceMetadataStart, serviceMetadataEnd;
+		final byte[] addressStart, addressEnd, noProcess;
+		final byte[] schemeAttr = ascii(" scheme=\""), hrefAttr = ascii(" href=\""),
+					 transportProfileAttr = ascii(" transportProfile=\"");
+		final Tag participantIdentifier, documentIdentifier, processIdentifier;
+		final Tag referenceCollection, reference, serviceInformation, processList, process, endpointList, endpoint;
+		final Tag requireBLS, minAuthLevel, activationDate, expirationDate, certificate, serviceDescription,
+				  technicalContact, technicalInformation, redirect, certificateUID;
+
+		V1Fragments(final boolean peppol) {
+			final String p = peppol ? "smp" : null, ids = peppol ? "ids" : null;
+			final String nsDecls = peppol ? " xmlns:smp=\"" + PEPPOL + "\" xmlns:ids=\"" + PEPPOL_IDS
+											+ "\" xmlns:wsa=\"" + WSA + "\">"
+										  : " xmlns=\"" + OASIS_V1 + "\">";
+			final Tag sg = new Tag(p, "ServiceGroup"), smd = new Tag(p, "ServiceMetadata");
+			serviceGroupStart = concat(sg.startOpen, ascii(nsDecls));
+			serviceGroupEnd = sg.end;
+			serviceMetadataStart = concat(smd.startOpen, ascii(nsDecls));
+			serviceMetadataEnd = smd.end;
+			addressStart = ascii(peppol ? "<wsa:EndpointReference><wsa:Address>" : "<EndpointURI>");
+			addressEnd = ascii(peppol ? "</wsa:Address></wsa:EndpointReference>" : "</EndpointURI>");
+			noProcess = ascii(" scheme=\"" + (peppol ? IDSchemeRegistry.PEPPOL_PROCID_TRANSPORT
+													: IDSchemeRegistry.OASIS_PROCID_TRANSPORT)
+								+ "\">" + (peppol ? PEPPOL_NO_PROCESS : OASIS_NO_PROCESS));
+			participantIdentifier = new Tag(ids, "ParticipantIdentifier");
+			documentIdentifier = new Tag(ids, "DocumentIdentifier");
+			processIdentifier = new Tag(ids, "ProcessIdentifier");
+			referenceCollection = new Tag(p, "ServiceMetadataReferenceCollection");
+			reference = new Tag(p, "ServiceMetadataReference");
+			serviceInformation = new Tag(p, "ServiceInformation");
+			processList = new Tag(p, "ProcessList");
+			process = new Tag(p, "Process");
+			endpointList = new Tag(p, "ServiceEndpointList");
+			endpoint = new Tag(p, "Endpoint");
+			requireBLS = new Tag(p, "RequireBusinessLevelSignature");
+			minAuthLevel = new Tag(p, "MinimumAuthenticationLevel");
+			activationDate = new Tag(p, "ServiceActivationDate");
+			expirationDate = new Tag(p, "ServiceExpirationDate");
+			certificate = new Tag(p, "Certificate");
+			serviceDescription = new Tag(p, "ServiceDescription");
+			technicalContact = new Tag(p, "TechnicalContactUrl");
+			technicalInformation = new Tag(p, "TechnicalInformationUrl");
+			redirect = new Tag(p, "Redirect");
+			certificateUID = new Tag(p, "CertificateUID");
+		}
+	}
+
+	private static byte[] ascii(final String s) {
+		return s.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static byte[] concat(final byte[] a, final byte[] b) {
+		final byte[] r = new byte[a.length + b.length];
+		System.arraycopy(a, 0, r, 0, a.length);
+		System.arraycopy(b, 0, r, a.length, b.length);
+		return r;
+	}
+
+	/**
+	 * Converts the bit string of a <i>Subject Unique Identifier</i> into the text of the <code>CertificateUID</code>
+	 * element, the inverse of the conversion done by the {@link SMPXMLReader}. As the reader takes the UTF-8 encoded
+	 * bytes of the text, only bit strings that consist of whole bytes forming valid UTF-8 can be written without
+	 * changing the value.
+	 *
+	 * @throws IllegalArgumentException when the bit string is not the UTF-8 encoding of a text
+	 */
+	private static String toText(final boolean[] bits) {
+		if (bits.length % 8 != 0)
+			throw new IllegalArgumentException("Subject Unique Identifier is not a whole number of bytes");
+		final byte[] bytes = new byte[bits.length / 8];
+		for (int i = 0; i < bits.length; i++)
+			if (bits[i])
+				bytes[i >> 3] |= 0x80 >>> (i & 7);
+		try {
+			return StandardCharsets.UTF_8.newDecoder()
+										 .onMalformedInput(CodingErrorAction.REPORT)
+										 .onUnmappableCharacter(CodingErrorAction.REPORT)
+										 .decode(ByteBuffer.wrap(bytes)).toString();
+		} catch (CharacterCodingException e) {
+			throw new IllegalArgumentException("Subject Unique Identifier is not valid UTF-8", e);
+		}
+	}
+}
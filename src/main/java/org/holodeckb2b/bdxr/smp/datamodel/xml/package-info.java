@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * This package contains the classes for reading the XML documents of the PEPPOL, OASIS SMP V1 and OASIS SMP V2
+ * formats into the implementation classes of the data model. The {@link
+ * org.holodeckb2b.bdxr.smp.datamodel.xml.SMPXMLReader} uses a streaming StAX parser, so large documents can be read
+ * without building a DOM tree.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.xml;
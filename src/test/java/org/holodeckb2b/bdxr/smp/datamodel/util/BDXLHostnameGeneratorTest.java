@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IDSchemeRegistry;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.util.BDXLHostnameGenerator.Format;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link BDXLHostnameGenerator} against known host names, so the generator can be checked without DNS.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+class BDXLHostnameGeneratorTest {
+
+	private static final String SML = "edelivery.tech.ec.europa.eu";
+
+	private static final IdentifierImpl PARTICIPANT = new IdentifierImpl("0088:5798000000001",
+																	   IDSchemeRegistry.PARTICIPANT_ISO6523);
+
+	@Test
+	void peppolCname() {
+		assertEquals("B-4c7e158a31c6dfa533dcfaf4b80fb205.iso6523-actorid-upis." + SML,
+					 new BDXLHostnameGenerator(SML, Format.PEPPOL_CNAME).getHostname(PARTICIPANT));
+	}
+
+	@Test
+	void peppolNaptr() {
+		assertEquals("REANA6ASZ6H7DLKFRW4FBJGUE7Z74GX3UTA2OIK2P6TAWTASCTOQ.iso6523-actorid-upis." + SML,
+					 new BDXLHostnameGenerator(SML, Format.PEPPOL_NAPTR).getHostname(PARTICIPANT));
+	}
+
+	@Test
+	void oasisBdxl() {
+		assertEquals("QH3JJB65BDZRRXLJBFTOGLYGEC2VVFYZPRV2FQQVFJOGLWK2E5KQ." + SML,
+					 new BDXLHostnameGenerator(SML, Format.OASIS_BDXL).getHostname(PARTICIPANT));
+		assertEquals("XSBX5P5COUESFHXDGAFBJCBTUZJVVJMPL6MJDZDISODMR3WXCIUA.example.com",
+					 new BDXLHostnameGenerator("example.com", Format.OASIS_BDXL)
+					 	.getHostname(new IdentifierImpl("9915:Test", IDSchemeRegistry.EBCORE_UNREGISTERED)));
+	}
+
+	@Test
+	void ignoresCaseOfCaseInsensitiveIdentifiers() {
+		final IdentifierImpl upper = new IdentifierImpl("0088:5798000000001".toUpperCase(),
+														IDSchemeRegistry.PARTICIPANT_ISO6523);
+		for (Format f : Format.values()) {
+			final BDXLHostnameGenerator generator = new BDXLHostnameGenerator(SML, f, 0);
+			assertEquals(generator.getHostname(PARTICIPANT), generator.getHostname(upper));
+		}
+	}
+
+	@Test
+	void trimsDomain() {
+		assertEquals(new BDXLHostnameGenerator(SML, Format.PEPPOL_CNAME).getHostname(PARTICIPANT),
+					 new BDXLHostnameGenerator("." + SML + ".", Format.PEPPOL_CNAME).getHostname(PARTICIPANT));
+	}
+
+	@Test
+	void cachedAndUncachedAreEqual() {
+		final BDXLHostnameGenerator cached = new BDXLHostnameGenerator(SML, Format.PEPPOL_NAPTR, 1);
+		final BDXLHostnameGenerator uncached = new BDXLHostnameGenerator(SML, Format.PEPPOL_NAPTR, 0);
+		final IdentifierImpl other = new IdentifierImpl("0088:123", IDSchemeRegistry.PARTICIPANT_ISO6523);
+
+		assertEquals(uncached.getHostnames(Arrays.asList(PARTICIPANT, other, PARTICIPANT)),
+					 cached.getHostnames(Arrays.asList(PARTICIPANT, other, PARTICIPANT)));
+	}
+
+	@Test
+	void peppolFormatsRequireScheme() {
+		final IdentifierImpl noScheme = new IdentifierImpl("0088:5798000000001", (String) null);
+
+		assertThrows(IllegalArgumentException.class,
+					() -> new BDXLHostnameGenerator(SML, Format.PEPPOL_CNAME).getHostname(noScheme));
+		assertThrows(IllegalArgumentException.class,
+					() -> new BDXLHostnameGenerator(SML, Format.PEPPOL_NAPTR).getHostname(noScheme));
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfo;
+import org.holodeckb2b.bdxr.smp.datamodel.EndpointInfoV1;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV1;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceReference;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierPool;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceGroupV2Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceMetadataImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.SignedServiceMetadataImpl;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link SMPXMLReader} using the documents in the <code>xml</code> test resources.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+class SMPXMLReaderTest {
+
+	private static InputStream resource(final String name) {
+		final InputStream is = SMPXMLReaderTest.class.getResourceAsStream("/xml/" + name + ".xml");
+		assertNotNull(is, "Missing test document " + name);
+		return is;
+	}
+
+	private static <T> T read(final String name, final Class<T> type) throws IOException {
+		try (InputStream is = resource(name)) {
+			return assertInstanceOf(type, new SMPXMLReader().read(is));
+		}
+	}
+
+	@Test
+	void readsSignedPeppolServiceMetadata() throws IOException {
+		final SignedServiceMetadataImpl smd = read("peppol", SignedServiceMetadataImpl.class);
+
+		assertEquals("0088:123456789", smd.getParticipantId().getValue());
+		assertEquals("iso6523-actorid-upis", smd.getParticipantId().getScheme().getSchemeId());
+		assertEquals("busdox-docid-qns", smd.getServiceId().getScheme().getSchemeId());
+		assertNotNull(smd.getSigningCertificate());
+		assertEquals(2, smd.getProcessMetadata().size());
+		boolean noProcess = false;
+		for (ProcessGroup pg : smd.getProcessMetadata()) {
+			assertEquals(1, pg.getProcessInfo().size());
+			assertEquals(1, pg.getEndpoints().size());
+			final EndpointInfoV1 ep = (EndpointInfoV1) pg.getEndpoints().iterator().next();
+			assertEquals(1, ep.getCertificates().size());
+			assertNotNull(ep.getCertificates().iterator().next().getX509Cert());
+			noProcess |= pg.getProcessInfo().iterator().next().getProcessId().isNoProcess();
+		}
+		assertTrue(noProcess);
+	}
+
+	@Test
+	void readsOasisV1ServiceMetadata() throws IOException {
+		final ServiceMetadataImpl smd = read("oasis1", ServiceMetadataImpl.class);
+
+		// The scheme of the participant identifier is case insensitive
+		assertTrue("ABC".equalsIgnoreCase(smd.getParticipantId().getValue()));
+		assertEquals("doc-1", smd.getServiceId().getValue());
+		final ProcessGroup pg = smd.getProcessMetadata().iterator().next();
+		assertTrue(pg.getProcessInfo().iterator().next().getProcessId().isNoProcess());
+		final EndpointInfo ep = pg.getEndpoints().iterator().next();
+		assertEquals("bdxr-transport-ebms3-as4-v1p0", ep.getTransportProfile());
+		assertEquals(new URL("https://ap.example.com/as4").toString(), ep.getEndpointURL().toString());
+		assertEquals(Boolean.FALSE, ((EndpointInfoV1) ep).getBusinessLevelSignatureRequired());
+	}
+
+	@Test
+	void readsOasisV1Redirect() throws IOException {
+		final ServiceMetadataImpl smd = read("oasis1-redirect", ServiceMetadataImpl.class);
+
+		final RedirectionV1 redirect = assertInstanceOf(RedirectionV1.class,
+														smd.getProcessMetadata().iterator().next().getRedirection());
+		assertEquals("https://other.example.com/smp", redirect.getNewSMPURL().toString());
+		assertEquals("SMP_1".length() * 8, redirect.getSMPSubjectUniqueID().length);
+	}
+
+	@Test
+	void readsV1ServiceGroup() throws IOException {
+		final ServiceGroupV1Impl sg = read("sg1", ServiceGroupV1Impl.class);
+
+		assertEquals("0088:123", sg.getParticipantId().getValue());
+		// The first two references only differ in the case of the host name and the explicit default port
+		assertEquals(2, sg.getServiceReferences().size());
+	}
+
+	@Test
+	void readsV2ServiceGroup() throws IOException {
+		final ServiceGroupV2Impl sg = read("sg2", ServiceGroupV2Impl.class);
+
+		assertEquals("0088:1", sg.getParticipantId().getValue());
+		assertEquals(2, sg.getServiceReferences().size());
+		for (ServiceReference ref : sg.getServiceReferences())
+			if ("doc-a".equals(ref.getServiceId().getValue()))
+				assertEquals(1, ref.getProcessInfo().size());
+			else
+				assertTrue(ref.getProcessInfo() == null || ref.getProcessInfo().isEmpty());
+	}
+
+	@Test
+	void readsV2ServiceMetadata() throws IOException {
+		final ServiceMetadataImpl smd = read("smd2", ServiceMetadataImpl.class);
+
+		assertEquals("1234", smd.getParticipantId().getValue());
+		assertEquals(2, smd.getProcessMetadata().size());
+		for (ProcessGroup pg : smd.getProcessMetadata())
+			if (pg.getRedirection() != null) {
+				assertTrue(pg.getEndpoints() == null || pg.getEndpoints().isEmpty());
+				assertNotNull(((RedirectionV2) pg.getRedirection()).getSMPCertificate());
+			} else {
+				assertEquals(2, pg.getProcessInfo().iterator().next().getRoles().size());
+				assertEquals(2, pg.getEndpoints().iterator().next().getCertificates().size());
+			}
+	}
+
+	@Test
+	void takesIdentifiersFromPool() throws IOException {
+		final IdentifierPool pool = new IdentifierPool(16);
+		final SMPXMLReader reader = new SMPXMLReader(pool);
+		final ServiceMetadataImpl first, second;
+		try (InputStream is = resource("peppol")) {
+			first = reader.read(is, ServiceMetadataImpl.class);
+		}
+		try (InputStream is = resource("peppol")) {
+			second = reader.read(is, ServiceMetadataImpl.class);
+		}
+		assertSame(first.getParticipantId(), second.getParticipantId());
+		assertSame(first.getServiceId(), second.getServiceId());
+	}
+
+	@Test
+	void rejectsExternalEntities() {
+		assertThrows(IOException.class, () -> read("xxe", Object.class));
+	}
+
+	@Test
+	void rejectsEntityExpansion() {
+		assertThrows(IOException.class, () -> read("bomb", Object.class));
+	}
+
+	@Test
+	void rejectsMalformedDocument() {
+		assertThrows(IOException.class, () -> read("broken", Object.class));
+	}
+
+	@Test
+	void rejectsUnknownDocument() {
+		assertThrows(IOException.class, () -> read("unknown", Object.class));
+	}
+
+	@Test
+	void rejectsUnexpectedType() {
+		assertThrows(IOException.class, () -> {
+			try (InputStream is = resource("sg1")) {
+				new SMPXMLReader().read(is, ServiceMetadataImpl.class);
+			}
+		});
+	}
+
+	@Test
+	void rejectsEmptyDocument() {
+		assertThrows(IOException.class,
+					() -> new SMPXMLReader().read(new ByteArrayInputStream("".getBytes(StandardCharsets.UTF_8))));
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 The Holodeck B2B Team
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.holodeckb2b.bdxr.smp.datamodel.xml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.cert.X509Certificate;
+import org.holodeckb2b.bdxr.smp.datamodel.ProcessGroup;
+import org.holodeckb2b.bdxr.smp.datamodel.QueryResult;
+import org.holodeckb2b.bdxr.smp.datamodel.Redirection;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV1;
+import org.holodeckb2b.bdxr.smp.datamodel.RedirectionV2;
+import org.holodeckb2b.bdxr.smp.datamodel.ServiceMetadata;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.IdentifierImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ProcessGroupImpl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.RedirectionV1Impl;
+import org.holodeckb2b.bdxr.smp.datamodel.impl.ServiceMetadataImpl;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link SMPXMLWriter} by reading back the written documents with the {@link SMPXMLReader}.
+ *
+ * @author Sander Fieten (sander at holodeck-b2b.org)
+ */
+class SMPXMLWriterTest {
+
+	private static QueryResult read(final String name) throws IOException {
+		try (InputStream is = SMPXMLWriterTest.class.getResourceAsStream("/xml/" + name + ".xml")) {
+			assertNotNull(is, "Missing test document " + name);
+			return new SMPXMLReader().read(is);
+		}
+	}
+
+	private static QueryResult roundTrip(final QueryResult r, final SMPXMLWriter writer) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.write(r, out);
+		return new SMPXMLReader().read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	private static Redirection redirection(final QueryResult r) {
+		return ((ServiceMetadata) r).getProcessMetadata().iterator().next().getRedirection();
+	}
+
+	private static X509Certificate redirectCertificate(final QueryResult r) {
+		for (ProcessGroup pg : ((ServiceMetadata) r).getProcessMetadata())
+			if (pg.getRedirection() != null)
+				return ((RedirectionV2) pg.getRedirection()).getSMPCertificate();
+		return null;
+	}
+
+	private static ServiceMetadataImpl redirectTo(final boolean[] subjectUID) throws IOException {
+		final ProcessGroupImpl pg = new ProcessGroupImpl();
+		pg.setRedirection(new RedirectionV1Impl(new URL("https://other.example.com/smp"), subjectUID));
+		final ServiceMetadataImpl smd = new ServiceMetadataImpl();
+		smd.addProcessGroup(pg);
+		return smd;
+	}
+
+	@Test
+	void keepsV1RedirectSubjectUID() throws IOException {
+		final QueryResult smd = read("oasis1-redirect");
+		final RedirectionV1 src = assertInstanceOf(RedirectionV1.class, redirection(smd));
+
+		final QueryResult copy = roundTrip(smd, new SMPXMLWriter(SMPFormat.OASIS_V1));
+
+		assertArrayEquals(src.getSMPSubjectUniqueID(),
+						  assertInstanceOf(RedirectionV1.class, redirection(copy)).getSMPSubjectUniqueID());
+	}
+
+	@Test
+	void rejectsSubjectUIDThatIsNotText() throws IOException {
+		final boolean[] invalidUTF8 = new boolean[16];
+		invalidUTF8[0] = invalidUTF8[8] = true;
+		final SMPXMLWriter writer = new SMPXMLWriter(SMPFormat.OASIS_V1);
+
+		assertThrows(IllegalArgumentException.class,
+					 () -> writer.write(redirectTo(invalidUTF8), new ByteArrayOutputStream()));
+		assertThrows(IllegalArgumentException.class,
+					 () -> writer.write(redirectTo(new boolean[] { true }), new ByteArrayOutputStream()));
+	}
+
+	@Test
+	void keepsV2RedirectCertificate() throws IOException {
+		final QueryResult smd = read("smd2");
+		final X509Certificate cert = redirectCertificate(smd);
+		assertNotNull(cert);
+		final SMPXMLWriter writer = new SMPXMLWriter(SMPFormat.OASIS_V2);
+
+		assertEquals(cert, redirectCertificate(roundTrip(smd, writer)));
+		assertEquals(cert, redirectCertificate(roundTrip(smd, writer)));
+	}
+
+	@Test
+	void rejectsMissingRequiredIdentifier() {
+		final ServiceMetadataImpl smd = new ServiceMetadataImpl(null, new IdentifierImpl("doc"), null, null);
+		smd.addProcessGroup(new ProcessGroupImpl());
+
+		for (SMPFormat format : SMPFormat.values())
+			assertThrows(IllegalArgumentException.class,
+						 () -> new SMPXMLWriter(format).write(smd, new ByteArrayOutputStream()));
+	}
+}